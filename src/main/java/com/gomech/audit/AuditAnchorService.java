@@ -0,0 +1,219 @@
+package com.gomech.audit;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Audit.AuditProofResponse;
+import com.gomech.model.AuditAnchor;
+import com.gomech.model.AuditAnchorStatus;
+import com.gomech.model.AuditEvent;
+import com.gomech.repository.AuditAnchorRepository;
+import com.gomech.repository.AuditEventRepository;
+import com.gomech.service.BlockchainService;
+import com.gomech.service.EncryptionService;
+import com.gomech.util.MerkleTree;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ancoragem dos eventos de auditoria na blockchain em lotes.
+ * <p>
+ * A cada janela os hashes dos eventos ainda não ancorados formam uma árvore de Merkle; a raiz é gravada
+ * em {@code audit_anchors} e cada evento recebe sua prova de inclusão, na mesma transação. Somente a raiz
+ * é publicada, a partir do outbox: falhas reagendam a âncora com backoff exponencial até
+ * {@code max-attempts}, quando ela passa a {@code FAILED}.
+ * <p>
+ * As folhas de cada lote são reservadas com {@code FOR UPDATE SKIP LOCKED} na transação que grava a âncora:
+ * instâncias que fecham a janela ao mesmo tempo ancoram lotes disjuntos.
+ */
+@Service
+public class AuditAnchorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditAnchorService.class);
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditAnchorRepository auditAnchorRepository;
+    private final BlockchainService blockchainService;
+    private final EncryptionService encryptionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLeaves;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+
+    public AuditAnchorService(AuditEventRepository auditEventRepository,
+                              AuditAnchorRepository auditAnchorRepository,
+                              BlockchainService blockchainService,
+                              EncryptionService encryptionService,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${audit.anchor.max-leaves:4096}") int maxLeaves,
+                              @Value("${audit.anchor.max-attempts:10}") int maxAttempts,
+                              @Value("${audit.anchor.retry-backoff-seconds:30}") long retryBackoffSeconds,
+                              @Value("${audit.anchor.max-retry-backoff-seconds:3600}") long maxRetryBackoffSeconds) {
+        this.auditEventRepository = auditEventRepository;
+        this.auditAnchorRepository = auditAnchorRepository;
+        this.blockchainService = blockchainService;
+        this.encryptionService = encryptionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLeaves = maxLeaves;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+        this.maxRetryBackoff = Duration.ofSeconds(maxRetryBackoffSeconds);
+        this.publishedCounter = meterRegistry.counter("audit.anchor.published");
+        this.failureCounter = meterRegistry.counter("audit.anchor.failures");
+    }
+
+    /**
+     * Fecha a janela atual: agrupa os eventos não ancorados em árvores de até {@code max-leaves} folhas.
+     *
+     * @return quantidade de âncoras criadas
+     */
+    public int sealPendingEvents() {
+        int created = 0;
+        while (true) {
+            Integer sealed = transactionTemplate.execute(status -> seal());
+            if (sealed == null || sealed == 0) {
+                return created;
+            }
+            created++;
+            if (sealed < maxLeaves) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Reserva até {@code max-leaves} eventos não ancorados e grava a âncora deles; deve rodar em transação.
+     *
+     * @return quantidade de folhas ancoradas
+     */
+    private int seal() {
+        List<PendingLeaf> leaves = jdbcTemplate.query(
+                "SELECT id, event_hash FROM audit_events WHERE anchor_id IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new PendingLeaf(rs.getLong("id"), rs.getString("event_hash")),
+                maxLeaves);
+        if (leaves.isEmpty()) {
+            return 0;
+        }
+        List<String> hashes = new ArrayList<>(leaves.size());
+        for (PendingLeaf leaf : leaves) {
+            hashes.add(leaf.eventHash());
+        }
+        MerkleTree tree = MerkleTree.build(hashes);
+        AuditAnchor anchor = auditAnchorRepository.save(new AuditAnchor(
+                tree.root(), leaves.size(), leaves.get(0).eventId(), leaves.get(leaves.size() - 1).eventId()));
+
+        List<Object[]> updates = new ArrayList<>(leaves.size());
+        for (int i = 0; i < leaves.size(); i++) {
+            updates.add(new Object[]{anchor.getId(), i, tree.proof(i), leaves.get(i).eventId()});
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE audit_events SET anchor_id = ?, merkle_leaf_index = ?, merkle_proof = ? WHERE id = ? AND anchor_id IS NULL",
+                updates);
+        return leaves.size();
+    }
+
+    /**
+     * Publica as âncoras pendentes cujo horário de nova tentativa já chegou.
+     *
+     * @return quantidade de âncoras publicadas com sucesso
+     */
+    public int publishDueAnchors() {
+        int published = 0;
+        for (AuditAnchor anchor : auditAnchorRepository
+                .findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(AuditAnchorStatus.PENDING, Instant.now())) {
+            if (publish(anchor)) {
+                published++;
+            }
+        }
+        return published;
+    }
+
+    private boolean publish(AuditAnchor anchor) {
+        try {
+            String transactionHash = blockchainService.anchorMerkleRoot(anchor);
+            transactionTemplate.executeWithoutResult(status -> {
+                anchor.setStatus(AuditAnchorStatus.ANCHORED);
+                anchor.setTransactionHash(transactionHash);
+                anchor.setAnchoredAt(Instant.now());
+                anchor.setAttempts(anchor.getAttempts() + 1);
+                anchor.setLastError(null);
+                auditAnchorRepository.save(anchor);
+                jdbcTemplate.update("UPDATE audit_events SET blockchain_reference = ? WHERE anchor_id = ?",
+                        transactionHash, anchor.getId());
+            });
+            publishedCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            int attempts = anchor.getAttempts() + 1;
+            anchor.setAttempts(attempts);
+            anchor.setLastError(truncate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                anchor.setStatus(AuditAnchorStatus.FAILED);
+                LOGGER.error("Âncora de auditoria {} descartada após {} tentativas: {}", anchor.getId(), attempts, e.getMessage());
+            } else {
+                anchor.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                LOGGER.warn("Falha ao publicar âncora de auditoria {} (tentativa {}): {}", anchor.getId(), attempts, e.getMessage());
+            }
+            auditAnchorRepository.save(anchor);
+            return false;
+        }
+    }
+
+    /**
+     * Recalcula o hash do payload e a prova de inclusão do evento da organização atual contra a raiz registrada.
+     * Eventos de outra organização respondem 404.
+     */
+    public AuditProofResponse verify(Long eventId) {
+        AuditEvent event = auditEventRepository.findByIdAndOrganizationId(eventId, OrganizationContext.requireOrganizationId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Evento de auditoria não encontrado"));
+        boolean payloadHashValid = event.getPayload() != null
+                && encryptionService.sha256(event.getPayload()).equals(event.getEventHash());
+
+        AuditAnchor anchor = event.getAnchorId() != null
+                ? auditAnchorRepository.findById(event.getAnchorId()).orElse(null)
+                : null;
+        if (anchor == null) {
+            return new AuditProofResponse(event.getId(), event.getEventHash(), payloadHashValid,
+                    null, null, null, null, null, null, false);
+        }
+        boolean proofValid = MerkleTree.verify(event.getEventHash(), event.getMerkleProof(), anchor.getMerkleRoot());
+        return new AuditProofResponse(event.getId(), event.getEventHash(), payloadHashValid,
+                anchor.getId(), event.getMerkleLeafIndex(), event.getMerkleProof(), anchor.getMerkleRoot(),
+                anchor.getStatus(), anchor.getTransactionHash(), proofValid);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private record PendingLeaf(long eventId, String eventHash) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.gomech.audit;
+
+import com.gomech.model.AuditEvent;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserção de eventos de auditoria em lote via JDBC (um único round-trip por lote).
+ * O lote é encadeado pelo {@link AuditHashChain} na mesma transação do insert.
+ */
+@Component
+public class AuditBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_events (organization_id, event_type, payload, operation, user_email, module_name,
+                                      user_role, entity_id, occurred_at, event_hash, blockchain_reference, created_at,
+                                      chain_seq, prev_hash, chain_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditHashChain hashChain;
+
+    public AuditBatchWriter(JdbcTemplate jdbcTemplate, AuditHashChain hashChain) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hashChain = hashChain;
+    }
+
+    @Transactional
+    public void insert(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        hashChain.link(events);
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditEvent event = events.get(i);
+                if (event.getOrganization() != null && event.getOrganization().getId() != null) {
+                    ps.setLong(1, event.getOrganization().getId());
+                } else {
+                    ps.setNull(1, Types.BIGINT);
+                }
+                ps.setString(2, event.getEventType());
+                ps.setString(3, event.getPayload());
+                ps.setString(4, event.getOperation());
+                ps.setString(5, event.getUserEmail());
+                ps.setString(6, event.getModuleName());
+                ps.setString(7, event.getUserRole());
+                if (event.getEntityId() != null) {
+                    ps.setLong(8, event.getEntityId());
+                } else {
+                    ps.setNull(8, Types.BIGINT);
+                }
+                ps.setTimestamp(9, Timestamp.valueOf(event.getOccurredAt()));
+                ps.setString(10, event.getEventHash());
+                ps.setString(11, event.getBlockchainReference());
+                ps.setTimestamp(12, Timestamp.from(event.getCreatedAt()));
+                ps.setLong(13, event.getChainSeq());
+                ps.setString(14, event.getPrevHash());
+                ps.setString(15, event.getChainHash());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,226 @@
+package com.gomech.audit;
+
+import com.gomech.dto.Audit.AuditChainReport;
+import com.gomech.dto.Audit.AuditChainResult;
+import com.gomech.service.EncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verificação incremental das cadeias de hash de auditoria.
+ * <p>
+ * Cada cadeia é lida em blocos por keyset ({@code chain_seq > ?}); os blocos de uma rodada são verificados
+ * em paralelo (sequência contínua, {@code prev_hash}, {@code chain_hash} e hash do payload), pois cada bloco
+ * carrega o hash de fronteira do bloco anterior. O checkpoint em {@code audit_chain_checkpoints} avança apenas
+ * até o último bloco contíguo válido, de modo que a execução seguinte verifica somente eventos novos.
+ * A verificação completa ({@code full}) ignora o checkpoint e detecta alterações em eventos já verificados.
+ * Eventos de partições arquivadas entram pelos elos de {@code audit_chain_archived_links}; para eles o hash do
+ * payload não é recalculado (o conteúdo está no arquivo, protegido pelo checksum registrado).
+ */
+@Service
+public class AuditChainVerifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    private static final String CHUNK_SQL = """
+            SELECT chain_seq, prev_hash, chain_hash, event_hash, payload, FALSE AS archived
+            FROM audit_events
+            WHERE COALESCE(organization_id, 0) = ? AND chain_seq > ?
+            UNION ALL
+            SELECT chain_seq, prev_hash, chain_hash, event_hash, NULL, TRUE
+            FROM audit_chain_archived_links
+            WHERE organization_key = ? AND chain_seq > ?
+            ORDER BY chain_seq
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditHashChain hashChain;
+    private final EncryptionService encryptionService;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Counter violations;
+
+    public AuditChainVerifier(JdbcTemplate jdbcTemplate,
+                              AuditHashChain hashChain,
+                              EncryptionService encryptionService,
+                              MeterRegistry meterRegistry,
+                              @Value("${audit.chain.verify-threads:0}") int threads,
+                              @Value("${audit.chain.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hashChain = hashChain;
+        this.encryptionService = encryptionService;
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "audit-chain-verify-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.violations = meterRegistry.counter("audit.chain.violations");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public AuditChainReport verifyAll(boolean full) {
+        Instant startedAt = Instant.now();
+        List<AuditChainResult> results = new ArrayList<>();
+        for (Long organizationKey : jdbcTemplate.queryForList(
+                "SELECT organization_key FROM audit_chain_heads ORDER BY organization_key", Long.class)) {
+            results.add(verifyChain(organizationKey, full));
+        }
+        return report(startedAt, results);
+    }
+
+    public AuditChainReport verifyOrganization(Long organizationId, boolean full) {
+        Instant startedAt = Instant.now();
+        long organizationKey = organizationId != null ? organizationId : AuditHashChain.NO_ORGANIZATION_KEY;
+        return report(startedAt, List.of(verifyChain(organizationKey, full)));
+    }
+
+    private AuditChainResult verifyChain(long organizationKey, boolean full) {
+        List<Map<String, Object>> heads = jdbcTemplate.queryForList(
+                "SELECT last_seq FROM audit_chain_heads WHERE organization_key = ?", organizationKey);
+        long headSeq = heads.isEmpty() ? 0 : ((Number) heads.get(0).get("last_seq")).longValue();
+
+        Checkpoint checkpoint = full ? Checkpoint.GENESIS : loadCheckpoint(organizationKey);
+        long fromSeq = checkpoint.lastSeq() + 1;
+        long verifiedSeq = checkpoint.lastSeq();
+        String verifiedHash = checkpoint.lastHash();
+        long checked = 0;
+
+        boolean exhausted = false;
+        while (!exhausted) {
+            // Leitura sequencial de uma rodada de blocos; a verificação de cada bloco roda em paralelo
+            List<CompletableFuture<ChunkResult>> round = new ArrayList<>(parallelism);
+            long readSeq = verifiedSeq;
+            String boundaryHash = verifiedHash;
+            while (round.size() < parallelism) {
+                List<ChainRow> rows = jdbcTemplate.query(CHUNK_SQL, (rs, rowNum) -> new ChainRow(
+                        rs.getLong("chain_seq"), rs.getString("prev_hash"), rs.getString("chain_hash"),
+                        rs.getString("event_hash"), rs.getString("payload"), rs.getBoolean("archived")),
+                        organizationKey, readSeq, organizationKey, readSeq, chunkSize);
+                if (rows.isEmpty()) {
+                    exhausted = true;
+                    break;
+                }
+                long expectedSeq = readSeq + 1;
+                String expectedPrevious = boundaryHash;
+                round.add(CompletableFuture.supplyAsync(() -> verifyChunk(rows, expectedSeq, expectedPrevious), executor));
+                ChainRow last = rows.get(rows.size() - 1);
+                readSeq = last.seq();
+                boundaryHash = last.chainHash();
+                if (rows.size() < chunkSize) {
+                    exhausted = true;
+                    break;
+                }
+            }
+
+            for (CompletableFuture<ChunkResult> future : round) {
+                ChunkResult result = future.join();
+                checked += result.checked();
+                if (result.brokenAtSeq() != null) {
+                    saveCheckpoint(organizationKey, verifiedSeq, verifiedHash);
+                    return violation(organizationKey, fromSeq, verifiedSeq, checked, result.brokenAtSeq(), result.reason());
+                }
+                verifiedSeq = result.lastSeq();
+                verifiedHash = result.lastHash();
+            }
+            saveCheckpoint(organizationKey, verifiedSeq, verifiedHash);
+        }
+
+        if (verifiedSeq < headSeq) {
+            return violation(organizationKey, fromSeq, verifiedSeq, checked, verifiedSeq + 1,
+                    "Eventos ausentes: cabeça da cadeia em " + headSeq);
+        }
+        return new AuditChainResult(organizationKey, fromSeq, verifiedSeq, checked, true, null, null);
+    }
+
+    private ChunkResult verifyChunk(List<ChainRow> rows, long expectedSeq, String expectedPrevious) {
+        long seq = expectedSeq;
+        String previous = expectedPrevious;
+        for (int i = 0; i < rows.size(); i++) {
+            ChainRow row = rows.get(i);
+            String reason = null;
+            if (row.seq() != seq) {
+                reason = "Sequência interrompida: esperado " + seq;
+            } else if (!previous.equals(row.prevHash())) {
+                reason = "prev_hash não corresponde ao evento anterior";
+            } else if (!row.archived()
+                    && (row.payload() == null || !encryptionService.sha256(row.payload()).equals(row.eventHash()))) {
+                reason = "Hash do payload não confere";
+            } else if (!hashChain.chainHash(previous, row.eventHash()).equals(row.chainHash())) {
+                reason = "chain_hash não confere";
+            }
+            if (reason != null) {
+                return new ChunkResult(i, seq - 1, previous, seq, reason);
+            }
+            previous = row.chainHash();
+            seq++;
+        }
+        return new ChunkResult(rows.size(), seq - 1, previous, null, null);
+    }
+
+    private AuditChainResult violation(long organizationKey, long fromSeq, long verifiedSeq, long checked,
+                                       long brokenAtSeq, String reason) {
+        violations.increment();
+        LOGGER.error("Cadeia de auditoria da organização {} violada na sequência {}: {}", organizationKey, brokenAtSeq, reason);
+        return new AuditChainResult(organizationKey, fromSeq, verifiedSeq, checked, false, brokenAtSeq, reason);
+    }
+
+    private Checkpoint loadCheckpoint(long organizationKey) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT last_seq, last_hash FROM audit_chain_checkpoints WHERE organization_key = ?",
+                (rs, rowNum) -> new Checkpoint(rs.getLong("last_seq"), rs.getString("last_hash")), organizationKey);
+        return checkpoints.isEmpty() ? Checkpoint.GENESIS : checkpoints.get(0);
+    }
+
+    private void saveCheckpoint(long organizationKey, long lastSeq, String lastHash) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update(
+                "UPDATE audit_chain_checkpoints SET last_seq = ?, last_hash = ?, verified_at = ? WHERE organization_key = ?",
+                lastSeq, lastHash, now, organizationKey);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO audit_chain_checkpoints (organization_key, last_seq, last_hash, verified_at) VALUES (?, ?, ?, ?)",
+                    organizationKey, lastSeq, lastHash, now);
+        }
+    }
+
+    private static AuditChainReport report(Instant startedAt, List<AuditChainResult> results) {
+        boolean valid = results.stream().allMatch(AuditChainResult::valid);
+        return new AuditChainReport(startedAt, Instant.now(), valid, results);
+    }
+
+    private record ChainRow(long seq, String prevHash, String chainHash, String eventHash, String payload,
+                            boolean archived) {
+    }
+
+    private record ChunkResult(int checked, long lastSeq, String lastHash, Long brokenAtSeq, String reason) {
+    }
+
+    private record Checkpoint(long lastSeq, String lastHash) {
+        static final Checkpoint GENESIS = new Checkpoint(0, AuditHashChain.GENESIS_HASH);
+    }
+}
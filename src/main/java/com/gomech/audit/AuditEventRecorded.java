@@ -0,0 +1,12 @@
+package com.gomech.audit;
+
+import com.gomech.dto.Audit.AuditEventRequest;
+
+import java.time.Instant;
+
+/**
+ * Evento de auditoria capturado na thread da requisição e persistido de forma assíncrona.
+ * A organização é capturada no momento do registro, pois o writer não possui o contexto da requisição.
+ */
+public record AuditEventRecorded(AuditEventRequest request, Long organizationId, Instant registeredAt) {
+}
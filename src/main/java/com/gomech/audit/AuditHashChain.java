@@ -0,0 +1,111 @@
+package com.gomech.audit;
+
+import com.gomech.model.AuditEvent;
+import com.gomech.service.EncryptionService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Encadeamento de hashes dos eventos de auditoria, independente por organização.
+ * <p>
+ * Cada evento recebe o próximo número de sequência da sua cadeia, o hash de encadeamento do antecessor
+ * ({@code prev_hash}) e o próprio hash de encadeamento {@code sha256(prev_hash | event_hash)}.
+ * A cabeça de cada cadeia fica em {@code audit_chain_heads} e é bloqueada ({@code FOR UPDATE}) até o commit,
+ * serializando escritores concorrentes, inclusive entre instâncias. Eventos sem organização usam a chave 0.
+ */
+@Component
+public class AuditHashChain {
+
+    public static final long NO_ORGANIZATION_KEY = 0L;
+    public static final String GENESIS_HASH = "";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EncryptionService encryptionService;
+    private final TransactionTemplate newTransaction;
+
+    public AuditHashChain(JdbcTemplate jdbcTemplate,
+                          EncryptionService encryptionService,
+                          PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encryptionService = encryptionService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Atribui sequência e hashes de encadeamento aos eventos, na ordem da lista.
+     * Deve rodar na mesma transação que insere os eventos.
+     */
+    public void link(List<AuditEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Encadeamento de auditoria requer transação ativa");
+        }
+        // Ordem fixa de bloqueio entre organizações evita deadlock entre lotes concorrentes
+        Map<Long, List<AuditEvent>> byOrganization = new TreeMap<>();
+        for (AuditEvent event : events) {
+            byOrganization.computeIfAbsent(organizationKey(event), key -> new ArrayList<>()).add(event);
+        }
+        byOrganization.forEach(this::linkOrganization);
+    }
+
+    private void linkOrganization(Long organizationKey, List<AuditEvent> events) {
+        List<Map<String, Object>> heads = lockHead(organizationKey);
+        if (heads.isEmpty()) {
+            createHead(organizationKey);
+            heads = lockHead(organizationKey);
+        }
+        Map<String, Object> head = heads.get(0);
+
+        long sequence = ((Number) head.get("last_seq")).longValue();
+        String previousHash = (String) head.get("last_hash");
+        for (AuditEvent event : events) {
+            sequence++;
+            String chainHash = chainHash(previousHash, event.getEventHash());
+            event.setChainSeq(sequence);
+            event.setPrevHash(previousHash);
+            event.setChainHash(chainHash);
+            previousHash = chainHash;
+        }
+        jdbcTemplate.update("UPDATE audit_chain_heads SET last_seq = ?, last_hash = ? WHERE organization_key = ?",
+                sequence, previousHash, organizationKey);
+    }
+
+    private List<Map<String, Object>> lockHead(Long organizationKey) {
+        return jdbcTemplate.queryForList(
+                "SELECT last_seq, last_hash FROM audit_chain_heads WHERE organization_key = ? FOR UPDATE", organizationKey);
+    }
+
+    /**
+     * Cria a cabeça da cadeia em transação própria, para que a corrida com outro escritor
+     * (chave duplicada) não invalide a transação do lote.
+     */
+    private void createHead(Long organizationKey) {
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO audit_chain_heads (organization_key, last_seq, last_hash) VALUES (?, 0, ?)",
+                    organizationKey, GENESIS_HASH));
+        } catch (DuplicateKeyException e) {
+            // Outro escritor criou a cabeça primeiro
+        }
+    }
+
+    public String chainHash(String previousHash, String eventHash) {
+        return encryptionService.sha256(previousHash + "|" + eventHash);
+    }
+
+    public static long organizationKey(AuditEvent event) {
+        return event.getOrganization() != null && event.getOrganization().getId() != null
+                ? event.getOrganization().getId()
+                : NO_ORGANIZATION_KEY;
+    }
+}
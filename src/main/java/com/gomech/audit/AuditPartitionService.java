@@ -0,0 +1,236 @@
+package com.gomech.audit;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gestão das partições mensais de {@code audit_events} (PostgreSQL, ver migração V13).
+ * <ul>
+ *     <li>Cria com antecedência as partições dos próximos {@code months-ahead} meses, evitando que eventos
+ *     caiam na partição default.</li>
+ *     <li>Partições anteriores a {@code retention-months} são desanexadas, exportadas em CSV gzip para
+ *     {@code archive-directory}, registradas em {@code audit_partition_archives} com checksum SHA-256 e removidas.
+ *     Os elos da cadeia de hashes são copiados para {@code audit_chain_archived_links} antes do DROP.</li>
+ * </ul>
+ * Cada DDL roda na própria transação (o pool pode estar com auto-commit desligado); o DETACH é confirmado antes
+ * da exportação, para que o DROP final atinja uma tabela já fora de {@code audit_events}.
+ * <p>
+ * A partição default ({@code audit_events_default}) não é arquivada: ela mistura meses e não pode ser desanexada
+ * por período. Só recebe eventos de meses sem partição (ex.: {@code occurred_at} muito antigo), o que a criação
+ * antecipada evita; quando há eventos dela anteriores à retenção, a rotina registra um aviso para tratamento manual.
+ * <p>
+ * Em bancos sem particionamento (ex.: H2 nos testes) as rotinas não fazem nada.
+ */
+@Service
+public class AuditPartitionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditPartitionService.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_events_y(\\d{4})m(\\d{2})");
+
+    public record ArchivedPartition(String name, YearMonth month, long rows, Path file, String checksum) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path archiveDirectory;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private volatile Boolean partitioned;
+
+    public AuditPartitionService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${audit.partition.archive-directory:archives/audit}") String archiveDirectory,
+                                 @Value("${audit.partition.months-ahead:3}") int monthsAhead,
+                                 @Value("${audit.partition.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveDirectory = Path.of(archiveDirectory);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * @return partições criadas nesta execução
+     */
+    public List<String> createFuturePartitions() {
+        List<String> created = new ArrayList<>();
+        if (!isPartitioned()) {
+            return created;
+        }
+        List<String> existing = partitionNames(true);
+        YearMonth current = YearMonth.now();
+        for (int offset = 0; offset <= monthsAhead; offset++) {
+            YearMonth month = current.plusMonths(offset);
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS "
+                        + name + " PARTITION OF audit_events FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                        + month.plusMonths(1).atDay(1) + "')"));
+                created.add(name);
+            } catch (RuntimeException e) {
+                // Ocorre quando a partição default já contém linhas do intervalo
+                LOGGER.warn("Não foi possível criar a partição de auditoria {}: {}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Arquiva as partições (anexadas ou já desanexadas por uma execução interrompida) anteriores à retenção.
+     */
+    public List<ArchivedPartition> archiveExpiredPartitions() {
+        List<ArchivedPartition> archived = new ArrayList<>();
+        if (!isPartitioned()) {
+            return archived;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<String> attached = partitionNames(true);
+        for (String name : partitionNames(false)) {
+            YearMonth month = monthOf(name);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                archived.add(archive(name, month, attached.contains(name)));
+            } catch (RuntimeException | IOException e) {
+                LOGGER.error("Falha ao arquivar a partição de auditoria {}", name, e);
+            }
+        }
+        warnAboutExpiredDefaultRows(cutoff);
+        return archived;
+    }
+
+    private ArchivedPartition archive(String name, YearMonth month, boolean attached) throws IOException {
+        if (attached) {
+            // Confirmado antes da exportação: uma falha adiante deixa a tabela desanexada para a próxima execução
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.execute("ALTER TABLE audit_events DETACH PARTITION " + name));
+        }
+
+        Files.createDirectories(archiveDirectory);
+        Path target = archiveDirectory.resolve(name + ".csv.gz");
+        Path temporary = archiveDirectory.resolve(name + ".csv.gz.tmp");
+        MessageDigest digest = sha256();
+        long rows;
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DigestOutputStream digestStream = new DigestOutputStream(file, digest);
+             GZIPOutputStream gzip = new GZIPOutputStream(digestStream)) {
+            rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY " + name + " TO STDOUT WITH (FORMAT csv, HEADER)", gzip);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Falha ao exportar a partição " + name, e);
+                }
+            });
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        String checksum = Base64.getEncoder().encodeToString(digest.digest());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    INSERT INTO audit_chain_archived_links (organization_key, chain_seq, prev_hash, chain_hash, event_hash)
+                    SELECT COALESCE(organization_id, 0), chain_seq, prev_hash, chain_hash, event_hash
+                    FROM %s
+                    WHERE chain_seq IS NOT NULL
+                    ON CONFLICT DO NOTHING
+                    """.formatted(name));
+            jdbcTemplate.update("""
+                    INSERT INTO audit_partition_archives (partition_name, range_start, range_end, row_count, file_path, checksum)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (partition_name) DO UPDATE
+                    SET row_count = EXCLUDED.row_count, file_path = EXCLUDED.file_path,
+                        checksum = EXCLUDED.checksum, archived_at = CURRENT_TIMESTAMP
+                    """, name, Date.valueOf(month.atDay(1)), Date.valueOf(month.plusMonths(1).atDay(1)),
+                    rows, target.toString(), checksum);
+            jdbcTemplate.execute("DROP TABLE " + name);
+        });
+        LOGGER.info("Partição de auditoria {} arquivada em {} ({} eventos)", name, target, rows);
+        return new ArchivedPartition(name, month, rows, target, checksum);
+    }
+
+    private void warnAboutExpiredDefaultRows(YearMonth cutoff) {
+        Long expired = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_events_default WHERE occurred_at < ?",
+                Long.class, Timestamp.valueOf(cutoff.atDay(1).atStartOfDay()));
+        if (expired != null && expired > 0) {
+            LOGGER.warn("A partição default de auditoria tem {} eventos anteriores a {}; eles não são arquivados " +
+                    "automaticamente", expired, cutoff);
+        }
+    }
+
+    /**
+     * Nomes das partições mensais; com {@code attachedOnly=false} inclui tabelas já desanexadas.
+     */
+    private List<String> partitionNames(boolean attachedOnly) {
+        String sql = """
+                SELECT c.relname
+                FROM pg_class c
+                LEFT JOIN pg_inherits i ON i.inhrelid = c.oid
+                LEFT JOIN pg_class p ON p.oid = i.inhparent
+                WHERE c.relkind = 'r' AND c.relname ~ '^audit_events_y[0-9]{4}m[0-9]{2}$' AND pg_table_is_visible(c.oid)
+                """ + (attachedOnly ? " AND p.relname = 'audit_events'" : "") + " ORDER BY c.relname";
+        return jdbcTemplate.queryForList(sql, String.class);
+    }
+
+    private boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached == null) {
+            cached = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            if (cached) {
+                cached = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'audit_events' AND relkind = 'p')",
+                        Boolean.class));
+            }
+            partitioned = cached;
+        }
+        return cached;
+    }
+
+    static String partitionName(YearMonth month) {
+        return "audit_events_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
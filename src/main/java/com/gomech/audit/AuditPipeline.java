@@ -0,0 +1,215 @@
+package com.gomech.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gomech.model.AuditEvent;
+import com.gomech.model.Organization;
+import com.gomech.service.AuditService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline assíncrono de auditoria.
+ * <p>
+ * Eventos registrados via {@link AuditService#logEntityAction} entram numa fila limitada somente após o
+ * commit da transação de negócio. Uma thread dedicada calcula hash/payload canônico e grava em lotes JDBC,
+ * disparando a escrita por tamanho ({@code batch-size}) ou tempo ({@code flush-interval-ms}).
+ * Com a fila cheia o produtor aguarda até {@code offer-timeout-ms} (back-pressure) e, persistindo a saturação,
+ * o evento é gravado no arquivo de transbordo, reprocessado quando o writer fica ocioso ou na inicialização.
+ * A entrega é "ao menos uma vez": uma queda durante o replay pode duplicar eventos.
+ */
+@Component
+public class AuditPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditPipeline.class);
+    private static final long REPLAY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final AuditService auditService;
+    private final AuditBatchWriter batchWriter;
+    private final AuditSpillFile spillFile;
+    private final BlockingQueue<AuditEventRecorded> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter failedBatches;
+
+    private volatile boolean running;
+    private long replayNotBefore;
+    private Thread writerThread;
+
+    public AuditPipeline(AuditService auditService,
+                         AuditBatchWriter batchWriter,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${audit.pipeline.queue-capacity:10000}") int queueCapacity,
+                         @Value("${audit.pipeline.batch-size:200}") int batchSize,
+                         @Value("${audit.pipeline.flush-interval-ms:500}") long flushIntervalMillis,
+                         @Value("${audit.pipeline.offer-timeout-ms:50}") long offerTimeoutMillis,
+                         @Value("${audit.pipeline.spill-file:audit/audit-spill.ndjson}") String spillFile) {
+        this.auditService = auditService;
+        this.batchWriter = batchWriter;
+        this.spillFile = new AuditSpillFile(Path.of(spillFile), objectMapper);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        Gauge.builder("audit.pipeline.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("audit.pipeline.written");
+        this.spilledCounter = meterRegistry.counter("audit.pipeline.spilled");
+        this.failedBatches = meterRegistry.counter("audit.pipeline.failed.batches");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        List<AuditEventRecorded> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            LOGGER.warn("Encerrando com {} eventos de auditoria pendentes; gravando em disco", remaining.size());
+            spill(remaining);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAuditEvent(AuditEventRecorded event) {
+        enqueue(event);
+    }
+
+    public void enqueue(AuditEventRecorded event) {
+        try {
+            if (queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            LOGGER.warn("Fila de auditoria cheia; evento {} gravado em disco", event.request().eventType());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spill(List.of(event));
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<AuditEventRecorded> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEventRecorded first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEventRecorded next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Erro inesperado no writer de auditoria", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditEventRecorded> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<AuditEvent> events = new ArrayList<>(batch.size());
+            for (AuditEventRecorded recorded : batch) {
+                events.add(toEntity(recorded));
+            }
+            batchWriter.insert(events);
+            writtenCounter.increment(events.size());
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            LOGGER.error("Falha ao gravar lote de {} eventos de auditoria; gravando em disco", batch.size(), e);
+            spill(batch);
+        }
+    }
+
+    private AuditEvent toEntity(AuditEventRecorded recorded) {
+        AuditEvent event = auditService.buildEvent(recorded.request(), recorded.registeredAt());
+        if (recorded.organizationId() != null) {
+            Organization organization = new Organization();
+            organization.setId(recorded.organizationId());
+            event.setOrganization(organization);
+        }
+        return event;
+    }
+
+    private void replaySpill() {
+        if (System.nanoTime() < replayNotBefore || !spillFile.hasPending() || queue.size() > batchSize) {
+            return;
+        }
+        List<AuditEventRecorded> events = spillFile.beginReplay();
+        if (!events.isEmpty()) {
+            LOGGER.info("Reprocessando {} eventos de auditoria gravados em disco", events.size());
+        }
+        long failuresBefore = (long) failedBatches.count();
+        for (int start = 0; start < events.size(); start += batchSize) {
+            // Lotes que falharem voltam para o arquivo principal via flush -> spill
+            flush(new ArrayList<>(events.subList(start, Math.min(events.size(), start + batchSize))));
+        }
+        spillFile.completeReplay();
+        if ((long) failedBatches.count() > failuresBefore) {
+            replayNotBefore = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+        }
+    }
+
+    private void spill(List<AuditEventRecorded> events) {
+        try {
+            spillFile.append(events);
+            spilledCounter.increment(events.size());
+        } catch (RuntimeException e) {
+            LOGGER.error("Eventos de auditoria perdidos ({}): falha ao gravar em disco", events.size(), e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.gomech.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arquivo NDJSON de transbordo para eventos que não couberam na fila ou falharam na escrita.
+ * Cada append é sincronizado em disco ({@code force}) antes de retornar.
+ */
+class AuditSpillFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditSpillFile.class);
+
+    private final Path file;
+    private final Path replayFile;
+    private final ObjectMapper objectMapper;
+
+    AuditSpillFile(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.replayFile = file.resolveSibling(file.getFileName() + ".replay");
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized void append(List<AuditEventRecorded> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            StringBuilder lines = new StringBuilder();
+            for (AuditEventRecorded event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar eventos de auditoria em disco", e);
+        }
+    }
+
+    synchronized boolean hasPending() {
+        return Files.exists(replayFile) || Files.exists(file);
+    }
+
+    /**
+     * Move o conteúdo pendente para um arquivo de replay e devolve os eventos.
+     * Após processá-los o chamador deve invocar {@link #completeReplay()}.
+     */
+    synchronized List<AuditEventRecorded> beginReplay() {
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(file)) {
+                    return List.of();
+                }
+                Files.move(file, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            List<AuditEventRecorded> events = new ArrayList<>();
+            for (String line : Files.readAllLines(replayFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(objectMapper.readValue(line, AuditEventRecorded.class));
+                } catch (IOException e) {
+                    LOGGER.error("Linha inválida descartada do arquivo de auditoria {}: {}", replayFile, e.getMessage());
+                }
+            }
+            return events;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler eventos de auditoria em disco", e);
+        }
+    }
+
+    synchronized void completeReplay() {
+        try {
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover arquivo de replay de auditoria", e);
+        }
+    }
+}
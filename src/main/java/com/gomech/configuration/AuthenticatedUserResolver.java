@@ -0,0 +1,41 @@
+package com.gomech.configuration;
+
+import com.gomech.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+/**
+ * Resolve a entidade {@link User} do usuário autenticado independentemente do tipo de principal.
+ * No modo de principal por claims o usuário só é carregado (via {@link PrincipalCache}) quando
+ * algum fluxo realmente precisa da entidade completa.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserResolver {
+
+    private final PrincipalCache principalCache;
+
+    public Optional<User> resolve(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return Optional.of(user);
+        }
+        if (principal instanceof ClaimsPrincipal claims) {
+            return principalCache.findByLogin(claims.email());
+        }
+        return Optional.empty();
+    }
+
+    public User requireUser(Authentication authentication) {
+        return resolve(authentication)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário autenticado não encontrado"));
+    }
+}
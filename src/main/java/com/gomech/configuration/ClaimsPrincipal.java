@@ -0,0 +1,54 @@
+package com.gomech.configuration;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Principal leve reconstruído apenas a partir das claims do access token
+ * ({@code sub}, {@code role} e {@code organizationId}), sem consulta ao banco.
+ * A entidade {@link com.gomech.model.User} completa é obtida sob demanda via {@link AuthenticatedUserResolver}.
+ */
+public record ClaimsPrincipal(String email, Role role, Long organizationId) implements Principal {
+
+    /**
+     * Retorna vazio quando o token não traz todas as claims necessárias (ex.: tokens antigos),
+     * caso em que o filtro volta a carregar o usuário pelo email.
+     */
+    public static Optional<ClaimsPrincipal> fromToken(DecodedJWT jwt) {
+        String email = jwt.getSubject();
+        String role = jwt.getClaim("role").asString();
+        Long organizationId = jwt.getClaim("organizationId").asLong();
+        if (email == null || email.isBlank() || role == null || organizationId == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ClaimsPrincipal(email, Role.valueOf(role), organizationId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    /**
+     * Referência à organização contendo apenas o id, suficiente para associações JPA e filtros por tenant.
+     */
+    public Organization organizationReference() {
+        Organization organization = new Organization();
+        organization.setId(organizationId);
+        return organization;
+    }
+}
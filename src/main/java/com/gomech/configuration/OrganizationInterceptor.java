@@ -33,6 +33,10 @@ public class OrganizationInterceptor implements HandlerInterceptor {
             } else {
                 log.warn("User {} has no organization assigned", user.getEmail());
             }
+        } else if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof ClaimsPrincipal claims) {
+            OrganizationContext.setOrganization(claims.organizationReference());
+            log.debug("Organization set in context from token claims (ID: {})", claims.organizationId());
         }
         
         return true;
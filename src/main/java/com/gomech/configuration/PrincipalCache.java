@@ -0,0 +1,126 @@
+package com.gomech.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gomech.model.Organization;
+import com.gomech.model.User;
+import com.gomech.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache dos principals autenticados, indexado pelo subject do JWT (email).
+ * Evita a consulta {@code findWithOrganizationByEmail} a cada requisição autenticada
+ * devolvendo um snapshot desacoplado da sessão JPA (User + Organization).
+ * <p>
+ * Dentro de uma transação a remoção é repetida após o commit: uma requisição concorrente que recarregue o
+ * principal antes do commit guardaria o estado antigo até o fim do TTL.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    public static final String CACHE_NAME = "principalCache";
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<User> findByLogin(String login) {
+        User cached = cache.getIfPresent(login);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findWithOrganizationByEmail(login).map(PrincipalCache::snapshot);
+        loaded.ifPresent(user -> cache.put(login, user));
+        return loaded;
+    }
+
+    public void evictUser(String email) {
+        if (email != null) {
+            evictNowAndAfterCommit(() -> {
+                cache.invalidate(email);
+                log.debug("Principal removido do cache: {}", email);
+            });
+        }
+    }
+
+    public void evictOrganization(Long organizationId) {
+        if (organizationId == null) {
+            return;
+        }
+        evictNowAndAfterCommit(() -> {
+            cache.asMap().values().removeIf(user -> user.getOrganization() != null
+                    && organizationId.equals(user.getOrganization().getId()));
+            log.debug("Principals da organização {} removidos do cache", organizationId);
+        });
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    static User snapshot(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setEmail(source.getEmail());
+        copy.setPassword(source.getPassword());
+        copy.setRole(source.getRole());
+        copy.setMfaEnabled(source.isMfaEnabled());
+        copy.setMfaSecret(source.getMfaSecret());
+        copy.setOrganization(snapshot(source.getOrganization()));
+        return copy;
+    }
+
+    private static Organization snapshot(Organization source) {
+        if (source == null) {
+            return null;
+        }
+        Organization copy = new Organization();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setSlug(source.getSlug());
+        copy.setDescription(source.getDescription());
+        copy.setActive(source.getActive());
+        copy.setContactEmail(source.getContactEmail());
+        copy.setContactPhone(source.getContactPhone());
+        copy.setAddress(source.getAddress());
+        copy.setDocument(source.getDocument());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -1,6 +1,9 @@
 package com.gomech.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -40,7 +43,8 @@ public class SecurityConfig {
                     ));
                     corsConfig.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
                     corsConfig.setAllowedHeaders(List.of("*"));
-                    corsConfig.setExposedHeaders(List.of("Authorization", "Content-Type", "X-Total-Count"));
+                    corsConfig.setExposedHeaders(List.of("Authorization", "Content-Type", "X-Total-Count",
+                            "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset", "Retry-After"));
                     corsConfig.setAllowCredentials(true);
                     corsConfig.setMaxAge(3600L);
                     return corsConfig;
@@ -67,8 +71,15 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt com custo configurável. Hashes com custo inferior são regravados no próximo login
+     * bem-sucedido (ver {@link com.gomech.service.AuthService#updatePassword}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry,
+                                           @Value("${security.password.bcrypt-strength:10}") int strength) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry != null ? new InstrumentedPasswordEncoder(bcrypt, registry) : bcrypt;
     }
 }
\ No newline at end of file
@@ -1,17 +1,21 @@
 package com.gomech.configuration;
 
-import com.gomech.repository.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.gomech.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -20,7 +24,13 @@ public class SecurityFilter extends OncePerRequestFilter {
     private TokenService tokenService;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${security.claims-principal.enabled:false}")
+    private boolean claimsPrincipalEnabled;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,19 +43,34 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         var token = this.recoverToken(request);
         if (token != null && !token.isEmpty()) {
-            var login = tokenService.validateToken(token);
-            if (login != null && !login.isEmpty()) {
-                userRepository.findWithOrganizationByEmail(login).ifPresent(user -> {
-                    var authentication = new UsernamePasswordAuthenticationToken(
-                            user, null, user.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                });
-            }
+            tokenService.verify(token)
+                    .filter(jwt -> !tokenRevocationService.isAccessTokenRevoked(jwt))
+                    .ifPresent(this::authenticate);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(DecodedJWT jwt) {
+        if (claimsPrincipalEnabled) {
+            var claims = ClaimsPrincipal.fromToken(jwt);
+            if (claims.isPresent()) {
+                setAuthentication(claims.get(), claims.get().getAuthorities());
+                return;
+            }
+        }
+        var login = jwt.getSubject();
+        if (login != null && !login.isEmpty()) {
+            principalCache.findByLogin(login)
+                    .ifPresent(user -> setAuthentication(user, user.getAuthorities()));
+        }
+    }
+
+    private void setAuthentication(Object principal, Collection<? extends GrantedAuthority> authorities) {
+        var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String recoverToken(HttpServletRequest request) {
         var authHeader = request.getHeader("Authorization");
         if (authHeader == null) return null;
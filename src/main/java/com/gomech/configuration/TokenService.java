@@ -1,25 +1,63 @@
 package com.gomech.configuration;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.gomech.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Emissão e validação de access tokens JWT.
+ * O algoritmo de assinatura e os verificadores são construídos uma única vez e compartilhados
+ * entre threads. A chave ativa assina os tokens (header {@code kid}); chaves anteriores
+ * permanecem aceitas na verificação enquanto estiverem configuradas, permitindo rotação.
+ * Tokens já verificados ficam em cache pelo tempo de vida restante.
+ */
 @Service
 public class TokenService {
-    @Value("${api.security.token.secret}")
-    private String secret;
+
+    static final String ISSUER = "auth-api";
 
     private final Duration accessTokenTtl;
+    private final String activeKeyId;
+    private final Algorithm signingAlgorithm;
+    private final Map<String, JWTVerifier> verifiers;
+    private final Cache<String, DecodedJWT> verifiedTokens;
 
-    public TokenService(@Value("${security.access-token.ttl-minutes:15}") long accessTokenMinutes) {
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.kid:primary}") String activeKeyId,
+                        @Value("${api.security.token.verification-keys:}") String verificationKeys,
+                        @Value("${security.access-token.ttl-minutes:15}") long accessTokenMinutes,
+                        @Value("${security.access-token.cache-size:10000}") long tokenCacheSize) {
         this.accessTokenTtl = Duration.ofMinutes(accessTokenMinutes);
+        this.activeKeyId = activeKeyId;
+        this.signingAlgorithm = Algorithm.HMAC256(secret);
+
+        Map<String, JWTVerifier> configured = new LinkedHashMap<>();
+        configured.put(activeKeyId, buildVerifier(signingAlgorithm));
+        parseVerificationKeys(verificationKeys)
+                .forEach((kid, keySecret) -> configured.putIfAbsent(kid, buildVerifier(Algorithm.HMAC256(keySecret))));
+        this.verifiers = Collections.unmodifiableMap(configured);
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new RemainingLifetimeExpiry())
+                .build();
     }
 
     public String generateToken(User user){
@@ -28,9 +66,11 @@ public class TokenService {
 
     public String generateAccessToken(User user){
         try{
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             var jwtBuilder = JWT.create()
-                    .withIssuer("auth-api")
+                    .withKeyId(activeKeyId)
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withIssuer(ISSUER)
+                    .withIssuedAt(Instant.now())
                     .withSubject(user.getEmail())
                     .withClaim("role", user.getRole().name())
                     .withExpiresAt(genExpirationDate());
@@ -39,26 +79,102 @@ public class TokenService {
                 jwtBuilder.withClaim("organizationId", user.getOrganization().getId());
             }
 
-            return jwtBuilder.sign(algorithm);
+            return jwtBuilder.sign(signingAlgorithm);
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Error while generating token", exception);
         }
     }
 
     public String validateToken(String token){
+        return verify(token).map(DecodedJWT::getSubject).orElse("");
+    }
+
+    /**
+     * Verifica assinatura, emissor e expiração do token, reaproveitando o resultado de
+     * verificações anteriores enquanto o token ainda for válido.
+     */
+    public Optional<DecodedJWT> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        DecodedJWT cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedTokens.invalidate(token);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException exception){
-            return "";
+            DecodedJWT unverified = JWT.decode(token);
+            String kid = unverified.getKeyId() != null ? unverified.getKeyId() : activeKeyId;
+            JWTVerifier verifier = verifiers.get(kid);
+            if (verifier == null) {
+                return Optional.empty();
+            }
+            DecodedJWT verified = verifier.verify(unverified);
+            verifiedTokens.put(token, verified);
+            return Optional.of(verified);
+        } catch (JWTVerificationException exception) {
+            return Optional.empty();
         }
     }
 
+    public void evictVerifiedToken(String token) {
+        verifiedTokens.invalidate(token);
+    }
+
     private Instant genExpirationDate(){
         return Instant.now().plus(accessTokenTtl);
     }
+
+    private static JWTVerifier buildVerifier(Algorithm algorithm) {
+        return JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
+
+    private static boolean isExpired(DecodedJWT jwt) {
+        return jwt.getExpiresAtAsInstant() != null && !jwt.getExpiresAtAsInstant().isAfter(Instant.now());
+    }
+
+    /**
+     * Formato: {@code kid1:segredo1,kid2:segredo2}.
+     */
+    private static Map<String, String> parseVerificationKeys(String raw) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        if (raw == null || raw.isBlank()) {
+            return keys;
+        }
+        for (String entry : raw.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalStateException("Chave de verificação JWT inválida: esperado kid:segredo");
+            }
+            keys.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return keys;
+    }
+
+    private static final class RemainingLifetimeExpiry implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String token, DecodedJWT jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAtAsInstant();
+            if (expiresAt == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
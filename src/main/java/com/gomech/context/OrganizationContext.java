@@ -22,6 +22,17 @@ public class OrganizationContext {
         return org != null ? org.getId() : null;
     }
     
+    /**
+     * Organização da requisição atual; falha quando não há organização no contexto.
+     */
+    public static Long requireOrganizationId() {
+        Long organizationId = getOrganizationId();
+        if (organizationId == null) {
+            throw new IllegalStateException("Organization context not found");
+        }
+        return organizationId;
+    }
+    
     public static void clear() {
         currentOrganization.remove();
     }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -34,9 +35,15 @@ public class AnalyticsController {
         return ResponseEntity.ok(new AnalyticsResponseDTO(response.status(), response.data()));
     }
 
+    /**
+     * Insights pré-calculados da organização; {@code refresh=true} recalcula na hora.
+     */
     @GetMapping("/insights")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<java.util.List<AnalyticsInsightDTO>> insights() {
-        return ResponseEntity.ok(analyticsInsightService.generateInsights());
+    public ResponseEntity<java.util.List<AnalyticsInsightDTO>> insights(
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        return ResponseEntity.ok(refresh
+                ? analyticsInsightService.refreshInsights()
+                : analyticsInsightService.generateInsights());
     }
 }
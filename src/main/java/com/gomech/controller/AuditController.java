@@ -1,21 +1,32 @@
 package com.gomech.controller;
 
+import com.gomech.audit.AuditAnchorService;
+import com.gomech.audit.AuditChainVerifier;
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Audit.AuditChainReport;
+import com.gomech.dto.Audit.AuditEventCursorPage;
+import com.gomech.dto.Audit.AuditEventFilter;
 import com.gomech.dto.Audit.AuditEventRequest;
 import com.gomech.dto.Audit.AuditEventResponse;
+import com.gomech.dto.Audit.AuditProofResponse;
 import com.gomech.model.AuditEvent;
 import com.gomech.service.AuditService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
@@ -24,9 +35,15 @@ import java.time.LocalDateTime;
 public class AuditController {
 
     private final AuditService auditService;
+    private final AuditAnchorService auditAnchorService;
+    private final AuditChainVerifier auditChainVerifier;
 
-    public AuditController(AuditService auditService) {
+    public AuditController(AuditService auditService,
+                           AuditAnchorService auditAnchorService,
+                           AuditChainVerifier auditChainVerifier) {
         this.auditService = auditService;
+        this.auditAnchorService = auditAnchorService;
+        this.auditChainVerifier = auditChainVerifier;
     }
 
     @PostMapping("/event")
@@ -50,4 +67,55 @@ public class AuditController {
                 .map(AuditEventResponse::fromEntity);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Paginação por cursor (keyset em occurredAt/id), sem contagem total; use {@code nextCursor} para avançar.
+     */
+    @GetMapping("/events/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditEventCursorPage> listEventsByCursor(
+            @RequestParam(value = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "actionType", required = false) String actionType,
+            @RequestParam(value = "userEmail", required = false) String userEmail,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.listEventsByCursor(startDate, endDate, actionType, userEmail, cursor, size));
+    }
+
+    @GetMapping(value = "/events/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(value = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "actionType", required = false) String actionType,
+            @RequestParam(value = "userEmail", required = false) String userEmail) {
+        // O filtro captura a organização na thread da requisição; o corpo é escrito em outra thread
+        AuditEventFilter filter = auditService.currentOrganizationFilter(startDate, endDate, actionType, userEmail);
+        StreamingResponseBody body = output -> auditService.exportEvents(filter, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=audit-events.ndjson")
+                .body(body);
+    }
+
+    @GetMapping("/events/{id}/proof")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditProofResponse> verifyEvent(@PathVariable Long id) {
+        return ResponseEntity.ok(auditAnchorService.verify(id));
+    }
+
+    /**
+     * Verifica a cadeia de hashes da organização atual a partir do último checkpoint
+     * ({@code full=true} reverifica desde o início).
+     */
+    @PostMapping("/chain/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditChainReport> verifyChain(@RequestParam(value = "full", defaultValue = "false") boolean full) {
+        return ResponseEntity.ok(auditChainVerifier.verifyOrganization(OrganizationContext.getOrganizationId(), full));
+    }
 }
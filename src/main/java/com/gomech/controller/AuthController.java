@@ -1,8 +1,10 @@
 package com.gomech.controller;
 
+import com.gomech.configuration.LoginExecutor;
 import com.gomech.configuration.TokenService;
 import com.gomech.dto.Authentication.AuthenticationDTO;
 import com.gomech.dto.Authentication.LoginResponseDTO;
+import com.gomech.dto.Authentication.LogoutRequest;
 import com.gomech.dto.Authentication.RefreshTokenRequest;
 import com.gomech.dto.Authentication.RegisterDTO;
 import com.gomech.dto.Authentication.RegisterResponseDTO;
@@ -15,15 +17,19 @@ import com.gomech.model.RefreshToken;
 import com.gomech.model.User;
 import com.gomech.service.MfaService;
 import com.gomech.service.RefreshTokenService;
+import com.gomech.service.TokenRevocationService;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.gomech.repository.UserRepository;
@@ -31,6 +37,8 @@ import com.gomech.repository.OrganizationRepository;
 
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -46,10 +54,30 @@ public class AuthController {
     private RefreshTokenService refreshTokenService;
     @Autowired
     private MfaService mfaService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private LoginExecutor loginExecutor;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
+    /**
+     * A verificação BCrypt roda no {@link LoginExecutor}, liberando a thread do Tomcat;
+     * com o pool saturado a resposta é 429 imediato.
+     */
     @PostMapping("/login")
-    @Transactional
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid AuthenticationDTO data) {
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody @Valid AuthenticationDTO data) {
+        return loginExecutor.submit(() -> transactionTemplate.execute(status -> authenticate(data)));
+    }
+
+    private ResponseEntity<LoginResponseDTO> authenticate(AuthenticationDTO data) {
         var usernamePassword = new UsernamePasswordAuthenticationToken(data.email(), data.password());
         var auth = this.authenticationManager.authenticate(usernamePassword);
 
@@ -101,7 +129,7 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.password());
+        String encryptedPassword = passwordEncoder.encode(data.password());
         User newUser = new User(data.name(), data.email(), encryptedPassword, data.role(), organization);
 
         String mfaSecret = null;
@@ -156,7 +184,7 @@ public class AuthController {
         Organization savedOrganization = organizationRepository.save(organization);
 
         // Create admin user
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.adminPassword());
+        String encryptedPassword = passwordEncoder.encode(data.adminPassword());
         User adminUser = new User(
                 data.adminName(),
                 data.adminEmail(),
@@ -203,4 +231,19 @@ public class AuthController {
                     return ResponseEntity.ok(new TokenPairDTO(newAccessToken, newRefreshToken));
                 }).orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
     }
+
+    /**
+     * Revoga imediatamente o access token atual e, se informado, o refresh token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                       @RequestBody(required = false) LogoutRequest request) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            tokenService.verify(authorization.substring(7)).ifPresent(tokenRevocationService::revokeAccessToken);
+        }
+        if (request != null && request.refreshToken() != null && !request.refreshToken().isBlank()) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
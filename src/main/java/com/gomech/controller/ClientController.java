@@ -1,9 +1,12 @@
 package com.gomech.controller;
 
+import com.gomech.context.OrganizationContext;
 import com.gomech.dto.Clients.ClientCreateDTO;
 import com.gomech.dto.Clients.ClientResponseDTO;
 import com.gomech.dto.Clients.ClientUpdateDTO;
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.PageResponse;
+import com.gomech.exporter.ExportFormat;
 import com.gomech.model.Client;
 import com.gomech.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +21,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -35,7 +39,7 @@ public class ClientController {
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<List<Client>> upload(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDTO> upload(@RequestParam("file") MultipartFile file) {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.saveFromFile(file));
     }
 
@@ -63,14 +67,15 @@ public class ClientController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<InputStreamResource> export(@RequestParam(defaultValue = "csv") String format) {
-        var stream = service.exportToFile(format);
-        String ext = (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) ? "xlsx" : "csv";
-        MediaType type = ext.equals("xlsx") ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet") : MediaType.parseMediaType("text/csv");
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // A organização é capturada na thread da requisição; o corpo é escrito em outra thread
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        StreamingResponseBody body = output -> service.exportToFile(organizationId, exportFormat, output);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=clients." + ext)
-                .contentType(type)
-                .body(new InputStreamResource(stream));
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=clients." + exportFormat.extension())
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .body(body);
     }
 
     @GetMapping("/template")
@@ -0,0 +1,28 @@
+package com.gomech.controller;
+
+import com.gomech.dto.Import.ImportReportDTO;
+import com.gomech.importer.StreamingImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/imports")
+public class ImportController {
+
+    private final StreamingImportService streamingImportService;
+
+    public ImportController(StreamingImportService streamingImportService) {
+        this.streamingImportService = streamingImportService;
+    }
+
+    /**
+     * Progresso e erros por linha de uma importação (útil para acompanhar arquivos grandes ou retomados).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportReportDTO> getReport(@PathVariable Long id) {
+        return ResponseEntity.ok(streamingImportService.getReport(id));
+    }
+}
@@ -1,5 +1,6 @@
 package com.gomech.controller;
 
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Inventory.CriticalPartReportDTO;
 import com.gomech.dto.Inventory.InventoryEntryRequestDTO;
 import com.gomech.dto.Inventory.InventoryItemCreateDTO;
@@ -10,11 +11,14 @@ import com.gomech.dto.Inventory.InventoryRecommendationDTO;
 import com.gomech.dto.Inventory.InventoryRecommendationRequestDTO;
 import com.gomech.dto.Inventory.PartAvailabilityDTO;
 import com.gomech.dto.Inventory.PartConsumptionStats;
+import com.gomech.dto.Inventory.StockBatchRequestDTO;
+import com.gomech.dto.Inventory.StockBatchResponseDTO;
 import com.gomech.dto.Inventory.StockCancellationRequestDTO;
 import com.gomech.dto.Inventory.StockConsumptionRequestDTO;
 import com.gomech.dto.Inventory.StockReservationRequestDTO;
 import com.gomech.dto.Inventory.StockReturnRequestDTO;
 import com.gomech.dto.PageResponse;
+import com.gomech.service.InventoryBatchService;
 import com.gomech.service.InventoryRecommendationService;
 import com.gomech.service.InventoryReportService;
 import com.gomech.service.InventoryService;
@@ -47,13 +51,16 @@ public class InventoryController {
     private final InventoryService inventoryService;
     private final InventoryRecommendationService inventoryRecommendationService;
     private final InventoryReportService inventoryReportService;
+    private final InventoryBatchService inventoryBatchService;
 
     public InventoryController(InventoryService inventoryService,
                                InventoryRecommendationService inventoryRecommendationService,
-                               InventoryReportService inventoryReportService) {
+                               InventoryReportService inventoryReportService,
+                               InventoryBatchService inventoryBatchService) {
         this.inventoryService = inventoryService;
         this.inventoryRecommendationService = inventoryRecommendationService;
         this.inventoryReportService = inventoryReportService;
+        this.inventoryBatchService = inventoryBatchService;
     }
 
     @Operation(summary = "Lista os itens de estoque cadastrados")
@@ -133,6 +140,16 @@ public class InventoryController {
         }
     }
 
+    @Operation(summary = "Aplica um lote de entradas, reservas e baixas em uma única transação")
+    @PostMapping("/movements/batch")
+    public ResponseEntity<StockBatchResponseDTO> applyBatch(@Valid @RequestBody StockBatchRequestDTO dto) {
+        try {
+            return ResponseEntity.ok(inventoryBatchService.applyBatch(dto));
+        } catch (RuntimeException ex) {
+            throw translateException(ex);
+        }
+    }
+
     @Operation(summary = "Reserva itens para uma ordem de serviço")
     @PostMapping("/movements/reservations")
     public ResponseEntity<InventoryMovementResponseDTO> reserve(@Valid @RequestBody StockReservationRequestDTO dto) {
@@ -240,7 +257,7 @@ public class InventoryController {
     @Operation(summary = "Importa itens de estoque em massa via planilha")
     @PostMapping(value = "/items/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<InventoryItemResponseDTO>> uploadItems(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDTO> uploadItems(@RequestParam("file") MultipartFile file) {
         return ResponseEntity.status(HttpStatus.CREATED).body(inventoryService.saveFromFile(file));
     }
 
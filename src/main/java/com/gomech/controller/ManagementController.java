@@ -1,11 +1,15 @@
 package com.gomech.controller;
 
+import com.gomech.dto.Report.ReportJobDTO;
+import com.gomech.model.ReportJob;
+import com.gomech.report.ReportJobService;
 import com.gomech.service.ManagementReportService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -17,15 +21,21 @@ import java.util.Map;
  * - GET /management/bottlenecks - Identificação de gargalos operacionais
  * - GET /management/benchmark - Benchmark interno entre oficinas
  * - GET /management/reports/{type} - Geração de relatórios (JSON/CSV/PDF)
+ * - POST /management/reports/{type}/jobs - Geração assíncrona de relatórios (job)
+ * - GET /management/reports/jobs/{jobId} - Situação do job de relatório
+ * - GET /management/reports/jobs/{jobId}/download - Resultado do job (JSON/CSV)
+ * - GET /management/dispatch-board - Carga de OSs em aberto por técnico
  */
 @RestController
 @RequestMapping("/management")
 public class ManagementController {
 
     private final ManagementReportService reportService;
+    private final ReportJobService reportJobService;
 
-    public ManagementController(ManagementReportService reportService) {
+    public ManagementController(ManagementReportService reportService, ReportJobService reportJobService) {
         this.reportService = reportService;
+        this.reportJobService = reportJobService;
     }
 
     /**
@@ -110,6 +120,54 @@ public class ManagementController {
         }
     }
 
+    /**
+     * Enfileira a geração de um relatório (mesmos tipos de /reports/{type}) e retorna o job.
+     * 
+     * Pedidos com o mesmo tipo e período dentro da validade do resultado retornam o job existente
+     * ({@code reused = true}). Acompanhe por /reports/jobs/{jobId} e baixe por /reports/jobs/{jobId}/download.
+     */
+    @PostMapping("/reports/{type}/jobs")
+    public ResponseEntity<ReportJobDTO> submitReportJob(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "30") Integer days) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(type, days));
+    }
+
+    /**
+     * Situação de um job de relatório (QUEUED, RUNNING, COMPLETED, FAILED).
+     */
+    @GetMapping("/reports/jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    /**
+     * Resultado de um job concluído.
+     * 
+     * Formatos:
+     * - json: relatório como gerado por /reports/{type} (padrão)
+     * - csv: uma linha por valor (campo, valor)
+     */
+    @GetMapping("/reports/jobs/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadReportJob(
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "json") String format) {
+
+        ReportJob job = reportJobService.getCompletedJob(jobId);
+        String fileName = job.getReportType() + "_report_" + jobId;
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName + ".csv")
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(output -> reportJobService.writeCsv(job, output));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName + ".json")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> reportJobService.writeJson(job, output));
+    }
+
     /**
      * Dashboard executivo com métricas consolidadas.
      * 
@@ -131,7 +189,7 @@ public class ManagementController {
      * Análise de tendências e previsões.
      * 
      * Query params:
-     * - metric: Métrica para análise (revenue, orders, clients)
+     * - metric: Métrica para análise (revenue, orders, consumption)
      * - forecastDays: Dias para previsão (padrão: 30)
      */
     @GetMapping("/trends")
@@ -147,15 +205,29 @@ public class ManagementController {
      * Score de saúde operacional.
      * 
      * Retorna um score de 0-100 baseado em:
-     * - Taxa de conclusão de OSs
-     * - Satisfação do cliente
-     * - Disponibilidade de estoque
-     * - Produtividade da equipe
+     * - OSs ativas há mais de 7 dias
+     * - OSs em andamento simultaneamente
+     * - Carga dos técnicos
+     * - Itens de estoque abaixo do mínimo
+     *
+     * Os contadores ficam em memória e são atualizados a cada OS ou item gravado; não há consulta por requisição.
      */
     @GetMapping("/health-score")
     public ResponseEntity<Map<String, Object>> getOperationalHealthScore() {
         Map<String, Object> healthScore = reportService.calculateHealthScore();
         return ResponseEntity.ok(healthScore);
     }
+
+    /**
+     * Quadro de despacho.
+     * 
+     * Retorna, para cada técnico, as OSs em aberto por status (pendente, em andamento, aguardando peças,
+     * aguardando aprovação), ordenados do menos para o mais carregado. Técnicos sobrecarregados têm mais de
+     * 5 OSs pendentes ou em andamento.
+     */
+    @GetMapping("/dispatch-board")
+    public ResponseEntity<Map<String, Object>> getDispatchBoard() {
+        return ResponseEntity.ok(reportService.getDispatchBoard());
+    }
 }
 
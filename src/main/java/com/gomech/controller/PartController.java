@@ -1,5 +1,6 @@
 package com.gomech.controller;
 
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Parts.PartCreateDTO;
 import com.gomech.dto.Parts.PartResponseDTO;
 import com.gomech.dto.Parts.PartUpdateDTO;
@@ -80,7 +81,7 @@ public class PartController {
     @Operation(summary = "Importa peças em massa via planilha")
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<PartResponseDTO>> upload(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDTO> upload(@RequestParam("file") MultipartFile file) {
         return ResponseEntity.status(HttpStatus.CREATED).body(partService.saveFromFile(file));
     }
 
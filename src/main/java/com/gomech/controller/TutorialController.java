@@ -1,5 +1,6 @@
 package com.gomech.controller;
 
+import com.gomech.configuration.AuthenticatedUserResolver;
 import com.gomech.dto.Tutorial.MarkTutorialViewedDTO;
 import com.gomech.dto.Tutorial.TutorialProgressResponseDTO;
 import com.gomech.model.User;
@@ -9,7 +10,7 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -20,16 +21,21 @@ public class TutorialController {
     
     private final TutorialProgressService tutorialProgressService;
     private final OrganizationContext organizationContext;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
-    public TutorialController(TutorialProgressService tutorialProgressService, OrganizationContext organizationContext) {
+    public TutorialController(TutorialProgressService tutorialProgressService,
+                              OrganizationContext organizationContext,
+                              AuthenticatedUserResolver authenticatedUserResolver) {
         this.tutorialProgressService = tutorialProgressService;
         this.organizationContext = organizationContext;
+        this.authenticatedUserResolver = authenticatedUserResolver;
     }
 
     @GetMapping
     public ResponseEntity<TutorialProgressResponseDTO> getProgress(
-            @AuthenticationPrincipal User user
+            Authentication authentication
     ) {
+        User user = authenticatedUserResolver.requireUser(authentication);
         // Exemplo de uso do OrganizationContext
         organizationContext.getCurrentOrganizationId().ifPresent(orgId -> 
             logger.info("Requisição de tutorial do usuário {} da organização {}", user.getId(), orgId)
@@ -41,9 +47,10 @@ public class TutorialController {
 
     @PostMapping
     public ResponseEntity<TutorialProgressResponseDTO> markAsViewed(
-            @AuthenticationPrincipal User user,
+            Authentication authentication,
             @RequestBody @Valid MarkTutorialViewedDTO dto
     ) {
+        User user = authenticatedUserResolver.requireUser(authentication);
         // Exemplo de uso do OrganizationContext
         organizationContext.getCurrentOrganizationId().ifPresent(orgId -> 
             logger.info("Marcando tutorial '{}' como visto para usuário {} da organização {}", 
@@ -1,5 +1,7 @@
 package com.gomech.controller;
 
+import com.gomech.configuration.AuthenticatedUserResolver;
+import com.gomech.configuration.PrincipalCache;
 import com.gomech.dto.User.CreateUserDTO;
 import com.gomech.dto.User.UserResponseDTO;
 import com.gomech.model.Organization;
@@ -33,6 +35,8 @@ public class UserController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final MfaService mfaService;
+    private final PrincipalCache principalCache;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -41,7 +45,7 @@ public class UserController {
             Authentication authentication,
             @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = authenticatedUserResolver.requireUser(authentication);
         Organization organization = currentUser.getOrganization();
         
         Page<UserResponseDTO> users = userRepository
@@ -57,7 +61,7 @@ public class UserController {
             @PathVariable Long id,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = authenticatedUserResolver.requireUser(authentication);
         
         return userRepository.findById(id)
                 .filter(user -> user.getOrganization().getId().equals(currentUser.getOrganization().getId()))
@@ -73,7 +77,7 @@ public class UserController {
             @Valid @RequestBody CreateUserDTO dto,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = authenticatedUserResolver.requireUser(authentication);
         Organization organization = currentUser.getOrganization();
         
         // Check if email already exists
@@ -116,13 +120,14 @@ public class UserController {
             @PathVariable Long id,
             Authentication authentication) {
         
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = authenticatedUserResolver.requireUser(authentication);
         
         return userRepository.findById(id)
                 .filter(user -> user.getOrganization().getId().equals(currentUser.getOrganization().getId()))
                 .filter(user -> !user.getId().equals(currentUser.getId())) // Can't delete yourself
                 .map(user -> {
                     userRepository.delete(user);
+                    principalCache.evictUser(user.getEmail());
                     return ResponseEntity.noContent().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -1,9 +1,13 @@
 package com.gomech.controller;
 
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Vehicles.VehicleCreateDTO;
 import com.gomech.dto.Vehicles.VehicleResponseDTO;
 import com.gomech.dto.Vehicles.VehicleUpdateDTO;
 import com.gomech.dto.PageResponse;
+import com.gomech.exporter.ExportFormat;
+import com.gomech.exporter.ExportLayout;
 import com.gomech.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -17,6 +21,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -35,7 +40,7 @@ public class VehicleController {
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<List<VehicleResponseDTO>> upload(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDTO> upload(@RequestParam("file") MultipartFile file) {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(service.saveFromFile(file));
@@ -60,17 +65,15 @@ public class VehicleController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<InputStreamResource> export(@RequestParam(defaultValue = "csv") String format) {
-        var stream = service.exportToFile(format);
-        String ext = (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) ? "xlsx" : "csv";
-        MediaType type = ext.equals("xlsx")
-                ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                : MediaType.parseMediaType("text/csv");
-
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // A organização é capturada na thread da requisição; o corpo é escrito em outra thread
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        StreamingResponseBody body = output -> service.exportToFile(organizationId, exportFormat, output);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vehicles." + ext)
-                .contentType(type)
-                .body(new InputStreamResource(stream));
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vehicles." + exportFormat.extension())
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .body(body);
     }
 
     @GetMapping("/template")
@@ -111,18 +114,18 @@ public class VehicleController {
     }
 
     @GetMapping("/{id}/service-history/export")
-    public ResponseEntity<InputStreamResource> exportServiceHistory(
+    public ResponseEntity<StreamingResponseBody> exportServiceHistory(
             @PathVariable Long id,
             @RequestParam(defaultValue = "csv") String format) {
-        var stream = service.exportServiceHistory(id, format);
-        String ext = (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) ? "xlsx" : "csv";
-        MediaType type = ext.equals("xlsx")
-                ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                : MediaType.parseMediaType("text/csv");
-
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        // Valida o veículo antes de a resposta começar
+        ExportLayout layout = service.serviceHistoryExportLayout(organizationId, id);
+        StreamingResponseBody body = output -> service.exportServiceHistory(organizationId, id, layout, exportFormat, output);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vehicle_" + id + "_service_history." + ext)
-                .contentType(type)
-                .body(new InputStreamResource(stream));
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=vehicle_" + id + "_service_history." + exportFormat.extension())
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .body(body);
     }
 }
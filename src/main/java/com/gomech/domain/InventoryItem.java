@@ -10,8 +10,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -32,11 +34,13 @@ import java.util.List;
 @Table(name = "inventory_items", uniqueConstraints = {
         @UniqueConstraint(name = "uk_inventory_part_location", columnNames = {"part_id", "location"})
 })
-@jakarta.persistence.EntityListeners(com.gomech.listener.OrganizationEntityListener.class)
+@jakarta.persistence.EntityListeners({com.gomech.listener.OrganizationEntityListener.class,
+        com.gomech.listener.OperationalHealthEntityListener.class})
 public class InventoryItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_items_seq")
+    @SequenceGenerator(name = "inventory_items_seq", sequenceName = "inventory_items_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -66,6 +70,10 @@ public class InventoryItem {
     @Column(name = "sale_price", precision = 10, scale = 2)
     private BigDecimal salePrice;
 
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,14 @@
+package com.gomech.dto.Analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * OSs abertas e receita do mês anterior e do mês atual; as contagens vêm nulas quando não há OS no período.
+ */
+public record MonthOverMonthTotals(
+        Long previousOrders,
+        Long currentOrders,
+        BigDecimal previousRevenue,
+        BigDecimal currentRevenue
+) {
+}
@@ -0,0 +1,12 @@
+package com.gomech.dto.Audit;
+
+import java.time.Instant;
+import java.util.List;
+
+public record AuditChainReport(
+        Instant startedAt,
+        Instant finishedAt,
+        boolean valid,
+        List<AuditChainResult> organizations
+) {
+}
@@ -0,0 +1,12 @@
+package com.gomech.dto.Audit;
+
+public record AuditChainResult(
+        long organizationKey,
+        long fromSeq,
+        long toSeq,
+        long eventsChecked,
+        boolean valid,
+        Long brokenAtSeq,
+        String reason
+) {
+}
@@ -0,0 +1,14 @@
+package com.gomech.dto.Audit;
+
+import java.util.List;
+
+/**
+ * Página por cursor, sem contagem total: {@code nextCursor} é nulo na última página.
+ */
+public record AuditEventCursorPage(
+        List<AuditEventResponse> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,12 @@
+package com.gomech.dto.Audit;
+
+import java.time.LocalDateTime;
+
+public record AuditEventFilter(
+        Long organizationId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        String actionType,
+        String userEmail
+) {
+}
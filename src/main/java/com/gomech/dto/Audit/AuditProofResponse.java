@@ -0,0 +1,17 @@
+package com.gomech.dto.Audit;
+
+import com.gomech.model.AuditAnchorStatus;
+
+public record AuditProofResponse(
+        Long eventId,
+        String eventHash,
+        boolean payloadHashValid,
+        Long anchorId,
+        Integer leafIndex,
+        String merkleProof,
+        String merkleRoot,
+        AuditAnchorStatus anchorStatus,
+        String transactionHash,
+        boolean proofValid
+) {
+}
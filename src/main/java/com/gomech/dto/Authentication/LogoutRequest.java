@@ -0,0 +1,4 @@
+package com.gomech.dto.Authentication;
+
+public record LogoutRequest(String refreshToken) {
+}
@@ -0,0 +1,17 @@
+package com.gomech.dto.Clients;
+
+import java.util.Date;
+
+/**
+ * Projeção da exportação de clientes: lida por cursor sem carregar a entidade nem seus veículos.
+ */
+public record ClientExportRowDTO(
+        String name,
+        String document,
+        String phone,
+        String email,
+        String address,
+        Date birthDate,
+        String observations
+) {
+}
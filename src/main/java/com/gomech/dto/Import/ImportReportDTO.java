@@ -0,0 +1,34 @@
+package com.gomech.dto.Import;
+
+import com.gomech.model.ImportJob;
+import com.gomech.model.ImportJobStatus;
+
+import java.util.List;
+
+public record ImportReportDTO(
+        Long jobId,
+        String entityType,
+        String fileName,
+        ImportJobStatus status,
+        long rowsProcessed,
+        long rowsImported,
+        long rowsFailed,
+        long resumedFromRow,
+        List<ImportRowErrorDTO> errors,
+        boolean errorsTruncated
+) {
+    public static ImportReportDTO fromJob(ImportJob job, List<ImportRowErrorDTO> errors) {
+        return new ImportReportDTO(
+                job.getId(),
+                job.getEntityType(),
+                job.getFileName(),
+                job.getStatus(),
+                job.getRowsProcessed(),
+                job.getRowsImported(),
+                job.getRowsFailed(),
+                job.getResumedFromRow(),
+                errors,
+                job.getRowsFailed() > errors.size()
+        );
+    }
+}
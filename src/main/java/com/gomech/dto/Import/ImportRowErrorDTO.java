@@ -0,0 +1,7 @@
+package com.gomech.dto.Import;
+
+public record ImportRowErrorDTO(
+        long row,
+        String message
+) {
+}
@@ -0,0 +1,23 @@
+package com.gomech.dto.Inventory;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha de um lote de movimentações. {@code ENTRY} usa {@code partId}/{@code location};
+ * {@code RESERVATION} e {@code CONSUMPTION} usam {@code serviceOrderItemId}.
+ */
+public record StockBatchLineDTO(
+        @NotNull StockBatchOperation operation,
+        Long partId,
+        String location,
+        Long serviceOrderItemId,
+        @NotNull @Min(1) Integer quantity,
+        BigDecimal unitCost,
+        BigDecimal salePrice,
+        String referenceCode,
+        String notes
+) {
+}
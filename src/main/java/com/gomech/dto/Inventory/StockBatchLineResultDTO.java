@@ -0,0 +1,16 @@
+package com.gomech.dto.Inventory;
+
+/**
+ * Resultado de uma linha do lote; {@code line} é a posição (base 0) na requisição.
+ * Os saldos refletem o item logo após a linha, na ordem em que as linhas do mesmo item foram aplicadas.
+ */
+public record StockBatchLineResultDTO(
+        int line,
+        StockBatchOperation operation,
+        boolean applied,
+        Long inventoryItemId,
+        Integer quantityAfter,
+        Integer reservedQuantityAfter,
+        String message
+) {
+}
@@ -0,0 +1,7 @@
+package com.gomech.dto.Inventory;
+
+public enum StockBatchOperation {
+    ENTRY,
+    RESERVATION,
+    CONSUMPTION
+}
@@ -0,0 +1,11 @@
+package com.gomech.dto.Inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record StockBatchRequestDTO(
+        @NotEmpty List<@Valid StockBatchLineDTO> lines
+) {
+}
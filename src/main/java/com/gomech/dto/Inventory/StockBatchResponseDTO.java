@@ -0,0 +1,11 @@
+package com.gomech.dto.Inventory;
+
+import java.util.List;
+
+public record StockBatchResponseDTO(
+        int received,
+        int applied,
+        int rejected,
+        List<StockBatchLineResultDTO> results
+) {
+}
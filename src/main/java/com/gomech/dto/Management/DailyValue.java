@@ -0,0 +1,9 @@
+package com.gomech.dto.Management;
+
+import java.time.LocalDate;
+
+public record DailyValue(
+        LocalDate day,
+        Number value
+) {
+}
@@ -0,0 +1,13 @@
+package com.gomech.dto.Management;
+
+/**
+ * Avaliações registradas em um dia: NPS (promotores 9-10, detratores 0-6) e notas de 1 a 5.
+ */
+public record KpiFeedbackDay(
+        Long npsResponses,
+        Long npsPromoters,
+        Long npsDetractors,
+        Long ratings,
+        Long ratingSum
+) {
+}
@@ -0,0 +1,18 @@
+package com.gomech.dto.Management;
+
+import java.math.BigDecimal;
+
+/**
+ * OSs abertas em um dia: contagens por desfecho e somas das finalizadas.
+ */
+public record KpiOrderDay(
+        Long orders,
+        Long finishedOrders,
+        Long cancelledOrders,
+        BigDecimal revenue,
+        BigDecimal laborCost,
+        BigDecimal partsCost,
+        Number completionSeconds,
+        Long completedWithTime
+) {
+}
@@ -0,0 +1,15 @@
+package com.gomech.dto.Management;
+
+import java.math.BigDecimal;
+
+public record KpiPeriodTotals(
+        Long orders,
+        Long finishedOrders,
+        BigDecimal revenue,
+        Long completionSeconds,
+        Long completedWithTime,
+        Long npsResponses,
+        Long npsPromoters,
+        Long npsDetractors
+) {
+}
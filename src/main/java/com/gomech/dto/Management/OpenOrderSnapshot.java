@@ -0,0 +1,13 @@
+package com.gomech.dto.Management;
+
+import com.gomech.model.ServiceOrderStatus;
+
+import java.time.LocalDateTime;
+
+public record OpenOrderSnapshot(
+        Long orderId,
+        ServiceOrderStatus status,
+        String technicianName,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.gomech.dto.Management;
+
+import com.gomech.model.ServiceOrderStatus;
+
+/**
+ * Quantidade de OSs por status e quantas delas foram abertas antes do corte informado.
+ */
+public record OrderStatusCount(
+        ServiceOrderStatus status,
+        Long orders,
+        Long openedBefore
+) {
+}
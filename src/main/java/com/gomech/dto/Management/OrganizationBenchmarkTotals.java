@@ -0,0 +1,15 @@
+package com.gomech.dto.Management;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de uma organização no período do benchmark, somados dos rollups diários em uma única consulta.
+ */
+public record OrganizationBenchmarkTotals(
+        Long organizationId,
+        Long finishedOrders,
+        BigDecimal revenue,
+        Long ratingCount,
+        Long ratingSum
+) {
+}
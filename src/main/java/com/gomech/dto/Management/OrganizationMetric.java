@@ -0,0 +1,10 @@
+package com.gomech.dto.Management;
+
+/**
+ * Valor agregado (média, contagem) de uma organização.
+ */
+public record OrganizationMetric(
+        Long organizationId,
+        Number value
+) {
+}
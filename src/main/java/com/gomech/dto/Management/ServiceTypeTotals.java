@@ -0,0 +1,12 @@
+package com.gomech.dto.Management;
+
+import java.math.BigDecimal;
+
+public record ServiceTypeTotals(
+        String serviceType,
+        Long finishedOrders,
+        BigDecimal revenue,
+        BigDecimal laborCost,
+        BigDecimal partsCost
+) {
+}
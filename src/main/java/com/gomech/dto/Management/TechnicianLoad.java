@@ -0,0 +1,8 @@
+package com.gomech.dto.Management;
+
+public record TechnicianLoad(
+        Long technicianId,
+        String technicianName,
+        Long activeOrders
+) {
+}
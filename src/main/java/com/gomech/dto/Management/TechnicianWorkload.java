@@ -0,0 +1,18 @@
+package com.gomech.dto.Management;
+
+import com.gomech.model.ServiceOrderStatus;
+
+import java.util.Map;
+
+/**
+ * Carga de um técnico: OSs em aberto atribuídas a ele, por status. {@code registered} é falso para nomes que
+ * constam em OSs mas não correspondem a um usuário técnico da organização.
+ */
+public record TechnicianWorkload(
+        String technicianName,
+        boolean registered,
+        Map<ServiceOrderStatus, Integer> openOrdersByStatus,
+        int openOrders,
+        int activeOrders
+) {
+}
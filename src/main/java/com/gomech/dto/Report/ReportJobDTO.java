@@ -0,0 +1,36 @@
+package com.gomech.dto.Report;
+
+import com.gomech.model.ReportJob;
+import com.gomech.model.ReportJobStatus;
+
+import java.time.Instant;
+
+/**
+ * Situação de um job de relatório. {@code reused} indica que o pedido foi atendido por um job já existente
+ * (mesmo tipo e período, dentro da validade).
+ */
+public record ReportJobDTO(
+        Long jobId,
+        String reportType,
+        int periodDays,
+        ReportJobStatus status,
+        boolean reused,
+        Instant createdAt,
+        Instant finishedAt,
+        Instant expiresAt,
+        String errorMessage
+) {
+    public static ReportJobDTO fromJob(ReportJob job, boolean reused) {
+        return new ReportJobDTO(
+                job.getId(),
+                job.getReportType(),
+                job.getPeriodDays(),
+                job.getStatus(),
+                reused,
+                job.getCreatedAt(),
+                job.getFinishedAt(),
+                job.getExpiresAt(),
+                job.getErrorMessage()
+        );
+    }
+}
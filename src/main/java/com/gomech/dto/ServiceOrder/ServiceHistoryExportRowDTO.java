@@ -0,0 +1,28 @@
+package com.gomech.dto.ServiceOrder;
+
+import com.gomech.model.ServiceOrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção da exportação do histórico de serviços de um veículo, sem itens nem movimentações.
+ */
+public record ServiceHistoryExportRowDTO(
+        String orderNumber,
+        LocalDateTime createdAt,
+        LocalDateTime actualCompletion,
+        ServiceOrderStatus status,
+        String description,
+        String problemDescription,
+        String diagnosis,
+        String solutionDescription,
+        String technicianName,
+        BigDecimal currentKilometers,
+        BigDecimal laborCost,
+        BigDecimal partsCost,
+        BigDecimal discount,
+        BigDecimal totalCost,
+        String observations
+) {
+}
@@ -0,0 +1,19 @@
+package com.gomech.dto.Vehicles;
+
+import java.util.Date;
+
+/**
+ * Projeção da exportação de veículos: lida por cursor sem carregar a entidade nem o cliente.
+ */
+public record VehicleExportRowDTO(
+        Long clientId,
+        String licensePlate,
+        String brand,
+        String model,
+        Date manufactureDate,
+        String color,
+        String observations,
+        Integer kilometers,
+        String chassisId
+) {
+}
@@ -0,0 +1,35 @@
+package com.gomech.exporter;
+
+/**
+ * Formato de saída de uma exportação.
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Parâmetro {@code format} das rotas de exportação: {@code xlsx}/{@code xls} geram planilha, o resto CSV.
+     */
+    public static ExportFormat fromParam(String format) {
+        if (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) {
+            return XLSX;
+        }
+        return CSV;
+    }
+}
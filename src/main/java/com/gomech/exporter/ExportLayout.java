@@ -0,0 +1,15 @@
+package com.gomech.exporter;
+
+/**
+ * Estrutura do arquivo exportado.
+ *
+ * @param sheetName nome da planilha (XLSX)
+ * @param title     linha de título acima do cabeçalho, seguida de uma linha em branco (apenas XLSX; opcional)
+ * @param headers   cabeçalho das colunas
+ */
+public record ExportLayout(String sheetName, String title, String... headers) {
+
+    public ExportLayout withTitle(String title) {
+        return new ExportLayout(sheetName, title, headers);
+    }
+}
@@ -0,0 +1,198 @@
+package com.gomech.exporter;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exportação em fluxo: a consulta é lida por cursor (Stream do Spring Data sobre o ScrollableResults do Hibernate,
+ * com fetch size) dentro de uma transação somente leitura e cada linha vai direto para a saída da resposta.
+ * <ul>
+ *     <li>CSV: commons-csv sobre a saída, descarregado a cada {@code export.flush-rows} linhas.</li>
+ *     <li>XLSX: SXSSF mantém só {@code export.xlsx.row-window} linhas em memória; as anteriores vão para um arquivo
+ *     temporário compactado, copiado para a saída ao final e apagado em seguida.</li>
+ * </ul>
+ */
+@Service
+public class StreamingExportService {
+
+    private static final int COLUMN_WIDTH = 20;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rowWindow;
+    private final int flushRows;
+
+    public StreamingExportService(PlatformTransactionManager transactionManager,
+                                  @Value("${export.xlsx.row-window:100}") int rowWindow,
+                                  @Value("${export.flush-rows:500}") int flushRows) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rowWindow = rowWindow;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * @param query   consulta em cursor; aberta e fechada dentro da transação de leitura
+     * @param toCells células de uma linha ({@link Number} vira célula numérica no XLSX; {@code null} fica vazia)
+     * @return quantidade de linhas exportadas
+     */
+    public <T> long export(ExportFormat format, ExportLayout layout, Supplier<Stream<T>> query,
+                           Function<T, Object[]> toCells, OutputStream output) throws IOException {
+        try (TabularWriter writer = format == ExportFormat.XLSX
+                ? new XlsxWriter(layout, rowWindow, output)
+                : new CsvWriter(layout, output)) {
+            Long rows = readOnlyTransaction.execute(status -> writeRows(query, toCells, writer));
+            writer.finish();
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> long writeRows(Supplier<Stream<T>> query, Function<T, Object[]> toCells, TabularWriter writer) {
+        long rows = 0;
+        try (Stream<T> stream = query.get()) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(toCells.apply(iterator.next()));
+                if (++rows % flushRows == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private interface TabularWriter extends Closeable {
+
+        void write(Object[] cells) throws IOException;
+
+        void flush() throws IOException;
+
+        /**
+         * Conclui o arquivo na saída; a saída em si pertence ao container e não é fechada.
+         */
+        void finish() throws IOException;
+    }
+
+    private static final class CsvWriter implements TabularWriter {
+
+        private final CSVPrinter printer;
+
+        private CsvWriter(ExportLayout layout, OutputStream output) throws IOException {
+            CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                    .setHeader(layout.headers())
+                    .build();
+            this.printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)),
+                    csvFormat);
+        }
+
+        @Override
+        public void write(Object[] cells) throws IOException {
+            printer.printRecord(cells);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            printer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            printer.flush();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class XlsxWriter implements TabularWriter {
+
+        private final SXSSFWorkbook workbook;
+        private final Sheet sheet;
+        private final OutputStream output;
+        private int nextRow;
+
+        private XlsxWriter(ExportLayout layout, int rowWindow, OutputStream output) {
+            this.output = output;
+            this.workbook = new SXSSFWorkbook(rowWindow);
+            this.workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(layout.sheetName());
+            // Largura fixa: autoSizeColumn exigiria medir todas as células de todas as linhas
+            sheet.setDefaultColumnWidth(COLUMN_WIDTH);
+
+            CellStyle bold = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            bold.setFont(font);
+
+            if (layout.title() != null) {
+                Cell title = sheet.createRow(nextRow++).createCell(0);
+                title.setCellValue(layout.title());
+                title.setCellStyle(bold);
+                sheet.createRow(nextRow++);
+            }
+            Row header = sheet.createRow(nextRow++);
+            String[] headers = layout.headers();
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(bold);
+            }
+        }
+
+        @Override
+        public void write(Object[] cells) {
+            Row row = sheet.createRow(nextRow++);
+            for (int i = 0; i < cells.length; i++) {
+                Object value = cells[i];
+                if (value instanceof Number number) {
+                    row.createCell(i).setCellValue(number.doubleValue());
+                } else if (value != null) {
+                    row.createCell(i).setCellValue(value.toString());
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            // A janela do SXSSF já descarrega as linhas antigas no arquivo temporário
+        }
+
+        @Override
+        public void finish() throws IOException {
+            workbook.write(output);
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gomech.forecast;
+
+/**
+ * Holt-Winters aditivo (nível, tendência e sazonalidade) em fluxo. As duas primeiras temporadas inicializam o
+ * modelo; a partir daí cada ponto atualiza nível, tendência e um índice sazonal em O(1).
+ */
+final class HoltWinters {
+
+    private final int seasonLength;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[] seasonal;
+    private double[] warmup;
+    private int warmupCount;
+    private long points;
+    private double level;
+    private double trend;
+
+    HoltWinters(int seasonLength, double alpha, double beta, double gamma) {
+        this.seasonLength = seasonLength;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonal = new double[seasonLength];
+        this.warmup = new double[2 * seasonLength];
+    }
+
+    void add(double value) {
+        int position = (int) (points++ % seasonLength);
+        if (warmup != null) {
+            warmup[warmupCount++] = value;
+            if (warmupCount == warmup.length) {
+                initialize();
+            }
+            return;
+        }
+        double season = seasonal[position];
+        double previousLevel = level;
+        level = alpha * (value - season) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        seasonal[position] = gamma * (value - level) + (1 - gamma) * season;
+    }
+
+    boolean ready() {
+        return warmup == null;
+    }
+
+    long points() {
+        return points;
+    }
+
+    double trend() {
+        return trend;
+    }
+
+    /**
+     * Valor previsto {@code horizon} pontos após o último observado; exige {@link #ready()}.
+     */
+    double forecast(int horizon) {
+        return level + horizon * trend + seasonal[(int) ((points - 1 + horizon) % seasonLength)];
+    }
+
+    private void initialize() {
+        double firstMean = 0;
+        double secondMean = 0;
+        for (int i = 0; i < seasonLength; i++) {
+            firstMean += warmup[i];
+            secondMean += warmup[seasonLength + i];
+        }
+        firstMean /= seasonLength;
+        secondMean /= seasonLength;
+
+        trend = (secondMean - firstMean) / seasonLength;
+        for (int i = 0; i < seasonLength; i++) {
+            seasonal[i] = ((warmup[i] - firstMean) + (warmup[seasonLength + i] - secondMean)) / 2;
+        }
+        // A média da segunda temporada corresponde ao seu meio; o nível fica no último ponto observado
+        level = secondMean + trend * (seasonLength - 1) / 2.0;
+        warmup = null;
+    }
+}
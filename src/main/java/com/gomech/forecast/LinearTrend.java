@@ -0,0 +1,46 @@
+package com.gomech.forecast;
+
+/**
+ * Regressão linear por mínimos quadrados em fluxo: guarda apenas as somas, então cada ponto novo custa O(1) e a
+ * reta ajustada está sempre disponível sem revisitar a série. O eixo x é o índice do ponto (um dia por ponto).
+ */
+final class LinearTrend {
+
+    private long points;
+    private double sumX;
+    private double sumY;
+    private double sumXY;
+    private double sumXX;
+
+    void add(double value) {
+        double x = points++;
+        sumX += x;
+        sumY += value;
+        sumXY += x * value;
+        sumXX += x * x;
+    }
+
+    long points() {
+        return points;
+    }
+
+    double slope() {
+        double denominator = points * sumXX - sumX * sumX;
+        return denominator == 0 ? 0 : (points * sumXY - sumX * sumY) / denominator;
+    }
+
+    double intercept() {
+        return points == 0 ? 0 : (sumY - slope() * sumX) / points;
+    }
+
+    double mean() {
+        return points == 0 ? 0 : sumY / points;
+    }
+
+    /**
+     * Valor previsto {@code horizon} pontos após o último observado.
+     */
+    double forecast(int horizon) {
+        return intercept() + slope() * (points - 1 + horizon);
+    }
+}
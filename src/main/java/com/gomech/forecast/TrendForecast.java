@@ -0,0 +1,23 @@
+package com.gomech.forecast;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @param model          {@code holt_winters}, {@code linear} ou {@code insufficient_data}
+ * @param historyPoints  dias observados desde o primeiro com movimento
+ * @param slopePerDay    inclinação da regressão linear sobre todo o histórico
+ */
+public record TrendForecast(
+        TrendMetric metric,
+        String model,
+        long historyPoints,
+        LocalDate lastObservedDay,
+        double slopePerDay,
+        double meanPerDay,
+        List<ForecastPoint> forecast
+) {
+
+    public record ForecastPoint(LocalDate day, double value) {
+    }
+}
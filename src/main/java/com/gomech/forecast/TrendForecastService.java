@@ -0,0 +1,147 @@
+package com.gomech.forecast;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gomech.dto.Management.DailyValue;
+import com.gomech.repository.InventoryMovementRepository;
+import com.gomech.repository.KpiDailyRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tendência e previsão das séries diárias, calculadas na JVM (sem o serviço Python).
+ * <p>
+ * Os modelos ajustados ficam em cache por organização e métrica. Cada consulta só lê os dias completos ainda
+ * não vistos pelo modelo (em geral nenhum ou um) e os aplica em O(1) por ponto; a previsão em si é
+ * O({@code forecastDays}). O cache expira após {@code analytics.trends.model-ttl-minutes}, e o novo ajuste
+ * absorve correções retroativas da série (ex.: OS antiga concluída, que muda a receita do dia em que foi aberta).
+ */
+@Service
+public class TrendForecastService {
+
+    public static final String CACHE_NAME = "trendModelCache";
+    public static final int MAX_FORECAST_DAYS = 365;
+
+    // Oficinas têm ciclo semanal (movimento concentrado em dias úteis)
+    private static final int SEASON_LENGTH = 7;
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.05;
+    private static final double GAMMA = 0.2;
+
+    private final KpiDailyRollupRepository rollupRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final Cache<ModelKey, FittedSeries> models;
+    private final int historyDays;
+
+    public TrendForecastService(KpiDailyRollupRepository rollupRepository,
+                                InventoryMovementRepository movementRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${analytics.trends.history-days:365}") int historyDays,
+                                @Value("${analytics.trends.model-ttl-minutes:360}") long modelTtlMinutes,
+                                @Value("${analytics.trends.max-models:10000}") long maxModels) {
+        this.rollupRepository = rollupRepository;
+        this.movementRepository = movementRepository;
+        this.historyDays = historyDays;
+        this.models = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(modelTtlMinutes))
+                .maximumSize(maxModels)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, models, CACHE_NAME);
+    }
+
+    /**
+     * Previsão dos próximos {@code forecastDays} dias a partir do último dia completo (ontem).
+     */
+    public TrendForecast forecast(Long organizationId, TrendMetric metric, int forecastDays) {
+        if (forecastDays < 1 || forecastDays > MAX_FORECAST_DAYS) {
+            throw new IllegalArgumentException("forecastDays deve estar entre 1 e " + MAX_FORECAST_DAYS);
+        }
+        LocalDate lastCompleteDay = LocalDate.now().minusDays(1);
+        FittedSeries series = models.get(new ModelKey(organizationId, metric),
+                key -> new FittedSeries(lastCompleteDay.minusDays(historyDays)));
+
+        synchronized (series) {
+            if (series.lastDay.isBefore(lastCompleteDay)) {
+                series.append(load(organizationId, metric, series.lastDay.plusDays(1), lastCompleteDay),
+                        series.lastDay.plusDays(1), lastCompleteDay);
+            }
+            return series.forecast(metric, forecastDays);
+        }
+    }
+
+    private Map<LocalDate, Double> load(Long organizationId, TrendMetric metric, LocalDate from, LocalDate to) {
+        List<DailyValue> values = switch (metric) {
+            case ORDERS -> rollupRepository.sumDailyOrders(organizationId, from.minusDays(1), to);
+            case REVENUE -> rollupRepository.sumDailyRevenue(organizationId, from.minusDays(1), to);
+            case CONSUMPTION -> movementRepository.sumDailyConsumption(organizationId, from.atStartOfDay(),
+                    to.plusDays(1).atStartOfDay());
+        };
+        Map<LocalDate, Double> byDay = new HashMap<>();
+        for (DailyValue value : values) {
+            byDay.put(value.day(), value.value() != null ? value.value().doubleValue() : 0);
+        }
+        return byDay;
+    }
+
+    private record ModelKey(Long organizationId, TrendMetric metric) {
+    }
+
+    /**
+     * Modelos de uma série, alimentados dia a dia. Dias sem movimento entram como zero, exceto antes do primeiro
+     * dia com movimento (organização recém-criada não deve parecer uma série de zeros em queda).
+     */
+    private static final class FittedSeries {
+
+        private final LinearTrend linear = new LinearTrend();
+        private final HoltWinters holtWinters = new HoltWinters(SEASON_LENGTH, ALPHA, BETA, GAMMA);
+        private LocalDate lastDay;
+
+        private FittedSeries(LocalDate start) {
+            this.lastDay = start.minusDays(1);
+        }
+
+        private void append(Map<LocalDate, Double> values, LocalDate from, LocalDate to) {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                double value = values.getOrDefault(day, 0.0);
+                if (linear.points() > 0 || value != 0) {
+                    linear.add(value);
+                    holtWinters.add(value);
+                }
+            }
+            lastDay = to;
+        }
+
+        private TrendForecast forecast(TrendMetric metric, int forecastDays) {
+            String model;
+            if (holtWinters.ready()) {
+                model = "holt_winters";
+            } else if (linear.points() >= 2) {
+                model = "linear";
+            } else {
+                model = "insufficient_data";
+            }
+
+            List<TrendForecast.ForecastPoint> points = new ArrayList<>(forecastDays);
+            for (int horizon = 1; horizon <= forecastDays; horizon++) {
+                double value = switch (model) {
+                    case "holt_winters" -> holtWinters.forecast(horizon);
+                    case "linear" -> linear.forecast(horizon);
+                    default -> linear.mean();
+                };
+                // Contagens e valores não ficam negativos
+                points.add(new TrendForecast.ForecastPoint(lastDay.plusDays(horizon), Math.max(0, value)));
+            }
+            return new TrendForecast(metric, model, linear.points(), lastDay, linear.slope(), linear.mean(), points);
+        }
+    }
+}
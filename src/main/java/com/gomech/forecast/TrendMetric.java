@@ -0,0 +1,24 @@
+package com.gomech.forecast;
+
+import java.util.Locale;
+
+/**
+ * Séries diárias disponíveis para tendência e previsão.
+ */
+public enum TrendMetric {
+    /** OSs abertas por dia (rollups de KPIs). */
+    ORDERS,
+    /** Receita das OSs finalizadas, pelo dia de abertura (rollups de KPIs). */
+    REVENUE,
+    /** Peças consumidas (saídas de estoque) por dia. */
+    CONSUMPTION;
+
+    public static TrendMetric fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Métrica de tendência desconhecida: " + value
+                    + " (use orders, revenue ou consumption)");
+        }
+    }
+}
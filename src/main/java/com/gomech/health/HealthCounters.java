@@ -0,0 +1,13 @@
+package com.gomech.health;
+
+/**
+ * Contadores que compõem o score de saúde operacional de uma organização.
+ */
+public record HealthCounters(
+        long delayedOrders,
+        long inProgressOrders,
+        long overloadedTechnicians,
+        long idleTechnicians,
+        long itemsBelowMinimum
+) {
+}
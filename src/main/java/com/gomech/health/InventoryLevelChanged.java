@@ -0,0 +1,15 @@
+package com.gomech.health;
+
+import com.gomech.domain.InventoryItem;
+
+/**
+ * Saldo de um item de estoque gravado (ou removido) na transação; aplicado aos contadores após o commit.
+ */
+public record InventoryLevelChanged(Long organizationId, Long inventoryItemId, boolean belowMinimum) {
+
+    public static InventoryLevelChanged of(InventoryItem item, boolean removed) {
+        boolean belowMinimum = !removed && item.getQuantity() != null && item.getMinimumQuantity() != null
+                && item.getQuantity() <= item.getMinimumQuantity();
+        return new InventoryLevelChanged(item.getOrganization().getId(), item.getId(), belowMinimum);
+    }
+}
@@ -0,0 +1,214 @@
+package com.gomech.health;
+
+import com.gomech.dto.Management.OrderStatusCount;
+import com.gomech.dto.Management.TechnicianLoad;
+import com.gomech.dto.Management.TechnicianWorkload;
+import com.gomech.model.Role;
+import com.gomech.model.ServiceOrderStatus;
+import com.gomech.repository.ManagementReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contadores do score de saúde operacional (OSs atrasadas, em andamento, carga dos técnicos, itens abaixo do
+ * mínimo) mantidos em memória por organização, para que gargalos, dashboard e score não varram OSs e estoque a
+ * cada requisição. O mesmo estado serve o índice de carga por técnico do quadro de despacho ({@link #workload}).
+ * <ul>
+ *     <li>Cada organização é carregada do banco na primeira leitura após a subida da aplicação.</li>
+ *     <li>OSs e itens gravados chegam como eventos após o commit ({@link ServiceOrderHealthChanged},
+ *     {@link InventoryLevelChanged}) e atualizam os contadores por diferença.</li>
+ *     <li>{@link #reconcile()} compara os contadores com as agregações do banco e recarrega as organizações que
+ *     divergiram (gravações fora da JPA, técnicos cadastrados ou renomeados, eventos perdidos).</li>
+ * </ul>
+ */
+@Service
+public class OperationalHealthService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationalHealthService.class);
+
+    /**
+     * OSs que contam para atraso e sobrecarga.
+     */
+    public static final List<ServiceOrderStatus> ACTIVE_STATUSES =
+            List.of(ServiceOrderStatus.PENDING, ServiceOrderStatus.IN_PROGRESS);
+    /**
+     * OSs em aberto, acompanhadas no quadro de despacho.
+     */
+    public static final List<ServiceOrderStatus> OPEN_STATUSES = List.of(ServiceOrderStatus.PENDING,
+            ServiceOrderStatus.IN_PROGRESS, ServiceOrderStatus.WAITING_PARTS, ServiceOrderStatus.WAITING_APPROVAL);
+    /**
+     * Técnico sobrecarregado: mais OSs ativas do que este limite (score de saúde e quadro de despacho).
+     */
+    public static final int OVERLOADED_ABOVE = 5;
+
+    private final ManagementReportRepository reportRepository;
+    private final Map<Long, OrganizationHealth> organizations = new ConcurrentHashMap<>();
+
+    public OperationalHealthService(ManagementReportRepository reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    public HealthCounters counters(Long organizationId) {
+        OrganizationHealth health = loaded(organizationId);
+        synchronized (health) {
+            return health.counters(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * OSs em aberto por técnico e status ({@link #OPEN_STATUSES}), sem consulta ao banco.
+     */
+    public List<TechnicianWorkload> workload(Long organizationId) {
+        OrganizationHealth health = loaded(organizationId);
+        synchronized (health) {
+            return health.workload();
+        }
+    }
+
+    /**
+     * OSs em aberto da organização por status.
+     */
+    public Map<ServiceOrderStatus, Integer> openOrdersByStatus(Long organizationId) {
+        OrganizationHealth health = loaded(organizationId);
+        synchronized (health) {
+            return health.openOrdersByStatus();
+        }
+    }
+
+    /**
+     * Recarrega os contadores da organização a partir do banco.
+     */
+    public void rebuild(Long organizationId) {
+        OrganizationHealth health = organizations.computeIfAbsent(organizationId, id -> new OrganizationHealth());
+        synchronized (health) {
+            load(organizationId, health);
+        }
+    }
+
+    /**
+     * Confere os contadores de cada organização carregada com as agregações do banco e recarrega as divergentes.
+     *
+     * @return quantidade de organizações recarregadas
+     */
+    public int reconcile() {
+        int rebuilt = 0;
+        for (Map.Entry<Long, OrganizationHealth> entry : organizations.entrySet()) {
+            Long organizationId = entry.getKey();
+            OrganizationHealth health = entry.getValue();
+            try {
+                synchronized (health) {
+                    if (!health.isLoaded()) {
+                        continue;
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    List<OrderStatusCount> statusCounts = reportRepository.countOrdersByStatus(organizationId,
+                            now.minusDays(OrganizationHealth.DELAYED_AFTER_DAYS));
+                    HealthCounters cached = health.counters(now);
+                    HealthCounters stored = countStored(organizationId, statusCounts);
+                    Map<ServiceOrderStatus, Integer> cachedOpen = health.openOrdersByStatus();
+                    Map<ServiceOrderStatus, Integer> storedOpen = openByStatus(statusCounts);
+                    if (!cached.equals(stored) || !cachedOpen.equals(storedOpen)) {
+                        LOGGER.warn("Contadores de saúde da organização {} divergiram do banco ({} {} x {} {}); " +
+                                "recarregando", organizationId, cached, cachedOpen, stored, storedOpen);
+                        load(organizationId, health);
+                        rebuilt++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha ao conferir contadores de saúde da organização {}: {}", organizationId,
+                        e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onServiceOrderChanged(ServiceOrderHealthChanged event) {
+        OrganizationHealth health = organizations.get(event.organizationId());
+        if (health == null) {
+            return;
+        }
+        synchronized (health) {
+            // Ainda não carregada: a carga lê o estado já gravado
+            if (health.isLoaded()) {
+                health.applyOrder(event.order(), event.removed());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryLevelChanged(InventoryLevelChanged event) {
+        OrganizationHealth health = organizations.get(event.organizationId());
+        if (health == null) {
+            return;
+        }
+        synchronized (health) {
+            if (health.isLoaded()) {
+                health.applyItem(event.inventoryItemId(), event.belowMinimum());
+            }
+        }
+    }
+
+    private OrganizationHealth loaded(Long organizationId) {
+        OrganizationHealth health = organizations.computeIfAbsent(organizationId, id -> new OrganizationHealth());
+        synchronized (health) {
+            if (!health.isLoaded()) {
+                load(organizationId, health);
+            }
+        }
+        return health;
+    }
+
+    private void load(Long organizationId, OrganizationHealth health) {
+        health.load(reportRepository.findOrdersInStatus(organizationId, OPEN_STATUSES),
+                reportRepository.findUserNames(organizationId, Role.TECHNICIAN),
+                reportRepository.findItemIdsAtOrBelowMinimum(organizationId));
+    }
+
+    /**
+     * Os mesmos contadores calculados pelas agregações do banco.
+     */
+    private HealthCounters countStored(Long organizationId, List<OrderStatusCount> statusCounts) {
+        long delayedOrders = statusCounts.stream()
+                .filter(count -> ACTIVE_STATUSES.contains(count.status()))
+                .mapToLong(count -> count.openedBefore() != null ? count.openedBefore() : 0)
+                .sum();
+        long inProgressOrders = statusCounts.stream()
+                .filter(count -> count.status() == ServiceOrderStatus.IN_PROGRESS)
+                .mapToLong(OrderStatusCount::orders)
+                .sum();
+
+        long overloadedTechnicians = 0;
+        long idleTechnicians = 0;
+        for (TechnicianLoad load : reportRepository.countActiveOrdersByTechnician(organizationId,
+                Role.TECHNICIAN, ACTIVE_STATUSES)) {
+            if (load.activeOrders() > OVERLOADED_ABOVE) {
+                overloadedTechnicians++;
+            } else if (load.activeOrders() == 0) {
+                idleTechnicians++;
+            }
+        }
+
+        return new HealthCounters(delayedOrders, inProgressOrders, overloadedTechnicians, idleTechnicians,
+                reportRepository.countItemsAtOrBelowMinimum(organizationId));
+    }
+
+    private static Map<ServiceOrderStatus, Integer> openByStatus(List<OrderStatusCount> statusCounts) {
+        Map<ServiceOrderStatus, Integer> open = new EnumMap<>(ServiceOrderStatus.class);
+        for (OrderStatusCount count : statusCounts) {
+            if (OPEN_STATUSES.contains(count.status()) && count.orders() > 0) {
+                open.put(count.status(), count.orders().intValue());
+            }
+        }
+        return open;
+    }
+}
@@ -0,0 +1,181 @@
+package com.gomech.health;
+
+import com.gomech.dto.Management.OpenOrderSnapshot;
+import com.gomech.dto.Management.TechnicianWorkload;
+import com.gomech.model.ServiceOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Contadores operacionais de uma organização, mantidos por diferença a cada OS ou item alterado (O(1) por
+ * mudança). As OSs em aberto ficam em memória para que cada mudança desfaça o estado anterior da OS; aplicar o
+ * mesmo estado duas vezes não altera os contadores.
+ * <p>
+ * Além dos contadores do score, mantém o índice de carga por técnico: OSs em aberto por status, por nome de
+ * técnico (a OS guarda o nome, não o usuário).
+ * <p>
+ * Não é thread-safe: o {@link OperationalHealthService} sincroniza no objeto.
+ */
+final class OrganizationHealth {
+
+    static final int DELAYED_AFTER_DAYS = 7;
+
+    private final Map<Long, OpenOrderSnapshot> openOrders = new HashMap<>();
+    private final Map<ServiceOrderStatus, Integer> openByStatus = new EnumMap<>(ServiceOrderStatus.class);
+    // OSs ativas ainda no prazo, por abertura; a leitura move as que passaram do prazo para delayedOrders
+    private final TreeMap<LocalDateTime, Set<Long>> onTimeOrders = new TreeMap<>();
+    private final Set<Long> delayedOrders = new HashSet<>();
+    private final Map<String, Map<ServiceOrderStatus, Integer>> openByTechnician = new HashMap<>();
+    private final Map<String, Integer> activeByTechnician = new HashMap<>();
+    // Usuários técnicos com o mesmo nome compartilham a carga
+    private final Map<String, Integer> techniciansByName = new HashMap<>();
+    private final Set<Long> itemsBelowMinimum = new HashSet<>();
+    private long overloadedTechnicians;
+    private long idleTechnicians;
+    private boolean loaded;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void load(Collection<OpenOrderSnapshot> orders, Collection<String> technicianNames,
+              Collection<Long> itemIdsBelowMinimum) {
+        openOrders.clear();
+        openByStatus.clear();
+        onTimeOrders.clear();
+        delayedOrders.clear();
+        openByTechnician.clear();
+        activeByTechnician.clear();
+        techniciansByName.clear();
+        itemsBelowMinimum.clear();
+        overloadedTechnicians = 0;
+        idleTechnicians = 0;
+
+        for (String name : technicianNames) {
+            techniciansByName.merge(name, 1, Integer::sum);
+            idleTechnicians++;
+        }
+        orders.forEach(this::addOrder);
+        itemsBelowMinimum.addAll(itemIdsBelowMinimum);
+        loaded = true;
+    }
+
+    void applyOrder(OpenOrderSnapshot order, boolean removed) {
+        removeOrder(order.orderId());
+        if (!removed && OperationalHealthService.OPEN_STATUSES.contains(order.status())) {
+            addOrder(order);
+        }
+    }
+
+    void applyItem(Long inventoryItemId, boolean belowMinimum) {
+        if (belowMinimum) {
+            itemsBelowMinimum.add(inventoryItemId);
+        } else {
+            itemsBelowMinimum.remove(inventoryItemId);
+        }
+    }
+
+    HealthCounters counters(LocalDateTime now) {
+        LocalDateTime openedBefore = now.minusDays(DELAYED_AFTER_DAYS);
+        while (!onTimeOrders.isEmpty() && onTimeOrders.firstKey().isBefore(openedBefore)) {
+            delayedOrders.addAll(onTimeOrders.pollFirstEntry().getValue());
+        }
+        return new HealthCounters(delayedOrders.size(), openByStatus.getOrDefault(ServiceOrderStatus.IN_PROGRESS, 0),
+                overloadedTechnicians, idleTechnicians, itemsBelowMinimum.size());
+    }
+
+    Map<ServiceOrderStatus, Integer> openOrdersByStatus() {
+        return new EnumMap<>(openByStatus);
+    }
+
+    /**
+     * Carga de cada técnico cadastrado e de cada nome com OS em aberto; O(técnicos).
+     */
+    List<TechnicianWorkload> workload() {
+        Set<String> names = new HashSet<>(techniciansByName.keySet());
+        names.addAll(openByTechnician.keySet());
+        List<TechnicianWorkload> workload = new ArrayList<>(names.size());
+        for (String name : names) {
+            Map<ServiceOrderStatus, Integer> byStatus = openByTechnician.getOrDefault(name, Map.of());
+            workload.add(new TechnicianWorkload(name, techniciansByName.containsKey(name),
+                    byStatus.isEmpty() ? Map.of() : new EnumMap<>(byStatus),
+                    byStatus.values().stream().mapToInt(Integer::intValue).sum(),
+                    activeByTechnician.getOrDefault(name, 0)));
+        }
+        return workload;
+    }
+
+    private void addOrder(OpenOrderSnapshot order) {
+        openOrders.put(order.orderId(), order);
+        openByStatus.merge(order.status(), 1, Integer::sum);
+        if (order.technicianName() != null) {
+            openByTechnician.computeIfAbsent(order.technicianName(), key -> new EnumMap<>(ServiceOrderStatus.class))
+                    .merge(order.status(), 1, Integer::sum);
+        }
+        if (!OperationalHealthService.ACTIVE_STATUSES.contains(order.status())) {
+            return;
+        }
+        // Sem data de abertura a OS nunca conta como atrasada, como na consulta ao banco
+        if (order.createdAt() != null) {
+            onTimeOrders.computeIfAbsent(order.createdAt(), key -> new HashSet<>()).add(order.orderId());
+        }
+        changeLoad(order.technicianName(), 1);
+    }
+
+    private void removeOrder(Long orderId) {
+        OpenOrderSnapshot order = openOrders.remove(orderId);
+        if (order == null) {
+            return;
+        }
+        decrement(openByStatus, order.status());
+        if (order.technicianName() != null) {
+            Map<ServiceOrderStatus, Integer> byStatus = openByTechnician.get(order.technicianName());
+            decrement(byStatus, order.status());
+            if (byStatus.isEmpty()) {
+                openByTechnician.remove(order.technicianName());
+            }
+        }
+        if (!OperationalHealthService.ACTIVE_STATUSES.contains(order.status())) {
+            return;
+        }
+        if (!delayedOrders.remove(orderId) && order.createdAt() != null) {
+            Set<Long> sameInstant = onTimeOrders.get(order.createdAt());
+            sameInstant.remove(orderId);
+            if (sameInstant.isEmpty()) {
+                onTimeOrders.remove(order.createdAt());
+            }
+        }
+        changeLoad(order.technicianName(), -1);
+    }
+
+    private void changeLoad(String technicianName, int delta) {
+        if (technicianName == null) {
+            return;
+        }
+        int before = activeByTechnician.getOrDefault(technicianName, 0);
+        int after = before + delta;
+        if (after == 0) {
+            activeByTechnician.remove(technicianName);
+        } else {
+            activeByTechnician.put(technicianName, after);
+        }
+
+        int technicians = techniciansByName.getOrDefault(technicianName, 0);
+        idleTechnicians += (after == 0 ? technicians : 0) - (before == 0 ? technicians : 0);
+        overloadedTechnicians += (after > OperationalHealthService.OVERLOADED_ABOVE ? technicians : 0)
+                - (before > OperationalHealthService.OVERLOADED_ABOVE ? technicians : 0);
+    }
+
+    private static void decrement(Map<ServiceOrderStatus, Integer> counts, ServiceOrderStatus status) {
+        counts.computeIfPresent(status, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gomech.health;
+
+import com.gomech.dto.Management.OpenOrderSnapshot;
+import com.gomech.model.ServiceOrder;
+
+/**
+ * Estado de uma OS gravado (ou removido) na transação; aplicado aos contadores após o commit.
+ */
+public record ServiceOrderHealthChanged(Long organizationId, OpenOrderSnapshot order, boolean removed) {
+
+    public static ServiceOrderHealthChanged of(ServiceOrder serviceOrder, boolean removed) {
+        return new ServiceOrderHealthChanged(serviceOrder.getOrganization().getId(),
+                new OpenOrderSnapshot(serviceOrder.getId(), serviceOrder.getStatus(),
+                        serviceOrder.getTechnicianName(), serviceOrder.getCreatedAt()),
+                removed);
+    }
+}
@@ -0,0 +1,230 @@
+package com.gomech.importer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Leitura em fluxo da primeira planilha de um arquivo: a primeira linha é o cabeçalho e cada linha seguinte
+ * é entregue ao consumidor assim que lida, sem manter o arquivo inteiro em memória.
+ * <ul>
+ *     <li>CSV: commons-csv, registro a registro.</li>
+ *     <li>XLSX: SAX sobre o XML da planilha ({@link XSSFSheetXMLHandler}); só a tabela de strings compartilhadas
+ *     fica em memória.</li>
+ *     <li>XLS: formato binário antigo, sem leitura em fluxo; carregado via {@link WorkbookFactory} em modo leitura.</li>
+ * </ul>
+ */
+public final class ImportFileReader {
+
+    private ImportFileReader() {
+    }
+
+    /**
+     * @param headerAliases cabeçalhos alternativos (normalizados) para o nome da coluna, ex.: rótulos do modelo em
+     *                      português ({@code nome*} → {@code name})
+     */
+    public static void read(Path file, ImportFormat format, Map<String, String> headerAliases,
+                            Consumer<ImportRow> consumer) throws IOException {
+        switch (format) {
+            case CSV -> readCsv(file, headerAliases, consumer);
+            case XLSX -> readXlsx(file, headerAliases, consumer);
+            case XLS -> readXls(file, headerAliases, consumer);
+        }
+    }
+
+    private static void readCsv(Path file, Map<String, String> headerAliases, Consumer<ImportRow> consumer)
+            throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setAllowMissingColumnNames(true)
+                .build();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = csvFormat.parse(reader)) {
+            List<String> columns = columns(parser.getHeaderNames(), headerAliases);
+            for (CSVRecord record : parser) {
+                Map<String, String> values = emptyValues(columns);
+                for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                    put(values, columns.get(i), record.get(i));
+                }
+                // O cabeçalho ocupa a linha 1
+                consumer.accept(new ImportRow(record.getRecordNumber() + 1, values));
+            }
+        }
+    }
+
+    private static void readXlsx(Path file, Map<String, String> headerAliases, Consumer<ImportRow> consumer)
+            throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                        new StreamingSheetHandler(headerAliases, consumer), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | ParserConfigurationException e) {
+            throw new IOException("Planilha XLSX inválida", e);
+        } catch (SAXException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Planilha XLSX inválida", e);
+        }
+    }
+
+    private static void readXls(Path file, Map<String, String> headerAliases, Consumer<ImportRow> consumer)
+            throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+            DataFormatter formatter = new DataFormatter();
+            Sheet sheet = workbook.getSheetAt(0);
+            List<String> columns = null;
+            for (Row row : sheet) {
+                if (columns == null) {
+                    List<String> headers = new ArrayList<>();
+                    for (Cell cell : row) {
+                        setAt(headers, cell.getColumnIndex(), formatter.formatCellValue(cell));
+                    }
+                    columns = columns(headers, headerAliases);
+                    continue;
+                }
+                Map<String, String> values = emptyValues(columns);
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() < columns.size()) {
+                        put(values, columns.get(cell.getColumnIndex()), formatter.formatCellValue(cell));
+                    }
+                }
+                consumer.accept(new ImportRow(row.getRowNum() + 1L, values));
+            }
+        }
+    }
+
+    /**
+     * Recebe os eventos SAX da planilha; a primeira linha com células vira o cabeçalho.
+     */
+    private static final class StreamingSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Map<String, String> headerAliases;
+        private final Consumer<ImportRow> consumer;
+        private List<String> headers;
+        private List<String> columns;
+        private Map<String, String> current;
+        private int nextColumn;
+
+        private StreamingSheetHandler(Map<String, String> headerAliases, Consumer<ImportRow> consumer) {
+            this.headerAliases = headerAliases;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            nextColumn = 0;
+            current = columns == null ? null : emptyValues(columns);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (current == null) {
+                if (headers == null) {
+                    headers = new ArrayList<>();
+                }
+                setAt(headers, column, formattedValue);
+            } else if (column < columns.size()) {
+                put(current, columns.get(column), formattedValue);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (current != null) {
+                consumer.accept(new ImportRow(rowNum + 1L, current));
+            } else if (headers != null) {
+                columns = columns(headers, headerAliases);
+            }
+        }
+    }
+
+    /**
+     * Nome normalizado de cada coluna do cabeçalho ({@code null} para colunas sem título).
+     */
+    private static List<String> columns(List<String> headers, Map<String, String> headerAliases) {
+        List<String> columns = new ArrayList<>(headers.size());
+        for (String header : headers) {
+            if (header == null || header.isBlank()) {
+                columns.add(null);
+                continue;
+            }
+            String column = ImportRow.normalize(stripBom(header));
+            columns.add(headerAliases.getOrDefault(column, column));
+        }
+        return columns;
+    }
+
+    private static Map<String, String> emptyValues(List<String> columns) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String column : columns) {
+            if (column != null) {
+                values.put(column, "");
+            }
+        }
+        return values;
+    }
+
+    private static void put(Map<String, String> values, String column, String value) {
+        if (column != null) {
+            values.put(column, value == null ? "" : value);
+        }
+    }
+
+    private static void setAt(List<String> headers, int column, String value) {
+        while (headers.size() <= column) {
+            headers.add(null);
+        }
+        headers.set(column, value);
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gomech.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    XLSX,
+    XLS;
+
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            throw new IllegalArgumentException("Arquivo sem nome");
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv") || lower.endsWith(".txt")) {
+            return CSV;
+        }
+        if (lower.endsWith(".xlsx")) {
+            return XLSX;
+        }
+        if (lower.endsWith(".xls")) {
+            return XLS;
+        }
+        throw new IllegalArgumentException("Formato de arquivo não suportado. Use CSV ou XLSX");
+    }
+}
@@ -0,0 +1,28 @@
+package com.gomech.importer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Linha de dados de uma planilha, indexada pelo cabeçalho.
+ * As chaves são normalizadas ({@link #normalize}): {@code partId}, {@code partid} e {@code part_id} são a mesma coluna.
+ *
+ * @param number número da linha no arquivo (1 = cabeçalho)
+ */
+public record ImportRow(long number, Map<String, String> values) {
+
+    /**
+     * Valor da coluna; {@code ""} quando a coluna existe mas a célula está vazia e {@code null} quando não existe.
+     */
+    public String get(String column) {
+        return values.get(normalize(column));
+    }
+
+    public boolean isBlank() {
+        return values.values().stream().allMatch(value -> value == null || value.isBlank());
+    }
+
+    public static String normalize(String column) {
+        return column == null ? "" : column.trim().toLowerCase(Locale.ROOT).replace("_", "");
+    }
+}
@@ -0,0 +1,77 @@
+package com.gomech.importer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Entidade de destino de uma importação: como converter uma linha e como gravar um bloco de linhas válidas.
+ *
+ * @param <T> entidade gerada por linha
+ */
+public interface ImportTarget<T> {
+
+    /**
+     * Tipo registrado no job de importação (ex.: {@code PART}).
+     */
+    String entityType();
+
+    /**
+     * Converte e valida a linha; qualquer {@link RuntimeException} rejeita apenas esta linha.
+     */
+    T parse(ImportRow row);
+
+    /**
+     * Grava o bloco (inserções em lote, auditoria, alertas). Roda na transação do bloco.
+     */
+    void save(List<T> entities);
+
+    /**
+     * Cabeçalhos alternativos aceitos, já normalizados, mapeados para o nome da coluna.
+     */
+    default Map<String, String> headerAliases() {
+        return Map.of();
+    }
+
+    static <T> ImportTarget<T> of(String entityType, Function<ImportRow, T> parser, Consumer<List<T>> saver) {
+        return of(entityType, Map.of(), parser, saver);
+    }
+
+    static <T> ImportTarget<T> of(String entityType, Map<String, String> headerAliases,
+                                  Function<ImportRow, T> parser, Consumer<List<T>> saver) {
+        return new ImportTarget<>() {
+            @Override
+            public String entityType() {
+                return entityType;
+            }
+
+            @Override
+            public Map<String, String> headerAliases() {
+                return headerAliases;
+            }
+
+            @Override
+            public T parse(ImportRow row) {
+                return parser.apply(row);
+            }
+
+            @Override
+            public void save(List<T> entities) {
+                saver.accept(entities);
+            }
+        };
+    }
+
+    /**
+     * Aceita os rótulos do modelo de planilha (ex.: {@code Nome*}) como cabeçalho das colunas correspondentes.
+     */
+    static Map<String, String> labelAliases(String[] columns, String[] labels) {
+        Map<String, String> aliases = new HashMap<>();
+        for (int i = 0; i < columns.length && i < labels.length; i++) {
+            aliases.put(ImportRow.normalize(labels[i]), ImportRow.normalize(columns[i]));
+        }
+        return aliases;
+    }
+}
@@ -0,0 +1,325 @@
+package com.gomech.importer;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Import.ImportReportDTO;
+import com.gomech.dto.Import.ImportRowErrorDTO;
+import com.gomech.model.ImportJob;
+import com.gomech.model.ImportJobStatus;
+import com.gomech.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Motor de importação de planilhas em fluxo, compartilhado por estoque, peças, clientes e veículos.
+ * <p>
+ * O arquivo enviado é copiado para um temporário (calculando o SHA-256) e lido linha a linha por
+ * {@link ImportFileReader}. As linhas são validadas e acumuladas em blocos de {@code import.chunk-size}; cada bloco
+ * é gravado numa transação própria junto com os erros das linhas rejeitadas e o avanço do job
+ * ({@link ImportJob#getLastCommittedRow()}). Se a gravação do bloco falhar (ex.: SKU duplicado), o bloco é
+ * regravado linha a linha para que só as linhas problemáticas sejam rejeitadas.
+ * <p>
+ * Reenviar um arquivo cuja importação não terminou (mesmo checksum, mesma organização e tipo) retoma a partir da
+ * última linha gravada. Um job {@code RUNNING} só é retomado depois de {@code import.stale-after-seconds} sem
+ * progresso, evitando duas importações simultâneas do mesmo arquivo.
+ */
+@Service
+public class StreamingImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingImportService.class);
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final ImportJobRepository importJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final Duration staleAfter;
+
+    public StreamingImportService(ImportJobRepository importJobRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${import.chunk-size:500}") int chunkSize,
+                                  @Value("${import.max-reported-errors:1000}") int maxReportedErrors,
+                                  @Value("${import.stale-after-seconds:300}") long staleAfterSeconds) {
+        this.importJobRepository = importJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+    }
+
+    public <T> ImportReportDTO importFile(MultipartFile file, ImportTarget<T> target) {
+        ImportFormat format = ImportFormat.fromFileName(file.getOriginalFilename());
+        Path spooled = null;
+        ImportJob job = null;
+        try {
+            spooled = Files.createTempFile("gomech-import-", "." + format.name().toLowerCase());
+            String checksum = spool(file, spooled);
+            job = startOrResume(target.entityType(), file.getOriginalFilename(), checksum);
+
+            ImportRun<T> run = new ImportRun<>(job, target);
+            ImportFileReader.read(spooled, format, target.headerAliases(), run::accept);
+            run.flush();
+
+            job.setStatus(ImportJobStatus.COMPLETED);
+            job.setFinishedAt(Instant.now());
+            job.setUpdatedAt(job.getFinishedAt());
+            job = importJobRepository.save(job);
+            LOGGER.info("Importação {} de {} concluída: {} linhas importadas, {} rejeitadas",
+                    job.getId(), job.getEntityType(), job.getRowsImported(), job.getRowsFailed());
+            return ImportReportDTO.fromJob(job, findErrors(job.getId()));
+        } catch (IOException e) {
+            markFailed(job, e);
+            throw new IllegalArgumentException("Falha ao ler arquivo de importação", e);
+        } catch (RuntimeException e) {
+            markFailed(job, e);
+            throw e;
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    public ImportReportDTO getReport(Long jobId) {
+        Long organizationId = OrganizationContext.getOrganizationId();
+        ImportJob job = (organizationId != null
+                ? importJobRepository.findByIdAndOrganizationId(jobId, organizationId)
+                : importJobRepository.findById(jobId))
+                .orElseThrow(() -> new IllegalArgumentException("Importação não encontrada"));
+        return ImportReportDTO.fromJob(job, findErrors(job.getId()));
+    }
+
+    private ImportJob startOrResume(String entityType, String fileName, String checksum) {
+        Long organizationId = OrganizationContext.getOrganizationId();
+        List<ImportJob> resumable = importJobRepository.findResumable(organizationId, entityType, checksum,
+                ImportJobStatus.COMPLETED);
+        if (resumable.isEmpty()) {
+            return importJobRepository.save(new ImportJob(organizationId, entityType, fileName, checksum));
+        }
+
+        ImportJob job = resumable.get(0);
+        if (job.getStatus() == ImportJobStatus.RUNNING
+                && job.getUpdatedAt().isAfter(Instant.now().minus(staleAfter))) {
+            throw new IllegalStateException("Importação deste arquivo já está em andamento (job " + job.getId() + ")");
+        }
+        LOGGER.info("Retomando importação {} de {} a partir da linha {}", job.getId(), entityType,
+                job.getLastCommittedRow());
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setResumedFromRow(job.getLastCommittedRow());
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job.setUpdatedAt(Instant.now());
+        return importJobRepository.save(job);
+    }
+
+    /**
+     * Estado de uma execução: bloco em montagem e contadores ainda não gravados.
+     */
+    private final class ImportRun<T> {
+
+        private final ImportJob job;
+        private final ImportTarget<T> target;
+        private final List<PendingRow<T>> pending = new ArrayList<>();
+        private final List<ImportRowErrorDTO> pendingErrors = new ArrayList<>();
+        private int rowsInChunk;
+        private long lastRow;
+
+        private ImportRun(ImportJob job, ImportTarget<T> target) {
+            this.job = job;
+            this.target = target;
+            this.lastRow = job.getLastCommittedRow();
+        }
+
+        void accept(ImportRow row) {
+            if (row.number() <= job.getLastCommittedRow()) {
+                return;
+            }
+            lastRow = row.number();
+            if (row.isBlank()) {
+                return;
+            }
+            rowsInChunk++;
+            try {
+                pending.add(new PendingRow<>(row, target.parse(row)));
+            } catch (RuntimeException e) {
+                pendingErrors.add(new ImportRowErrorDTO(row.number(), describe(e)));
+            }
+            if (rowsInChunk >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (lastRow == job.getLastCommittedRow()) {
+                return;
+            }
+            long imported;
+            try {
+                List<T> entities = pending.stream().map(PendingRow::entity).toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!entities.isEmpty()) {
+                        target.save(entities);
+                    }
+                    saveProgress(entities.size(), pendingErrors);
+                });
+                imported = entities.size();
+            } catch (RuntimeException chunkFailure) {
+                LOGGER.debug("Bloco da importação {} rejeitado; gravando linha a linha", job.getId(), chunkFailure);
+                imported = saveRowByRow();
+            }
+            advance(imported, pendingErrors.size());
+            pending.clear();
+            pendingErrors.clear();
+            rowsInChunk = 0;
+        }
+
+        private long saveRowByRow() {
+            long imported = 0;
+            for (PendingRow<T> row : pending) {
+                try {
+                    // Reconverte a linha: as entidades do bloco desfeito podem ter ficado com id atribuído
+                    T entity = target.parse(row.row());
+                    transactionTemplate.executeWithoutResult(status -> target.save(List.of(entity)));
+                    imported++;
+                } catch (RuntimeException e) {
+                    pendingErrors.add(new ImportRowErrorDTO(row.row().number(), describe(e)));
+                }
+            }
+            pendingErrors.sort(Comparator.comparingLong(ImportRowErrorDTO::row));
+            long importedRows = imported;
+            transactionTemplate.executeWithoutResult(status -> saveProgress(importedRows, pendingErrors));
+            return imported;
+        }
+
+        private void saveProgress(long imported, List<ImportRowErrorDTO> errors) {
+            long alreadyReported = Math.min(job.getRowsFailed(), maxReportedErrors);
+            List<ImportRowErrorDTO> reported = errors.subList(0,
+                    (int) Math.min(errors.size(), Math.max(0, maxReportedErrors - alreadyReported)));
+            if (!reported.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO import_job_errors (job_id, line_number, message) VALUES (?, ?, ?)",
+                        reported, reported.size(), (ps, error) -> {
+                            ps.setLong(1, job.getId());
+                            ps.setLong(2, error.row());
+                            ps.setString(3, error.message());
+                        });
+            }
+            jdbcTemplate.update("""
+                            UPDATE import_jobs
+                            SET rows_processed = ?, rows_imported = ?, rows_failed = ?, last_committed_row = ?, updated_at = ?
+                            WHERE id = ?
+                            """,
+                    job.getRowsProcessed() + rowsInChunk, job.getRowsImported() + imported,
+                    job.getRowsFailed() + errors.size(), lastRow, Timestamp.from(Instant.now()), job.getId());
+        }
+
+        private void advance(long imported, int failed) {
+            job.setRowsProcessed(job.getRowsProcessed() + rowsInChunk);
+            job.setRowsImported(job.getRowsImported() + imported);
+            job.setRowsFailed(job.getRowsFailed() + failed);
+            job.setLastCommittedRow(lastRow);
+            job.setUpdatedAt(Instant.now());
+        }
+    }
+
+    private record PendingRow<T>(ImportRow row, T entity) {}
+
+    private List<ImportRowErrorDTO> findErrors(Long jobId) {
+        return jdbcTemplate.query("""
+                        SELECT line_number, message FROM import_job_errors
+                        WHERE job_id = ?
+                        ORDER BY line_number
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new ImportRowErrorDTO(rs.getLong("line_number"), rs.getString("message")),
+                jobId, maxReportedErrors);
+    }
+
+    private void markFailed(ImportJob job, Exception cause) {
+        if (job == null || job.getId() == null) {
+            return;
+        }
+        try {
+            ImportJob failed = importJobRepository.findById(job.getId()).orElse(job);
+            failed.setStatus(ImportJobStatus.FAILED);
+            failed.setErrorMessage(describe(cause));
+            failed.setUpdatedAt(Instant.now());
+            failed.setFinishedAt(failed.getUpdatedAt());
+            importJobRepository.save(failed);
+        } catch (RuntimeException e) {
+            LOGGER.error("Não foi possível marcar a importação {} como falha", job.getId(), e);
+        }
+        LOGGER.warn("Importação {} interrompida na linha {}: {}", job.getId(), job.getLastCommittedRow(),
+                cause.getMessage());
+    }
+
+    private static String spool(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = file.getInputStream();
+             OutputStream out = new DigestOutputStream(Files.newOutputStream(target), digest)) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String describe(Exception e) {
+        String message;
+        if (e instanceof DataIntegrityViolationException) {
+            message = "Registro duplicado ou com referência inválida";
+        } else if (e instanceof NumberFormatException) {
+            message = "Valor numérico inválido: " + e.getMessage();
+        } else if (e instanceof DateTimeException) {
+            message = "Data inválida (use AAAA-MM-DD): " + e.getMessage();
+        } else {
+            message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        return truncate(message);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível remover o arquivo temporário {}", path, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "blockchainClient", url = "${blockchain.service.url}", dismiss404 = true)
+@FeignClient(name = "blockchainClient", url = "${blockchain.service.url}", dismiss404 = true, primary = false)
 public interface BlockchainClient {
 
     @PostMapping("/audit/events")
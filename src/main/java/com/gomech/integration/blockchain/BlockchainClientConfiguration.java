@@ -0,0 +1,17 @@
+package com.gomech.integration.blockchain;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class BlockchainClientConfiguration {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "blockchain.client.mode", havingValue = "local")
+    public LocalBlockchainClient localBlockchainClient() {
+        return new LocalBlockchainClient();
+    }
+}
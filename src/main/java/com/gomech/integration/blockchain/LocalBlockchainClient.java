@@ -0,0 +1,36 @@
+package com.gomech.integration.blockchain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cliente em memória usado em testes e desenvolvimento local ({@code blockchain.client.mode=local}).
+ * Gera um hash de transação determinístico e guarda as requisições recebidas.
+ */
+public class LocalBlockchainClient implements BlockchainClient {
+
+    private final List<BlockchainRequest> published = new CopyOnWriteArrayList<>();
+
+    @Override
+    public BlockchainResponse publishAuditEvent(BlockchainRequest request) {
+        published.add(request);
+        return new BlockchainResponse("0x" + sha256Hex(published.size() + ":" + request.eventHash()));
+    }
+
+    public List<BlockchainRequest> published() {
+        return List.copyOf(published);
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.gomech.kpi;
+
+import com.gomech.model.ClientFeedback;
+import com.gomech.model.ServiceOrder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mudança que afeta o rollup de um dia de uma organização. Com {@code refreshNow} o dia é recalculado logo após
+ * o commit (mudança de status, OS aberta ou removida); sem ele o dia só é marcado e fica para o agendador.
+ */
+public record KpiDayChanged(Long organizationId, LocalDate day, boolean refreshNow) {
+
+    public static KpiDayChanged of(ServiceOrder serviceOrder, boolean refreshNow) {
+        return new KpiDayChanged(serviceOrder.getOrganization().getId(), dayOf(serviceOrder.getCreatedAt()), refreshNow);
+    }
+
+    public static KpiDayChanged of(ClientFeedback feedback) {
+        return new KpiDayChanged(feedback.getOrganization().getId(), dayOf(feedback.getCreatedAt()), false);
+    }
+
+    private static LocalDate dayOf(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
+}
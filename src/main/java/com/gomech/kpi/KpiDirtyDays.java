@@ -0,0 +1,65 @@
+package com.gomech.kpi;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dias com rollup desatualizado. Remarcar um dia já pendente só avança {@code marked_at}; a limpeza remove a
+ * marca apenas se ela for anterior ao início do recálculo, então mudanças concorrentes não se perdem.
+ */
+@Component
+public class KpiDirtyDays {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KpiDirtyDays(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void mark(Long organizationId, LocalDate day) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update(
+                "UPDATE kpi_rollup_dirty_days SET marked_at = ? WHERE organization_id = ? AND rollup_date = ?",
+                now, organizationId, Date.valueOf(day));
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO kpi_rollup_dirty_days (organization_id, rollup_date, marked_at) VALUES (?, ?, ?)",
+                        organizationId, Date.valueOf(day), now);
+            } catch (DuplicateKeyException e) {
+                // Marcado em paralelo por outra transação; a marca dela já cobre esta mudança
+            }
+        }
+    }
+
+    /**
+     * Dias pendentes, dos marcados há mais tempo para os mais recentes.
+     */
+    public List<DirtyDay> oldest(int limit) {
+        return jdbcTemplate.query(
+                "SELECT organization_id, rollup_date FROM kpi_rollup_dirty_days ORDER BY marked_at LIMIT ?",
+                (rs, rowNum) -> new DirtyDay(rs.getLong("organization_id"), rs.getDate("rollup_date").toLocalDate()),
+                limit);
+    }
+
+    public void clear(Long organizationId, LocalDate day, Instant markedUpTo) {
+        jdbcTemplate.update(
+                "DELETE FROM kpi_rollup_dirty_days WHERE organization_id = ? AND rollup_date = ? AND marked_at <= ?",
+                organizationId, Date.valueOf(day), Timestamp.from(markedUpTo));
+    }
+
+    public long pending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM kpi_rollup_dirty_days", Long.class);
+        return count != null ? count : 0;
+    }
+
+    public record DirtyDay(Long organizationId, LocalDate day) {
+    }
+}
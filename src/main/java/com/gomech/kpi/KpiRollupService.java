@@ -0,0 +1,154 @@
+package com.gomech.kpi;
+
+import com.gomech.dto.Management.KpiFeedbackDay;
+import com.gomech.dto.Management.KpiOrderDay;
+import com.gomech.model.KpiDailyRollup;
+import com.gomech.model.ServiceOrderStatus;
+import com.gomech.repository.KpiDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mantém {@code kpi_daily_rollups}: cada dia de uma organização é recalculado por inteiro a partir das OSs abertas
+ * e das avaliações registradas naquele dia (consulta limitada a um dia pelo índice (organization_id, created_at)).
+ * <ul>
+ *     <li>Mudança de status, OS aberta ou removida: o dia é recalculado logo após o commit.</li>
+ *     <li>Demais alterações (custos, itens, avaliações): o dia é marcado e o agendador recalcula só os marcados.</li>
+ * </ul>
+ * Se o recálculo imediato falhar o dia continua marcado, então o agendador também serve de rede de segurança.
+ */
+@Service
+public class KpiRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KpiRollupService.class);
+
+    /**
+     * OS finalizada (entra na receita): concluída ou já entregue ao cliente.
+     */
+    public static final List<ServiceOrderStatus> FINISHED_STATUSES =
+            List.of(ServiceOrderStatus.COMPLETED, ServiceOrderStatus.DELIVERED);
+    // A OS ainda não persiste tipo de serviço (ServiceOrder.getServiceType é sempre GENERAL)
+    public static final String GENERAL_SERVICE_TYPE = "GENERAL";
+
+    private final KpiDailyRollupRepository rollupRepository;
+    private final KpiDirtyDays dirtyDays;
+    private final TransactionTemplate transaction;
+    private final int maxDaysPerRun;
+
+    public KpiRollupService(KpiDailyRollupRepository rollupRepository,
+                            KpiDirtyDays dirtyDays,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${kpi.rollup.max-days-per-run:1000}") int maxDaysPerRun) {
+        this.rollupRepository = rollupRepository;
+        this.dirtyDays = dirtyDays;
+        // Os eventos chegam após o commit da transação de origem; cada escrita aqui precisa da sua própria
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxDaysPerRun = maxDaysPerRun;
+    }
+
+    // Marcas antes dos recálculos imediatos da mesma transação, para que o recálculo limpe a marca
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true,
+            condition = "!#event.refreshNow()")
+    public void onDayChanged(KpiDayChanged event) {
+        try {
+            transaction.executeWithoutResult(status -> dirtyDays.mark(event.organizationId(), event.day()));
+        } catch (RuntimeException e) {
+            LOGGER.error("Falha ao marcar rollup de KPIs do dia {} da organização {}: {}",
+                    event.day(), event.organizationId(), e.getMessage());
+        }
+    }
+
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true,
+            condition = "#event.refreshNow()")
+    public void onStatusChanged(KpiDayChanged event) {
+        try {
+            refreshDay(event.organizationId(), event.day());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Recálculo imediato do rollup de {} (organização {}) falhou; dia fica para o agendador: {}",
+                    event.day(), event.organizationId(), e.getMessage());
+            onDayChanged(new KpiDayChanged(event.organizationId(), event.day(), false));
+        }
+    }
+
+    /**
+     * Recalcula os dias marcados, dos mais antigos para os mais recentes, até {@code kpi.rollup.max-days-per-run}.
+     *
+     * @return quantidade de dias recalculados
+     */
+    public int refreshDirtyDays() {
+        int refreshed = 0;
+        for (KpiDirtyDays.DirtyDay dirty : dirtyDays.oldest(maxDaysPerRun)) {
+            try {
+                refreshDay(dirty.organizationId(), dirty.day());
+                refreshed++;
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha ao recalcular rollup de KPIs do dia {} da organização {}: {}",
+                        dirty.day(), dirty.organizationId(), e.getMessage());
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Substitui as linhas de rollup do dia e limpa a marca do dia, se houver, na mesma transação.
+     */
+    public void refreshDay(Long organizationId, LocalDate day) {
+        transaction.executeWithoutResult(status -> {
+            // Marcas feitas depois deste instante podem não estar visíveis nas leituras abaixo e são mantidas
+            Instant startedAt = Instant.now();
+            KpiOrderDay orders = rollupRepository.aggregateOrders(organizationId, day.atStartOfDay(),
+                    day.plusDays(1).atStartOfDay(), FINISHED_STATUSES, ServiceOrderStatus.CANCELLED);
+            KpiFeedbackDay feedback = rollupRepository.aggregateFeedback(organizationId, day.atStartOfDay(),
+                    day.plusDays(1).atStartOfDay());
+
+            rollupRepository.deleteDay(organizationId, day);
+            if (orders.orders() > 0 || feedback.npsResponses() > 0 || feedback.ratings() > 0) {
+                rollupRepository.save(toRollup(organizationId, day, orders, feedback));
+            }
+            dirtyDays.clear(organizationId, day, startedAt);
+        });
+    }
+
+    private static KpiDailyRollup toRollup(Long organizationId, LocalDate day, KpiOrderDay orders,
+                                           KpiFeedbackDay feedback) {
+        KpiDailyRollup rollup = new KpiDailyRollup(organizationId, day, GENERAL_SERVICE_TYPE);
+        rollup.setOrdersOpened(orders.orders());
+        rollup.setOrdersFinished(orZero(orders.finishedOrders()));
+        rollup.setOrdersCancelled(orZero(orders.cancelledOrders()));
+        rollup.setRevenue(orZero(orders.revenue()));
+        rollup.setLaborCost(orZero(orders.laborCost()));
+        rollup.setPartsCost(orZero(orders.partsCost()));
+        rollup.setCompletionSeconds(orders.completionSeconds() != null ? orders.completionSeconds().longValue() : 0);
+        rollup.setCompletedWithTime(orZero(orders.completedWithTime()));
+        rollup.setNpsResponses(feedback.npsResponses());
+        rollup.setNpsPromoters(orZero(feedback.npsPromoters()));
+        rollup.setNpsDetractors(orZero(feedback.npsDetractors()));
+        rollup.setRatingCount(feedback.ratings());
+        rollup.setRatingSum(orZero(feedback.ratingSum()));
+        return rollup;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,45 @@
+package com.gomech.listener;
+
+import com.gomech.kpi.KpiDayChanged;
+import com.gomech.model.ClientFeedback;
+import com.gomech.model.ServiceOrder;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA EntityListener que avisa o rollup de KPIs ({@link com.gomech.kpi.KpiRollupService}) sobre o dia afetado
+ * por cada OS ou avaliação gravada. Instanciado pelo container do Spring (SpringBeanContainer do Hibernate).
+ *
+ * Para usar, adicione nas entidades:
+ * @EntityListeners(KpiRollupEntityListener.class)
+ */
+public class KpiRollupEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KpiRollupEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // OS aberta ou removida muda as contagens do dia: recálculo imediato
+    @PostPersist
+    @PostRemove
+    public void onCreatedOrRemoved(Object entity) {
+        publish(entity, true);
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        publish(entity, false);
+    }
+
+    private void publish(Object entity, boolean countsChanged) {
+        if (entity instanceof ServiceOrder serviceOrder) {
+            eventPublisher.publishEvent(KpiDayChanged.of(serviceOrder, countsChanged));
+        } else if (entity instanceof ClientFeedback feedback) {
+            eventPublisher.publishEvent(KpiDayChanged.of(feedback));
+        }
+    }
+}
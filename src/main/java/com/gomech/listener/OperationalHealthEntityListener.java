@@ -0,0 +1,46 @@
+package com.gomech.listener;
+
+import com.gomech.domain.InventoryItem;
+import com.gomech.health.InventoryLevelChanged;
+import com.gomech.health.ServiceOrderHealthChanged;
+import com.gomech.model.ServiceOrder;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA EntityListener que publica o estado de cada OS ou item de estoque gravado para os contadores de saúde
+ * operacional ({@link com.gomech.health.OperationalHealthService}). Instanciado pelo container do Spring
+ * (SpringBeanContainer do Hibernate).
+ *
+ * Para usar, adicione nas entidades:
+ * @EntityListeners(OperationalHealthEntityListener.class)
+ */
+public class OperationalHealthEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OperationalHealthEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean removed) {
+        if (entity instanceof ServiceOrder serviceOrder && serviceOrder.getOrganization() != null) {
+            eventPublisher.publishEvent(ServiceOrderHealthChanged.of(serviceOrder, removed));
+        } else if (entity instanceof InventoryItem item && item.getOrganization() != null) {
+            eventPublisher.publishEvent(InventoryLevelChanged.of(item, removed));
+        }
+    }
+}
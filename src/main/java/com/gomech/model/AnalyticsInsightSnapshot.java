@@ -0,0 +1,30 @@
+package com.gomech.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Insights pré-calculados de uma organização. {@code computedAt} é o início do cálculo e serve de marca d'água:
+ * OSs, movimentações e itens com {@code updated_at} a partir dele ainda não estão refletidos.
+ */
+@Entity
+@Table(name = "analytics_insight_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnalyticsInsightSnapshot {
+
+    @Id
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    @Column(name = "insights_json", nullable = false, columnDefinition = "TEXT")
+    private String insightsJson;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
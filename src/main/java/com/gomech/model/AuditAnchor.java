@@ -0,0 +1,67 @@
+package com.gomech.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Raiz de Merkle de uma janela de eventos de auditoria. Funciona também como outbox:
+ * enquanto {@code PENDING}, a publicação na blockchain é retentada a partir de {@code nextAttemptAt}.
+ */
+@Entity
+@Table(name = "audit_anchors")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AuditAnchor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "merkle_root", nullable = false, length = 64)
+    private String merkleRoot;
+
+    @Column(name = "leaf_count", nullable = false)
+    private int leafCount;
+
+    @Column(name = "first_event_id", nullable = false)
+    private Long firstEventId;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AuditAnchorStatus status = AuditAnchorStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "transaction_hash", length = 128)
+    private String transactionHash;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "anchored_at")
+    private Instant anchoredAt;
+
+    public AuditAnchor(String merkleRoot, int leafCount, Long firstEventId, Long lastEventId) {
+        this.merkleRoot = merkleRoot;
+        this.leafCount = leafCount;
+        this.firstEventId = firstEventId;
+        this.lastEventId = lastEventId;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
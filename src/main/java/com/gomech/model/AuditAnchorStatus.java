@@ -0,0 +1,7 @@
+package com.gomech.model;
+
+public enum AuditAnchorStatus {
+    PENDING,
+    ANCHORED,
+    FAILED
+}
@@ -54,6 +54,24 @@ public class AuditEvent {
     @Column(name = "blockchain_reference", length = 128)
     private String blockchainReference;
 
+    @Column(name = "chain_seq")
+    private Long chainSeq;
+
+    @Column(name = "prev_hash", length = 64)
+    private String prevHash;
+
+    @Column(name = "chain_hash", length = 64)
+    private String chainHash;
+
+    @Column(name = "anchor_id")
+    private Long anchorId;
+
+    @Column(name = "merkle_leaf_index")
+    private Integer merkleLeafIndex;
+
+    @Column(name = "merkle_proof", columnDefinition = "TEXT")
+    private String merkleProof;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "client_feedbacks")
 @NoArgsConstructor
-@EntityListeners(com.gomech.listener.OrganizationEntityListener.class)
+@EntityListeners({com.gomech.listener.OrganizationEntityListener.class, com.gomech.listener.KpiRollupEntityListener.class})
 public class ClientFeedback {
 
     @Id
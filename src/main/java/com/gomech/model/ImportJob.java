@@ -0,0 +1,76 @@
+package com.gomech.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Progresso de uma importação de planilha. Cada bloco de linhas é gravado junto com o avanço de
+ * {@code lastCommittedRow}; reenviar o mesmo arquivo (mesmo checksum) retoma a partir dessa linha.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    @Column(name = "entity_type", nullable = false, length = 40)
+    private String entityType;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "file_checksum", nullable = false, length = 64)
+    private String fileChecksum;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status = ImportJobStatus.RUNNING;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @Column(name = "last_committed_row", nullable = false)
+    private long lastCommittedRow;
+
+    @Column(name = "resumed_from_row", nullable = false)
+    private long resumedFromRow;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public ImportJob(Long organizationId, String entityType, String fileName, String fileChecksum) {
+        this.organizationId = organizationId;
+        this.entityType = entityType;
+        this.fileName = fileName;
+        this.fileChecksum = fileChecksum;
+        this.startedAt = Instant.now();
+        this.updatedAt = this.startedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gomech.model;
+
+public enum ImportJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
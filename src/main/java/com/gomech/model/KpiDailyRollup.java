@@ -0,0 +1,88 @@
+package com.gomech.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * KPIs de um dia de uma organização para um tipo de serviço. A linha é sempre recalculada por inteiro a partir das
+ * OSs abertas e das avaliações registradas no dia ({@link com.gomech.kpi.KpiRollupService}); somas e contagens
+ * ficam separadas para que médias de qualquer período sejam somas de linhas.
+ */
+@Entity
+@Table(name = "kpi_daily_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+public class KpiDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "service_type", nullable = false, length = 40)
+    private String serviceType;
+
+    @Column(name = "orders_opened", nullable = false)
+    private long ordersOpened;
+
+    @Column(name = "orders_finished", nullable = false)
+    private long ordersFinished;
+
+    @Column(name = "orders_cancelled", nullable = false)
+    private long ordersCancelled;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "labor_cost", nullable = false, precision = 14, scale = 2)
+    private BigDecimal laborCost = BigDecimal.ZERO;
+
+    @Column(name = "parts_cost", nullable = false, precision = 14, scale = 2)
+    private BigDecimal partsCost = BigDecimal.ZERO;
+
+    /**
+     * Soma de (conclusão - abertura) das OSs finalizadas com data de conclusão; média = soma / completedWithTime.
+     */
+    @Column(name = "completion_seconds", nullable = false)
+    private long completionSeconds;
+
+    @Column(name = "completed_with_time", nullable = false)
+    private long completedWithTime;
+
+    @Column(name = "nps_responses", nullable = false)
+    private long npsResponses;
+
+    @Column(name = "nps_promoters", nullable = false)
+    private long npsPromoters;
+
+    @Column(name = "nps_detractors", nullable = false)
+    private long npsDetractors;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+
+    public KpiDailyRollup(Long organizationId, LocalDate rollupDate, String serviceType) {
+        this.organizationId = organizationId;
+        this.rollupDate = rollupDate;
+        this.serviceType = serviceType;
+        this.refreshedAt = Instant.now();
+    }
+}
@@ -0,0 +1,63 @@
+package com.gomech.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Execução assíncrona de um relatório gerencial. O resultado fica em {@code resultJson} até {@code expiresAt};
+ * enquanto isso, pedidos com a mesma organização, tipo e período recebem este job.
+ */
+@Entity
+@Table(name = "report_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "report_type", nullable = false, length = 40)
+    private String reportType;
+
+    @Column(name = "period_days", nullable = false)
+    private int periodDays;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status = ReportJobStatus.QUEUED;
+
+    @Column(name = "result_json", columnDefinition = "TEXT")
+    private String resultJson;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public ReportJob(Long organizationId, String reportType, int periodDays, Instant expiresAt) {
+        this.organizationId = organizationId;
+        this.reportType = reportType;
+        this.periodDays = periodDays;
+        this.createdAt = Instant.now();
+        this.expiresAt = expiresAt;
+    }
+}
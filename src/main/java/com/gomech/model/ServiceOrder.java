@@ -20,11 +20,13 @@ import java.util.List;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
 @Table(name = "service_orders")
-@EntityListeners(com.gomech.listener.OrganizationEntityListener.class)
+@EntityListeners({com.gomech.listener.OrganizationEntityListener.class, com.gomech.listener.KpiRollupEntityListener.class,
+        com.gomech.listener.OperationalHealthEntityListener.class})
 public class ServiceOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_orders_seq")
+    @SequenceGenerator(name = "service_orders_seq", sequenceName = "service_orders_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -23,7 +23,8 @@ import java.time.LocalDateTime;
 public class ServiceOrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_items_seq")
+    @SequenceGenerator(name = "service_items_seq", sequenceName = "service_items_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -0,0 +1,49 @@
+package com.gomech.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Limitador por organização e grupo de rotas. Todo o estado fica em memória:
+ * um {@link TokenBucket} por par (organização, grupo), descartado após inatividade
+ * (um balde ocioso já estaria cheio).
+ */
+public class OrganizationRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<BucketKey, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public OrganizationRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public TokenBucket.Probe tryAcquire(Long organizationId, RouteGroup group) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(organizationId, group), key -> {
+            RateLimitProperties.Limit limit = properties.limitFor(organizationId, group);
+            return new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute(), now);
+        });
+        TokenBucket.Probe probe = bucket.tryConsume(now);
+        if (!probe.allowed()) {
+            meterRegistry.counter("rate_limit.rejections",
+                    "organization", String.valueOf(organizationId),
+                    "plan", properties.planFor(organizationId),
+                    "group", group.name()).increment();
+        }
+        return probe;
+    }
+
+    private record BucketKey(Long organizationId, RouteGroup group) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.gomech.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    @Bean
+    public OrganizationRateLimiter organizationRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new OrganizationRateLimiter(properties, meterRegistry);
+    }
+
+    /**
+     * Registrado pelo {@code WebMvcConfig} logo após o {@code OrganizationInterceptor}.
+     */
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(OrganizationRateLimiter organizationRateLimiter) {
+        return new RateLimitInterceptor(organizationRateLimiter);
+    }
+}
@@ -0,0 +1,51 @@
+package com.gomech.ratelimit;
+
+import com.gomech.context.OrganizationContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica a cota da organização corrente (definida pelo {@code OrganizationInterceptor}, registrado antes)
+ * e publica os cabeçalhos {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset}
+ * e {@code Retry-After} quando a requisição é rejeitada.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final OrganizationRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long organizationId = OrganizationContext.getOrganizationId();
+        if (!rateLimiter.isEnabled() || organizationId == null || "OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+
+        RouteGroup group = RouteGroup.resolve(request.getMethod(), request.getServletPath());
+        TokenBucket.Probe probe = rateLimiter.tryAcquire(organizationId, group);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(probe.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(probe.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(probe.resetNanos())));
+
+        if (!probe.allowed()) {
+            response.setHeader("Retry-After", String.valueOf(toSeconds(probe.retryAfterNanos())));
+            log.warn("Limite de requisições excedido: organização {} grupo {}", organizationId, group);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Limite de requisições excedido para " + group.name());
+        }
+        return true;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
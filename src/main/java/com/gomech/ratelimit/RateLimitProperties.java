@@ -0,0 +1,149 @@
+package com.gomech.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limites por plano e grupo de rotas. Validados na subida: um limite sem {@code capacity} ou
+ * {@code refill-per-minute} positivos impede a aplicação de iniciar, em vez de falhar a cada requisição do grupo.
+ */
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private static final Map<RouteGroup, Limit> FALLBACK_LIMITS = defaultPlans().get("STANDARD");
+
+    /**
+     * Liga/desliga a limitação de requisições por organização.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Plano aplicado a organizações sem plano explícito.
+     */
+    @NotBlank
+    private String defaultPlan = "STANDARD";
+
+    /**
+     * Limites por plano e grupo de rotas. Grupos ausentes herdam o limite do plano padrão.
+     */
+    @NotNull
+    private Map<String, @Valid Map<RouteGroup, @NotNull @Valid Limit>> plans = new HashMap<>(defaultPlans());
+
+    /**
+     * Plano contratado por organização (id da organização -> nome do plano).
+     */
+    private Map<Long, String> organizationPlans = new HashMap<>();
+
+    public Limit limitFor(Long organizationId, RouteGroup group) {
+        Limit limit = lookup(planFor(organizationId), group);
+        if (limit == null) {
+            limit = lookup(defaultPlan, group);
+        }
+        return limit != null ? limit : FALLBACK_LIMITS.get(group);
+    }
+
+    public String planFor(Long organizationId) {
+        return organizationPlans.getOrDefault(organizationId, defaultPlan);
+    }
+
+    private Limit lookup(String plan, RouteGroup group) {
+        Map<RouteGroup, Limit> limits = plans.get(plan);
+        return limits != null ? limits.get(group) : null;
+    }
+
+    private static Map<String, Map<RouteGroup, Limit>> defaultPlans() {
+        Map<RouteGroup, Limit> standard = new EnumMap<>(RouteGroup.class);
+        standard.put(RouteGroup.AI, new Limit(10, 20));
+        standard.put(RouteGroup.IMPORT, new Limit(3, 6));
+        standard.put(RouteGroup.REPORT, new Limit(20, 60));
+        standard.put(RouteGroup.CRUD, new Limit(200, 1200));
+
+        Map<RouteGroup, Limit> pro = new EnumMap<>(RouteGroup.class);
+        pro.put(RouteGroup.AI, new Limit(30, 60));
+        pro.put(RouteGroup.IMPORT, new Limit(10, 20));
+        pro.put(RouteGroup.REPORT, new Limit(60, 180));
+        pro.put(RouteGroup.CRUD, new Limit(600, 3600));
+
+        return Map.of("STANDARD", standard, "PRO", pro);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDefaultPlan() {
+        return defaultPlan;
+    }
+
+    public void setDefaultPlan(String defaultPlan) {
+        this.defaultPlan = defaultPlan;
+    }
+
+    public Map<String, Map<RouteGroup, Limit>> getPlans() {
+        return plans;
+    }
+
+    public void setPlans(Map<String, Map<RouteGroup, Limit>> plans) {
+        this.plans = plans;
+    }
+
+    public Map<Long, String> getOrganizationPlans() {
+        return organizationPlans;
+    }
+
+    public void setOrganizationPlans(Map<Long, String> organizationPlans) {
+        this.organizationPlans = organizationPlans;
+    }
+
+    public static class Limit {
+
+        /**
+         * Rajada máxima (fichas no balde cheio).
+         */
+        @Positive
+        private long capacity;
+
+        /**
+         * Fichas repostas por minuto.
+         */
+        @Positive
+        private long refillPerMinute;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, long refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getRefillPerMinute() {
+            return refillPerMinute;
+        }
+
+        public void setRefillPerMinute(long refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.gomech.ratelimit;
+
+/**
+ * Grupos de rotas com cotas independentes por organização.
+ */
+public enum RouteGroup {
+    AI,
+    IMPORT,
+    REPORT,
+    CRUD;
+
+    public static RouteGroup resolve(String method, String path) {
+        if (path.startsWith("/ai/") || path.startsWith("/crm")) {
+            return AI;
+        }
+        if ("POST".equalsIgnoreCase(method) && (path.endsWith("/upload") || path.endsWith("/bulk"))) {
+            return IMPORT;
+        }
+        if (path.startsWith("/analytics") || path.startsWith("/management")
+                || path.contains("/reports") || path.contains("/export") || path.endsWith("/insights")) {
+            return REPORT;
+        }
+        return CRUD;
+    }
+}
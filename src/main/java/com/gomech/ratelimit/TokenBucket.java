@@ -0,0 +1,54 @@
+package com.gomech.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks implementado como GCRA (Generic Cell Rate Algorithm):
+ * todo o estado é um único instante teórico de chegada ({@code tat}) atualizado via CAS.
+ * Equivale a um balde de {@code capacity} fichas reabastecido a uma ficha a cada {@code emissionIntervalNanos}.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long refillPerMinute, long nowNanos) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Capacidade e reabastecimento devem ser positivos");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1, 60_000_000_000L / refillPerMinute);
+        this.burstWindowNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    public Probe tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long backlog = newTat - nowNanos;
+            if (backlog > burstWindowNanos) {
+                long current = Math.max(tat, nowNanos) - nowNanos;
+                return new Probe(false, capacity, remaining(current), current, backlog - burstWindowNanos);
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return new Probe(true, capacity, remaining(backlog), backlog, 0);
+            }
+        }
+    }
+
+    private long remaining(long backlogNanos) {
+        return Math.max(0, (burstWindowNanos - backlogNanos) / emissionIntervalNanos);
+    }
+
+    /**
+     * Resultado de uma tentativa de consumo.
+     *
+     * @param resetNanos      tempo até o balde estar cheio novamente
+     * @param retryAfterNanos tempo mínimo até a próxima ficha (zero quando aceito)
+     */
+    public record Probe(boolean allowed, long limit, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
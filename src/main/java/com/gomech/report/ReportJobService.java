@@ -0,0 +1,219 @@
+package com.gomech.report;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Report.ReportJobDTO;
+import com.gomech.model.ReportJob;
+import com.gomech.model.ReportJobStatus;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.ReportJobRepository;
+import com.gomech.service.ManagementReportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relatórios gerenciais ({@code /management/reports/{type}}) como jobs assíncronos.
+ * <p>
+ * O pedido grava o job e devolve o id; a geração roda num pool próprio e limitado
+ * ({@code report.jobs.threads} threads, fila de {@code report.jobs.queue-capacity}), fora das threads do Tomcat.
+ * Com o pool e a fila cheios o pedido é recusado com 429. O resultado (JSON) fica gravado por
+ * {@code report.jobs.ttl-minutes}; no período, pedidos com a mesma organização, tipo e período recebem o mesmo job,
+ * concluído ou ainda em execução. Jobs na fila ou em execução há mais de {@code report.jobs.stale-after-minutes}
+ * (ex.: interrompidos por restart) não são reaproveitados.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportJobService.class);
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final int MAX_PERIOD_DAYS = 3650;
+
+    public static final Set<String> REPORT_TYPES =
+            Set.of("executive", "profitability", "operational", "bottlenecks", "benchmark");
+
+    private final ReportJobRepository reportJobRepository;
+    private final ManagementReportService reportService;
+    private final OrganizationRepository organizationRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final Duration ttl;
+    private final Duration staleAfter;
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            ManagementReportService reportService,
+                            OrganizationRepository organizationRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${report.jobs.threads:2}") int threads,
+                            @Value("${report.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${report.jobs.ttl-minutes:30}") long ttlMinutes,
+                            @Value("${report.jobs.stale-after-minutes:10}") long staleAfterMinutes) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportService = reportService;
+        this.organizationRepository = organizationRepository;
+        this.objectMapper = objectMapper;
+        AtomicInteger counter = new AtomicInteger();
+        this.threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "report-jobs");
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+    }
+
+    /**
+     * Enfileira o relatório da organização atual ou devolve o job vigente com os mesmos parâmetros.
+     */
+    public ReportJobDTO submit(String type, int days) {
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        String reportType = type != null ? type.toLowerCase() : "";
+        if (!REPORT_TYPES.contains(reportType)) {
+            throw new IllegalArgumentException("Tipo de relatório inválido: " + type + ". Use: " + REPORT_TYPES);
+        }
+        if (days < 1 || days > MAX_PERIOD_DAYS) {
+            throw new IllegalArgumentException("days deve estar entre 1 e " + MAX_PERIOD_DAYS);
+        }
+
+        // Consulta e criação juntas: dois pedidos iguais simultâneos na instância não geram dois jobs
+        synchronized (this) {
+            Instant now = Instant.now();
+            List<ReportJob> reusable = reportJobRepository.findReusable(organizationId, reportType, days, now,
+                    ReportJobStatus.COMPLETED, List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING),
+                    now.minus(staleAfter));
+            if (!reusable.isEmpty()) {
+                return ReportJobDTO.fromJob(reusable.get(0), true);
+            }
+
+            ReportJob job = reportJobRepository.save(new ReportJob(organizationId, reportType, days, now.plus(ttl)));
+            Long jobId = job.getId();
+            try {
+                executor.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                reportJobRepository.delete(job);
+                LOGGER.warn("Relatório {} recusado: pool de relatórios saturado (fila={})", reportType,
+                        threadPool.getQueue().size());
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Muitos relatórios em geração. Tente novamente em instantes.");
+            }
+            return ReportJobDTO.fromJob(job, false);
+        }
+    }
+
+    public ReportJobDTO getJob(Long jobId) {
+        return ReportJobDTO.fromJob(findJob(jobId), false);
+    }
+
+    /**
+     * Job concluído da organização atual, pronto para download; falha se ainda não terminou ou falhou.
+     */
+    public ReportJob getCompletedJob(Long jobId) {
+        ReportJob job = findJob(jobId);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Relatório " + jobId + " não está concluído (status " + job.getStatus() + ")");
+        }
+        return job;
+    }
+
+    /**
+     * Escreve o resultado JSON como CSV de duas colunas ({@code field}, {@code value}), uma linha por valor, lendo
+     * o JSON em fluxo. O campo é o caminho do valor no relatório, ex.: {@code data.service_profitability.0.count}.
+     */
+    public void writeCsv(ReportJob job, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (JsonParser parser = objectMapper.getFactory().createParser(job.getResultJson());
+             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader("field", "value").build())) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token.isScalarValue()) {
+                    String field = parser.getParsingContext().pathAsPointer().toString().substring(1).replace('/', '.');
+                    printer.printRecord(field, token == JsonToken.VALUE_NULL ? "" : parser.getText());
+                }
+            }
+        }
+    }
+
+    public void writeJson(ReportJob job, OutputStream output) throws IOException {
+        output.write(job.getResultJson().getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    /**
+     * Remove os jobs expirados.
+     *
+     * @return quantidade de jobs removidos
+     */
+    public int deleteExpired() {
+        return reportJobRepository.deleteExpired(Instant.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    private ReportJob findJob(Long jobId) {
+        return reportJobRepository.findByIdAndOrganizationId(jobId, OrganizationContext.requireOrganizationId())
+                .orElseThrow(() -> new IllegalArgumentException("Relatório não encontrado"));
+    }
+
+    private void run(Long jobId) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ReportJobStatus.RUNNING);
+        job.setStartedAt(Instant.now());
+        job = reportJobRepository.save(job);
+        try {
+            OrganizationContext.setOrganization(organizationRepository.findById(job.getOrganizationId())
+                    .orElseThrow(() -> new IllegalStateException("Organização não encontrada")));
+            Map<String, Object> report = reportService.generateReport(job.getReportType(), "json", job.getPeriodDays());
+            job.setResultJson(objectMapper.writeValueAsString(report));
+            job.setStatus(ReportJobStatus.COMPLETED);
+        } catch (Exception e) {
+            LOGGER.error("Falha ao gerar relatório {} (job {}): {}", job.getReportType(), jobId, e.getMessage());
+            job.setStatus(ReportJobStatus.FAILED);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setErrorMessage(message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+        } finally {
+            OrganizationContext.clear();
+        }
+        job.setFinishedAt(Instant.now());
+        // A validade conta do fim da geração; um job que falhou não é reaproveitado
+        job.setExpiresAt(job.getFinishedAt().plus(ttl));
+        reportJobRepository.save(job);
+    }
+}
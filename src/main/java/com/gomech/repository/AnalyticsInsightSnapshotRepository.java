@@ -0,0 +1,68 @@
+package com.gomech.repository;
+
+import com.gomech.model.AnalyticsInsightSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsInsightSnapshotRepository extends JpaRepository<AnalyticsInsightSnapshot, Long> {
+
+    /**
+     * Organizações ativas sem snapshot, com snapshot calculado antes de {@code staleBefore} ou com OSs,
+     * movimentações ou itens de estoque alterados desde o último cálculo.
+     */
+    @Query(value = """
+            SELECT o.id
+            FROM organizations o
+            LEFT JOIN analytics_insight_snapshots s ON s.organization_id = o.id
+            WHERE o.active = TRUE
+              AND (s.organization_id IS NULL
+                   OR s.computed_at < :staleBefore
+                   OR EXISTS (SELECT 1 FROM service_orders so
+                              WHERE so.organization_id = o.id AND so.updated_at >= s.computed_at)
+                   OR EXISTS (SELECT 1 FROM inventory_movements m
+                              WHERE m.organization_id = o.id AND m.updated_at >= s.computed_at)
+                   OR EXISTS (SELECT 1 FROM inventory_items i
+                              WHERE i.organization_id = o.id AND i.updated_at >= s.computed_at))
+            ORDER BY o.id
+            """, nativeQuery = true)
+    List<Long> findOrganizationsToRefresh(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Substitui o snapshot da organização, a menos que o gravado seja de um cálculo mais recente.
+     *
+     * @return 0 quando não há snapshot da organização ou o gravado é mais recente
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE AnalyticsInsightSnapshot s
+            SET s.insightsJson = :insightsJson,
+                s.computedAt = :computedAt
+            WHERE s.organizationId = :organizationId
+              AND s.computedAt <= :computedAt
+            """)
+    int updateSnapshot(@Param("organizationId") Long organizationId,
+                       @Param("insightsJson") String insightsJson,
+                       @Param("computedAt") LocalDateTime computedAt);
+
+    /**
+     * Grava o primeiro snapshot da organização; falha com violação de chave se outro cálculo gravou antes.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO analytics_insight_snapshots (organization_id, insights_json, computed_at)
+            VALUES (:organizationId, :insightsJson, :computedAt)
+            """, nativeQuery = true)
+    void insertSnapshot(@Param("organizationId") Long organizationId,
+                        @Param("insightsJson") String insightsJson,
+                        @Param("computedAt") LocalDateTime computedAt);
+}
@@ -0,0 +1,13 @@
+package com.gomech.repository;
+
+import com.gomech.model.AuditAnchor;
+import com.gomech.model.AuditAnchorStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AuditAnchorRepository extends JpaRepository<AuditAnchor, Long> {
+
+    List<AuditAnchor> findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(AuditAnchorStatus status, Instant now);
+}
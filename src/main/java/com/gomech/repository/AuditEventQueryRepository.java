@@ -0,0 +1,90 @@
+package com.gomech.repository;
+
+import com.gomech.dto.Audit.AuditEventFilter;
+import com.gomech.dto.Audit.AuditEventResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Consultas de auditoria por keyset em {@code (occurred_at, id)}, ordem decrescente.
+ * Os filtros seguem os índices funcionais de {@code V12} ({@code organization_id}, {@code lower(...)}, {@code occurred_at, id}),
+ * e o cursor substitui o OFFSET, de modo que páginas profundas custam o mesmo que a primeira.
+ */
+@Repository
+public class AuditEventQueryRepository {
+
+    private static final String SELECT = """
+            SELECT id, event_type, operation, user_email, module_name, user_role, entity_id,
+                   occurred_at, created_at, blockchain_reference, event_hash
+            FROM audit_events
+            """;
+
+    private static final RowMapper<AuditEventResponse> ROW_MAPPER = (rs, rowNum) -> new AuditEventResponse(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getString("operation"),
+            rs.getString("user_email"),
+            rs.getString("module_name"),
+            rs.getString("user_role"),
+            rs.getObject("entity_id") != null ? rs.getLong("entity_id") : null,
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getString("blockchain_reference"),
+            rs.getString("event_hash"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditEventQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retorna até {@code limit} eventos anteriores à posição {@code (afterOccurredAt, afterId)};
+     * sem posição, começa pelo evento mais recente.
+     */
+    public List<AuditEventResponse> findPage(AuditEventFilter filter, LocalDateTime afterOccurredAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+
+        if (filter.organizationId() != null) {
+            sql.append(" WHERE organization_id = ?");
+            args.add(filter.organizationId());
+        } else {
+            sql.append(" WHERE organization_id IS NULL");
+        }
+        if (filter.startDate() != null) {
+            sql.append(" AND occurred_at >= ?");
+            args.add(Timestamp.valueOf(filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            sql.append(" AND occurred_at <= ?");
+            args.add(Timestamp.valueOf(filter.endDate()));
+        }
+        if (filter.actionType() != null && !filter.actionType().isBlank()) {
+            sql.append(" AND lower(operation) = ?");
+            args.add(filter.actionType().toLowerCase(Locale.ROOT));
+        }
+        if (filter.userEmail() != null && !filter.userEmail().isBlank()) {
+            sql.append(" AND lower(user_email) = ?");
+            args.add(filter.userEmail().toLowerCase(Locale.ROOT));
+        }
+        if (afterOccurredAt != null && afterId != null) {
+            // O limite redundante em occurred_at permite a poda de partições; a comparação de tupla sozinha não permite
+            sql.append(" AND occurred_at <= ? AND (occurred_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(afterOccurredAt));
+            args.add(Timestamp.valueOf(afterOccurredAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
@@ -4,5 +4,9 @@ import com.gomech.model.AuditEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Optional;
+
 public interface AuditEventRepository extends JpaRepository<AuditEvent, Long>, JpaSpecificationExecutor<AuditEvent> {
+
+    Optional<AuditEvent> findByIdAndOrganizationId(Long id, Long organizationId);
 }
@@ -1,13 +1,20 @@
 package com.gomech.repository;
 
+import com.gomech.dto.Clients.ClientExportRowDTO;
 import com.gomech.model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
@@ -23,4 +30,12 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     Optional<Client> findByDocumentAndOrganizationId(String document, Long organizationId);
     
     long countByOrganizationId(Long organizationId);
+
+    /**
+     * Cursor da exportação; deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.gomech.dto.Clients.ClientExportRowDTO(c.name, c.document, c.phone, c.email, c.address, " +
+            "c.birthDate, c.observations) FROM Client c WHERE c.organization.id = :organizationId ORDER BY c.id")
+    Stream<ClientExportRowDTO> streamExportRows(@Param("organizationId") Long organizationId);
 }
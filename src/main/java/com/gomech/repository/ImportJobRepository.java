@@ -0,0 +1,33 @@
+package com.gomech.repository;
+
+import com.gomech.model.ImportJob;
+import com.gomech.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    /**
+     * Última importação não concluída do mesmo arquivo na organização (candidata a retomada).
+     */
+    @Query("""
+            SELECT j FROM ImportJob j
+            WHERE ((:organizationId IS NULL AND j.organizationId IS NULL) OR j.organizationId = :organizationId)
+              AND j.entityType = :entityType
+              AND j.fileChecksum = :fileChecksum
+              AND j.status <> :completed
+            ORDER BY j.id DESC
+            """)
+    List<ImportJob> findResumable(@Param("organizationId") Long organizationId,
+                                  @Param("entityType") String entityType,
+                                  @Param("fileChecksum") String fileChecksum,
+                                  @Param("completed") ImportJobStatus completed);
+
+    Optional<ImportJob> findByIdAndOrganizationId(Long id, Long organizationId);
+}
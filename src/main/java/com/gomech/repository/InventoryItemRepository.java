@@ -5,10 +5,12 @@ import com.gomech.dto.Inventory.PartAvailabilityDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,27 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     
     long countByOrganizationId(Long organizationId);
 
+    /**
+     * Variação atômica de saldo usada pelo {@code StockLedger}; retorna 0 quando o saldo resultante seria inválido.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE InventoryItem i
+            SET i.quantity = i.quantity + :quantityDelta,
+                i.reservedQuantity = i.reservedQuantity + :reservedDelta,
+                i.version = i.version + 1,
+                i.updatedAt = :now
+            WHERE i.id = :id
+              AND i.quantity + :quantityDelta >= 0
+              AND i.reservedQuantity + :reservedDelta >= 0
+              AND (:availableDelta >= 0 OR i.quantity + :quantityDelta >= i.reservedQuantity + :reservedDelta)
+            """)
+    int applyStockDelta(@Param("id") Long id,
+                        @Param("quantityDelta") int quantityDelta,
+                        @Param("reservedDelta") int reservedDelta,
+                        @Param("availableDelta") int availableDelta,
+                        @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT new com.gomech.dto.Inventory.PartAvailabilityDTO(
                 p.id,
@@ -142,10 +165,12 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
             )
             FROM InventoryItem i
             JOIN i.part p
-            WHERE p.manufacturer IS NOT NULL
+            WHERE i.organization.id = :organizationId
+              AND p.manufacturer IS NOT NULL
               AND i.unitCost IS NOT NULL
             GROUP BY p.manufacturer
             """)
-    List<com.gomech.dto.Analytics.SupplierPriceStats> findAverageCostBySupplier();
+    List<com.gomech.dto.Analytics.SupplierPriceStats> findAverageCostBySupplierByOrganization(
+            @Param("organizationId") Long organizationId);
 
 }
@@ -201,17 +201,37 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
                 SUM(m.quantity)
             )
             FROM InventoryMovement m
-            WHERE m.movementType = com.gomech.domain.InventoryMovementType.OUT
+            WHERE m.organization.id = :organizationId
+              AND m.movementType = com.gomech.domain.InventoryMovementType.OUT
               AND m.movementDate BETWEEN :start AND :end
             GROUP BY m.part.id, m.part.name
             ORDER BY SUM(m.quantity) DESC
             """)
-    List<com.gomech.dto.Analytics.PartUsageRanking> findTopConsumedPartsBetween(
+    List<com.gomech.dto.Analytics.PartUsageRanking> findTopConsumedPartsBetweenByOrganization(
+            @Param("organizationId") Long organizationId,
             @Param("start") java.time.LocalDateTime start,
             @Param("end") java.time.LocalDateTime end,
             Pageable pageable
     );
 
+    /**
+     * Peças consumidas (saídas) por dia da organização, em {@code [from, to)}.
+     */
+    @Query("""
+            SELECT new com.gomech.dto.Management.DailyValue(CAST(m.movementDate AS LocalDate), SUM(m.quantity))
+            FROM InventoryMovement m
+            WHERE m.organization.id = :organizationId
+              AND m.movementType = com.gomech.domain.InventoryMovementType.OUT
+              AND m.movementDate >= :from
+              AND m.movementDate < :to
+            GROUP BY CAST(m.movementDate AS LocalDate)
+            """)
+    List<com.gomech.dto.Management.DailyValue> sumDailyConsumption(
+            @Param("organizationId") Long organizationId,
+            @Param("from") java.time.LocalDateTime from,
+            @Param("to") java.time.LocalDateTime to
+    );
+
     @Query("""
             SELECT new com.gomech.dto.Analytics.PartStockBalance(
                 p.id,
@@ -221,9 +241,11 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
             )
             FROM InventoryMovement m
             JOIN m.part p
+            WHERE m.organization.id = :organizationId
             GROUP BY p.id, p.name
             HAVING COALESCE(SUM(CASE WHEN m.movementType = com.gomech.domain.InventoryMovementType.IN THEN m.quantity ELSE 0 END), 0) >
                    COALESCE(SUM(CASE WHEN m.movementType = com.gomech.domain.InventoryMovementType.OUT THEN m.quantity ELSE 0 END), 0)
             """)
-    List<com.gomech.dto.Analytics.PartStockBalance> findPartsWithUnusedStock();
+    List<com.gomech.dto.Analytics.PartStockBalance> findPartsWithUnusedStockByOrganization(
+            @Param("organizationId") Long organizationId);
 }
@@ -0,0 +1,145 @@
+package com.gomech.repository;
+
+import com.gomech.dto.Management.DailyValue;
+import com.gomech.dto.Management.KpiFeedbackDay;
+import com.gomech.dto.Management.KpiOrderDay;
+import com.gomech.dto.Management.KpiPeriodTotals;
+import com.gomech.dto.Management.OrganizationBenchmarkTotals;
+import com.gomech.dto.Management.ServiceTypeTotals;
+import com.gomech.model.KpiDailyRollup;
+import com.gomech.model.ServiceOrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Agregados diários de KPIs. As consultas de recálculo leem as OSs e avaliações de um único dia de uma organização;
+ * as de relatório somam apenas linhas de rollup (dias x organizações) de {@code rollupDate > after}.
+ */
+@Repository
+public interface KpiDailyRollupRepository extends JpaRepository<KpiDailyRollup, Long> {
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.KpiOrderDay(
+                COUNT(so),
+                SUM(CASE WHEN so.status IN :finished THEN 1 ELSE 0 END),
+                SUM(CASE WHEN so.status = :cancelled THEN 1 ELSE 0 END),
+                COALESCE(SUM(CASE WHEN so.status IN :finished THEN so.totalCost ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN so.status IN :finished THEN so.laborCost ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN so.status IN :finished THEN so.partsCost ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN so.status IN :finished AND so.actualCompletion IS NOT NULL
+                                  THEN (so.actualCompletion - so.createdAt) BY SECOND ELSE 0 END), 0),
+                SUM(CASE WHEN so.status IN :finished AND so.actualCompletion IS NOT NULL THEN 1 ELSE 0 END)
+            )
+            FROM ServiceOrder so
+            WHERE so.organization.id = :organizationId
+              AND so.createdAt >= :from
+              AND so.createdAt < :to
+            """)
+    KpiOrderDay aggregateOrders(@Param("organizationId") Long organizationId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                @Param("finished") Collection<ServiceOrderStatus> finished,
+                                @Param("cancelled") ServiceOrderStatus cancelled);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.KpiFeedbackDay(
+                COUNT(f.npsScore),
+                SUM(CASE WHEN f.npsScore >= 9 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN f.npsScore <= 6 THEN 1 ELSE 0 END),
+                COUNT(f.rating),
+                COALESCE(SUM(f.rating), 0)
+            )
+            FROM ClientFeedback f
+            WHERE f.organization.id = :organizationId
+              AND f.createdAt >= :from
+              AND f.createdAt < :to
+            """)
+    KpiFeedbackDay aggregateFeedback(@Param("organizationId") Long organizationId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM KpiDailyRollup r WHERE r.organizationId = :organizationId AND r.rollupDate = :day")
+    void deleteDay(@Param("organizationId") Long organizationId, @Param("day") LocalDate day);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.ServiceTypeTotals(
+                r.serviceType,
+                SUM(r.ordersFinished),
+                SUM(r.revenue),
+                SUM(r.laborCost),
+                SUM(r.partsCost)
+            )
+            FROM KpiDailyRollup r
+            WHERE r.organizationId = :organizationId
+              AND r.rollupDate > :after
+              AND (:serviceType IS NULL OR r.serviceType = :serviceType)
+            GROUP BY r.serviceType
+            """)
+    List<ServiceTypeTotals> sumByServiceType(@Param("organizationId") Long organizationId,
+                                             @Param("after") LocalDate after,
+                                             @Param("serviceType") String serviceType);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.KpiPeriodTotals(
+                COALESCE(SUM(r.ordersOpened), 0),
+                COALESCE(SUM(r.ordersFinished), 0),
+                COALESCE(SUM(r.revenue), 0),
+                COALESCE(SUM(r.completionSeconds), 0),
+                COALESCE(SUM(r.completedWithTime), 0),
+                COALESCE(SUM(r.npsResponses), 0),
+                COALESCE(SUM(r.npsPromoters), 0),
+                COALESCE(SUM(r.npsDetractors), 0)
+            )
+            FROM KpiDailyRollup r
+            WHERE r.organizationId = :organizationId
+              AND r.rollupDate > :after
+            """)
+    KpiPeriodTotals sumPeriod(@Param("organizationId") Long organizationId, @Param("after") LocalDate after);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.OrganizationBenchmarkTotals(
+                r.organizationId,
+                SUM(r.ordersFinished),
+                SUM(r.revenue),
+                SUM(r.ratingCount),
+                SUM(r.ratingSum)
+            )
+            FROM KpiDailyRollup r
+            WHERE r.rollupDate > :after
+            GROUP BY r.organizationId
+            """)
+    List<OrganizationBenchmarkTotals> sumBenchmarkTotalsByOrganization(@Param("after") LocalDate after);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.DailyValue(r.rollupDate, SUM(r.ordersOpened))
+            FROM KpiDailyRollup r
+            WHERE r.organizationId = :organizationId
+              AND r.rollupDate > :after
+              AND r.rollupDate <= :to
+            GROUP BY r.rollupDate
+            """)
+    List<DailyValue> sumDailyOrders(@Param("organizationId") Long organizationId,
+                                    @Param("after") LocalDate after,
+                                    @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.DailyValue(r.rollupDate, SUM(r.revenue))
+            FROM KpiDailyRollup r
+            WHERE r.organizationId = :organizationId
+              AND r.rollupDate > :after
+              AND r.rollupDate <= :to
+            GROUP BY r.rollupDate
+            """)
+    List<DailyValue> sumDailyRevenue(@Param("organizationId") Long organizationId,
+                                     @Param("after") LocalDate after,
+                                     @Param("to") LocalDate to);
+}
@@ -0,0 +1,93 @@
+package com.gomech.repository;
+
+import com.gomech.dto.Management.OpenOrderSnapshot;
+import com.gomech.dto.Management.OrderStatusCount;
+import com.gomech.dto.Management.OrganizationMetric;
+import com.gomech.dto.Management.TechnicianLoad;
+import com.gomech.model.Role;
+import com.gomech.model.ServiceOrder;
+import com.gomech.model.ServiceOrderStatus;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas dos relatórios gerenciais: filtros, agrupamentos e somas rodam no banco e cada consulta devolve
+ * uma linha por grupo, em vez de carregar as entidades para agregar em memória. Receita, contagens por período e
+ * satisfação vêm dos rollups diários ({@link KpiDailyRollupRepository}).
+ */
+@Repository
+public interface ManagementReportRepository extends org.springframework.data.repository.Repository<ServiceOrder, Long> {
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.OrderStatusCount(
+                so.status,
+                COUNT(so),
+                SUM(CASE WHEN so.createdAt < :openedBefore THEN 1 ELSE 0 END)
+            )
+            FROM ServiceOrder so
+            WHERE so.organization.id = :organizationId
+            GROUP BY so.status
+            """)
+    List<OrderStatusCount> countOrdersByStatus(@Param("organizationId") Long organizationId,
+                                               @Param("openedBefore") LocalDateTime openedBefore);
+
+    /**
+     * OSs ativas por técnico; a OS guarda o nome do técnico, então a junção é pelo nome dentro da organização.
+     * Técnicos sem OS ativa aparecem com zero.
+     */
+    @Query("""
+            SELECT new com.gomech.dto.Management.TechnicianLoad(u.id, u.name, COUNT(so.id))
+            FROM users u
+            LEFT JOIN ServiceOrder so
+                   ON so.technicianName = u.name
+                  AND so.organization = u.organization
+                  AND so.status IN :active
+            WHERE u.organization.id = :organizationId
+              AND u.role = :role
+            GROUP BY u.id, u.name
+            """)
+    List<TechnicianLoad> countActiveOrdersByTechnician(@Param("organizationId") Long organizationId,
+                                                       @Param("role") Role role,
+                                                       @Param("active") Collection<ServiceOrderStatus> active);
+
+    @Query("""
+            SELECT COUNT(i)
+            FROM InventoryItem i
+            WHERE i.organization.id = :organizationId
+              AND i.quantity <= i.minimumQuantity
+            """)
+    long countItemsAtOrBelowMinimum(@Param("organizationId") Long organizationId);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.OrganizationMetric(u.organization.id, COUNT(u))
+            FROM users u
+            WHERE u.role = :role
+            GROUP BY u.organization.id
+            """)
+    List<OrganizationMetric> countUsersByOrganization(@Param("role") Role role);
+
+    @Query("""
+            SELECT new com.gomech.dto.Management.OpenOrderSnapshot(so.id, so.status, so.technicianName, so.createdAt)
+            FROM ServiceOrder so
+            WHERE so.organization.id = :organizationId
+              AND so.status IN :statuses
+            """)
+    List<OpenOrderSnapshot> findOrdersInStatus(@Param("organizationId") Long organizationId,
+                                               @Param("statuses") Collection<ServiceOrderStatus> statuses);
+
+    @Query("SELECT u.name FROM users u WHERE u.organization.id = :organizationId AND u.role = :role")
+    List<String> findUserNames(@Param("organizationId") Long organizationId, @Param("role") Role role);
+
+    @Query("""
+            SELECT i.id
+            FROM InventoryItem i
+            WHERE i.organization.id = :organizationId
+              AND i.quantity <= i.minimumQuantity
+            """)
+    List<Long> findItemIdsAtOrBelowMinimum(@Param("organizationId") Long organizationId);
+}
@@ -4,6 +4,8 @@ import com.gomech.domain.Part;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -25,4 +27,7 @@ public interface PartRepository extends JpaRepository<Part, Long> {
     List<Part> findByActiveAndOrganizationId(Boolean active, Long organizationId);
     
     long countByOrganizationId(Long organizationId);
+
+    @Query("SELECT p.sku FROM Part p WHERE p.sku LIKE CONCAT(:prefix, '-%')")
+    List<String> findSkusWithPrefix(@Param("prefix") String prefix);
 }
@@ -2,9 +2,18 @@ package com.gomech.repository;
 
 import com.gomech.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByTokenHashAndRevokedFalse(String tokenHash);
+
+    @Query("select r.tokenHash from RefreshToken r where r.revoked = false and r.expiresAt > :now")
+    List<String> findActiveTokenHashes(@Param("now") Instant now);
+
+    long countByRevokedFalseAndExpiresAtAfter(Instant now);
 }
@@ -0,0 +1,47 @@
+package com.gomech.repository;
+
+import com.gomech.model.ReportJob;
+import com.gomech.model.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    /**
+     * Jobs ainda válidos do mesmo relatório, do mais recente para o mais antigo. Jobs na fila ou em execução só
+     * contam se criados depois de {@code activeSince} (os mais antigos ficaram órfãos, ex.: restart).
+     */
+    @Query("""
+            SELECT j FROM ReportJob j
+            WHERE j.organizationId = :organizationId
+              AND j.reportType = :reportType
+              AND j.periodDays = :periodDays
+              AND j.expiresAt > :now
+              AND (j.status = :completed OR (j.status IN :active AND j.createdAt > :activeSince))
+            ORDER BY j.id DESC
+            """)
+    List<ReportJob> findReusable(@Param("organizationId") Long organizationId,
+                                 @Param("reportType") String reportType,
+                                 @Param("periodDays") int periodDays,
+                                 @Param("now") Instant now,
+                                 @Param("completed") ReportJobStatus completed,
+                                 @Param("active") Collection<ReportJobStatus> active,
+                                 @Param("activeSince") Instant activeSince);
+
+    Optional<ReportJob> findByIdAndOrganizationId(Long id, Long organizationId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReportJob j WHERE j.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,17 +1,22 @@
 package com.gomech.repository;
 
+import com.gomech.dto.ServiceOrder.ServiceHistoryExportRowDTO;
 import com.gomech.model.ServiceOrder;
 import com.gomech.model.ServiceOrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ServiceOrderRepository extends JpaRepository<ServiceOrder, Long> {
@@ -65,31 +70,45 @@ public interface ServiceOrderRepository extends JpaRepository<ServiceOrder, Long
     @Query("SELECT so FROM ServiceOrder so WHERE so.organization.id = :organizationId AND so.vehicle.id = :vehicleId ORDER BY so.createdAt DESC")
     List<ServiceOrder> findVehicleHistoryByOrganization(@Param("organizationId") Long organizationId, @Param("vehicleId") Long vehicleId);
 
-    @Query("SELECT COUNT(so) FROM ServiceOrder so WHERE so.createdAt BETWEEN :start AND :end")
-    long countCreatedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-    
+    /**
+     * Cursor da exportação do histórico do veículo; deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.gomech.dto.ServiceOrder.ServiceHistoryExportRowDTO(so.orderNumber, so.createdAt, " +
+            "so.actualCompletion, so.status, so.description, so.problemDescription, so.diagnosis, " +
+            "so.solutionDescription, so.technicianName, so.currentKilometers, so.laborCost, so.partsCost, " +
+            "so.discount, so.totalCost, so.observations) FROM ServiceOrder so " +
+            "WHERE so.organization.id = :organizationId AND so.vehicle.id = :vehicleId ORDER BY so.createdAt DESC")
+    Stream<ServiceHistoryExportRowDTO> streamVehicleHistoryExportRows(@Param("organizationId") Long organizationId,
+                                                                      @Param("vehicleId") Long vehicleId);
+
     @Query("SELECT COUNT(so) FROM ServiceOrder so WHERE so.organization.id = :organizationId AND so.createdAt BETWEEN :start AND :end")
     long countCreatedBetweenByOrganization(@Param("organizationId") Long organizationId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT COALESCE(SUM(so.totalCost), 0) FROM ServiceOrder so WHERE so.createdAt BETWEEN :start AND :end")
-    java.math.BigDecimal sumTotalCostBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-    
     @Query("SELECT COALESCE(SUM(so.totalCost), 0) FROM ServiceOrder so WHERE so.organization.id = :organizationId AND so.createdAt BETWEEN :start AND :end")
     java.math.BigDecimal sumTotalCostBetweenByOrganization(@Param("organizationId") Long organizationId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    /**
+     * OSs abertas e receita do mês anterior ({@code [previousStart, currentStart)}) e do mês atual
+     * ({@code [currentStart, now]}) em uma única leitura.
+     */
     @Query("""
-            SELECT new com.gomech.dto.Analytics.ClientServiceGap(
-                so.client.id,
-                so.client.name,
-                so.client.email,
-                MAX(COALESCE(so.actualCompletion, so.createdAt))
+            SELECT new com.gomech.dto.Analytics.MonthOverMonthTotals(
+                SUM(CASE WHEN so.createdAt < :currentStart THEN 1 ELSE 0 END),
+                SUM(CASE WHEN so.createdAt >= :currentStart THEN 1 ELSE 0 END),
+                COALESCE(SUM(CASE WHEN so.createdAt < :currentStart THEN so.totalCost ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN so.createdAt >= :currentStart THEN so.totalCost ELSE 0 END), 0)
             )
             FROM ServiceOrder so
-            GROUP BY so.client.id, so.client.name, so.client.email
-            HAVING MAX(COALESCE(so.actualCompletion, so.createdAt)) < :threshold
+            WHERE so.organization.id = :organizationId
+              AND so.createdAt >= :previousStart
+              AND so.createdAt <= :now
             """)
-    List<com.gomech.dto.Analytics.ClientServiceGap> findClientsWithServiceGap(@Param("threshold") LocalDateTime threshold);
-    
+    com.gomech.dto.Analytics.MonthOverMonthTotals sumMonthOverMonth(@Param("organizationId") Long organizationId,
+                                                                     @Param("previousStart") LocalDateTime previousStart,
+                                                                     @Param("currentStart") LocalDateTime currentStart,
+                                                                     @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT new com.gomech.dto.Analytics.ClientServiceGap(
                 so.client.id,
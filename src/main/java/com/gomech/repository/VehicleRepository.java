@@ -1,13 +1,20 @@
 package com.gomech.repository;
 
+import com.gomech.dto.Vehicles.VehicleExportRowDTO;
 import com.gomech.model.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
@@ -25,4 +32,13 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByClientIdAndOrganizationId(Long clientId, Long organizationId);
     
     long countByOrganizationId(Long organizationId);
+
+    /**
+     * Cursor da exportação; deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.gomech.dto.Vehicles.VehicleExportRowDTO(v.client.id, v.licensePlate, v.brand, v.model, " +
+            "v.manufactureDate, v.color, v.observations, v.kilometers, v.chassisId) " +
+            "FROM Vehicle v WHERE v.organization.id = :organizationId ORDER BY v.id")
+    Stream<VehicleExportRowDTO> streamExportRows(@Param("organizationId") Long organizationId);
 }
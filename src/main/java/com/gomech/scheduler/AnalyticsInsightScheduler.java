@@ -0,0 +1,30 @@
+package com.gomech.scheduler;
+
+import com.gomech.service.AnalyticsInsightService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pré-cálculo noturno dos insights das organizações com alterações desde o último cálculo.
+ */
+@Component
+public class AnalyticsInsightScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsInsightScheduler.class);
+
+    private final AnalyticsInsightService analyticsInsightService;
+
+    public AnalyticsInsightScheduler(AnalyticsInsightService analyticsInsightService) {
+        this.analyticsInsightService = analyticsInsightService;
+    }
+
+    @Scheduled(cron = "${analytics.insights.precompute-cron:0 30 3 * * *}")
+    public void precomputeInsights() {
+        int refreshed = analyticsInsightService.refreshChangedOrganizations();
+        if (refreshed > 0) {
+            LOGGER.info("Insights recalculados para {} organizações", refreshed);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.gomech.scheduler;
+
+import com.gomech.audit.AuditAnchorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditAnchorScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditAnchorScheduler.class);
+
+    private final AuditAnchorService auditAnchorService;
+
+    public AuditAnchorScheduler(AuditAnchorService auditAnchorService) {
+        this.auditAnchorService = auditAnchorService;
+    }
+
+    @Scheduled(fixedDelayString = "${audit.anchor.window-ms:60000}", initialDelayString = "${audit.anchor.window-ms:60000}")
+    public void anchorWindow() {
+        int sealed = auditAnchorService.sealPendingEvents();
+        int published = auditAnchorService.publishDueAnchors();
+        if (sealed > 0 || published > 0) {
+            LOGGER.info("Ancoragem de auditoria: {} âncoras criadas, {} publicadas", sealed, published);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gomech.scheduler;
+
+import com.gomech.audit.AuditChainVerifier;
+import com.gomech.dto.Audit.AuditChainReport;
+import com.gomech.dto.Audit.AuditChainResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditChainVerificationScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditChainVerificationScheduler.class);
+
+    private final AuditChainVerifier auditChainVerifier;
+
+    public AuditChainVerificationScheduler(AuditChainVerifier auditChainVerifier) {
+        this.auditChainVerifier = auditChainVerifier;
+    }
+
+    @Scheduled(cron = "${audit.chain.verify-cron:0 30 3 * * *}")
+    public void verifyChains() {
+        LOGGER.info("Iniciando verificação incremental das cadeias de auditoria");
+        AuditChainReport report = auditChainVerifier.verifyAll(false);
+        long checked = report.organizations().stream().mapToLong(AuditChainResult::eventsChecked).sum();
+        LOGGER.info("Verificação de auditoria concluída: {} cadeias, {} eventos novos, íntegra={}",
+                report.organizations().size(), checked, report.valid());
+    }
+}
@@ -0,0 +1,46 @@
+package com.gomech.scheduler;
+
+import com.gomech.audit.AuditPartitionService;
+import com.gomech.dto.Audit.AuditEventRequest;
+import com.gomech.service.AuditService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuditPartitionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditPartitionScheduler.class);
+
+    private final AuditPartitionService auditPartitionService;
+    private final AuditService auditService;
+
+    public AuditPartitionScheduler(AuditPartitionService auditPartitionService, AuditService auditService) {
+        this.auditPartitionService = auditPartitionService;
+        this.auditService = auditService;
+    }
+
+    @Scheduled(cron = "${audit.partition.cron:0 0 2 * * *}")
+    public void maintainPartitions() {
+        var created = auditPartitionService.createFuturePartitions();
+        if (!created.isEmpty()) {
+            LOGGER.info("Partições de auditoria criadas: {}", created);
+        }
+        for (var archived : auditPartitionService.archiveExpiredPartitions()) {
+            String payload = "partition=" + archived.name() + ", rows=" + archived.rows()
+                    + ", file=" + archived.file().getFileName() + ", checksum=" + archived.checksum();
+            AuditEventRequest request = new AuditEventRequest(
+                    "AUDIT_PARTITION_ARCHIVED",
+                    "Partição de auditoria arquivada",
+                    "system@gomech",
+                    "infraestrutura",
+                    "SYSTEM",
+                    java.time.LocalDateTime.now(),
+                    payload,
+                    null
+            );
+            auditService.registerEvent(request);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gomech.scheduler;
+
+import com.gomech.kpi.KpiDirtyDays;
+import com.gomech.kpi.KpiRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KpiRollupScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KpiRollupScheduler.class);
+
+    private final KpiRollupService kpiRollupService;
+    private final KpiDirtyDays dirtyDays;
+
+    public KpiRollupScheduler(KpiRollupService kpiRollupService, KpiDirtyDays dirtyDays) {
+        this.kpiRollupService = kpiRollupService;
+        this.dirtyDays = dirtyDays;
+    }
+
+    @Scheduled(cron = "${kpi.rollup.refresh-cron:0 */5 * * * *}")
+    public void refreshDirtyDays() {
+        int refreshed = kpiRollupService.refreshDirtyDays();
+        if (refreshed > 0) {
+            LOGGER.info("Rollups de KPIs recalculados: {} dia(s), {} pendente(s)", refreshed, dirtyDays.pending());
+        }
+    }
+}
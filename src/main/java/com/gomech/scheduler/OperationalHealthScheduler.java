@@ -0,0 +1,27 @@
+package com.gomech.scheduler;
+
+import com.gomech.health.OperationalHealthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OperationalHealthScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationalHealthScheduler.class);
+
+    private final OperationalHealthService operationalHealthService;
+
+    public OperationalHealthScheduler(OperationalHealthService operationalHealthService) {
+        this.operationalHealthService = operationalHealthService;
+    }
+
+    @Scheduled(cron = "${health.score.reconcile-cron:0 */10 * * * *}")
+    public void reconcile() {
+        int rebuilt = operationalHealthService.reconcile();
+        if (rebuilt > 0) {
+            LOGGER.info("Contadores de saúde operacional recarregados do banco: {} organização(ões)", rebuilt);
+        }
+    }
+}
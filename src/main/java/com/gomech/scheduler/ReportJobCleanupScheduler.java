@@ -0,0 +1,27 @@
+package com.gomech.scheduler;
+
+import com.gomech.report.ReportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReportJobCleanupScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportJobCleanupScheduler.class);
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobCleanupScheduler(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @Scheduled(cron = "${report.jobs.cleanup-cron:0 */15 * * * *}")
+    public void deleteExpired() {
+        int deleted = reportJobService.deleteExpired();
+        if (deleted > 0) {
+            LOGGER.info("Relatórios assíncronos expirados removidos: {}", deleted);
+        }
+    }
+}
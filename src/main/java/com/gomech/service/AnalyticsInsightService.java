@@ -1,19 +1,38 @@
 package com.gomech.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gomech.context.OrganizationContext;
 import com.gomech.dto.Analytics.AnalyticsInsightDTO;
 import com.gomech.dto.Analytics.ClientServiceGap;
+import com.gomech.dto.Analytics.MonthOverMonthTotals;
 import com.gomech.dto.Analytics.PartStockBalance;
 import com.gomech.dto.Analytics.PartUsageRanking;
 import com.gomech.dto.Analytics.SupplierPriceStats;
+import com.gomech.model.AnalyticsInsightSnapshot;
+import com.gomech.repository.AnalyticsInsightSnapshotRepository;
 import com.gomech.repository.InventoryItemRepository;
 import com.gomech.repository.InventoryMovementRepository;
 import com.gomech.repository.ServiceOrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -24,41 +43,234 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
+/**
+ * Insights de {@code /analytics/insights} da organização atual.
+ * <p>
+ * A API serve o snapshot gravado em {@code analytics_insight_snapshots}, recalculado pela rotina noturna
+ * ({@link #refreshChangedOrganizations()}) apenas para as organizações com OSs, movimentações ou itens alterados
+ * desde o último cálculo, ou com snapshot mais antigo que {@code analytics.insights.snapshot-max-age-hours}
+ * (os blocos dependem da data: último mês, clientes há 18 meses sem revisão). Sem snapshot, o primeiro pedido
+ * calcula e grava; {@link #refreshInsights()} recalcula sob demanda.
+ * <p>
+ * Os cinco blocos são independentes e, a pedido da API, consultam o banco em paralelo, em virtual threads; a
+ * resposta segue a ordem fixa dos blocos. Cada bloco ocupa uma conexão do pool enquanto consulta, então no máximo
+ * {@code analytics.insights.max-concurrent-queries} blocos (somando todos os pedidos da instância) consultam ao mesmo
+ * tempo. O padrão é metade de {@code spring.datasource.hikari.maximum-pool-size}: com o pool padrão (10) os cinco
+ * blocos de um pedido rodam de uma vez e sobra metade das conexões às demais requisições; pools menores trocam
+ * latência dos insights por folga para o resto da API. A rotina noturna calcula um bloco por vez e ocupa no máximo
+ * uma vaga, sem atrasar pedidos da API. O snapshot lido fica em cache por organização durante
+ * {@code analytics.insights.cache-ttl-seconds}; pedidos simultâneos da mesma organização aguardam uma única leitura.
+ */
 @Service
 public class AnalyticsInsightService {
 
+    public static final String CACHE_NAME = "analyticsInsightCache";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsInsightService.class);
+    private static final TypeReference<List<AnalyticsInsightDTO>> INSIGHT_LIST = new TypeReference<>() {
+    };
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final Locale LOCALE_PT_BR = new Locale("pt", "BR");
 
     private final InventoryMovementRepository inventoryMovementRepository;
     private final ServiceOrderRepository serviceOrderRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final AnalyticsInsightSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final Semaphore querySlots;
+    private final List<InsightBuilder> builders;
+    private final Cache<Long, List<AnalyticsInsightDTO>> insightsByOrganization;
+    private final Duration snapshotMaxAge;
 
     public AnalyticsInsightService(InventoryMovementRepository inventoryMovementRepository,
                                    ServiceOrderRepository serviceOrderRepository,
-                                   InventoryItemRepository inventoryItemRepository) {
+                                   InventoryItemRepository inventoryItemRepository,
+                                   AnalyticsInsightSnapshotRepository snapshotRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${analytics.insights.cache-ttl-seconds:60}") long cacheTtlSeconds,
+                                   @Value("${analytics.insights.max-organizations:10000}") long maxOrganizations,
+                                   @Value("${analytics.insights.snapshot-max-age-hours:168}") long snapshotMaxAgeHours,
+                                   @Value("${analytics.insights.max-concurrent-queries:0}") int maxConcurrentQueries,
+                                   @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (maxConcurrentQueries < 0) {
+            throw new IllegalArgumentException("analytics.insights.max-concurrent-queries não pode ser negativo");
+        }
         this.inventoryMovementRepository = inventoryMovementRepository;
         this.serviceOrderRepository = serviceOrderRepository;
         this.inventoryItemRepository = inventoryItemRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotMaxAge = Duration.ofHours(snapshotMaxAgeHours);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("analytics-insight-", 0).factory());
+        this.querySlots = new Semaphore(maxConcurrentQueries > 0 ? maxConcurrentQueries
+                : Math.max(1, connectionPoolSize / 2), true);
+        Gauge.builder("analytics.insights.queries.waiting", querySlots, Semaphore::getQueueLength)
+                .register(meterRegistry);
+        this.builders = List.of(
+                new InsightBuilder(this::topPartLastMonth, builderTimer(meterRegistry, "top-part")),
+                new InsightBuilder(this::highlightUnusedPurchases, builderTimer(meterRegistry, "unused-stock")),
+                new InsightBuilder(this::clientsNeedingRevision, builderTimer(meterRegistry, "client-revision")),
+                new InsightBuilder(this::servicePerformanceInsight, builderTimer(meterRegistry, "service-performance")),
+                new InsightBuilder(this::supplierComparison, builderTimer(meterRegistry, "supplier-comparison")));
+        this.insightsByOrganization = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(maxOrganizations)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, insightsByOrganization, CACHE_NAME);
     }
 
+    /**
+     * Snapshot de insights da organização atual; calcula e grava quando ainda não existe.
+     */
     public List<AnalyticsInsightDTO> generateInsights() {
-        List<AnalyticsInsightDTO> insights = new ArrayList<>();
-        topPartLastMonth().ifPresent(insights::add);
-        highlightUnusedPurchases().ifPresent(insights::add);
-        addClientsNeedingRevision(insights);
-        servicePerformanceInsight().ifPresent(insights::add);
-        supplierComparison().ifPresent(insights::add);
+        return insightsByOrganization.get(OrganizationContext.requireOrganizationId(), this::storedOrComputed);
+    }
+
+    /**
+     * Recalcula e grava os insights da organização atual.
+     */
+    public List<AnalyticsInsightDTO> refreshInsights() {
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        List<AnalyticsInsightDTO> insights = computeAndStore(organizationId, true);
+        insightsByOrganization.put(organizationId, insights);
         return insights;
     }
 
-    private Optional<AnalyticsInsightDTO> topPartLastMonth() {
+    /**
+     * Recalcula os snapshots das organizações sem snapshot, com snapshot vencido ou com alterações desde o último
+     * cálculo. Falhas de uma organização não interrompem as demais.
+     *
+     * @return quantidade de organizações recalculadas
+     */
+    public int refreshChangedOrganizations() {
+        int refreshed = 0;
+        for (Long organizationId : snapshotRepository.findOrganizationsToRefresh(
+                LocalDateTime.now().minus(snapshotMaxAge))) {
+            try {
+                insightsByOrganization.put(organizationId, computeAndStore(organizationId, false));
+                refreshed++;
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha ao recalcular insights da organização {}: {}", organizationId, e.getMessage());
+            }
+        }
+        return refreshed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<AnalyticsInsightDTO> storedOrComputed(Long organizationId) {
+        return snapshotRepository.findById(organizationId)
+                .map(this::read)
+                .orElseGet(() -> computeAndStore(organizationId, true));
+    }
+
+    private List<AnalyticsInsightDTO> computeAndStore(Long organizationId, boolean parallel) {
+        // A marca d'água é o início do cálculo: alterações gravadas durante o cálculo entram na próxima execução
+        LocalDateTime computedAt = LocalDateTime.now();
+        List<AnalyticsInsightDTO> insights = parallel ? buildInsights(organizationId) : buildInsightsSerially(organizationId);
+        String insightsJson;
+        try {
+            insightsJson = objectMapper.writeValueAsString(insights);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar insights", e);
+        }
+        store(organizationId, insightsJson, computedAt);
+        return insights;
+    }
+
+    /**
+     * Grava o snapshot sem depender de quem chegou antes: a rotina noturna, o {@code refresh=true} e o primeiro
+     * pedido da organização podem calcular ao mesmo tempo. Se outro cálculo inseriu o snapshot entre o
+     * {@code UPDATE} e o {@code INSERT}, o {@code UPDATE} é repetido; o cálculo mais recente prevalece.
+     */
+    private void store(Long organizationId, String insightsJson, LocalDateTime computedAt) {
+        if (snapshotRepository.updateSnapshot(organizationId, insightsJson, computedAt) > 0
+                || snapshotRepository.existsById(organizationId)) {
+            return;
+        }
+        try {
+            snapshotRepository.insertSnapshot(organizationId, insightsJson, computedAt);
+        } catch (DataIntegrityViolationException e) {
+            snapshotRepository.updateSnapshot(organizationId, insightsJson, computedAt);
+        }
+    }
+
+    private List<AnalyticsInsightDTO> read(AnalyticsInsightSnapshot snapshot) {
+        try {
+            return List.copyOf(objectMapper.readValue(snapshot.getInsightsJson(), INSIGHT_LIST));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Snapshot de insights inválido da organização " + snapshot.getOrganizationId(), e);
+        }
+    }
+
+    private List<AnalyticsInsightDTO> buildInsights(Long organizationId) {
+        List<CompletableFuture<Optional<AnalyticsInsightDTO>>> pending = builders.stream()
+                .map(builder -> CompletableFuture.supplyAsync(() -> run(builder, organizationId), executor))
+                .toList();
+
+        List<AnalyticsInsightDTO> insights = new ArrayList<>(pending.size());
+        try {
+            for (CompletableFuture<Optional<AnalyticsInsightDTO>> builder : pending) {
+                builder.join().ifPresent(insights::add);
+            }
+        } catch (CompletionException e) {
+            pending.forEach(builder -> builder.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return List.copyOf(insights);
+    }
+
+    private List<AnalyticsInsightDTO> buildInsightsSerially(Long organizationId) {
+        List<AnalyticsInsightDTO> insights = new ArrayList<>(builders.size());
+        for (InsightBuilder builder : builders) {
+            run(builder, organizationId).ifPresent(insights::add);
+        }
+        return List.copyOf(insights);
+    }
+
+    private Optional<AnalyticsInsightDTO> run(InsightBuilder builder, Long organizationId) {
+        try {
+            querySlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de insights interrompido", e);
+        }
+        try {
+            return builder.timer().record(() -> builder.query().apply(organizationId));
+        } finally {
+            querySlots.release();
+        }
+    }
+
+    private static Timer builderTimer(MeterRegistry meterRegistry, String name) {
+        return Timer.builder("analytics.insights.builder")
+                .tag("builder", name)
+                .register(meterRegistry);
+    }
+
+    private Optional<AnalyticsInsightDTO> topPartLastMonth(Long organizationId) {
         YearMonth currentMonth = YearMonth.from(LocalDate.now());
         YearMonth lastMonth = currentMonth.minusMonths(1);
         LocalDateTime start = lastMonth.atDay(1).atStartOfDay();
         LocalDateTime end = lastMonth.atEndOfMonth().atTime(LocalTime.MAX);
-        List<PartUsageRanking> ranking = inventoryMovementRepository.findTopConsumedPartsBetween(start, end, PageRequest.of(0, 1));
+        List<PartUsageRanking> ranking = inventoryMovementRepository.findTopConsumedPartsBetweenByOrganization(
+                organizationId, start, end, PageRequest.of(0, 1));
         if (ranking.isEmpty()) {
             return Optional.empty();
         }
@@ -69,8 +281,8 @@ public class AnalyticsInsightService {
         return Optional.of(new AnalyticsInsightDTO("Peça destaque do mês", description, "INVENTORY"));
     }
 
-    private Optional<AnalyticsInsightDTO> highlightUnusedPurchases() {
-        return inventoryMovementRepository.findPartsWithUnusedStock().stream()
+    private Optional<AnalyticsInsightDTO> highlightUnusedPurchases(Long organizationId) {
+        return inventoryMovementRepository.findPartsWithUnusedStockByOrganization(organizationId).stream()
                 .sorted(Comparator.comparingLong(PartStockBalance::unusedQuantity).reversed())
                 .findFirst()
                 .filter(balance -> balance.unusedQuantity() > 0)
@@ -85,11 +297,12 @@ public class AnalyticsInsightService {
                 });
     }
 
-    private void addClientsNeedingRevision(List<AnalyticsInsightDTO> insights) {
+    private Optional<AnalyticsInsightDTO> clientsNeedingRevision(Long organizationId) {
         LocalDateTime threshold = LocalDateTime.now().minusMonths(18);
-        List<ClientServiceGap> clients = serviceOrderRepository.findClientsWithServiceGap(threshold);
+        List<ClientServiceGap> clients = serviceOrderRepository.findClientsWithServiceGapByOrganization(
+                organizationId, threshold);
         if (clients.isEmpty()) {
-            return;
+            return Optional.empty();
         }
         String description = clients.stream()
                 .sorted(Comparator.comparing(ClientServiceGap::lastServiceDate))
@@ -100,24 +313,24 @@ public class AnalyticsInsightService {
                 .reduce((a, b) -> a + "; " + b)
                 .map(list -> list + ".")
                 .orElse("Clientes com revisões atrasadas identificados.");
-        insights.add(new AnalyticsInsightDTO("Clientes para notificar",
+        return Optional.of(new AnalyticsInsightDTO("Clientes para notificar",
                 "Os seguintes clientes estão há mais de 18 meses sem revisão: " + description,
                 "CUSTOMER"));
     }
 
-    private Optional<AnalyticsInsightDTO> servicePerformanceInsight() {
+    private Optional<AnalyticsInsightDTO> servicePerformanceInsight(Long organizationId) {
         LocalDateTime now = LocalDateTime.now();
         YearMonth currentMonth = YearMonth.from(now);
         YearMonth previousMonth = currentMonth.minusMonths(1);
         LocalDateTime currentStart = currentMonth.atDay(1).atStartOfDay();
         LocalDateTime previousStart = previousMonth.atDay(1).atStartOfDay();
-        LocalDateTime previousEnd = currentStart.minusNanos(1);
-
-        long previousOrders = serviceOrderRepository.countCreatedBetween(previousStart, previousEnd);
-        long currentOrders = serviceOrderRepository.countCreatedBetween(currentStart, now);
 
-        BigDecimal previousRevenue = serviceOrderRepository.sumTotalCostBetween(previousStart, previousEnd);
-        BigDecimal currentRevenue = serviceOrderRepository.sumTotalCostBetween(currentStart, now);
+        MonthOverMonthTotals totals = serviceOrderRepository.sumMonthOverMonth(organizationId, previousStart,
+                currentStart, now);
+        long previousOrders = totals.previousOrders() != null ? totals.previousOrders() : 0;
+        long currentOrders = totals.currentOrders() != null ? totals.currentOrders() : 0;
+        BigDecimal previousRevenue = totals.previousRevenue() != null ? totals.previousRevenue() : BigDecimal.ZERO;
+        BigDecimal currentRevenue = totals.currentRevenue() != null ? totals.currentRevenue() : BigDecimal.ZERO;
 
         if (previousOrders == 0 && previousRevenue.compareTo(BigDecimal.ZERO) == 0 && currentOrders == 0
                 && currentRevenue.compareTo(BigDecimal.ZERO) == 0) {
@@ -139,8 +352,8 @@ public class AnalyticsInsightService {
                 "OPERATIONS"));
     }
 
-    private Optional<AnalyticsInsightDTO> supplierComparison() {
-        List<SupplierPriceStats> stats = inventoryItemRepository.findAverageCostBySupplier();
+    private Optional<AnalyticsInsightDTO> supplierComparison(Long organizationId) {
+        List<SupplierPriceStats> stats = inventoryItemRepository.findAverageCostBySupplierByOrganization(organizationId);
         List<SupplierPriceStats> filtered = stats.stream()
                 .filter(s -> s.supplier() != null && s.averageUnitCost() != null)
                 .sorted(Comparator.comparingDouble(SupplierPriceStats::averageUnitCost))
@@ -190,4 +403,7 @@ public class AnalyticsInsightService {
         NumberFormat format = NumberFormat.getCurrencyInstance(LOCALE_PT_BR);
         return format.format(value != null ? value : BigDecimal.ZERO);
     }
+
+    private record InsightBuilder(Function<Long, Optional<AnalyticsInsightDTO>> query, Timer timer) {
+    }
 }
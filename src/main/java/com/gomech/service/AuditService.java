@@ -1,47 +1,92 @@
 package com.gomech.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gomech.audit.AuditAnchorService;
+import com.gomech.audit.AuditEventRecorded;
+import com.gomech.audit.AuditHashChain;
+import com.gomech.audit.AuditPipeline;
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Audit.AuditEventCursorPage;
+import com.gomech.dto.Audit.AuditEventFilter;
 import com.gomech.dto.Audit.AuditEventRequest;
+import com.gomech.dto.Audit.AuditEventResponse;
 import com.gomech.model.AuditEvent;
+import com.gomech.repository.AuditEventQueryRepository;
 import com.gomech.repository.AuditEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 
 @Service
 public class AuditService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
     private final AuditEventRepository auditEventRepository;
+    private final AuditEventQueryRepository auditEventQueryRepository;
     private final EncryptionService encryptionService;
-    private final BlockchainService blockchainService;
+    private final AuditHashChain hashChain;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
     public AuditService(AuditEventRepository auditEventRepository,
+                        AuditEventQueryRepository auditEventQueryRepository,
                         EncryptionService encryptionService,
-                        BlockchainService blockchainService) {
+                        AuditHashChain hashChain,
+                        ApplicationEventPublisher eventPublisher,
+                        ObjectMapper objectMapper) {
         this.auditEventRepository = auditEventRepository;
+        this.auditEventQueryRepository = auditEventQueryRepository;
         this.encryptionService = encryptionService;
-        this.blockchainService = blockchainService;
+        this.hashChain = hashChain;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Registro síncrono, usado quando o chamador precisa do evento persistido (ex.: {@code POST /audit/event}).
+     * Ações de negócio devem usar {@link #logEntityAction}, que grava de forma assíncrona.
+     * A publicação na blockchain ocorre depois, em lote, pelo {@link AuditAnchorService}.
+     */
     @Transactional
     public AuditEvent registerEvent(AuditEventRequest request) {
-        Instant registrationInstant = Instant.now();
+        AuditEvent event = buildEvent(request, Instant.now());
+        // A organização precisa estar definida antes do encadeamento (o listener JPA só atua no persist)
+        event.setOrganization(OrganizationContext.getOrganization());
+        hashChain.link(List.of(event));
+        return auditEventRepository.save(event);
+    }
+
+    /**
+     * Monta o evento com payload canônico e hash, sem persistir.
+     */
+    public AuditEvent buildEvent(AuditEventRequest request, Instant registrationInstant) {
         LocalDateTime occurredAt = request.occurredAt() != null ? request.occurredAt() : LocalDateTime.now();
         String canonicalPayload = buildCanonicalPayload(request, occurredAt, registrationInstant);
         String hash = encryptionService.sha256(canonicalPayload);
-        String blockchainReference = blockchainService.publishAuditEvent(request.eventType(), hash, canonicalPayload, registrationInstant);
-        AuditEvent event = new AuditEvent(
+        return new AuditEvent(
                 request.eventType(),
                 request.operation(),
                 request.userEmail(),
@@ -51,9 +96,8 @@ public class AuditService {
                 occurredAt,
                 canonicalPayload,
                 hash,
-                blockchainReference
+                null
         );
-        return auditEventRepository.save(event);
     }
 
     public Page<AuditEvent> listEvents(LocalDateTime startDate,
@@ -88,6 +132,61 @@ public class AuditService {
         return auditEventRepository.findAll(specification, pageable);
     }
 
+    /**
+     * Página por cursor {@code (occurredAt, id)} da organização atual, sem contagem total.
+     */
+    public AuditEventCursorPage listEventsByCursor(LocalDateTime startDate,
+                                                   LocalDateTime endDate,
+                                                   String actionType,
+                                                   String userEmail,
+                                                   String cursor,
+                                                   int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        AuditEventFilter filter = currentOrganizationFilter(startDate, endDate, actionType, userEmail);
+        CursorPosition position = decodeCursor(cursor);
+
+        List<AuditEventResponse> rows = auditEventQueryRepository.findPage(
+                filter, position.occurredAt(), position.id(), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<AuditEventResponse> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+        return new AuditEventCursorPage(content, pageSize, hasNext, nextCursor);
+    }
+
+    public AuditEventFilter currentOrganizationFilter(LocalDateTime startDate,
+                                                      LocalDateTime endDate,
+                                                      String actionType,
+                                                      String userEmail) {
+        return new AuditEventFilter(OrganizationContext.getOrganizationId(), startDate, endDate, actionType, userEmail);
+    }
+
+    /**
+     * Exporta os eventos em NDJSON (um JSON por linha), percorrendo o keyset em blocos para não manter
+     * cursor nem transação abertos durante a transferência.
+     */
+    public void exportEvents(AuditEventFilter filter, OutputStream output) throws IOException {
+        LocalDateTime afterOccurredAt = null;
+        Long afterId = null;
+        while (true) {
+            List<AuditEventResponse> chunk = auditEventQueryRepository.findPage(
+                    filter, afterOccurredAt, afterId, EXPORT_CHUNK_SIZE);
+            for (AuditEventResponse event : chunk) {
+                output.write(objectMapper.writeValueAsBytes(event));
+                output.write('\n');
+            }
+            output.flush();
+            if (chunk.size() < EXPORT_CHUNK_SIZE) {
+                return;
+            }
+            AuditEventResponse last = chunk.get(chunk.size() - 1);
+            afterOccurredAt = last.occurredAt();
+            afterId = last.id();
+        }
+    }
+
+    /**
+     * Enfileira a ação para o {@link AuditPipeline}; com transação ativa o evento só é enfileirado após o commit.
+     */
     public void logEntityAction(String actionType,
                                 String entityType,
                                 Long entityId,
@@ -117,7 +216,29 @@ public class AuditService {
                 entityId
         );
 
-        registerEvent(request);
+        eventPublisher.publishEvent(new AuditEventRecorded(request, OrganizationContext.getOrganizationId(), Instant.now()));
+    }
+
+    private static String encodeCursor(AuditEventResponse last) {
+        String raw = last.occurredAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new CursorPosition(null, null);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new CursorPosition(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    private record CursorPosition(LocalDateTime occurredAt, Long id) {
     }
 
     private String buildCanonicalPayload(AuditEventRequest request, LocalDateTime occurredAt, Instant registrationInstant) {
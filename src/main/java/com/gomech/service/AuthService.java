@@ -1,23 +1,46 @@
 package com.gomech.service;
 
+import com.gomech.configuration.PrincipalCache;
+import com.gomech.model.User;
 import com.gomech.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class AuthService implements UserDetailsService {
+public class AuthService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository repository;
 
+    @Autowired
+    PrincipalCache principalCache;
+
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return repository.findWithOrganizationByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    /**
+     * Chamado pelo {@code DaoAuthenticationProvider} após um login bem-sucedido quando o hash
+     * armazenado usa um custo BCrypt inferior ao configurado, regravando-o de forma transparente.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userDetails instanceof User entity
+                ? entity
+                : repository.findWithOrganizationByEmail(userDetails.getUsername())
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        User saved = repository.save(user);
+        principalCache.evictUser(saved.getEmail());
+        return saved;
+    }
 }
@@ -3,8 +3,7 @@ package com.gomech.service;
 import com.gomech.integration.blockchain.BlockchainClient;
 import com.gomech.integration.blockchain.BlockchainRequest;
 import com.gomech.integration.blockchain.BlockchainResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.gomech.model.AuditAnchor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -13,21 +12,29 @@ import java.time.format.DateTimeFormatter;
 @Service
 public class BlockchainService {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(BlockchainService.class);
+    static final String MERKLE_ROOT_EVENT_TYPE = "AUDIT_MERKLE_ROOT";
+
     private final BlockchainClient blockchainClient;
 
     public BlockchainService(BlockchainClient blockchainClient) {
         this.blockchainClient = blockchainClient;
     }
 
-    public String publishAuditEvent(String eventType, String hash, String payload, Instant timestamp) {
-        try {
-            BlockchainResponse response = blockchainClient.publishAuditEvent(new BlockchainRequest(eventType, hash, payload,
-                    DateTimeFormatter.ISO_INSTANT.format(timestamp)));
-            return response != null ? response.transactionHash() : null;
-        } catch (Exception e) {
-            LOGGER.warn("Failed to publish audit event to blockchain: {}", e.getMessage());
-            return null;
+    /**
+     * Publica a raiz de Merkle de uma âncora e retorna o hash da transação.
+     * Falhas são propagadas para que a âncora permaneça pendente no outbox.
+     */
+    public String anchorMerkleRoot(AuditAnchor anchor) {
+        String payload = "anchorId=" + anchor.getId()
+                + ", leafCount=" + anchor.getLeafCount()
+                + ", firstEventId=" + anchor.getFirstEventId()
+                + ", lastEventId=" + anchor.getLastEventId();
+        BlockchainResponse response = blockchainClient.publishAuditEvent(new BlockchainRequest(
+                MERKLE_ROOT_EVENT_TYPE, anchor.getMerkleRoot(), payload,
+                DateTimeFormatter.ISO_INSTANT.format(Instant.now())));
+        if (response == null || response.transactionHash() == null || response.transactionHash().isBlank()) {
+            throw new IllegalStateException("Blockchain não retornou hash de transação para a âncora " + anchor.getId());
         }
+        return response.transactionHash();
     }
 }
@@ -3,6 +3,13 @@ package com.gomech.service;
 import com.gomech.context.OrganizationContext;
 import com.gomech.dto.Clients.ClientCreateDTO;
 import com.gomech.dto.Clients.ClientUpdateDTO;
+import com.gomech.dto.Import.ImportReportDTO;
+import com.gomech.exporter.ExportFormat;
+import com.gomech.exporter.ExportLayout;
+import com.gomech.exporter.StreamingExportService;
+import com.gomech.importer.ImportRow;
+import com.gomech.importer.ImportTarget;
+import com.gomech.importer.StreamingImportService;
 import com.gomech.model.Client;
 import com.gomech.model.Organization;
 import com.gomech.repository.ClientRepository;
@@ -11,27 +18,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.poi.ss.usermodel.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.time.LocalDate;
 import java.time.ZoneId;
 
 @Service
 public class ClientService {
+    private static final String[] TEMPLATE_COLUMNS = {"name", "document", "phone", "email", "address", "birthDate", "observations"};
+    private static final String[] TEMPLATE_LABELS = {"Nome*", "CPF/CNPJ", "Telefone", "Email", "Endereço", "Data Nascimento", "Observações"};
+    private static final ExportLayout EXPORT_LAYOUT = new ExportLayout("clients", null, TEMPLATE_COLUMNS);
+
     @Autowired
     private ClientRepository repository;
     
@@ -41,6 +47,12 @@ public class ClientService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private StreamingImportService streamingImportService;
+
+    @Autowired
+    private StreamingExportService streamingExportService;
+
     public Client save(ClientCreateDTO dto) {
         Organization organization = OrganizationContext.getOrganization();
         if (organization == null) {
@@ -154,117 +166,28 @@ public class ClientService {
         return savedClients;
     }
 
-    public List<Client> saveFromFile(MultipartFile file) {
-        String filename = file.getOriginalFilename();
-        if (filename == null) {
-            throw new RuntimeException("Arquivo sem nome");
-        }
-
-        if (filename.endsWith(".csv") || filename.endsWith(".txt")) {
-            return saveFromDelimitedFile(file);
-        } else if (filename.endsWith(".xls") || filename.endsWith(".xlsx")) {
-            return saveFromExcel(file);
-        } else {
-            throw new RuntimeException("Formato de arquivo não suportado");
-        }
+    /**
+     * Importa clientes de CSV/XLSX em blocos via {@link StreamingImportService}.
+     * Cada linha precisa de ao menos nome, documento ou email.
+     */
+    public ImportReportDTO saveFromFile(MultipartFile file) {
+        return streamingImportService.importFile(file, ImportTarget.of("CLIENT",
+                ImportTarget.labelAliases(TEMPLATE_COLUMNS, TEMPLATE_LABELS),
+                this::buildClientFromRow,
+                clients -> repository.saveAll(clients).forEach(client -> auditService.logEntityAction("CREATE",
+                        "CLIENT", client.getId(), "Cliente cadastrado via planilha: " + client.getName()))));
     }
 
-    private List<Client> saveFromDelimitedFile(MultipartFile file) {
-        List<Client> clients = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
-             CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader)) {
-            for (CSVRecord record : parser) {
-                // Verificar se o registro tem dados mínimos necessários
-                String name = record.get("name");
-                String document = record.get("document");
-                String email = record.get("email");
-                
-                // Só processar se tiver pelo menos nome OU documento OU email
-                if ((name != null && !name.trim().isEmpty()) || 
-                    (document != null && !document.trim().isEmpty()) ||
-                    (email != null && !email.trim().isEmpty())) {
-                    Client client = buildClientFromMap(record::get);
-                    clients.add(client);
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao processar arquivo", e);
+    private Client buildClientFromRow(ImportRow row) {
+        String name = row.get("name");
+        String document = row.get("document");
+        String email = row.get("email");
+        if ((name == null || name.trim().isEmpty()) &&
+            (document == null || document.trim().isEmpty()) &&
+            (email == null || email.trim().isEmpty())) {
+            throw new IllegalArgumentException("Informe ao menos name, document ou email");
         }
-        List<Client> saved = repository.saveAll(clients);
-        saved.forEach(client -> auditService.logEntityAction("CREATE", "CLIENT", client.getId(),
-                "Cliente cadastrado via arquivo: " + client.getName()));
-        return saved;
-    }
-
-    private List<Client> saveFromExcel(MultipartFile file) {
-        List<Client> clients = new ArrayList<>();
-        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
-            DataFormatter formatter = new DataFormatter();
-            Sheet sheet = workbook.getSheetAt(0);
-            Map<String, Integer> headers = new HashMap<>();
-            boolean first = true;
-            
-            for (Row row : sheet) {
-                // Pular se a linha for nula
-                if (row == null) {
-                    continue;
-                }
-                
-                // Primeira linha: ler cabeçalhos
-                if (first) {
-                    for (Cell cell : row) {
-                        headers.put(formatter.formatCellValue(cell).toLowerCase(), cell.getColumnIndex());
-                    }
-                    first = false;
-                    continue;
-                }
-                
-                // Verificar se a linha está completamente vazia
-                boolean isEmptyRow = true;
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell != null && cell.getCellType() != org.apache.poi.ss.usermodel.CellType.BLANK) {
-                        String value = formatter.formatCellValue(cell).trim();
-                        if (!value.isEmpty()) {
-                            isEmptyRow = false;
-                            break;
-                        }
-                    }
-                }
-                
-                // Pular linhas vazias
-                if (isEmptyRow) {
-                    continue;
-                }
-                
-                // Processar linha com dados
-                Map<String, String> rowData = new HashMap<>();
-                for (Map.Entry<String, Integer> entry : headers.entrySet()) {
-                    Cell cell = row.getCell(entry.getValue());
-                    rowData.put(entry.getKey(), formatter.formatCellValue(cell));
-                }
-                
-                // Verificar se a linha tem dados mínimos necessários
-                String name = rowData.get("name");
-                String document = rowData.get("document");
-                String email = rowData.get("email");
-                
-                // Só processar se tiver pelo menos nome OU documento OU email
-                if ((name != null && !name.trim().isEmpty()) || 
-                    (document != null && !document.trim().isEmpty()) ||
-                    (email != null && !email.trim().isEmpty())) {
-                    Client client = buildClientFromMap(rowData::get);
-                    clients.add(client);
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao ler planilha", e);
-        }
-        
-        List<Client> saved = repository.saveAll(clients);
-        saved.forEach(client -> auditService.logEntityAction("CREATE", "CLIENT", client.getId(),
-                "Cliente cadastrado via planilha: " + client.getName()));
-        return saved;
+        return buildClientFromMap(row::get);
     }
 
     private Client buildClientFromMap(java.util.function.Function<String, String> getter) {
@@ -288,64 +211,25 @@ public class ClientService {
         return client;
     }
 
-    public ByteArrayInputStream exportToFile(String format) {
-        if (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) {
-            return exportToExcel();
-        }
-        return exportToDelimitedFile();
+    /**
+     * Escreve os clientes da organização direto na saída, lidos por cursor. Roda fora da thread da requisição,
+     * por isso recebe a organização já resolvida.
+     */
+    public void exportToFile(Long organizationId, ExportFormat format, OutputStream output) throws IOException {
+        streamingExportService.export(format, EXPORT_LAYOUT, () -> repository.streamExportRows(organizationId),
+                c -> new Object[]{c.name(), c.document(), c.phone(), c.email(), c.address(),
+                        formatDate(c.birthDate()), c.observations()},
+                output);
     }
 
-    private ByteArrayInputStream exportToDelimitedFile() {
-        Long organizationId = OrganizationContext.getOrganizationId();
-        if (organizationId == null) {
-            throw new RuntimeException("Organization context not found");
-        }
-        List<Client> clients = repository.findByOrganizationId(organizationId);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (CSVPrinter printer = new CSVPrinter(new PrintWriter(out),
-                CSVFormat.DEFAULT.withHeader("name", "document", "phone", "email", "address", "birthDate", "observations"))) {
-            for (Client c : clients) {
-                String birthDate = c.getBirthDate() != null ?
-                        LocalDate.ofInstant(c.getBirthDate().toInstant(), ZoneId.systemDefault()).toString() : "";
-                printer.printRecord(c.getName(), c.getDocument(), c.getPhone(), c.getEmail(), c.getAddress(), birthDate, c.getObservations());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar CSV", e);
-        }
-        return new ByteArrayInputStream(out.toByteArray());
-    }
-
-    private ByteArrayInputStream exportToExcel() {
-        Long organizationId = OrganizationContext.getOrganizationId();
-        if (organizationId == null) {
-            throw new RuntimeException("Organization context not found");
+    private static String formatDate(Date date) {
+        if (date == null) {
+            return "";
         }
-        List<Client> clients = repository.findByOrganizationId(organizationId);
-        try (Workbook workbook = WorkbookFactory.create(true); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("clients");
-            Row header = sheet.createRow(0);
-            String[] headers = {"name", "document", "phone", "email", "address", "birthDate", "observations"};
-            for (int i = 0; i < headers.length; i++) {
-                header.createCell(i).setCellValue(headers[i]);
-            }
-            int rowIdx = 1;
-            for (Client c : clients) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(c.getName());
-                row.createCell(1).setCellValue(c.getDocument());
-                row.createCell(2).setCellValue(c.getPhone());
-                row.createCell(3).setCellValue(c.getEmail());
-                row.createCell(4).setCellValue(c.getAddress());
-                String birthDate = c.getBirthDate() != null ?
-                        LocalDate.ofInstant(c.getBirthDate().toInstant(), ZoneId.systemDefault()).toString() : "";
-                row.createCell(5).setCellValue(birthDate);
-                row.createCell(6).setCellValue(c.getObservations());
-            }
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar planilha", e);
+        if (date instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate().toString();
         }
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault()).toString();
     }
 
     public ByteArrayInputStream generateTemplate(String format) {
@@ -385,8 +269,8 @@ public class ClientService {
             
             // Cabeçalho
             Row header = sheet.createRow(0);
-            String[] headers = {"name", "document", "phone", "email", "address", "birthDate", "observations"};
-            String[] headersDesc = {"Nome*", "CPF/CNPJ", "Telefone", "Email", "Endereço", "Data Nascimento", "Observações"};
+            String[] headers = TEMPLATE_COLUMNS;
+            String[] headersDesc = TEMPLATE_LABELS;
             
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = header.createCell(i);
@@ -0,0 +1,305 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.domain.InventoryItem;
+import com.gomech.domain.InventoryMovementType;
+import com.gomech.domain.Part;
+import com.gomech.dto.Inventory.StockBatchLineDTO;
+import com.gomech.dto.Inventory.StockBatchLineResultDTO;
+import com.gomech.dto.Inventory.StockBatchOperation;
+import com.gomech.dto.Inventory.StockBatchRequestDTO;
+import com.gomech.dto.Inventory.StockBatchResponseDTO;
+import com.gomech.model.Organization;
+import com.gomech.model.ServiceOrder;
+import com.gomech.model.ServiceOrderItem;
+import com.gomech.repository.InventoryItemRepository;
+import com.gomech.repository.PartRepository;
+import com.gomech.repository.ServiceOrderItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Aplica lotes de movimentações de estoque (entradas, reservas e baixas) em uma única transação.
+ * <p>
+ * As linhas são agrupadas por item de estoque; as faixas de lock do {@link StockLedger} são adquiridas de uma vez
+ * ({@link StockLedger#lockAll}, em ordem de faixa) e cada linha do banco é bloqueada uma vez, em ordem de id, evitando
+ * deadlock entre lotes concorrentes. As linhas são validadas em sequência contra o saldo corrente e o saldo
+ * líquido é gravado com um único {@code UPDATE} pelo {@link StockLedger}. Linhas inválidas são rejeitadas
+ * individualmente sem desfazer as demais. As movimentações são inseridas em lote via JDBC, o alerta de estoque roda uma vez por item
+ * e o lote gera um único evento de auditoria.
+ */
+@Service
+public class InventoryBatchService {
+
+    private static final String INSERT_MOVEMENT_SQL = """
+            INSERT INTO inventory_movements (organization_id, inventory_item_id, part_id, service_order_id, vehicle_id,
+                                             movement_type, quantity, reference_code, notes, movement_date,
+                                             created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final PartRepository partRepository;
+    private final ServiceOrderItemRepository serviceOrderItemRepository;
+    private final StockLedger stockLedger;
+    private final InventoryAlertService inventoryAlertService;
+    private final AuditService auditService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxLines;
+
+    public InventoryBatchService(InventoryItemRepository inventoryItemRepository,
+                                 PartRepository partRepository,
+                                 ServiceOrderItemRepository serviceOrderItemRepository,
+                                 StockLedger stockLedger,
+                                 InventoryAlertService inventoryAlertService,
+                                 AuditService auditService,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${inventory.batch.max-lines:1000}") int maxLines) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.partRepository = partRepository;
+        this.serviceOrderItemRepository = serviceOrderItemRepository;
+        this.stockLedger = stockLedger;
+        this.inventoryAlertService = inventoryAlertService;
+        this.auditService = auditService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxLines = maxLines;
+    }
+
+    @Transactional
+    public StockBatchResponseDTO applyBatch(StockBatchRequestDTO request) {
+        List<StockBatchLineDTO> lines = request.lines();
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("Lote excede o limite de " + maxLines + " linhas");
+        }
+
+        StockBatchLineResultDTO[] results = new StockBatchLineResultDTO[lines.size()];
+        Map<Long, List<PendingLine>> linesByItem = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            StockBatchLineDTO line = lines.get(i);
+            try {
+                PendingLine pending = resolve(i, line);
+                linesByItem.computeIfAbsent(pending.inventoryItemId(), id -> new ArrayList<>()).add(pending);
+            } catch (IllegalArgumentException ex) {
+                results[i] = new StockBatchLineResultDTO(i, line.operation(), false, null, null, null, ex.getMessage());
+            }
+        }
+
+        List<MovementRow> movements = new ArrayList<>();
+        List<ServiceOrderItem> touchedOrderItems = new ArrayList<>();
+        List<InventoryItem> touchedItems = new ArrayList<>();
+        stockLedger.lockAll(linesByItem.keySet());
+        for (Map.Entry<Long, List<PendingLine>> entry : linesByItem.entrySet()) {
+            InventoryItem item = stockLedger.lock(entry.getKey());
+            int quantity = item.getQuantity();
+            int reserved = item.getReservedQuantity();
+            List<PendingLine> accepted = new ArrayList<>();
+
+            for (PendingLine pending : entry.getValue()) {
+                int amount = pending.line().quantity();
+                String error = switch (pending.line().operation()) {
+                    case ENTRY -> null;
+                    case RESERVATION -> quantity - reserved < amount ? "Estoque insuficiente para reserva" : null;
+                    case CONSUMPTION -> reserved < amount
+                            ? "Quantidade reservada insuficiente para baixa"
+                            : quantity < amount ? "Estoque insuficiente para baixa" : null;
+                };
+                if (error == null) {
+                    switch (pending.line().operation()) {
+                        case ENTRY -> quantity += amount;
+                        case RESERVATION -> reserved += amount;
+                        case CONSUMPTION -> {
+                            quantity -= amount;
+                            reserved -= amount;
+                        }
+                    }
+                    accepted.add(pending);
+                }
+                results[pending.index()] = new StockBatchLineResultDTO(pending.index(), pending.line().operation(),
+                        error == null, item.getId(), quantity, reserved, error);
+            }
+            if (accepted.isEmpty()) {
+                continue;
+            }
+
+            // O item está bloqueado desde a leitura, então o saldo líquido sempre é aceito
+            item = stockLedger.apply(item.getId(), quantity - item.getQuantity(), reserved - item.getReservedQuantity(),
+                    "Saldo do item alterado durante o lote");
+            for (PendingLine pending : accepted) {
+                movements.add(toMovement(item, pending));
+                applySideEffects(item, pending, touchedOrderItems);
+            }
+            touchedItems.add(item);
+        }
+
+        serviceOrderItemRepository.saveAll(touchedOrderItems);
+        insertMovements(movements);
+        touchedItems.forEach(inventoryAlertService::onStockLevelChanged);
+
+        int applied = movements.size();
+        int rejected = lines.size() - applied;
+        auditService.logEntityAction("BATCH", "INVENTORY_MOVEMENT", null,
+                String.format("lines=%d;applied=%d;rejected=%d;items=%d", lines.size(), applied, rejected,
+                        touchedItems.size()));
+        return new StockBatchResponseDTO(lines.size(), applied, rejected, Arrays.asList(results));
+    }
+
+    private PendingLine resolve(int index, StockBatchLineDTO line) {
+        return switch (line.operation()) {
+            case ENTRY -> new PendingLine(index, line, resolveEntryItem(line).getId(), null);
+            case RESERVATION, CONSUMPTION -> {
+                ServiceOrderItem orderItem = resolveServiceOrderItem(line);
+                yield new PendingLine(index, line, orderItem.getInventoryItem().getId(), orderItem);
+            }
+        };
+    }
+
+    private InventoryItem resolveEntryItem(StockBatchLineDTO line) {
+        if (line.partId() == null || line.location() == null || line.location().isBlank()) {
+            throw new IllegalArgumentException("Entrada exige peça e localização");
+        }
+        Part part = partRepository.findById(line.partId())
+                .orElseThrow(() -> new IllegalArgumentException("Peça não encontrada"));
+        return inventoryItemRepository.findByPartIdAndLocation(part.getId(), line.location())
+                .orElseGet(() -> createInventoryItem(part, line.location()));
+    }
+
+    private ServiceOrderItem resolveServiceOrderItem(StockBatchLineDTO line) {
+        if (line.serviceOrderItemId() == null) {
+            throw new IllegalArgumentException("Reserva e baixa exigem o item da ordem de serviço");
+        }
+        ServiceOrderItem item = serviceOrderItemRepository.findById(line.serviceOrderItemId())
+                .orElseThrow(() -> new IllegalArgumentException("Item da ordem de serviço não encontrado"));
+        if (!Boolean.TRUE.equals(item.getRequiresStock())) {
+            throw new IllegalArgumentException("Item informado não requer controle de estoque");
+        }
+        if ((item.getInventoryItem() == null || item.getInventoryItem().getId() == null) && item.getPart() != null) {
+            inventoryItemRepository.findByPartId(item.getPart().getId()).stream()
+                    .findFirst()
+                    .ifPresent(item::setInventoryItem);
+        }
+        if (item.getInventoryItem() == null || item.getInventoryItem().getId() == null) {
+            throw new IllegalArgumentException("Item não possui referência de estoque");
+        }
+        return item;
+    }
+
+    private InventoryItem createInventoryItem(Part part, String location) {
+        InventoryItem item = new InventoryItem();
+        item.setPart(part);
+        item.setOrganization(part.getOrganization() != null ? part.getOrganization() : requireOrganization());
+        item.setLocation(location);
+        item.setQuantity(0);
+        item.setReservedQuantity(0);
+        item.setMinimumQuantity(0);
+        return inventoryItemRepository.save(item);
+    }
+
+    private void applySideEffects(InventoryItem item, PendingLine pending, List<ServiceOrderItem> touchedOrderItems) {
+        StockBatchLineDTO line = pending.line();
+        if (line.operation() == StockBatchOperation.ENTRY) {
+            if (line.unitCost() != null) {
+                item.setUnitCost(line.unitCost());
+            }
+            if (line.salePrice() != null) {
+                item.setSalePrice(line.salePrice());
+            }
+            return;
+        }
+        ServiceOrderItem orderItem = pending.serviceOrderItem();
+        orderItem.setStockReserved(line.operation() == StockBatchOperation.RESERVATION);
+        orderItem.setInventoryItem(item);
+        touchedOrderItems.add(orderItem);
+    }
+
+    private MovementRow toMovement(InventoryItem item, PendingLine pending) {
+        StockBatchLineDTO line = pending.line();
+        Long organizationId = item.getOrganization() != null ? item.getOrganization().getId() : requireOrganization().getId();
+        return switch (line.operation()) {
+            case ENTRY -> new MovementRow(organizationId, item.getId(), item.getPart().getId(), null, null,
+                    InventoryMovementType.IN, line.quantity(), line.referenceCode(), line.notes());
+            case RESERVATION, CONSUMPTION -> {
+                ServiceOrder serviceOrder = pending.serviceOrderItem().getServiceOrder();
+                boolean reservation = line.operation() == StockBatchOperation.RESERVATION;
+                String referenceCode = line.referenceCode() != null || serviceOrder == null
+                        ? line.referenceCode()
+                        : serviceOrder.getOrderNumber();
+                yield new MovementRow(organizationId, item.getId(), item.getPart().getId(),
+                        serviceOrder != null ? serviceOrder.getId() : null,
+                        serviceOrder != null && serviceOrder.getVehicle() != null ? serviceOrder.getVehicle().getId() : null,
+                        reservation ? InventoryMovementType.ADJUSTMENT : InventoryMovementType.OUT,
+                        line.quantity(),
+                        referenceCode,
+                        Objects.requireNonNullElse(line.notes(), reservation ? "Reserva de estoque" : "Baixa de estoque"));
+            }
+        };
+    }
+
+    private void insertMovements(List<MovementRow> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                MovementRow movement = movements.get(i);
+                ps.setLong(1, movement.organizationId());
+                ps.setLong(2, movement.inventoryItemId());
+                ps.setLong(3, movement.partId());
+                setNullableLong(ps, 4, movement.serviceOrderId());
+                setNullableLong(ps, 5, movement.vehicleId());
+                ps.setString(6, movement.type().name());
+                ps.setInt(7, movement.quantity());
+                ps.setString(8, movement.referenceCode());
+                ps.setString(9, movement.notes());
+                ps.setTimestamp(10, now);
+                ps.setTimestamp(11, now);
+                ps.setTimestamp(12, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private Organization requireOrganization() {
+        Organization organization = OrganizationContext.getOrganization();
+        if (organization == null) {
+            throw new IllegalStateException("Organização não encontrada no contexto da requisição");
+        }
+        return organization;
+    }
+
+    private record PendingLine(int index, StockBatchLineDTO line, Long inventoryItemId, ServiceOrderItem serviceOrderItem) {
+    }
+
+    private record MovementRow(Long organizationId, Long inventoryItemId, Long partId, Long serviceOrderId,
+                               Long vehicleId, InventoryMovementType type, int quantity, String referenceCode,
+                               String notes) {
+    }
+}
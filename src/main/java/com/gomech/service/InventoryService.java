@@ -6,6 +6,7 @@ import com.gomech.domain.InventoryMovementType;
 import com.gomech.domain.Part;
 import com.gomech.context.OrganizationContext;
 import com.gomech.model.Organization;
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Inventory.InventoryEntryRequestDTO;
 import com.gomech.dto.Inventory.InventoryItemCreateDTO;
 import com.gomech.dto.Inventory.InventoryItemResponseDTO;
@@ -15,6 +16,9 @@ import com.gomech.dto.Inventory.StockCancellationRequestDTO;
 import com.gomech.dto.Inventory.StockConsumptionRequestDTO;
 import com.gomech.dto.Inventory.StockReservationRequestDTO;
 import com.gomech.dto.Inventory.StockReturnRequestDTO;
+import com.gomech.importer.ImportRow;
+import com.gomech.importer.ImportTarget;
+import com.gomech.importer.StreamingImportService;
 import com.gomech.model.ServiceOrder;
 import com.gomech.model.ServiceOrderItem;
 import com.gomech.repository.InventoryItemRepository;
@@ -27,19 +31,15 @@ import org.apache.poi.ss.usermodel.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,25 +49,34 @@ import java.util.Objects;
 @Transactional
 public class InventoryService {
 
+    private static final String[] TEMPLATE_COLUMNS = {"partId", "location", "quantity", "reservedQuantity", "minimumQuantity", "unitCost", "salePrice"};
+    private static final String[] TEMPLATE_LABELS = {"ID da Peça*", "Localização*", "Quantidade*", "Qtd Reservada", "Qtd Mínima", "Custo Unit.", "Preço Venda"};
+
     private final InventoryItemRepository inventoryItemRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
     private final PartRepository partRepository;
     private final ServiceOrderItemRepository serviceOrderItemRepository;
     private final InventoryAlertService inventoryAlertService;
     private final AuditService auditService;
+    private final StockLedger stockLedger;
+    private final StreamingImportService streamingImportService;
 
     public InventoryService(InventoryItemRepository inventoryItemRepository,
                             InventoryMovementRepository inventoryMovementRepository,
                             PartRepository partRepository,
                             ServiceOrderItemRepository serviceOrderItemRepository,
                             InventoryAlertService inventoryAlertService,
-                            AuditService auditService) {
+                            AuditService auditService,
+                            StockLedger stockLedger,
+                            StreamingImportService streamingImportService) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.inventoryMovementRepository = inventoryMovementRepository;
         this.partRepository = partRepository;
         this.serviceOrderItemRepository = serviceOrderItemRepository;
         this.inventoryAlertService = inventoryAlertService;
         this.auditService = auditService;
+        this.stockLedger = stockLedger;
+        this.streamingImportService = streamingImportService;
     }
 
     public InventoryItemResponseDTO createItem(InventoryItemCreateDTO dto) {
@@ -240,7 +249,7 @@ public class InventoryService {
         InventoryItem item = inventoryItemRepository.findByPartIdAndLocation(partId, location)
                 .orElseGet(() -> createInventoryItem(part, location));
 
-        item.setQuantity(item.getQuantity() + quantity);
+        item = stockLedger.apply(item.getId(), quantity, 0, "Quantidade de entrada inválida");
         if (unitCost != null) {
             item.setUnitCost(unitCost);
         }
@@ -268,8 +277,7 @@ public class InventoryService {
         InventoryItem inventoryItem = getInventoryItem(serviceOrderItem);
         ensureAvailableStock(inventoryItem, quantity);
 
-        inventoryItem.setReservedQuantity(inventoryItem.getReservedQuantity() + quantity);
-        InventoryItem savedItem = inventoryItemRepository.save(inventoryItem);
+        InventoryItem savedItem = stockLedger.apply(inventoryItem.getId(), 0, quantity, "Estoque insuficiente para reserva");
 
         serviceOrderItem.setStockReserved(true);
         serviceOrderItem.setInventoryItem(savedItem);
@@ -301,8 +309,7 @@ public class InventoryService {
             throw new IllegalStateException("Estoque insuficiente para baixa");
         }
 
-        inventoryItem.setReservedQuantity(inventoryItem.getReservedQuantity() - quantity);
-        return performConsumption(serviceOrder, serviceOrderItem, inventoryItem, quantity,
+        return performConsumption(serviceOrder, serviceOrderItem, inventoryItem, quantity, quantity,
                 defaultNotes(notes, "Baixa de estoque"));
     }
 
@@ -318,7 +325,7 @@ public class InventoryService {
         InventoryItem inventoryItem = getInventoryItem(serviceOrderItem);
         ensureAvailableStock(inventoryItem, quantity);
 
-        return performConsumption(serviceOrder, serviceOrderItem, inventoryItem, quantity,
+        return performConsumption(serviceOrder, serviceOrderItem, inventoryItem, quantity, 0,
                 defaultNotes(notes, "Baixa direta de estoque"));
     }
 
@@ -336,8 +343,8 @@ public class InventoryService {
             throw new IllegalStateException("Quantidade reservada insuficiente para cancelamento");
         }
 
-        inventoryItem.setReservedQuantity(inventoryItem.getReservedQuantity() - quantity);
-        InventoryItem savedItem = inventoryItemRepository.save(inventoryItem);
+        InventoryItem savedItem = stockLedger.apply(inventoryItem.getId(), 0, -quantity,
+                "Quantidade reservada insuficiente para cancelamento");
 
         serviceOrderItem.setStockReserved(false);
         serviceOrderItem.setInventoryItem(savedItem);
@@ -362,8 +369,7 @@ public class InventoryService {
         }
 
         InventoryItem inventoryItem = getInventoryItem(serviceOrderItem);
-        inventoryItem.setQuantity(inventoryItem.getQuantity() + quantity);
-        InventoryItem savedItem = inventoryItemRepository.save(inventoryItem);
+        InventoryItem savedItem = stockLedger.apply(inventoryItem.getId(), quantity, 0, "Quantidade de devolução inválida");
 
         serviceOrderItem.setStockReserved(false);
         serviceOrderItem.setInventoryItem(savedItem);
@@ -498,9 +504,10 @@ public class InventoryService {
                                                  ServiceOrderItem serviceOrderItem,
                                                  InventoryItem inventoryItem,
                                                  int quantity,
+                                                 int releasedReservation,
                                                  String notes) {
-        inventoryItem.setQuantity(inventoryItem.getQuantity() - quantity);
-        InventoryItem savedItem = inventoryItemRepository.save(inventoryItem);
+        InventoryItem savedItem = stockLedger.apply(inventoryItem.getId(), -quantity, -releasedReservation,
+                "Estoque insuficiente para baixa");
 
         serviceOrderItem.setStockReserved(false);
         serviceOrderItem.setInventoryItem(savedItem);
@@ -556,161 +563,69 @@ public class InventoryService {
         return organization;
     }
 
-    public List<InventoryItemResponseDTO> saveFromFile(MultipartFile file) {
-        List<InventoryItem> items;
-        String filename = file.getOriginalFilename();
-        if (filename == null) throw new RuntimeException("Arquivo sem nome");
-
-        if (filename.endsWith(".csv") || filename.endsWith(".txt")) {
-            items = saveFromDelimitedFile(file);
-        } else if (filename.endsWith(".xls") || filename.endsWith(".xlsx")) {
-            items = saveFromExcel(file);
-        } else {
-            throw new RuntimeException("Formato de arquivo não suportado. Use CSV ou XLSX");
+    /**
+     * Importa itens de estoque de CSV/XLSX em blocos via {@link StreamingImportService}. Sem transação própria:
+     * cada bloco é gravado na transação aberta pelo motor de importação.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO saveFromFile(MultipartFile file) {
+        Map<Long, Part> parts = new HashMap<>();
+        return streamingImportService.importFile(file, ImportTarget.of("INVENTORY_ITEM",
+                ImportTarget.labelAliases(TEMPLATE_COLUMNS, TEMPLATE_LABELS),
+                row -> buildInventoryItemFromRow(row, parts),
+                items -> inventoryItemRepository.saveAll(items).forEach(item -> {
+                    auditService.logEntityAction("CREATE", "INVENTORY_ITEM", item.getId(),
+                            "Item cadastrado via planilha");
+                    inventoryAlertService.onStockLevelChanged(item);
+                })));
+    }
+
+    /**
+     * @param parts peças já consultadas nesta importação, evitando uma busca por linha
+     */
+    private InventoryItem buildInventoryItemFromRow(ImportRow row, Map<Long, Part> parts) {
+        String partIdStr = row.get("partId");
+        String location = row.get("location");
+        String quantityStr = row.get("quantity");
+        if (partIdStr == null || partIdStr.isBlank()
+                || location == null || location.isBlank()
+                || quantityStr == null || quantityStr.isBlank()) {
+            throw new IllegalArgumentException("Os campos partId, location e quantity são obrigatórios");
         }
 
-        return items.stream()
-                .map(InventoryItemResponseDTO::fromEntity)
-                .toList();
-    }
-
-    private List<InventoryItem> saveFromDelimitedFile(MultipartFile file) {
-        List<InventoryItem> items = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            String line = reader.readLine(); // Ignora cabeçalho
-            
-            while ((line = reader.readLine()) != null) {
-                String[] fields = line.split(",");
-                if (fields.length < 3) continue; // Precisa de partId, location, quantity
-                
-                Long partId = Long.parseLong(fields[0].trim());
-                Part part = partRepository.findById(partId)
-                        .orElseThrow(() -> new RuntimeException("Peça não encontrada: " + partId));
-                
-                InventoryItem item = new InventoryItem();
-                item.setPart(part);
-                item.setLocation(fields[1].trim());
-                item.setQuantity(Integer.parseInt(fields[2].trim()));
-                if (fields.length > 3) item.setReservedQuantity(Integer.parseInt(fields[3].trim()));
-                if (fields.length > 4) item.setMinimumQuantity(Integer.parseInt(fields[4].trim()));
-                if (fields.length > 5) item.setUnitCost(new BigDecimal(fields[5].trim()));
-                if (fields.length > 6) item.setSalePrice(new BigDecimal(fields[6].trim()));
-                items.add(item);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao processar arquivo CSV", e);
-        }
-        
-        List<InventoryItem> saved = inventoryItemRepository.saveAll(items);
-        saved.forEach(item -> {
-            auditService.logEntityAction("CREATE", "INVENTORY_ITEM", item.getId(),
-                    "Item cadastrado via arquivo");
-            inventoryAlertService.onStockLevelChanged(item);
-        });
-        return saved;
-    }
-
-    private List<InventoryItem> saveFromExcel(MultipartFile file) {
-        List<InventoryItem> items = new ArrayList<>();
-        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
-            DataFormatter formatter = new DataFormatter();
-            Sheet sheet = workbook.getSheetAt(0);
-            Map<String, Integer> headers = new HashMap<>();
-            boolean first = true;
-            
-            for (Row row : sheet) {
-                if (row == null) continue;
-                
-                if (first) {
-                    for (Cell cell : row) {
-                        headers.put(formatter.formatCellValue(cell).toLowerCase().replace("_", ""), cell.getColumnIndex());
-                    }
-                    first = false;
-                    continue;
-                }
-                
-                boolean isEmptyRow = true;
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell != null && cell.getCellType() != CellType.BLANK) {
-                        String value = formatter.formatCellValue(cell).trim();
-                        if (!value.isEmpty()) {
-                            isEmptyRow = false;
-                            break;
-                        }
-                    }
-                }
-                
-                if (isEmptyRow) continue;
-                
-                Map<String, String> rowData = new HashMap<>();
-                for (Map.Entry<String, Integer> entry : headers.entrySet()) {
-                    Cell cell = row.getCell(entry.getValue());
-                    rowData.put(entry.getKey(), formatter.formatCellValue(cell));
-                }
-                
-                String partIdStr = rowData.get("partid");
-                String location = rowData.get("location");
-                String quantityStr = rowData.get("quantity");
-                
-                if (partIdStr != null && !partIdStr.isEmpty() && 
-                    location != null && !location.isEmpty() &&
-                    quantityStr != null && !quantityStr.isEmpty()) {
-                    InventoryItem item = buildInventoryItemFromMap(rowData);
-                    items.add(item);
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao ler planilha", e);
-        }
-        
-        List<InventoryItem> saved = inventoryItemRepository.saveAll(items);
-        saved.forEach(item -> {
-            auditService.logEntityAction("CREATE", "INVENTORY_ITEM", item.getId(),
-                    "Item cadastrado via planilha");
-            inventoryAlertService.onStockLevelChanged(item);
-        });
-        return saved;
-    }
-
-    private InventoryItem buildInventoryItemFromMap(Map<String, String> data) {
         InventoryItem item = new InventoryItem();
-        
-        String partIdStr = data.get("partid");
-        Long partId = Long.parseLong(partIdStr);
-        Part part = partRepository.findById(partId)
-                .orElseThrow(() -> new RuntimeException("Peça não encontrada: " + partId));
+
+        Long partId = Long.parseLong(partIdStr.trim());
+        Part part = parts.computeIfAbsent(partId, id -> partRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Peça não encontrada: " + id)));
         item.setPart(part);
-        
-        item.setLocation(data.get("location"));
-        
-        String quantityStr = data.get("quantity");
-        item.setQuantity(Integer.parseInt(quantityStr));
-        
-        String reservedStr = data.get("reservedquantity");
-        if (reservedStr != null && !reservedStr.isEmpty()) {
-            item.setReservedQuantity(Integer.parseInt(reservedStr));
-        } else {
-            item.setReservedQuantity(0);
+
+        item.setLocation(location.trim());
+        item.setQuantity(Integer.parseInt(quantityStr.trim()));
+
+        String reservedStr = row.get("reservedQuantity");
+        item.setReservedQuantity(reservedStr != null && !reservedStr.isBlank() ? Integer.parseInt(reservedStr.trim()) : 0);
+
+        String minStr = row.get("minimumQuantity");
+        item.setMinimumQuantity(minStr != null && !minStr.isBlank() ? Integer.parseInt(minStr.trim()) : 0);
+
+        String costStr = row.get("unitCost");
+        if (costStr != null && !costStr.isBlank()) {
+            item.setUnitCost(new BigDecimal(costStr.trim()));
         }
-        
-        String minStr = data.get("minimumquantity");
-        if (minStr != null && !minStr.isEmpty()) {
-            item.setMinimumQuantity(Integer.parseInt(minStr));
-        } else {
-            item.setMinimumQuantity(0);
+
+        String priceStr = row.get("salePrice");
+        if (priceStr != null && !priceStr.isBlank()) {
+            item.setSalePrice(new BigDecimal(priceStr.trim()));
         }
-        
-        String costStr = data.get("unitcost");
-        if (costStr != null && !costStr.isEmpty()) {
-            item.setUnitCost(new BigDecimal(costStr));
+
+        if (item.getQuantity() < 0 || item.getReservedQuantity() < 0 || item.getMinimumQuantity() < 0) {
+            throw new IllegalArgumentException("Quantidades não podem ser negativas");
         }
-        
-        String priceStr = data.get("saleprice");
-        if (priceStr != null && !priceStr.isEmpty()) {
-            item.setSalePrice(new BigDecimal(priceStr));
+        if (item.getReservedQuantity() > item.getQuantity()) {
+            throw new IllegalArgumentException("Quantidade reservada maior que a quantidade em estoque");
         }
-        
+
         return item;
     }
 
@@ -749,8 +664,8 @@ public class InventoryService {
             exampleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
             
             Row header = sheet.createRow(0);
-            String[] headers = {"partId", "location", "quantity", "reservedQuantity", "minimumQuantity", "unitCost", "salePrice"};
-            String[] headersDesc = {"ID da Peça*", "Localização*", "Quantidade*", "Qtd Reservada", "Qtd Mínima", "Custo Unit.", "Preço Venda"};
+            String[] headers = TEMPLATE_COLUMNS;
+            String[] headersDesc = TEMPLATE_LABELS;
             
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = header.createCell(i);
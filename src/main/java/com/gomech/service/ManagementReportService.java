@@ -1,12 +1,25 @@
 package com.gomech.service;
 
-import com.gomech.domain.InventoryItem;
-import com.gomech.model.*;
-import com.gomech.repository.*;
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Management.KpiPeriodTotals;
+import com.gomech.dto.Management.OrganizationMetric;
+import com.gomech.dto.Management.OrganizationBenchmarkTotals;
+import com.gomech.dto.Management.ServiceTypeTotals;
+import com.gomech.dto.Management.TechnicianWorkload;
+import com.gomech.forecast.TrendForecast;
+import com.gomech.forecast.TrendForecastService;
+import com.gomech.forecast.TrendMetric;
+import com.gomech.health.HealthCounters;
+import com.gomech.health.OperationalHealthService;
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import com.gomech.repository.KpiDailyRollupRepository;
+import com.gomech.repository.ManagementReportRepository;
+import com.gomech.repository.OrganizationRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -18,57 +31,60 @@ import java.util.stream.Collectors;
  * - Geração de relatórios executivos
  * - Análise de tendências
  * - Score de saúde operacional
+ * - Quadro de despacho (carga por técnico)
+ *
+ * As agregações rodam no banco ({@link ManagementReportRepository}); o custo acompanha o tamanho do
+ * resultado, não o das tabelas. Exceto o benchmark, os relatórios são da organização atual.
+ * Rentabilidade, dashboard e benchmark somam os rollups diários ({@link KpiDailyRollupRepository}), com
+ * granularidade de dia: um período de N dias são os N dias mais recentes, incluindo hoje. Gargalos e score de
+ * saúde leem os contadores em memória do {@link OperationalHealthService}, sem consultas por requisição.
  */
 @Service
 public class ManagementReportService {
 
-    private final ServiceOrderRepository serviceOrderRepository;
+    /**
+     * Métricas do benchmark (parâmetro {@code metric}) e o campo correspondente de cada organização.
+     */
+    private static final Map<String, String> BENCHMARK_METRICS = Map.of(
+            "revenue", "monthly_revenue",
+            "ticket", "avg_ticket",
+            "satisfaction", "client_satisfaction",
+            "productivity", "orders_per_technician");
+
+    private final ManagementReportRepository reportRepository;
+    private final KpiDailyRollupRepository rollupRepository;
     private final OrganizationRepository organizationRepository;
-    private final UserRepository userRepository;
-    private final InventoryItemRepository inventoryItemRepository;
-    private final ClientFeedbackRepository clientFeedbackRepository;
+    private final TrendForecastService trendForecastService;
+    private final OperationalHealthService operationalHealthService;
 
     public ManagementReportService(
-            ServiceOrderRepository serviceOrderRepository,
+            ManagementReportRepository reportRepository,
+            KpiDailyRollupRepository rollupRepository,
             OrganizationRepository organizationRepository,
-            UserRepository userRepository,
-            InventoryItemRepository inventoryItemRepository,
-            ClientFeedbackRepository clientFeedbackRepository) {
-        this.serviceOrderRepository = serviceOrderRepository;
+            TrendForecastService trendForecastService,
+            OperationalHealthService operationalHealthService) {
+        this.reportRepository = reportRepository;
+        this.rollupRepository = rollupRepository;
         this.organizationRepository = organizationRepository;
-        this.userRepository = userRepository;
-        this.inventoryItemRepository = inventoryItemRepository;
-        this.clientFeedbackRepository = clientFeedbackRepository;
+        this.trendForecastService = trendForecastService;
+        this.operationalHealthService = operationalHealthService;
     }
 
     /**
      * Calcula rentabilidade por tipo de serviço.
      */
     public Map<String, Object> calculateProfitabilityByService(Integer days, String serviceTypeFilter) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        
-        List<ServiceOrder> orders = serviceOrderRepository.findAll().stream()
-                .filter(o -> o.getCreatedAt().isAfter(startDate))
-                .filter(o -> "COMPLETED".equals(o.getStatus()))
-                .collect(Collectors.toList());
-
         Map<String, ServiceProfitability> profitabilityMap = new HashMap<>();
 
-        for (ServiceOrder order : orders) {
-            String serviceType = order.getServiceType() != null ? order.getServiceType() : "GENERAL";
-            
-            if (serviceTypeFilter != null && !serviceType.equals(serviceTypeFilter)) {
-                continue;
+        for (ServiceTypeTotals totals : rollupRepository.sumByServiceType(OrganizationContext.requireOrganizationId(),
+                periodStart(days), serviceTypeFilter)) {
+            long finishedOrders = orZero(totals.finishedOrders());
+            if (finishedOrders > 0) {
+                ServiceProfitability prof = new ServiceProfitability(totals.serviceType());
+                prof.addOrders((int) finishedOrders, totals.revenue().doubleValue(),
+                        totals.laborCost().doubleValue(), totals.partsCost().doubleValue());
+                profitabilityMap.put(totals.serviceType(), prof);
             }
-
-            profitabilityMap.putIfAbsent(serviceType, new ServiceProfitability(serviceType));
-            ServiceProfitability prof = profitabilityMap.get(serviceType);
-
-            double totalValue = order.getTotalCost() != null ? order.getTotalCost().doubleValue() : 0.0;
-            double laborCost = order.getLaborCost() != null ? order.getLaborCost().doubleValue() : 0.0;
-            double partsCost = order.getPartsCost() != null ? order.getPartsCost().doubleValue() : 0.0;
-
-            prof.addOrder(totalValue, laborCost, partsCost);
         }
 
         List<Map<String, Object>> rankings = profitabilityMap.values().stream()
@@ -104,23 +120,17 @@ public class ManagementReportService {
         List<Map<String, Object>> warnings = new ArrayList<>();
         List<Map<String, Object>> opportunities = new ArrayList<>();
         int healthScore = 100;
+        HealthCounters counters = operationalHealthService.counters(OrganizationContext.requireOrganizationId());
 
         // Análise de OSs atrasadas
-        List<ServiceOrder> allOrders = serviceOrderRepository.findAll();
-        List<ServiceOrder> delayedOrders = allOrders.stream()
-                .filter(o -> "PENDING".equals(o.getStatus()) || "IN_PROGRESS".equals(o.getStatus()))
-                .filter(o -> {
-                    long daysOpen = ChronoUnit.DAYS.between(o.getCreatedAt(), LocalDateTime.now());
-                    return daysOpen > 7;
-                })
-                .collect(Collectors.toList());
+        long delayedOrders = counters.delayedOrders();
 
-        if (!delayedOrders.isEmpty()) {
+        if (delayedOrders > 0) {
             Map<String, Object> issue = new HashMap<>();
             issue.put("type", "delayed_orders");
             issue.put("severity", "HIGH");
-            issue.put("count", delayedOrders.size());
-            issue.put("description", delayedOrders.size() + " OSs pendentes há mais de 7 dias");
+            issue.put("count", delayedOrders);
+            issue.put("description", delayedOrders + " OSs pendentes há mais de 7 dias");
             issue.put("impact", "Insatisfação do cliente e perda de receita");
             issue.put("recommendation", "Priorizar conclusão de OSs antigas e revisar capacidade da equipe");
             critical.add(issue);
@@ -128,9 +138,7 @@ public class ManagementReportService {
         }
 
         // Análise de capacidade
-        long inProgressCount = allOrders.stream()
-                .filter(o -> "IN_PROGRESS".equals(o.getStatus()))
-                .count();
+        long inProgressCount = counters.inProgressOrders();
 
         if (inProgressCount > 15) {
             Map<String, Object> warning = new HashMap<>();
@@ -145,25 +153,8 @@ public class ManagementReportService {
         }
 
         // Análise de técnicos sobrecarregados
-        List<User> technicians = userRepository.findAll().stream()
-                .filter(u -> u.getRole() != null && u.getRole().isTechnician())
-                .toList();
-
-        int overloadedTechs = 0;
-        int idleTechs = 0;
-
-        for (User tech : technicians) {
-            long activeOrders = allOrders.stream()
-                    .filter(o -> tech.equals(o.getTechnicianName()))
-                    .filter(o -> "PENDING".equals(o.getStatus()) || "IN_PROGRESS".equals(o.getStatus()))
-                    .count();
-
-            if (activeOrders > 5) {
-                overloadedTechs++;
-            } else if (activeOrders == 0) {
-                idleTechs++;
-            }
-        }
+        int overloadedTechs = (int) counters.overloadedTechnicians();
+        int idleTechs = (int) counters.idleTechnicians();
 
         if (overloadedTechs > 0) {
             Map<String, Object> issue = new HashMap<>();
@@ -189,10 +180,7 @@ public class ManagementReportService {
         }
 
         // Análise de estoque
-        List<InventoryItem> items = inventoryItemRepository.findAll();
-        long outOfStock = items.stream()
-                .filter(i -> i.getQuantity() <= i.getMinimumQuantity())
-                .count();
+        long outOfStock = counters.itemsBelowMinimum();
 
         if (outOfStock > 0) {
             Map<String, Object> issue = new HashMap<>();
@@ -231,7 +219,9 @@ public class ManagementReportService {
     }
 
     /**
-     * Realiza benchmark interno entre organizações.
+     * Realiza benchmark interno entre organizações em uma passada: uma consulta agrupada por família de métricas
+     * (rollups de OSs e avaliações; técnicos), combinadas em memória. Cada organização recebe, por métrica, o
+     * percentil em relação às demais.
      */
     public Map<String, Object> performInternalBenchmark(String metric) {
         List<Organization> organizations = organizationRepository.findAll();
@@ -243,41 +233,24 @@ public class ManagementReportService {
             return error;
         }
 
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        LocalDate thirtyDaysAgo = periodStart(30);
+        Map<Long, OrganizationBenchmarkTotals> totalsByOrganization = rollupRepository
+                .sumBenchmarkTotalsByOrganization(thirtyDaysAgo).stream()
+                .collect(Collectors.toMap(OrganizationBenchmarkTotals::organizationId, totals -> totals));
+        Map<Long, Number> technicians = byOrganization(reportRepository.countUsersByOrganization(Role.TECHNICIAN));
         List<Map<String, Object>> orgMetrics = new ArrayList<>();
 
         for (Organization org : organizations) {
-            List<ServiceOrder> orgOrders = serviceOrderRepository.findAll().stream()
-                    .filter(o -> org.equals(o.getOrganization()))
-                    .filter(o -> o.getCreatedAt().isAfter(thirtyDaysAgo))
-                    .collect(Collectors.toList());
-
-            long completedOrders = orgOrders.stream()
-                    .filter(o -> "COMPLETED".equals(o.getStatus()))
-                    .count();
-
-            double monthlyRevenue = orgOrders.stream()
-                    .filter(o -> "COMPLETED".equals(o.getStatus()))
-                    .mapToDouble(o -> o.getTotalCost() != null ? o.getTotalCost().doubleValue() : 0)
-                    .sum();
+            OrganizationBenchmarkTotals totals = totalsByOrganization.get(org.getId());
+            long completedOrders = totals != null ? totals.finishedOrders() : 0;
+            double monthlyRevenue = totals != null ? totals.revenue().doubleValue() : 0;
 
             double avgTicket = completedOrders > 0 ? monthlyRevenue / completedOrders : 0;
 
-            List<ClientFeedback> feedbacks = clientFeedbackRepository.findAll().stream()
-                    .filter(f -> org.equals(f.getOrganization()))
-                    .filter(f -> f.getCreatedAt().isAfter(thirtyDaysAgo))
-                    .collect(Collectors.toList());
-
-            double avgSatisfaction = feedbacks.isEmpty() ? 0 :
-                    feedbacks.stream()
-                            .mapToDouble(ClientFeedback::getRating)
-                            .average()
-                            .orElse(0);
+            double avgSatisfaction = totals != null && totals.ratingCount() > 0
+                    ? (double) totals.ratingSum() / totals.ratingCount() : 0;
 
-            long technicianCount = userRepository.findAll().stream()
-                    .filter(u -> org.equals(u.getOrganization()))
-                    .filter(u -> u.getRole() != null && u.getRole().isTechnician())
-                    .count();
+            long technicianCount = technicians.getOrDefault(org.getId(), 0).longValue();
 
             double ordersPerTechnician = technicianCount > 0 ? (double) completedOrders / technicianCount : 0;
 
@@ -299,27 +272,20 @@ public class ManagementReportService {
         double avgTicket = orgMetrics.stream().mapToDouble(m -> (Double) m.get("avg_ticket")).average().orElse(0);
         double avgSatisfaction = orgMetrics.stream().mapToDouble(m -> (Double) m.get("client_satisfaction")).average().orElse(0);
 
-        // Ordenar por métrica escolhida
-        Comparator<Map<String, Object>> comparator = (a, b) -> {
-            switch (metric.toLowerCase()) {
-                case "ticket":
-                    return Double.compare((Double) b.get("avg_ticket"), (Double) a.get("avg_ticket"));
-                case "satisfaction":
-                    return Double.compare((Double) b.get("client_satisfaction"), (Double) a.get("client_satisfaction"));
-                case "productivity":
-                    return Double.compare((Double) b.get("orders_per_technician"), (Double) a.get("orders_per_technician"));
-                default:
-                    return Double.compare((Double) b.get("monthly_revenue"), (Double) a.get("monthly_revenue"));
-            }
-        };
+        BENCHMARK_METRICS.forEach((name, field) -> putPercentiles(orgMetrics, name, field));
 
+        // Ordenar por métrica escolhida
+        String sortMetric = BENCHMARK_METRICS.containsKey(metric.toLowerCase()) ? metric.toLowerCase() : "revenue";
+        String sortField = BENCHMARK_METRICS.get(sortMetric);
         List<Map<String, Object>> ranking = orgMetrics.stream()
-                .sorted(comparator)
+                .sorted(Comparator.comparing((Map<String, Object> m) -> (Double) m.get(sortField)).reversed())
                 .collect(Collectors.toList());
 
-        // Adicionar ranks
+        // Adicionar ranks e o percentil da métrica escolhida
         for (int i = 0; i < ranking.size(); i++) {
-            ranking.get(i).put("rank", i + 1);
+            Map<String, Object> metrics = ranking.get(i);
+            metrics.put("rank", i + 1);
+            metrics.put("percentile", ((Map<?, ?>) metrics.get("percentiles")).get(sortMetric));
         }
 
         Map<String, Object> result = new HashMap<>();
@@ -403,19 +369,16 @@ public class ManagementReportService {
      * Dashboard executivo com KPIs principais.
      */
     public Map<String, Object> getExecutiveDashboard(Integer days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        
-        List<ServiceOrder> orders = serviceOrderRepository.findAll().stream()
-                .filter(o -> o.getCreatedAt().isAfter(startDate))
-                .collect(Collectors.toList());
-
-        long totalOrders = orders.size();
-        long completedOrders = orders.stream().filter(o -> "COMPLETED".equals(o.getStatus())).count();
-        double totalRevenue = orders.stream()
-                .filter(o -> "COMPLETED".equals(o.getStatus()))
-                .mapToDouble(o -> o.getTotalCost() != null ? o.getTotalCost().doubleValue() : 0)
-                .sum();
+        KpiPeriodTotals totals = rollupRepository.sumPeriod(OrganizationContext.requireOrganizationId(),
+                periodStart(days));
+        long totalOrders = totals.orders();
+        long completedOrders = totals.finishedOrders();
+        double totalRevenue = totals.revenue().doubleValue();
         double avgTicket = completedOrders > 0 ? totalRevenue / completedOrders : 0;
+        double avgCompletionHours = totals.completedWithTime() > 0
+                ? totals.completionSeconds() / 3600.0 / totals.completedWithTime() : 0;
+        double nps = totals.npsResponses() > 0
+                ? (totals.npsPromoters() - totals.npsDetractors()) * 100.0 / totals.npsResponses() : 0;
 
         Map<String, Object> dashboard = new HashMap<>();
         dashboard.put("period_days", days);
@@ -424,23 +387,81 @@ public class ManagementReportService {
         dashboard.put("completion_rate", totalOrders > 0 ? (completedOrders * 100.0 / totalOrders) : 0);
         dashboard.put("total_revenue", totalRevenue);
         dashboard.put("avg_ticket", avgTicket);
+        dashboard.put("avg_completion_hours", avgCompletionHours);
+        dashboard.put("nps", nps);
         dashboard.put("health_score", identifyOperationalBottlenecks().get("overall_health_score"));
 
         return dashboard;
     }
 
     /**
-     * Análise de tendências.
+     * Análise de tendências: regressão linear sobre o histórico diário e previsão por Holt-Winters (sazonalidade
+     * semanal) quando há ao menos duas semanas de dados; com menos, a previsão segue a reta.
      */
     public Map<String, Object> analyzeTrends(String metric, Integer forecastDays) {
-        // Placeholder - implementação futura com regressão linear
+        TrendForecast forecast = trendForecastService.forecast(OrganizationContext.requireOrganizationId(),
+                TrendMetric.fromParam(metric), forecastDays);
+
+        // Variação da reta em 30 dias, relativa à média diária
+        double monthlyChange = forecast.meanPerDay() > 0
+                ? forecast.slopePerDay() * 30 / forecast.meanPerDay() * 100 : 0;
+        String direction;
+        if (monthlyChange > 5) {
+            direction = "UP";
+        } else if (monthlyChange < -5) {
+            direction = "DOWN";
+        } else {
+            direction = "STABLE";
+        }
+
+        List<Map<String, Object>> points = forecast.forecast().stream()
+                .map(point -> Map.<String, Object>of("date", point.day().toString(), "value", point.value()))
+                .collect(Collectors.toList());
+
         Map<String, Object> trends = new HashMap<>();
-        trends.put("metric", metric);
+        trends.put("metric", forecast.metric().name().toLowerCase());
         trends.put("forecast_days", forecastDays);
-        trends.put("message", "Análise de tendências em desenvolvimento");
+        trends.put("model", forecast.model());
+        trends.put("history_points", forecast.historyPoints());
+        trends.put("last_observed_date", forecast.lastObservedDay().toString());
+        trends.put("avg_per_day", forecast.meanPerDay());
+        trends.put("slope_per_day", forecast.slopePerDay());
+        trends.put("monthly_change_percent", monthlyChange);
+        trends.put("direction", direction);
+        trends.put("forecast", points);
+        trends.put("forecast_total", forecast.forecast().stream().mapToDouble(TrendForecast.ForecastPoint::value).sum());
         return trends;
     }
 
+    /**
+     * Quadro de despacho: OSs em aberto de cada técnico por status, dos menos para os mais carregados. Lido do
+     * índice em memória do {@link OperationalHealthService}, em O(técnicos).
+     */
+    public Map<String, Object> getDispatchBoard() {
+        Long organizationId = OrganizationContext.requireOrganizationId();
+        List<Map<String, Object>> technicians = operationalHealthService.workload(organizationId).stream()
+                .sorted(Comparator.comparingInt(TechnicianWorkload::activeOrders)
+                        .thenComparingInt(TechnicianWorkload::openOrders)
+                        .thenComparing(TechnicianWorkload::technicianName))
+                .map(workload -> {
+                    Map<String, Object> technician = new HashMap<>();
+                    technician.put("technician_name", workload.technicianName());
+                    technician.put("registered", workload.registered());
+                    technician.put("open_orders", workload.openOrders());
+                    technician.put("active_orders", workload.activeOrders());
+                    technician.put("overloaded", workload.activeOrders() > OperationalHealthService.OVERLOADED_ABOVE);
+                    technician.put("orders_by_status", workload.openOrdersByStatus());
+                    return technician;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> board = new HashMap<>();
+        board.put("technicians", technicians);
+        board.put("open_orders_by_status", operationalHealthService.openOrdersByStatus(organizationId));
+        board.put("generated_at", LocalDateTime.now().toString());
+        return board;
+    }
+
     /**
      * Calcula score de saúde operacional.
      */
@@ -448,6 +469,56 @@ public class ManagementReportService {
         return identifyOperationalBottlenecks();
     }
 
+    /**
+     * Último dia fora do período: {@code rollupDate > periodStart(days)} são os {@code days} dias até hoje.
+     */
+    private static LocalDate periodStart(int days) {
+        return LocalDate.now().minusDays(days);
+    }
+
+    /**
+     * Percentil de cada organização frente às demais: porcentagem das outras com valor menor, empates contando
+     * pela metade. Uma ordenação por métrica, depois busca binária por organização.
+     */
+    @SuppressWarnings("unchecked")
+    private static void putPercentiles(List<Map<String, Object>> orgMetrics, String name, String field) {
+        double[] sorted = orgMetrics.stream().mapToDouble(m -> (Double) m.get(field)).sorted().toArray();
+        int others = sorted.length - 1;
+        for (Map<String, Object> metrics : orgMetrics) {
+            double value = (Double) metrics.get(field);
+            int below = countBelow(sorted, value, false);
+            int ties = countBelow(sorted, value, true) - below - 1;
+            double percentile = others > 0 ? (below + ties / 2.0) * 100 / others : 100;
+            ((Map<String, Object>) metrics.computeIfAbsent("percentiles", key -> new HashMap<String, Object>()))
+                    .put(name, percentile);
+        }
+    }
+
+    /**
+     * Quantidade de valores menores que {@code value} (ou menores ou iguais, com {@code inclusive}).
+     */
+    private static int countBelow(double[] sorted, double value, boolean inclusive) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value || (inclusive && sorted[mid] == value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static Map<Long, Number> byOrganization(List<OrganizationMetric> metrics) {
+        return metrics.stream().collect(Collectors.toMap(OrganizationMetric::organizationId, OrganizationMetric::value));
+    }
+
     // Classe auxiliar para cálculo de rentabilidade
     private static class ServiceProfitability {
         private final String serviceType;
@@ -461,8 +532,8 @@ public class ManagementReportService {
             this.serviceType = serviceType;
         }
 
-        public void addOrder(double revenue, double laborCost, double partsCost) {
-            count++;
+        public void addOrders(int orders, double revenue, double laborCost, double partsCost) {
+            count += orders;
             totalRevenue += revenue;
             totalLaborCost += laborCost;
             totalPartsCost += partsCost;
@@ -1,5 +1,6 @@
 package com.gomech.service;
 
+import com.gomech.configuration.PrincipalCache;
 import com.gomech.dto.Organization.OrganizationRequestDTO;
 import com.gomech.dto.Organization.OrganizationResponseDTO;
 import com.gomech.model.Organization;
@@ -19,6 +20,7 @@ import java.util.Optional;
 public class OrganizationService {
 
     private final OrganizationRepository organizationRepository;
+    private final PrincipalCache principalCache;
 
     @Transactional(readOnly = true)
     public Page<OrganizationResponseDTO> findAll(Pageable pageable) {
@@ -99,6 +101,7 @@ public class OrganizationService {
         organization.setDocument(dto.getDocument());
 
         Organization updated = organizationRepository.save(organization);
+        principalCache.evictOrganization(id);
         log.info("Organization updated: {} (ID: {})", updated.getName(), updated.getId());
         
         return OrganizationResponseDTO.fromEntity(updated);
@@ -110,6 +113,7 @@ public class OrganizationService {
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found with id: " + id));
         
         organizationRepository.delete(organization);
+        principalCache.evictOrganization(id);
         log.info("Organization deleted: {} (ID: {})", organization.getName(), id);
     }
 
@@ -120,6 +124,7 @@ public class OrganizationService {
         
         organization.setActive(!organization.getActive());
         organizationRepository.save(organization);
+        principalCache.evictOrganization(id);
         log.info("Organization active status toggled: {} (ID: {}) - Active: {}", 
                 organization.getName(), id, organization.getActive());
     }
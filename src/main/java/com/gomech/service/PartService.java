@@ -2,6 +2,7 @@ package com.gomech.service;
 
 import com.gomech.domain.InventoryItem;
 import com.gomech.domain.Part;
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Inventory.InventoryEntryRequestDTO;
 import com.gomech.dto.Parts.PartCreateDTO;
 import com.gomech.dto.Parts.PartMapper;
@@ -9,6 +10,9 @@ import com.gomech.dto.Parts.PartResponseDTO;
 import com.gomech.dto.Parts.PartUpdateDTO;
 import com.gomech.dto.ServiceOrder.ServiceOrderItemCreateDTO;
 import com.gomech.dto.ServiceOrder.ServiceOrderItemResponseDTO;
+import com.gomech.importer.ImportRow;
+import com.gomech.importer.ImportTarget;
+import com.gomech.importer.StreamingImportService;
 import com.gomech.model.ServiceOrderItemType;
 import com.gomech.repository.InventoryItemRepository;
 import com.gomech.repository.PartRepository;
@@ -17,19 +21,15 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.poi.ss.usermodel.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,25 +41,31 @@ import static java.util.Objects.requireNonNullElse;
 @Transactional
 public class PartService {
 
+    private static final String[] TEMPLATE_COLUMNS = {"name", "sku", "manufacturer", "description", "unitCost", "unitPrice"};
+    private static final String[] TEMPLATE_LABELS = {"Nome*", "SKU (auto)", "Fabricante", "Descrição", "Custo Unitário", "Preço de Venda"};
+
     private final PartRepository partRepository;
     private final InventoryService inventoryService;
     private final ServiceOrderItemService serviceOrderItemService;
     private final InventoryItemRepository inventoryItemRepository;
     private final ServiceOrderItemRepository serviceOrderItemRepository;
     private final AuditService auditService;
+    private final StreamingImportService streamingImportService;
 
     public PartService(PartRepository partRepository,
                        InventoryService inventoryService,
                        ServiceOrderItemService serviceOrderItemService,
                        InventoryItemRepository inventoryItemRepository,
                        ServiceOrderItemRepository serviceOrderItemRepository,
-                       AuditService auditService) {
+                       AuditService auditService,
+                       StreamingImportService streamingImportService) {
         this.partRepository = partRepository;
         this.inventoryService = inventoryService;
         this.serviceOrderItemService = serviceOrderItemService;
         this.inventoryItemRepository = inventoryItemRepository;
         this.serviceOrderItemRepository = serviceOrderItemRepository;
         this.auditService = auditService;
+        this.streamingImportService = streamingImportService;
     }
 
     public PartResponseDTO register(PartCreateDTO dto) {
@@ -205,46 +211,36 @@ public class PartService {
      * Formato: PREFIX-XXXXX onde PREFIX são as primeiras letras do nome e XXXXX é um número sequencial.
      */
     private String generateUniqueSku(String partName) {
-        // Gera prefixo a partir do nome (primeiras letras de cada palavra, máximo 4 caracteres)
+        return generateUniqueSku(partName, new HashMap<>());
+    }
+
+    /**
+     * @param lastSkuNumbers último sequencial usado por prefixo; a importação reaproveita o mapa entre as linhas para
+     *                       consultar cada prefixo uma única vez e não repetir SKUs de peças ainda não gravadas
+     */
+    private String generateUniqueSku(String partName, Map<String, Integer> lastSkuNumbers) {
         String prefix = generateSkuPrefix(partName);
-        
-        // Busca o último SKU com esse prefixo para incrementar
-        String basePattern = prefix + "-%";
-        List<Part> existingParts = partRepository.findAll().stream()
-                .filter(p -> p.getSku() != null && p.getSku().startsWith(prefix + "-"))
-                .toList();
-        
+        int nextNumber = lastSkuNumbers.computeIfAbsent(prefix, this::highestSkuNumber) + 1;
+        lastSkuNumbers.put(prefix, nextNumber);
+        return String.format("%s-%05d", prefix, nextNumber);
+    }
+
+    /**
+     * Maior sequencial já usado com o prefixo (0 quando não há SKUs nesse padrão).
+     */
+    private int highestSkuNumber(String prefix) {
         int maxNumber = 0;
-        for (Part p : existingParts) {
+        for (String sku : partRepository.findSkusWithPrefix(prefix)) {
             try {
-                String[] parts = p.getSku().split("-");
+                String[] parts = sku.split("-");
                 if (parts.length >= 2) {
-                    int num = Integer.parseInt(parts[parts.length - 1]);
-                    if (num > maxNumber) {
-                        maxNumber = num;
-                    }
+                    maxNumber = Math.max(maxNumber, Integer.parseInt(parts[parts.length - 1]));
                 }
             } catch (NumberFormatException ignored) {
                 // Ignora SKUs que não seguem o padrão
             }
         }
-        
-        // Gera o novo SKU com número incrementado
-        int nextNumber = maxNumber + 1;
-        
-        // Verifica se já existe (por segurança) e incrementa se necessário
-        String newSku;
-        List<Part> allParts = partRepository.findAll();
-        do {
-            newSku = String.format("%s-%05d", prefix, nextNumber);
-            final String checkSku = newSku;
-            if (allParts.stream().noneMatch(p -> checkSku.equals(p.getSku()))) {
-                break;
-            }
-            nextNumber++;
-        } while (true);
-        
-        return newSku;
+        return maxNumber;
     }
 
     /**
@@ -287,177 +283,60 @@ public class PartService {
         return prefix.toString();
     }
 
-    public List<PartResponseDTO> saveFromFile(MultipartFile file) {
-        List<Part> parts;
-        String filename = file.getOriginalFilename();
-        if (filename == null) throw new RuntimeException("Arquivo sem nome");
-
-        if (filename.endsWith(".csv") || filename.endsWith(".txt")) {
-            parts = saveFromDelimitedFile(file);
-        } else if (filename.endsWith(".xls") || filename.endsWith(".xlsx")) {
-            parts = saveFromExcel(file);
-        } else {
-            throw new RuntimeException("Formato de arquivo não suportado. Use CSV ou XLSX");
-        }
-
-        return parts.stream()
-                .map(PartResponseDTO::fromEntity)
-                .toList();
-    }
-
-    private List<Part> saveFromDelimitedFile(MultipartFile file) {
-        List<Part> parts = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            // Ignora a primeira linha (cabeçalho)
-            String line = reader.readLine();
-            
-            while ((line = reader.readLine()) != null) {
-                String[] fields = line.split(",");
-                if (fields.length < 1) continue; // Precisa de pelo menos name
-                
-                Part part = new Part();
-                String name = fields[0].trim();
-                if (name.isEmpty()) continue;
-                
-                part.setName(name);
-                
-                // SKU é opcional - será gerado se não fornecido
-                if (fields.length > 1 && !fields[1].trim().isEmpty()) {
-                    part.setSku(fields[1].trim());
-                } else {
-                    part.setSku(generateUniqueSku(name));
-                }
-                
-                if (fields.length > 2 && !fields[2].trim().isEmpty()) part.setManufacturer(fields[2].trim());
-                if (fields.length > 3 && !fields[3].trim().isEmpty()) part.setDescription(fields[3].trim());
-                if (fields.length > 4 && !fields[4].trim().isEmpty()) {
-                    try {
-                        part.setUnitCost(new BigDecimal(fields[4].trim()));
-                    } catch (NumberFormatException ignored) {}
-                }
-                if (fields.length > 5 && !fields[5].trim().isEmpty()) {
-                    try {
-                        part.setUnitPrice(new BigDecimal(fields[5].trim()));
-                    } catch (NumberFormatException ignored) {}
-                }
-                
-                // Define como ativo por padrão
-                part.setActive(true);
-                
-                parts.add(part);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao processar arquivo CSV", e);
-        }
-        
-        List<Part> saved = partRepository.saveAll(parts);
-        saved.forEach(part -> auditService.logEntityAction("CREATE", "PART", part.getId(),
-                "Peça cadastrada via arquivo: " + part.getName()));
-        return saved;
+    /**
+     * Importa peças de CSV/XLSX em blocos via {@link StreamingImportService}. Apenas {@code name} é obrigatório;
+     * o SKU é gerado quando não informado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO saveFromFile(MultipartFile file) {
+        Map<String, Integer> lastSkuNumbers = new HashMap<>();
+        return streamingImportService.importFile(file, ImportTarget.of("PART",
+                ImportTarget.labelAliases(TEMPLATE_COLUMNS, TEMPLATE_LABELS),
+                row -> buildPartFromRow(row, lastSkuNumbers),
+                parts -> partRepository.saveAll(parts).forEach(part -> auditService.logEntityAction("CREATE", "PART",
+                        part.getId(), "Peça cadastrada via planilha: " + part.getName()))));
     }
 
-    private List<Part> saveFromExcel(MultipartFile file) {
-        List<Part> parts = new ArrayList<>();
-        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
-            DataFormatter formatter = new DataFormatter();
-            Sheet sheet = workbook.getSheetAt(0);
-            Map<String, Integer> headers = new HashMap<>();
-            boolean first = true;
-            
-            for (Row row : sheet) {
-                if (row == null) continue;
-                
-                if (first) {
-                    for (Cell cell : row) {
-                        headers.put(formatter.formatCellValue(cell).toLowerCase(), cell.getColumnIndex());
-                    }
-                    first = false;
-                    continue;
-                }
-                
-                // Verificar se a linha está vazia
-                boolean isEmptyRow = true;
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell != null && cell.getCellType() != CellType.BLANK) {
-                        String value = formatter.formatCellValue(cell).trim();
-                        if (!value.isEmpty()) {
-                            isEmptyRow = false;
-                            break;
-                        }
-                    }
-                }
-                
-                if (isEmptyRow) continue;
-                
-                // Processar linha com dados
-                Map<String, String> rowData = new HashMap<>();
-                for (Map.Entry<String, Integer> entry : headers.entrySet()) {
-                    Cell cell = row.getCell(entry.getValue());
-                    rowData.put(entry.getKey(), formatter.formatCellValue(cell));
-                }
-                
-                // Verificar campos obrigatórios - apenas name é obrigatório agora
-                String name = rowData.get("name");
-                
-                if (name != null && !name.trim().isEmpty()) {
-                    Part part = buildPartFromMap(rowData);
-                    parts.add(part);
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao ler planilha", e);
+    private Part buildPartFromRow(ImportRow row, Map<String, Integer> lastSkuNumbers) {
+        String name = row.get("name");
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("O campo name é obrigatório");
         }
-        
-        List<Part> saved = partRepository.saveAll(parts);
-        saved.forEach(part -> auditService.logEntityAction("CREATE", "PART", part.getId(),
-                "Peça cadastrada via planilha: " + part.getName()));
-        return saved;
-    }
 
-    private Part buildPartFromMap(Map<String, String> data) {
         Part part = new Part();
-        
-        String name = data.get("name");
-        part.setName(name);
-        
+        part.setName(name.trim());
+
         // SKU é opcional - será gerado se não fornecido
-        String sku = data.get("sku");
+        String sku = row.get("sku");
         if (sku != null && !sku.trim().isEmpty()) {
             part.setSku(sku.trim());
         } else {
-            part.setSku(generateUniqueSku(name));
+            part.setSku(generateUniqueSku(name, lastSkuNumbers));
         }
-        
-        String manufacturer = data.get("manufacturer");
+
+        String manufacturer = row.get("manufacturer");
         if (manufacturer != null && !manufacturer.isEmpty()) {
             part.setManufacturer(manufacturer);
         }
-        
-        String description = data.get("description");
+
+        String description = row.get("description");
         if (description != null && !description.isEmpty()) {
             part.setDescription(description);
         }
-        
-        String unitCostStr = data.get("unitcost");
-        if (unitCostStr == null) unitCostStr = data.get("unit_cost");
-        if (unitCostStr != null && !unitCostStr.isEmpty()) {
-            try {
-                part.setUnitCost(new BigDecimal(unitCostStr));
-            } catch (NumberFormatException ignored) {}
+
+        String unitCost = row.get("unitCost");
+        if (unitCost != null && !unitCost.isEmpty()) {
+            part.setUnitCost(new BigDecimal(unitCost.trim()));
         }
-        
-        String unitPriceStr = data.get("unitprice");
-        if (unitPriceStr == null) unitPriceStr = data.get("unit_price");
-        if (unitPriceStr != null && !unitPriceStr.isEmpty()) {
-            try {
-                part.setUnitPrice(new BigDecimal(unitPriceStr));
-            } catch (NumberFormatException ignored) {}
+
+        String unitPrice = row.get("unitPrice");
+        if (unitPrice != null && !unitPrice.isEmpty()) {
+            part.setUnitPrice(new BigDecimal(unitPrice.trim()));
         }
-        
+
         // Define como ativo por padrão
         part.setActive(true);
-        
+
         return part;
     }
 
@@ -499,8 +378,8 @@ public class PartService {
             
             // Cabeçalho
             Row header = sheet.createRow(0);
-            String[] headers = {"name", "sku", "manufacturer", "description", "unitCost", "unitPrice"};
-            String[] headersDesc = {"Nome*", "SKU (auto)", "Fabricante", "Descrição", "Custo Unitário", "Preço de Venda"};
+            String[] headers = TEMPLATE_COLUMNS;
+            String[] headersDesc = TEMPLATE_LABELS;
             
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = header.createCell(i);
@@ -19,13 +19,16 @@ public class RefreshTokenService {
     private final SecureRandom secureRandom = new SecureRandom();
     private final RefreshTokenRepository refreshTokenRepository;
     private final EncryptionService encryptionService;
+    private final TokenRevocationService tokenRevocationService;
     private final Duration refreshTokenTtl;
 
     public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
                                EncryptionService encryptionService,
+                               TokenRevocationService tokenRevocationService,
                                @Value("${security.refresh-token.ttl-hours:168}") long ttlHours) {
         this.refreshTokenRepository = refreshTokenRepository;
         this.encryptionService = encryptionService;
+        this.tokenRevocationService = tokenRevocationService;
         this.refreshTokenTtl = Duration.ofHours(ttlHours);
     }
 
@@ -37,20 +40,23 @@ public class RefreshTokenService {
         RefreshToken refreshToken = new RefreshToken(user, encryptedToken, tokenHash, Instant.now().plus(refreshTokenTtl));
         refreshTokenRepository.save(refreshToken);
         user.getRefreshTokens().add(refreshToken);
+        tokenRevocationService.registerRefreshToken(tokenHash);
         return rawToken;
     }
 
     @Transactional
     public Optional<RefreshToken> validate(String rawToken) {
         String tokenHash = encryptionService.sha256(rawToken);
+        if (!tokenRevocationService.mightBeValidRefreshToken(tokenHash)) {
+            return Optional.empty();
+        }
         Optional<RefreshToken> storedToken = refreshTokenRepository.findByTokenHashAndRevokedFalse(tokenHash);
         if (storedToken.isEmpty()) {
             return Optional.empty();
         }
         RefreshToken refreshToken = storedToken.get();
         if (refreshToken.isExpired()) {
-            refreshToken.setRevoked(true);
-            refreshTokenRepository.save(refreshToken);
+            revoke(refreshToken);
             return Optional.empty();
         }
         return Optional.of(refreshToken);
@@ -60,6 +66,13 @@ public class RefreshTokenService {
     public void revoke(RefreshToken token) {
         token.setRevoked(true);
         refreshTokenRepository.save(token);
+        tokenRevocationService.revokeRefreshToken(token.getTokenHash());
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHashAndRevokedFalse(encryptionService.sha256(rawToken))
+                .ifPresent(this::revoke);
     }
 
     private String generateRawToken() {
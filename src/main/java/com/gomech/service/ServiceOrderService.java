@@ -1,9 +1,11 @@
 package com.gomech.service;
 
 import com.gomech.dto.ServiceOrder.*;
+import com.gomech.kpi.KpiDayChanged;
 import com.gomech.model.*;
 import com.gomech.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -36,6 +38,9 @@ public class ServiceOrderService {
     @Autowired
     private ServiceOrderItemAssembler serviceOrderItemAssembler;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ServiceOrderResponseDTO create(ServiceOrderCreateDTO dto) {
         Vehicle vehicle = vehicleRepository.findById(dto.getVehicleId())
                 .orElseThrow(() -> new RuntimeException("Veículo não encontrado"));
@@ -139,6 +144,7 @@ public class ServiceOrderService {
         if (dto.getProblemDescription() != null) serviceOrder.setProblemDescription(dto.getProblemDescription());
         if (dto.getDiagnosis() != null) serviceOrder.setDiagnosis(dto.getDiagnosis());
         if (dto.getSolutionDescription() != null) serviceOrder.setSolutionDescription(dto.getSolutionDescription());
+        ServiceOrderStatus previousStatus = serviceOrder.getStatus();
         if (dto.getStatus() != null) {
             serviceOrder.setStatus(dto.getStatus());
             if (dto.getStatus() == ServiceOrderStatus.COMPLETED || dto.getStatus() == ServiceOrderStatus.DELIVERED) {
@@ -158,6 +164,7 @@ public class ServiceOrderService {
 
         serviceOrder.calculateTotalCost();
         ServiceOrder updated = serviceOrderRepository.save(serviceOrder);
+        publishStatusChange(updated, previousStatus);
         return convertToResponseDTO(updated);
     }
 
@@ -165,6 +172,7 @@ public class ServiceOrderService {
         ServiceOrder serviceOrder = serviceOrderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ordem de serviço não encontrada"));
 
+        ServiceOrderStatus previousStatus = serviceOrder.getStatus();
         serviceOrder.setStatus(dto.getStatus());
         if (dto.getStatus() == ServiceOrderStatus.COMPLETED || dto.getStatus() == ServiceOrderStatus.DELIVERED) {
             serviceOrder.setActualCompletion(LocalDateTime.now());
@@ -174,9 +182,19 @@ public class ServiceOrderService {
         }
 
         ServiceOrder updated = serviceOrderRepository.save(serviceOrder);
+        publishStatusChange(updated, previousStatus);
         return convertToResponseDTO(updated);
     }
 
+    /**
+     * Mudança de status altera contagens e receita do dia da OS; o rollup de KPIs recalcula o dia após o commit.
+     */
+    private void publishStatusChange(ServiceOrder serviceOrder, ServiceOrderStatus previousStatus) {
+        if (serviceOrder.getStatus() != previousStatus) {
+            eventPublisher.publishEvent(KpiDayChanged.of(serviceOrder, true));
+        }
+    }
+
     public void delete(Long id) {
         if (!serviceOrderRepository.existsById(id)) {
             throw new RuntimeException("Ordem de serviço não encontrada");
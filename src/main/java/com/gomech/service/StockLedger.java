@@ -0,0 +1,155 @@
+package com.gomech.service;
+
+import com.gomech.domain.InventoryItem;
+import com.gomech.health.InventoryLevelChanged;
+import com.gomech.repository.InventoryItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aplica variações de saldo ({@code quantity}, {@code reservedQuantity}) de itens de estoque de forma atômica.
+ * <p>
+ * Cada variação é um único {@code UPDATE} condicional: o banco soma os deltas e só grava se o saldo resultante
+ * continuar válido (quantidades não negativas e, quando o disponível diminui, reservado ≤ quantidade). Duas baixas
+ * concorrentes da mesma peça não conseguem vender além do estoque, inclusive entre instâncias. O {@code @Version}
+ * do item é incrementado, então gravações JPA feitas com um snapshot antigo falham em vez de sobrescrever o saldo.
+ * <p>
+ * Antes do {@code UPDATE} a thread adquire um lock por faixa de itens ({@code inventory.ledger.lock-stripes}),
+ * mantido até o fim da transação: na mesma instância as escritas no mesmo item são enfileiradas na JVM, sem disputar
+ * o lock de linha no banco. Como vários itens caem na mesma faixa, transações que movimentam mais de um item devem
+ * chamar {@link #lockAll} antes: as faixas são adquiridas uma vez cada, em ordem crescente de índice, e as chamadas
+ * seguintes de {@link #lock}/{@link #apply} apenas reentram nelas. Se o lock não vier em
+ * {@code inventory.ledger.lock-timeout-ms}, a operação segue só com a garantia do banco; o pior caso é essa espera
+ * limitada, nunca um deadlock permanente entre threads.
+ * <p>
+ * O {@code UPDATE} em lote não dispara os listeners da entidade; o novo saldo é publicado como
+ * {@link InventoryLevelChanged} para os contadores de saúde operacional.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockLedger.class);
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMs;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StockLedger(InventoryItemRepository inventoryItemRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${inventory.ledger.lock-stripes:64}") int lockStripes,
+                       @Value("${inventory.ledger.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.eventPublisher = eventPublisher;
+        this.stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+
+    /**
+     * Soma os deltas ao saldo do item e devolve a entidade gerenciada com os valores gravados.
+     * Deve rodar dentro de uma transação.
+     *
+     * @param insufficientMessage mensagem da {@link IllegalStateException} quando o saldo resultante seria inválido
+     */
+    public InventoryItem apply(Long inventoryItemId, int quantityDelta, int reservedDelta, String insufficientMessage) {
+        lockUntilCompletion(inventoryItemId);
+
+        int updated = inventoryItemRepository.applyStockDelta(inventoryItemId, quantityDelta, reservedDelta,
+                quantityDelta - reservedDelta, LocalDateTime.now());
+        InventoryItem item = entityManager.find(InventoryItem.class, inventoryItemId);
+        if (item == null) {
+            throw new IllegalArgumentException("Item de estoque não encontrado");
+        }
+        // O UPDATE em lote não passa pelo contexto de persistência; recarrega saldo e versão
+        entityManager.refresh(item);
+        if (updated == 0) {
+            throw new IllegalStateException(insufficientMessage);
+        }
+        eventPublisher.publishEvent(InventoryLevelChanged.of(item, false));
+        return item;
+    }
+
+    /**
+     * Bloqueia o item (lock da faixa e {@code SELECT ... FOR UPDATE}) até o fim da transação e devolve o saldo atual.
+     * Usado quando várias variações do mesmo item precisam ser validadas antes de um único {@link #apply}.
+     */
+    public InventoryItem lock(Long inventoryItemId) {
+        lockUntilCompletion(inventoryItemId);
+
+        InventoryItem item = entityManager.find(InventoryItem.class, inventoryItemId);
+        if (item == null) {
+            throw new IllegalArgumentException("Item de estoque não encontrado");
+        }
+        entityManager.refresh(item, LockModeType.PESSIMISTIC_WRITE);
+        return item;
+    }
+
+    /**
+     * Adquire, até o fim da transação, as faixas de todos os itens informados, cada faixa uma única vez e em ordem
+     * crescente de índice, para que lotes concorrentes com itens em comum não se bloqueiem em ordens cruzadas.
+     * Os locks de linha continuam sendo tomados por {@link #lock}, que o chamador deve invocar em ordem de id.
+     */
+    public void lockAll(Collection<Long> inventoryItemIds) {
+        requireTransaction();
+        inventoryItemIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .forEach(index -> lockStripe(index, inventoryItemIds));
+    }
+
+    private void lockUntilCompletion(Long inventoryItemId) {
+        requireTransaction();
+        lockStripe(stripeIndex(inventoryItemId), inventoryItemId);
+    }
+
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Movimentação de estoque requer transação ativa");
+        }
+    }
+
+    private int stripeIndex(Long inventoryItemId) {
+        return Math.floorMod(Long.hashCode(inventoryItemId * 0x9E3779B97F4A7C15L), stripes.length);
+    }
+
+    private void lockStripe(int index, Object inventoryItems) {
+        ReentrantLock lock = stripes[index];
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movimentação de estoque interrompida", e);
+        }
+        if (!acquired) {
+            LOGGER.debug("Lock do item de estoque {} indisponível; seguindo com o bloqueio do banco", inventoryItems);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
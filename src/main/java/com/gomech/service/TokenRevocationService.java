@@ -0,0 +1,181 @@
+package com.gomech.service;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.gomech.model.RevokedAccessToken;
+import com.gomech.repository.RefreshTokenRepository;
+import com.gomech.repository.RevokedAccessTokenRepository;
+import com.gomech.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtro em memória para validação de tokens sem consulta ao banco.
+ * <ul>
+ *     <li>Refresh tokens: filtro de Bloom com os hashes válidos + denylist de revogados.
+ *     Hashes ausentes do filtro são rejeitados sem acessar o Postgres.</li>
+ *     <li>Access tokens: denylist por {@code jti}, persistida para sobreviver a reinícios.</li>
+ * </ul>
+ * O filtro é reconstruído na inicialização e periodicamente, descartando tokens expirados ou revogados.
+ * Cada instância mantém seu próprio filtro; em implantações com várias réplicas desative
+ * {@code security.token-filter.enabled} ou garanta afinidade de sessão.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter refreshRejections;
+    private final Counter accessRejections;
+
+    private final Map<String, Instant> revokedRefreshHashes = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedAccessTokens = new ConcurrentHashMap<>();
+    // Serializa a troca de filtros com addRefreshHash: sem ele, um hash gravado no filtro antigo logo antes da
+    // troca se perderia até a próxima reconstrução
+    private final Object filterSwapLock = new Object();
+
+    private volatile BloomFilter validRefreshHashes;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean ready;
+
+    public TokenRevocationService(RefreshTokenRepository refreshTokenRepository,
+                                  RevokedAccessTokenRepository revokedAccessTokenRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.token-filter.enabled:true}") boolean enabled,
+                                  @Value("${security.token-filter.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${security.token-filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.validRefreshHashes = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.refreshRejections = Counter.builder("security.token_filter.rejections")
+                .tag("type", "refresh")
+                .register(meterRegistry);
+        this.accessRejections = Counter.builder("security.token_filter.rejections")
+                .tag("type", "access")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${security.token-filter.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        Instant startedAt = Instant.now();
+        try {
+            revokedAccessTokenRepository.deleteExpired(startedAt);
+            revokedAccessTokenRepository.findByExpiresAtAfter(startedAt)
+                    .forEach(token -> revokedAccessTokens.put(token.getJti(), token.getExpiresAt()));
+            revokedAccessTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(startedAt));
+
+            if (enabled) {
+                long activeCount = refreshTokenRepository.countByRevokedFalseAndExpiresAtAfter(startedAt);
+                BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, activeCount * 2), falsePositiveRate);
+                // Tokens criados durante a reconstrução também são gravados no novo filtro (ver addRefreshHash)
+                rebuilding = filter;
+                List<String> activeHashes = refreshTokenRepository.findActiveTokenHashes(startedAt);
+                activeHashes.forEach(filter::put);
+                synchronized (filterSwapLock) {
+                    validRefreshHashes = filter;
+                    rebuilding = null;
+                }
+                revokedRefreshHashes.values().removeIf(revokedAt -> revokedAt.isBefore(startedAt));
+                ready = true;
+                log.info("Filtro de refresh tokens reconstruído com {} hashes ativos", activeHashes.size());
+            }
+        } catch (RuntimeException e) {
+            synchronized (filterSwapLock) {
+                rebuilding = null;
+            }
+            log.error("Falha ao reconstruir filtro de tokens", e);
+        }
+    }
+
+    /**
+     * Registra o hash de um novo refresh token. Dentro de uma transação o registro ocorre após o commit.
+     */
+    public void registerRefreshToken(String tokenHash) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addRefreshHash(tokenHash);
+                }
+            });
+        } else {
+            addRefreshHash(tokenHash);
+        }
+    }
+
+    public void revokeRefreshToken(String tokenHash) {
+        if (enabled) {
+            revokedRefreshHashes.put(tokenHash, Instant.now());
+        }
+    }
+
+    /**
+     * @return {@code false} quando o hash certamente não corresponde a um refresh token válido
+     */
+    public boolean mightBeValidRefreshToken(String tokenHash) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        if (revokedRefreshHashes.containsKey(tokenHash) || !validRefreshHashes.mightContain(tokenHash)) {
+            refreshRejections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Transactional
+    public void revokeAccessToken(DecodedJWT jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAtAsInstant() == null) {
+            return;
+        }
+        revokedAccessTokens.put(jwt.getId(), jwt.getExpiresAtAsInstant());
+        revokedAccessTokenRepository.save(new RevokedAccessToken(jwt.getId(), jwt.getExpiresAtAsInstant()));
+    }
+
+    public boolean isAccessTokenRevoked(DecodedJWT jwt) {
+        String jti = jwt.getId();
+        if (jti == null || !revokedAccessTokens.containsKey(jti)) {
+            return false;
+        }
+        accessRejections.increment();
+        return true;
+    }
+
+    private void addRefreshHash(String tokenHash) {
+        synchronized (filterSwapLock) {
+            validRefreshHashes.put(tokenHash);
+            BloomFilter inProgress = rebuilding;
+            if (inProgress != null) {
+                inProgress.put(tokenHash);
+            }
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.gomech.service;
 
+import com.gomech.dto.Import.ImportReportDTO;
 import com.gomech.dto.Vehicles.VehicleCreateDTO;
 import com.gomech.dto.Vehicles.VehicleResponseDTO;
 import com.gomech.dto.Vehicles.VehicleUpdateDTO;
 import com.gomech.dto.ServiceOrder.ServiceOrderResponseDTO;
+import com.gomech.exporter.ExportFormat;
+import com.gomech.exporter.ExportLayout;
+import com.gomech.exporter.StreamingExportService;
+import com.gomech.importer.ImportRow;
+import com.gomech.importer.ImportTarget;
+import com.gomech.importer.StreamingImportService;
 import com.gomech.model.Client;
 import com.gomech.model.Vehicle;
 import com.gomech.model.ServiceOrder;
@@ -13,28 +20,33 @@ import com.gomech.repository.ServiceOrderRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.poi.ss.usermodel.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
 
 @Service
 public class VehicleService {
+    private static final String[] TEMPLATE_COLUMNS = {"clientId", "licensePlate", "brand", "model", "manufactureDate", "color", "observations", "kilometers", "chassisId"};
+    private static final String[] TEMPLATE_LABELS = {"ID do Cliente*", "Placa*", "Marca*", "Modelo*", "Data Fabricação*", "Cor", "Observações", "Quilometragem", "Chassi"};
+    private static final ExportLayout EXPORT_LAYOUT = new ExportLayout("vehicles", null, TEMPLATE_COLUMNS);
+    private static final ExportLayout SERVICE_HISTORY_LAYOUT = new ExportLayout("Histórico de Serviços", null,
+            "Número OS", "Data Criação", "Data Conclusão", "Status",
+            "Descrição", "Problema", "Diagnóstico", "Solução",
+            "Técnico", "Quilometragem", "Custo Mão de Obra", "Custo Peças",
+            "Desconto", "Custo Total", "Observações");
+
     @Autowired
     private VehicleRepository repository;
 
@@ -50,6 +62,12 @@ public class VehicleService {
     @Autowired
     private ServiceOrderService serviceOrderService;
 
+    @Autowired
+    private StreamingImportService streamingImportService;
+
+    @Autowired
+    private StreamingExportService streamingExportService;
+
     public VehicleResponseDTO save(VehicleCreateDTO dto) {
         Client client = clientRepository.findById(dto.clientId())
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
@@ -130,117 +148,33 @@ public class VehicleService {
         return VehicleResponseDTO.fromEntity(saved);
     }
 
-    public List<VehicleResponseDTO> saveFromFile(MultipartFile file) {
-        List<Vehicle> vehicles;
-        String filename = file.getOriginalFilename();
-        if (filename == null) throw new RuntimeException("Arquivo sem nome");
-
-        if (filename.endsWith(".csv") || filename.endsWith(".txt")) {
-            vehicles = saveFromDelimitedFile(file);
-        } else if (filename.endsWith(".xls") || filename.endsWith(".xlsx")) {
-            vehicles = saveFromExcel(file);
-        } else {
-            throw new RuntimeException("Formato de arquivo não suportado");
-        }
-
-        return vehicles.stream()
-                .map(VehicleResponseDTO::fromEntity)
-                .toList();
+    /**
+     * Importa veículos de CSV/XLSX em blocos via {@link StreamingImportService}.
+     * Cada linha precisa de placa ou chassi e de um clientId existente.
+     */
+    public ImportReportDTO saveFromFile(MultipartFile file) {
+        Map<Long, Client> clients = new HashMap<>();
+        return streamingImportService.importFile(file, ImportTarget.of("VEHICLE",
+                ImportTarget.labelAliases(TEMPLATE_COLUMNS, TEMPLATE_LABELS),
+                row -> buildVehicleFromRow(row, clients),
+                vehicles -> repository.saveAll(vehicles).forEach(vehicle -> auditService.logEntityAction("CREATE",
+                        "VEHICLE", vehicle.getId(), "Veículo cadastrado via planilha: " + vehicle.getLicensePlate()))));
     }
 
-    private List<Vehicle> saveFromDelimitedFile(MultipartFile file) {
-        List<Vehicle> vehicles = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
-             CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader)) {
-            for (CSVRecord record : parser) {
-                Vehicle vehicle = buildVehicleFromMap(record::get);
-                vehicles.add(vehicle);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao processar arquivo", e);
-        }
-        List<Vehicle> saved = repository.saveAll(vehicles);
-        saved.forEach(vehicle -> auditService.logEntityAction("CREATE", "VEHICLE", vehicle.getId(),
-                "Veículo cadastrado via arquivo: " + vehicle.getLicensePlate()));
-        return saved;
-    }
-
-    private List<Vehicle> saveFromExcel(MultipartFile file) {
-        List<Vehicle> vehicles = new ArrayList<>();
-        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
-            DataFormatter formatter = new DataFormatter();
-            Sheet sheet = workbook.getSheetAt(0);
-            Map<String, Integer> headers = new HashMap<>();
-            boolean first = true;
-            
-            for (Row row : sheet) {
-                // Pular se a linha for nula
-                if (row == null) {
-                    continue;
-                }
-                
-                // Primeira linha: ler cabeçalhos
-                if (first) {
-                    for (Cell cell : row) {
-                        headers.put(formatter.formatCellValue(cell).toLowerCase(), cell.getColumnIndex());
-                    }
-                    first = false;
-                    continue;
-                }
-                
-                // Verificar se a linha está completamente vazia
-                boolean isEmptyRow = true;
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell != null && cell.getCellType() != org.apache.poi.ss.usermodel.CellType.BLANK) {
-                        String value = formatter.formatCellValue(cell).trim();
-                        if (!value.isEmpty()) {
-                            isEmptyRow = false;
-                            break;
-                        }
-                    }
-                }
-                
-                // Pular linhas vazias
-                if (isEmptyRow) {
-                    continue;
-                }
-                
-                // Processar linha com dados
-                Map<String, String> rowData = new HashMap<>();
-                for (Map.Entry<String, Integer> entry : headers.entrySet()) {
-                    Cell cell = row.getCell(entry.getValue());
-                    rowData.put(entry.getKey(), formatter.formatCellValue(cell));
-                }
-                
-                // Verificar se a linha tem dados mínimos necessários (placa ou chassi)
-                String licensePlate = rowData.get("licenseplate");
-                if (licensePlate == null) {
-                    licensePlate = rowData.get("license_plate");
-                }
-                String chassisId = rowData.get("chassisid");
-                if (chassisId == null) {
-                    chassisId = rowData.get("chassis_id");
-                }
-                
-                // Só processar se tiver placa OU chassi
-                if ((licensePlate != null && !licensePlate.trim().isEmpty()) || 
-                    (chassisId != null && !chassisId.trim().isEmpty())) {
-                    Vehicle vehicle = buildVehicleFromMap(rowData::get);
-                    vehicles.add(vehicle);
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao ler planilha", e);
+    /**
+     * @param clients clientes já consultados nesta importação, evitando uma busca por linha
+     */
+    private Vehicle buildVehicleFromRow(ImportRow row, Map<Long, Client> clients) {
+        String licensePlate = row.get("licensePlate");
+        String chassisId = row.get("chassisId");
+        if ((licensePlate == null || licensePlate.trim().isEmpty()) &&
+            (chassisId == null || chassisId.trim().isEmpty())) {
+            throw new IllegalArgumentException("Informe a placa (licensePlate) ou o chassi (chassisId)");
         }
-        
-        List<Vehicle> saved = repository.saveAll(vehicles);
-        saved.forEach(vehicle -> auditService.logEntityAction("CREATE", "VEHICLE", vehicle.getId(),
-                "Veículo cadastrado via planilha: " + vehicle.getLicensePlate()));
-        return saved;
+        return buildVehicleFromMap(row::get, clients);
     }
 
-    private Vehicle buildVehicleFromMap(java.util.function.Function<String, String> getter) {
+    private Vehicle buildVehicleFromMap(java.util.function.Function<String, String> getter, Map<Long, Client> clients) {
         Vehicle vehicle = new Vehicle();
         
         // Associar cliente (obrigatório)
@@ -255,14 +189,14 @@ public class VehicleService {
         if (clientIdStr != null && !clientIdStr.isEmpty()) {
             try {
                 Long clientId = Long.parseLong(clientIdStr.trim());
-                Client client = clientRepository.findById(clientId)
-                        .orElseThrow(() -> new RuntimeException("Cliente não encontrado com ID: " + clientId));
+                Client client = clients.computeIfAbsent(clientId, id -> clientRepository.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado com ID: " + id)));
                 vehicle.setClient(client);
             } catch (NumberFormatException e) {
-                throw new RuntimeException("ID do cliente inválido: " + clientIdStr);
+                throw new IllegalArgumentException("ID do cliente inválido: " + clientIdStr);
             }
         } else {
-            throw new RuntimeException("O campo clientId é obrigatório para cadastrar um veículo");
+            throw new IllegalArgumentException("O campo clientId é obrigatório para cadastrar um veículo");
         }
         
         vehicle.setLicensePlate(getter.apply("licensePlate"));
@@ -297,62 +231,25 @@ public class VehicleService {
         return vehicle;
     }
 
-    public ByteArrayInputStream exportToFile(String format) {
-        if (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) {
-            return exportToExcel();
-        }
-        return exportToDelimitedFile();
+    /**
+     * Escreve os veículos da organização direto na saída, lidos por cursor. Roda fora da thread da requisição,
+     * por isso recebe a organização já resolvida.
+     */
+    public void exportToFile(Long organizationId, ExportFormat format, OutputStream output) throws IOException {
+        streamingExportService.export(format, EXPORT_LAYOUT, () -> repository.streamExportRows(organizationId),
+                v -> new Object[]{v.clientId(), v.licensePlate(), v.brand(), v.model(),
+                        formatDate(v.manufactureDate()), v.color(), v.observations(), v.kilometers(), v.chassisId()},
+                output);
     }
 
-    private ByteArrayInputStream exportToDelimitedFile() {
-        List<Vehicle> vehicles = repository.findAll();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (CSVPrinter printer = new CSVPrinter(new PrintWriter(out),
-                CSVFormat.DEFAULT.withHeader("clientId", "licensePlate", "brand", "model", "manufactureDate", "color", "observations", "kilometers", "chassisId"))) {
-            for (Vehicle v : vehicles) {
-                String manufactureDate = v.getManufactureDate() != null ?
-                        LocalDate.ofInstant(v.getManufactureDate().toInstant(), ZoneId.systemDefault()).toString() : "";
-                Long clientId = v.getClient() != null ? v.getClient().getId() : null;
-                printer.printRecord(clientId, v.getLicensePlate(), v.getBrand(), v.getModel(), manufactureDate, v.getColor(), v.getObservations(), v.getKilometers(), v.getChassisId());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar CSV", e);
+    private static String formatDate(Date date) {
+        if (date == null) {
+            return "";
         }
-        return new ByteArrayInputStream(out.toByteArray());
-    }
-
-    private ByteArrayInputStream exportToExcel() {
-        List<Vehicle> vehicles = repository.findAll();
-        try (Workbook workbook = WorkbookFactory.create(true); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("vehicles");
-            String[] headers = {"clientId", "licensePlate", "brand", "model", "manufactureDate", "color", "observations", "kilometers", "chassisId"};
-            Row header = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                header.createCell(i).setCellValue(headers[i]);
-            }
-            int rowIdx = 1;
-            for (Vehicle v : vehicles) {
-                Row row = sheet.createRow(rowIdx++);
-                Long clientId = v.getClient() != null ? v.getClient().getId() : null;
-                if (clientId != null) {
-                    row.createCell(0).setCellValue(clientId);
-                }
-                row.createCell(1).setCellValue(v.getLicensePlate());
-                row.createCell(2).setCellValue(v.getBrand());
-                row.createCell(3).setCellValue(v.getModel());
-                String manufactureDate = v.getManufactureDate() != null ?
-                        LocalDate.ofInstant(v.getManufactureDate().toInstant(), ZoneId.systemDefault()).toString() : "";
-                row.createCell(4).setCellValue(manufactureDate);
-                row.createCell(5).setCellValue(v.getColor());
-                row.createCell(6).setCellValue(v.getObservations());
-                row.createCell(7).setCellValue(v.getKilometers());
-                row.createCell(8).setCellValue(v.getChassisId());
-            }
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar planilha", e);
+        if (date instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate().toString();
         }
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault()).toString();
     }
 
     public List<ServiceOrderResponseDTO> getServiceHistory(Long vehicleId) {
@@ -364,116 +261,39 @@ public class VehicleService {
         return serviceOrderService.getVehicleHistory(vehicleId);
     }
 
-    public ByteArrayInputStream exportServiceHistory(Long vehicleId, String format) {
-        Vehicle vehicle = repository.findById(vehicleId)
+    /**
+     * Layout do histórico com o veículo no título. Resolvido na thread da requisição, antes de a resposta começar,
+     * para que um veículo inexistente ou de outra organização ainda resulte em erro.
+     */
+    public ExportLayout serviceHistoryExportLayout(Long organizationId, Long vehicleId) {
+        Vehicle vehicle = repository.findByIdAndOrganizationId(vehicleId, organizationId)
                 .orElseThrow(() -> new RuntimeException("Veículo não encontrado"));
-        
-        List<ServiceOrder> serviceOrders = serviceOrderRepository.findVehicleHistory(vehicleId);
-        
-        if (format != null && (format.equalsIgnoreCase("xlsx") || format.equalsIgnoreCase("xls"))) {
-            return exportServiceHistoryToExcel(vehicle, serviceOrders);
-        }
-        return exportServiceHistoryToCSV(vehicle, serviceOrders);
+        return SERVICE_HISTORY_LAYOUT.withTitle("Veículo: " + vehicle.getBrand() + " " + vehicle.getModel()
+                + " - Placa: " + vehicle.getLicensePlate());
     }
 
-    private ByteArrayInputStream exportServiceHistoryToCSV(Vehicle vehicle, List<ServiceOrder> serviceOrders) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (CSVPrinter printer = new CSVPrinter(new PrintWriter(out),
-                CSVFormat.DEFAULT.withHeader(
-                    "Número OS", "Data Criação", "Data Conclusão", "Status", 
-                    "Descrição", "Problema", "Diagnóstico", "Solução", 
-                    "Técnico", "Quilometragem", "Custo Mão de Obra", "Custo Peças", 
-                    "Desconto", "Custo Total", "Observações"))) {
-            
-            for (ServiceOrder so : serviceOrders) {
-                printer.printRecord(
-                    so.getOrderNumber(),
-                    so.getCreatedAt() != null ? so.getCreatedAt().toString() : "",
-                    so.getActualCompletion() != null ? so.getActualCompletion().toString() : "",
-                    so.getStatus() != null ? so.getStatus().toString() : "",
-                    so.getDescription() != null ? so.getDescription() : "",
-                    so.getProblemDescription() != null ? so.getProblemDescription() : "",
-                    so.getDiagnosis() != null ? so.getDiagnosis() : "",
-                    so.getSolutionDescription() != null ? so.getSolutionDescription() : "",
-                    so.getTechnicianName() != null ? so.getTechnicianName() : "",
-                    so.getCurrentKilometers() != null ? so.getCurrentKilometers().toString() : "",
-                    so.getLaborCost() != null ? so.getLaborCost().toString() : "0",
-                    so.getPartsCost() != null ? so.getPartsCost().toString() : "0",
-                    so.getDiscount() != null ? so.getDiscount().toString() : "0",
-                    so.getTotalCost() != null ? so.getTotalCost().toString() : "0",
-                    so.getObservations() != null ? so.getObservations() : ""
-                );
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar CSV do histórico", e);
-        }
-        return new ByteArrayInputStream(out.toByteArray());
-    }
-
-    private ByteArrayInputStream exportServiceHistoryToExcel(Vehicle vehicle, List<ServiceOrder> serviceOrders) {
-        try (Workbook workbook = WorkbookFactory.create(true); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Histórico de Serviços");
-            
-            // Estilo para cabeçalho
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            
-            // Informações do veículo
-            Row vehicleInfoRow = sheet.createRow(0);
-            Cell vehicleInfoCell = vehicleInfoRow.createCell(0);
-            vehicleInfoCell.setCellValue("Veículo: " + vehicle.getBrand() + " " + vehicle.getModel() + " - Placa: " + vehicle.getLicensePlate());
-            vehicleInfoCell.setCellStyle(headerStyle);
-            
-            // Linha vazia
-            sheet.createRow(1);
-            
-            // Cabeçalhos
-            String[] headers = {
-                "Número OS", "Data Criação", "Data Conclusão", "Status", 
-                "Descrição", "Problema", "Diagnóstico", "Solução", 
-                "Técnico", "Quilometragem", "Custo Mão de Obra", "Custo Peças", 
-                "Desconto", "Custo Total", "Observações"
-            };
-            Row headerRow = sheet.createRow(2);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // Dados
-            int rowIdx = 3;
-            for (ServiceOrder so : serviceOrders) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(so.getOrderNumber());
-                row.createCell(1).setCellValue(so.getCreatedAt() != null ? so.getCreatedAt().toString() : "");
-                row.createCell(2).setCellValue(so.getActualCompletion() != null ? so.getActualCompletion().toString() : "");
-                row.createCell(3).setCellValue(so.getStatus() != null ? so.getStatus().toString() : "");
-                row.createCell(4).setCellValue(so.getDescription() != null ? so.getDescription() : "");
-                row.createCell(5).setCellValue(so.getProblemDescription() != null ? so.getProblemDescription() : "");
-                row.createCell(6).setCellValue(so.getDiagnosis() != null ? so.getDiagnosis() : "");
-                row.createCell(7).setCellValue(so.getSolutionDescription() != null ? so.getSolutionDescription() : "");
-                row.createCell(8).setCellValue(so.getTechnicianName() != null ? so.getTechnicianName() : "");
-                row.createCell(9).setCellValue(so.getCurrentKilometers() != null ? so.getCurrentKilometers().toString() : "");
-                row.createCell(10).setCellValue(so.getLaborCost() != null ? so.getLaborCost().toString() : "0");
-                row.createCell(11).setCellValue(so.getPartsCost() != null ? so.getPartsCost().toString() : "0");
-                row.createCell(12).setCellValue(so.getDiscount() != null ? so.getDiscount().toString() : "0");
-                row.createCell(13).setCellValue(so.getTotalCost() != null ? so.getTotalCost().toString() : "0");
-                row.createCell(14).setCellValue(so.getObservations() != null ? so.getObservations() : "");
-            }
-            
-            // Auto-ajustar largura das colunas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao gerar planilha do histórico", e);
-        }
+    public void exportServiceHistory(Long organizationId, Long vehicleId, ExportLayout layout, ExportFormat format,
+                                     OutputStream output) throws IOException {
+        streamingExportService.export(format, layout,
+                () -> serviceOrderRepository.streamVehicleHistoryExportRows(organizationId, vehicleId),
+                so -> new Object[]{
+                        so.orderNumber(),
+                        so.createdAt() != null ? so.createdAt().toString() : "",
+                        so.actualCompletion() != null ? so.actualCompletion().toString() : "",
+                        so.status() != null ? so.status().toString() : "",
+                        so.description() != null ? so.description() : "",
+                        so.problemDescription() != null ? so.problemDescription() : "",
+                        so.diagnosis() != null ? so.diagnosis() : "",
+                        so.solutionDescription() != null ? so.solutionDescription() : "",
+                        so.technicianName() != null ? so.technicianName() : "",
+                        so.currentKilometers() != null ? so.currentKilometers() : "",
+                        so.laborCost() != null ? so.laborCost() : BigDecimal.ZERO,
+                        so.partsCost() != null ? so.partsCost() : BigDecimal.ZERO,
+                        so.discount() != null ? so.discount() : BigDecimal.ZERO,
+                        so.totalCost() != null ? so.totalCost() : BigDecimal.ZERO,
+                        so.observations() != null ? so.observations() : ""
+                },
+                output);
     }
 
     public ByteArrayInputStream generateTemplate(String format) {
@@ -514,8 +334,8 @@ public class VehicleService {
             
             // Cabeçalho
             Row header = sheet.createRow(0);
-            String[] headers = {"clientId", "licensePlate", "brand", "model", "manufactureDate", "color", "observations", "kilometers", "chassisId"};
-            String[] headersDesc = {"ID do Cliente*", "Placa*", "Marca*", "Modelo*", "Data Fabricação*", "Cor", "Observações", "Quilometragem", "Chassi"};
+            String[] headers = TEMPLATE_COLUMNS;
+            String[] headersDesc = TEMPLATE_LABELS;
             
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = header.createCell(i);
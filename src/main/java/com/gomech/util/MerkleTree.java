@@ -0,0 +1,127 @@
+package com.gomech.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Árvore de Merkle SHA-256 sobre hashes em Base64.
+ * Folhas e nós internos usam prefixos distintos (0x00 / 0x01) para evitar colisões entre níveis;
+ * um nó sem irmão é promovido ao nível seguinte sem ser duplicado.
+ * As provas de inclusão são serializadas como {@code L:hash,R:hash,...}, indicando de que lado
+ * está o irmão em cada nível, da folha até a raiz.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final List<List<byte[]>> levels;
+
+    private MerkleTree(List<List<byte[]>> levels) {
+        this.levels = levels;
+    }
+
+    public static MerkleTree build(List<String> leafHashes) {
+        if (leafHashes.isEmpty()) {
+            throw new IllegalArgumentException("Árvore de Merkle requer ao menos uma folha");
+        }
+        List<List<byte[]>> levels = new ArrayList<>();
+        List<byte[]> current = new ArrayList<>(leafHashes.size());
+        for (String leaf : leafHashes) {
+            current.add(hashLeaf(leaf));
+        }
+        levels.add(current);
+        while (current.size() > 1) {
+            List<byte[]> next = new ArrayList<>((current.size() + 1) / 2);
+            for (int i = 0; i < current.size(); i += 2) {
+                next.add(i + 1 < current.size() ? hashNode(current.get(i), current.get(i + 1)) : current.get(i));
+            }
+            levels.add(next);
+            current = next;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public String root() {
+        return encode(levels.get(levels.size() - 1).get(0));
+    }
+
+    public int size() {
+        return levels.get(0).size();
+    }
+
+    public String proof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= size()) {
+            throw new IndexOutOfBoundsException("Folha inexistente: " + leafIndex);
+        }
+        StringBuilder proof = new StringBuilder();
+        int index = leafIndex;
+        for (int level = 0; level < levels.size() - 1; level++) {
+            List<byte[]> nodes = levels.get(level);
+            int sibling = index ^ 1;
+            if (sibling < nodes.size()) {
+                if (!proof.isEmpty()) {
+                    proof.append(',');
+                }
+                proof.append(sibling < index ? "L:" : "R:").append(encode(nodes.get(sibling)));
+            }
+            index >>= 1;
+        }
+        return proof.toString();
+    }
+
+    /**
+     * Recalcula a raiz a partir da folha e da prova e compara com a raiz esperada.
+     */
+    public static boolean verify(String leafHash, String proof, String expectedRoot) {
+        try {
+            byte[] current = hashLeaf(leafHash);
+            if (proof != null && !proof.isBlank()) {
+                for (String step : proof.split(",")) {
+                    byte[] sibling = Base64.getDecoder().decode(step.substring(2));
+                    if (step.startsWith("L:")) {
+                        current = hashNode(sibling, current);
+                    } else if (step.startsWith("R:")) {
+                        current = hashNode(current, sibling);
+                    } else {
+                        return false;
+                    }
+                }
+            }
+            return MessageDigest.isEqual(current, Base64.getDecoder().decode(expectedRoot));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    private static byte[] hashLeaf(String leafHash) {
+        MessageDigest digest = sha256();
+        digest.update(LEAF_PREFIX);
+        digest.update(leafHash.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    private static byte[] hashNode(byte[] left, byte[] right) {
+        MessageDigest digest = sha256();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    private static String encode(byte[] hash) {
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gomech.util;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.gomech.configuration.ClaimsPrincipal;
 import com.gomech.model.User;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
@@ -113,6 +114,11 @@ public class OrganizationContext {
                     return Optional.of(user.getOrganization().getId());
                 }
             }
+
+            if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof ClaimsPrincipal claims) {
+                return Optional.ofNullable(claims.organizationId());
+            }
         } catch (Exception e) {
             // Erro ao acessar o SecurityContext
         }
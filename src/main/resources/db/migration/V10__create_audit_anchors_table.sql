@@ -0,0 +1,29 @@
+-- V10__create_audit_anchors_table.sql
+-- Ancoragem de auditoria em lotes: raízes de Merkle por janela de tempo (outbox de publicação)
+-- e prova de inclusão de cada evento
+
+CREATE TABLE IF NOT EXISTS audit_anchors (
+    id BIGSERIAL PRIMARY KEY,
+    merkle_root VARCHAR(64) NOT NULL,
+    leaf_count INT NOT NULL,
+    first_event_id BIGINT NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    transaction_hash VARCHAR(128),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    anchored_at TIMESTAMP
+);
+
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS anchor_id BIGINT REFERENCES audit_anchors(id);
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS merkle_leaf_index INT;
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS merkle_proof TEXT;
+
+-- Eventos ainda não ancorados (lidos a cada janela)
+CREATE INDEX IF NOT EXISTS idx_audit_events_unanchored ON audit_events(id) WHERE anchor_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_audit_events_anchor_id ON audit_events(anchor_id);
+
+-- Outbox: âncoras pendentes por próxima tentativa
+CREATE INDEX IF NOT EXISTS idx_audit_anchors_pending ON audit_anchors(next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,26 @@
+-- V11__create_audit_hash_chain.sql
+-- Cadeia de hashes de auditoria por organização e checkpoints da verificação incremental.
+-- Eventos anteriores a esta migração permanecem fora da cadeia (chain_seq nulo).
+
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS chain_seq BIGINT;
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS prev_hash VARCHAR(64);
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS chain_hash VARCHAR(64);
+
+-- Cabeça de cada cadeia (organization_key = 0 para eventos sem organização), bloqueada por escritores
+CREATE TABLE IF NOT EXISTS audit_chain_heads (
+    organization_key BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    last_hash VARCHAR(64) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS audit_chain_checkpoints (
+    organization_key BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    last_hash VARCHAR(64) NOT NULL,
+    verified_at TIMESTAMP NOT NULL
+);
+
+-- Unicidade da sequência e leitura por keyset na verificação
+CREATE UNIQUE INDEX IF NOT EXISTS idx_audit_events_chain
+    ON audit_events ((COALESCE(organization_id, 0)), chain_seq)
+    WHERE chain_seq IS NOT NULL;
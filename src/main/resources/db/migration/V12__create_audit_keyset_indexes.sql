@@ -0,0 +1,12 @@
+-- V12__create_audit_keyset_indexes.sql
+-- Índices para a paginação por keyset (occurred_at, id) das consultas de auditoria.
+-- Os filtros de ação e usuário comparam lower(...), por isso os índices são funcionais.
+
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_occurred
+    ON audit_events (organization_id, occurred_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_user_occurred
+    ON audit_events (organization_id, lower(user_email), occurred_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_operation_occurred
+    ON audit_events (organization_id, lower(operation), occurred_at DESC, id DESC);
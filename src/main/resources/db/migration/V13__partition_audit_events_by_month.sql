@@ -0,0 +1,109 @@
+-- V13__partition_audit_events_by_month.sql
+-- Converte audit_events em tabela particionada por mês (RANGE em occurred_at).
+-- Partições futuras são criadas e as antigas arquivadas pelo AuditPartitionScheduler.
+-- A chave primária passa a incluir occurred_at (exigência do particionamento); a unicidade de
+-- (organização, chain_seq) continua garantida pelo bloqueio da cabeça da cadeia em audit_chain_heads.
+
+ALTER TABLE audit_events RENAME TO audit_events_legacy;
+
+DROP INDEX IF EXISTS idx_audit_events_unanchored;
+DROP INDEX IF EXISTS idx_audit_events_anchor_id;
+DROP INDEX IF EXISTS idx_audit_events_chain;
+DROP INDEX IF EXISTS idx_audit_events_org_occurred;
+DROP INDEX IF EXISTS idx_audit_events_org_user_occurred;
+DROP INDEX IF EXISTS idx_audit_events_org_operation_occurred;
+
+CREATE SEQUENCE IF NOT EXISTS audit_events_pk_seq;
+
+CREATE TABLE audit_events (
+    id BIGINT NOT NULL DEFAULT nextval('audit_events_pk_seq'),
+    organization_id BIGINT REFERENCES organizations(id),
+    event_type VARCHAR(255) NOT NULL,
+    payload TEXT,
+    operation VARCHAR(255) NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    module_name VARCHAR(255) NOT NULL,
+    user_role VARCHAR(64) NOT NULL,
+    entity_id BIGINT,
+    occurred_at TIMESTAMP NOT NULL,
+    event_hash VARCHAR(128) NOT NULL,
+    blockchain_reference VARCHAR(128),
+    created_at TIMESTAMP NOT NULL,
+    chain_seq BIGINT,
+    prev_hash VARCHAR(64),
+    chain_hash VARCHAR(64),
+    anchor_id BIGINT REFERENCES audit_anchors(id),
+    merkle_leaf_index INT,
+    merkle_proof TEXT,
+    CONSTRAINT pk_audit_events PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+ALTER SEQUENCE audit_events_pk_seq OWNED BY audit_events.id;
+
+-- Recebe eventos fora das partições mensais existentes (ex.: occurred_at muito no passado ou futuro)
+CREATE TABLE IF NOT EXISTS audit_events_default PARTITION OF audit_events DEFAULT;
+
+-- Partições mensais do primeiro mês com dados até três meses à frente
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(occurred_at))::DATE, date_trunc('month', CURRENT_DATE)::DATE)
+    INTO month_start
+    FROM audit_events_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_events FOR VALUES FROM (%L) TO (%L)',
+                       'audit_events_y' || to_char(month_start, 'YYYY') || 'm' || to_char(month_start, 'MM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_events (id, organization_id, event_type, payload, operation, user_email, module_name, user_role,
+                          entity_id, occurred_at, event_hash, blockchain_reference, created_at, chain_seq, prev_hash,
+                          chain_hash, anchor_id, merkle_leaf_index, merkle_proof)
+SELECT id, organization_id, event_type, payload, operation, user_email, module_name, user_role,
+       entity_id, occurred_at, event_hash, blockchain_reference, created_at, chain_seq, prev_hash,
+       chain_hash, anchor_id, merkle_leaf_index, merkle_proof
+FROM audit_events_legacy;
+
+SELECT setval('audit_events_pk_seq', COALESCE((SELECT MAX(id) FROM audit_events), 0) + 1, false);
+
+DROP TABLE audit_events_legacy;
+
+-- Índices no pai são propagados para todas as partições (atuais e futuras)
+CREATE INDEX IF NOT EXISTS idx_audit_events_unanchored ON audit_events (id) WHERE anchor_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_audit_events_anchor_id ON audit_events (anchor_id);
+CREATE INDEX IF NOT EXISTS idx_audit_events_chain ON audit_events ((COALESCE(organization_id, 0)), chain_seq)
+    WHERE chain_seq IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_occurred
+    ON audit_events (organization_id, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_user_occurred
+    ON audit_events (organization_id, lower(user_email), occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_events_org_operation_occurred
+    ON audit_events (organization_id, lower(operation), occurred_at DESC, id DESC);
+
+-- Registro dos arquivos gerados ao arquivar partições antigas
+CREATE TABLE IF NOT EXISTS audit_partition_archives (
+    id BIGSERIAL PRIMARY KEY,
+    partition_name VARCHAR(64) NOT NULL UNIQUE,
+    range_start DATE NOT NULL,
+    range_end DATE NOT NULL,
+    row_count BIGINT NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    checksum VARCHAR(64) NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Elos da cadeia de hashes dos eventos arquivados: mantêm a verificação contínua após o DROP da partição
+CREATE TABLE IF NOT EXISTS audit_chain_archived_links (
+    organization_key BIGINT NOT NULL,
+    chain_seq BIGINT NOT NULL,
+    prev_hash VARCHAR(64) NOT NULL,
+    chain_hash VARCHAR(64) NOT NULL,
+    event_hash VARCHAR(128) NOT NULL,
+    PRIMARY KEY (organization_key, chain_seq)
+);
@@ -0,0 +1,5 @@
+-- V14__add_inventory_item_version.sql
+-- Versão otimista dos itens de estoque: incrementada a cada variação de saldo do StockLedger,
+-- faz gravações JPA com snapshot antigo falharem em vez de sobrescrever quantity/reserved_quantity.
+
+ALTER TABLE inventory_items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
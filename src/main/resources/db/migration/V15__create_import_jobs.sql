@@ -0,0 +1,31 @@
+-- V15__create_import_jobs.sql
+-- Importações de planilhas em blocos: progresso retomável por arquivo (checksum) e erros por linha.
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id BIGINT REFERENCES organizations(id),
+    entity_type VARCHAR(40) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_checksum VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    rows_imported BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    last_committed_row BIGINT NOT NULL DEFAULT 0,
+    resumed_from_row BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS import_job_errors (
+    job_id BIGINT NOT NULL REFERENCES import_jobs(id) ON DELETE CASCADE,
+    line_number BIGINT NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    PRIMARY KEY (job_id, line_number)
+);
+
+-- Retomada: busca do job não concluído do mesmo arquivo
+CREATE INDEX IF NOT EXISTS idx_import_jobs_resume
+    ON import_jobs(organization_id, entity_type, file_checksum) WHERE status <> 'COMPLETED';
@@ -0,0 +1,32 @@
+-- V16__pooled_id_sequences.sql
+-- IDs das entidades gravadas em massa passam de IDENTITY para sequências com incremento 50 (otimizador pooled-lo
+-- do Hibernate): o id é conhecido antes do INSERT, então os inserts entram no lote JDBC (hibernate.jdbc.batch_size).
+-- Cada sequência começa após o maior id existente e vira o DEFAULT da coluna; inserts fora do Hibernate
+-- (ex.: InventoryBatchService) recebem o início de um bloco novo e não colidem com os blocos já reservados.
+-- O INCREMENT BY precisa ser igual ao allocationSize de @SequenceGenerator.
+
+DO $$
+DECLARE
+    target TEXT;
+    sequence_name TEXT;
+    legacy_sequence TEXT;
+    next_id BIGINT;
+BEGIN
+    FOREACH target IN ARRAY ARRAY['clients', 'vehicles', 'service_orders', 'service_items',
+                                  'parts', 'inventory_items', 'inventory_movements']
+    LOOP
+        sequence_name := target || '_seq';
+        legacy_sequence := pg_get_serial_sequence(target, 'id');
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM %I', target) INTO next_id;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 START WITH %s', sequence_name, next_id);
+
+        -- Coluna IDENTITY perde a sequência interna; coluna SERIAL troca o DEFAULT e a sequência antiga é removida
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', target);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', target, sequence_name);
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', sequence_name, target);
+        IF legacy_sequence IS NOT NULL THEN
+            EXECUTE format('DROP SEQUENCE IF EXISTS %s', legacy_sequence);
+        END IF;
+    END LOOP;
+END $$;
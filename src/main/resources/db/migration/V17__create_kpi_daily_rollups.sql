@@ -0,0 +1,49 @@
+-- V17__create_kpi_daily_rollups.sql
+-- Agregados diários de KPIs por organização e tipo de serviço. Dashboard, rentabilidade e benchmark leem estas
+-- linhas (dias x organizações) em vez de varrer service_orders a cada chamada.
+-- Cada OS conta no dia em que foi aberta (created_at); cada avaliação, no dia em que foi registrada.
+
+CREATE TABLE IF NOT EXISTS kpi_daily_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id BIGINT NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    rollup_date DATE NOT NULL,
+    service_type VARCHAR(40) NOT NULL,
+    orders_opened BIGINT NOT NULL DEFAULT 0,
+    orders_finished BIGINT NOT NULL DEFAULT 0,
+    orders_cancelled BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14,2) NOT NULL DEFAULT 0,
+    labor_cost NUMERIC(14,2) NOT NULL DEFAULT 0,
+    parts_cost NUMERIC(14,2) NOT NULL DEFAULT 0,
+    completion_seconds BIGINT NOT NULL DEFAULT 0,
+    completed_with_time BIGINT NOT NULL DEFAULT 0,
+    nps_responses BIGINT NOT NULL DEFAULT 0,
+    nps_promoters BIGINT NOT NULL DEFAULT 0,
+    nps_detractors BIGINT NOT NULL DEFAULT 0,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_kpi_daily_rollups_org_date_type UNIQUE (organization_id, rollup_date, service_type)
+);
+
+-- Benchmark: todas as organizações de um período
+CREATE INDEX IF NOT EXISTS idx_kpi_daily_rollups_date ON kpi_daily_rollups (rollup_date);
+
+-- Dias cujo agregado está desatualizado; o agendador recalcula só estes
+CREATE TABLE IF NOT EXISTS kpi_rollup_dirty_days (
+    organization_id BIGINT NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    rollup_date DATE NOT NULL,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (organization_id, rollup_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_kpi_rollup_dirty_days_marked ON kpi_rollup_dirty_days (marked_at);
+
+-- Recálculo de um dia: intervalo de created_at dentro da organização
+CREATE INDEX IF NOT EXISTS idx_service_orders_org_created ON service_orders (organization_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_client_feedbacks_org_created ON client_feedbacks (organization_id, created_at);
+
+-- Carga inicial: todo dia com histórico entra como pendente e é preenchido pelo agendador
+INSERT INTO kpi_rollup_dirty_days (organization_id, rollup_date)
+SELECT organization_id, CAST(created_at AS DATE) FROM service_orders WHERE created_at IS NOT NULL
+UNION
+SELECT organization_id, CAST(created_at AS DATE) FROM client_feedbacks WHERE created_at IS NOT NULL;
@@ -0,0 +1,24 @@
+-- V18__create_report_jobs.sql
+-- Relatórios gerenciais como jobs: execução em pool limitado e resultado (JSON) guardado até expires_at.
+-- Pedidos iguais (organização, tipo, período) dentro do prazo reaproveitam o job existente.
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id BIGINT NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    report_type VARCHAR(40) NOT NULL,
+    period_days INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    result_json TEXT,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Reaproveitamento: job vigente da mesma organização, tipo e período
+CREATE INDEX IF NOT EXISTS idx_report_jobs_reuse
+    ON report_jobs(organization_id, report_type, period_days, expires_at);
+
+-- Limpeza dos expirados
+CREATE INDEX IF NOT EXISTS idx_report_jobs_expires_at ON report_jobs(expires_at);
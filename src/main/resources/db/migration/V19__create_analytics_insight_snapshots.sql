@@ -0,0 +1,15 @@
+-- V19__create_analytics_insight_snapshots.sql
+-- Insights de /analytics/insights pré-calculados por organização (rotina noturna ou refresh explícito).
+-- computed_at é o início do cálculo: OSs, movimentações e itens alterados a partir dele marcam a organização
+-- para a próxima execução.
+
+CREATE TABLE IF NOT EXISTS analytics_insight_snapshots (
+    organization_id BIGINT PRIMARY KEY REFERENCES organizations(id) ON DELETE CASCADE,
+    insights_json TEXT NOT NULL,
+    computed_at TIMESTAMP NOT NULL
+);
+
+-- Detecção de alterações desde o último cálculo de cada organização
+CREATE INDEX IF NOT EXISTS idx_service_orders_org_updated_at ON service_orders(organization_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_movements_org_updated_at ON inventory_movements(organization_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_org_updated_at ON inventory_items(organization_id, updated_at);
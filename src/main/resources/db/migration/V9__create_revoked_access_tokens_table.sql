@@ -0,0 +1,14 @@
+-- V9__create_revoked_access_tokens_table.sql
+-- Denylist de access tokens revogados (por jti), recarregada em memória na inicialização
+
+CREATE TABLE IF NOT EXISTS revoked_access_tokens (
+    jti VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Índice para limpeza de entradas expiradas
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires_at ON revoked_access_tokens(expires_at);
+
+-- Índice parcial usado na reconstrução do filtro de refresh tokens ativos
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_active_expires_at ON refresh_tokens(expires_at) WHERE revoked = FALSE;
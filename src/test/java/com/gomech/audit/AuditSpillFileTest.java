@@ -0,0 +1,44 @@
+package com.gomech.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gomech.dto.Audit.AuditEventRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpillFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spilledEventsSurviveReplayUntilCompleted() {
+        AuditSpillFile spillFile = new AuditSpillFile(directory.resolve("spill.ndjson"),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        AuditEventRecorded event = new AuditEventRecorded(
+                new AuditEventRequest("CLIENT_CREATE", "CREATE", "user@gomech.com", "CLIENT", "ROLE_ADMIN",
+                        LocalDateTime.of(2025, 1, 10, 8, 30), "{}", 5L),
+                3L,
+                Instant.parse("2025-01-10T11:30:00Z"));
+
+        spillFile.append(List.of(event, event));
+
+        assertThat(spillFile.hasPending()).isTrue();
+        assertThat(spillFile.beginReplay()).containsExactly(event, event);
+        // Uma nova gravação durante o replay não se mistura ao arquivo em processamento
+        spillFile.append(List.of(event));
+        assertThat(spillFile.beginReplay()).hasSize(2);
+
+        spillFile.completeReplay();
+        assertThat(spillFile.beginReplay()).containsExactly(event);
+        spillFile.completeReplay();
+        assertThat(spillFile.hasPending()).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+package com.gomech.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.gomech.configuration.TokenService;
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import com.gomech.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a validação de access tokens construindo algoritmo/verificador a cada chamada
+ * (implementação anterior) com o {@link TokenService} atual, com e sem cache de tokens.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark test-compile exec:java
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+
+    private TokenService uncached;
+    private TokenService cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        uncached = new TokenService(SECRET, "primary", "", 15, 0);
+        cached = new TokenService(SECRET, "primary", "", 15, 10_000);
+
+        Organization organization = new Organization();
+        organization.setId(1L);
+        User user = new User("Bench", "bench@gomech.com", "hash", Role.ADMIN, organization);
+        token = cached.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String perCallConstruction() {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(SECRET);
+            return JWT.require(algorithm)
+                    .withIssuer("auth-api")
+                    .build()
+                    .verify(token)
+                    .getSubject();
+        } catch (JWTVerificationException exception) {
+            return "";
+        }
+    }
+
+    @Benchmark
+    public String sharedVerifier() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public String sharedVerifierWithCache() {
+        return cached.validateToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
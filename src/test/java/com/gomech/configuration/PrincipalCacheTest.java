@@ -0,0 +1,86 @@
+package com.gomech.configuration;
+
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import com.gomech.model.User;
+import com.gomech.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userRepository, meterRegistry, 300, 100);
+
+        Organization organization = new Organization();
+        organization.setId(7L);
+        organization.setName("Oficina");
+        user = new User("Admin", "admin@gomech.com", "hash", Role.ADMIN, organization);
+        user.setId(1L);
+
+        when(userRepository.findWithOrganizationByEmail("admin@gomech.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void returnsDetachedSnapshotAndHitsCacheOnSecondLookup() {
+        User first = principalCache.findByLogin("admin@gomech.com").orElseThrow();
+        User second = principalCache.findByLogin("admin@gomech.com").orElseThrow();
+
+        assertThat(first).isNotSameAs(user);
+        assertThat(first.getOrganization()).isNotSameAs(user.getOrganization());
+        assertThat(first.getOrganization().getId()).isEqualTo(7L);
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findWithOrganizationByEmail("admin@gomech.com");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void evictionByUserAndOrganizationForcesReload() {
+        principalCache.findByLogin("admin@gomech.com");
+        principalCache.evictUser("admin@gomech.com");
+        principalCache.findByLogin("admin@gomech.com");
+        principalCache.evictOrganization(7L);
+        principalCache.findByLogin("admin@gomech.com");
+
+        verify(userRepository, times(3)).findWithOrganizationByEmail("admin@gomech.com");
+    }
+
+    @Test
+    void evictionInsideTransactionIsRepeatedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            principalCache.evictOrganization(7L);
+            // Requisição concorrente recarrega o estado ainda não confirmado
+            principalCache.findByLogin("admin@gomech.com");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        principalCache.findByLogin("admin@gomech.com");
+
+        verify(userRepository, times(2)).findWithOrganizationByEmail("admin@gomech.com");
+    }
+}
@@ -0,0 +1,88 @@
+package com.gomech.configuration;
+
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import com.gomech.model.User;
+import com.gomech.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityFilterTest {
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private SecurityFilter securityFilter;
+    private String token;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        TokenService tokenService = new TokenService("secret", "primary", "", 15, 100);
+        securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(securityFilter, "tokenService", tokenService);
+        ReflectionTestUtils.setField(securityFilter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(securityFilter, "tokenRevocationService", tokenRevocationService);
+
+        Organization organization = new Organization();
+        organization.setId(3L);
+        user = new User("Tecnico", "tec@gomech.com", "hash", Role.TECHNICIAN, organization);
+        token = tokenService.generateAccessToken(user);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void claimsModeAuthenticatesWithoutLoadingUser() throws Exception {
+        ReflectionTestUtils.setField(securityFilter, "claimsPrincipalEnabled", true);
+
+        securityFilter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isEqualTo(new ClaimsPrincipal("tec@gomech.com", Role.TECHNICIAN, 3L));
+        assertThat(authentication.getName()).isEqualTo("tec@gomech.com");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_TECHNICIAN");
+        verify(principalCache, never()).findByLogin(anyString());
+    }
+
+    @Test
+    void defaultModeLoadsUserPrincipal() throws Exception {
+        when(principalCache.findByLogin("tec@gomech.com")).thenReturn(Optional.of(user));
+
+        securityFilter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(user);
+    }
+
+    private MockHttpServletRequest bearerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clients");
+        request.setServletPath("/clients");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,45 @@
+package com.gomech.configuration;
+
+import com.gomech.model.Organization;
+import com.gomech.model.Role;
+import com.gomech.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+
+    private final User user = buildUser();
+
+    @Test
+    void tokensSignedWithRotatedKeyRemainValidWhileKeyIsListed() {
+        TokenService previous = new TokenService("old-secret", "2024-01", "", 15, 100);
+        String token = previous.generateAccessToken(user);
+
+        TokenService rotated = new TokenService("new-secret", "2024-02", "2024-01:old-secret", 15, 100);
+        TokenService withoutOldKey = new TokenService("new-secret", "2024-02", "", 15, 100);
+
+        assertThat(rotated.validateToken(token)).isEqualTo("admin@gomech.com");
+        assertThat(rotated.verify(token).orElseThrow().getClaim("organizationId").asLong()).isEqualTo(7L);
+        assertThat(withoutOldKey.validateToken(token)).isEmpty();
+        assertThat(rotated.verify(rotated.generateAccessToken(user)).orElseThrow().getKeyId()).isEqualTo("2024-02");
+    }
+
+    @Test
+    void rejectsTamperedTokenEvenAfterCachingOriginal() {
+        TokenService service = new TokenService("secret", "primary", "", 15, 100);
+        String token = service.generateAccessToken(user);
+
+        assertThat(service.validateToken(token)).isEqualTo("admin@gomech.com");
+        assertThat(service.validateToken(token + "x")).isEmpty();
+        assertThat(service.validateToken(token)).isEqualTo("admin@gomech.com");
+    }
+
+    private static User buildUser() {
+        Organization organization = new Organization();
+        organization.setId(7L);
+        User user = new User("Admin", "admin@gomech.com", "hash", Role.ADMIN, organization);
+        user.setId(1L);
+        return user;
+    }
+}
@@ -1,26 +1,38 @@
 package com.gomech.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gomech.audit.AuditAnchorService;
 import com.gomech.dto.Audit.AuditEventRequest;
+import com.gomech.model.AuditEvent;
+import com.gomech.model.Role;
+import com.gomech.model.User;
 import com.gomech.repository.AuditEventRepository;
-import com.gomech.service.BlockchainService;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -36,18 +48,35 @@ class AuditControllerTest {
     @Autowired
     private AuditEventRepository auditEventRepository;
 
-    @MockBean
-    private BlockchainService blockchainService;
+    @Autowired
+    private AuditAnchorService auditAnchorService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void setup() {
         auditEventRepository.deleteAll();
-        when(blockchainService.publishAuditEvent(any(), any(), any(), any())).thenReturn("0x123");
+        // O contexto é compartilhado com testes que limpam a tabela de usuários
+        if (userRepository.findByEmail("admin@example.com").isEmpty()) {
+            userRepository.save(new User("Test Admin", "admin@example.com", passwordEncoder.encode("password"),
+                    Role.ADMIN, organizationRepository.findById(1L).orElseThrow()));
+        }
     }
 
     @Test
-    @WithUserDetails(value = "admin@example.com", userDetailsServiceBeanName = "authService")
-    void auditEventPersistsAndPublishesToBlockchain() throws Exception {
+    @WithUserDetails(value = "admin@example.com", userDetailsServiceBeanName = "authService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void auditEventPersistsAndIsAnchoredInMerkleBatch() throws Exception {
         AuditEventRequest request = new AuditEventRequest(
                 "SERVICE_ORDER_UPDATED",
                 "Cadastro de cliente ID 34",
@@ -71,11 +100,34 @@ class AuditControllerTest {
 
         assertThat(auditEventRepository.count()).isEqualTo(1);
 
-        verify(blockchainService).publishAuditEvent(any(), any(), any(), any());
+        auditAnchorService.sealPendingEvents();
+        auditAnchorService.publishDueAnchors();
+
+        AuditEvent event = auditEventRepository.findAll().get(0);
+        assertThat(event.getBlockchainReference()).startsWith("0x");
+
+        mockMvc.perform(get("/audit/events/{id}/proof", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.payloadHashValid").value(true))
+                .andExpect(jsonPath("$.proofValid").value(true))
+                .andExpect(jsonPath("$.anchorStatus").value("ANCHORED"))
+                .andExpect(jsonPath("$.transactionHash").value(event.getBlockchainReference()));
+
+        // Evento de outra organização: a prova não é exposta
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (907, 'Oficina Alheia', 'oficina-alheia', true)");
+        try {
+            jdbcTemplate.update("UPDATE audit_events SET organization_id = 907 WHERE id = ?", event.getId());
+            mockMvc.perform(get("/audit/events/{id}/proof", event.getId()))
+                    .andExpect(status().isNotFound());
+        } finally {
+            auditEventRepository.deleteAll();
+            jdbcTemplate.update("DELETE FROM organizations WHERE id = 907");
+        }
     }
 
     @Test
-    @WithUserDetails(value = "admin@example.com", userDetailsServiceBeanName = "authService")
+    @WithUserDetails(value = "admin@example.com", userDetailsServiceBeanName = "authService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
     void listEventsReturnsPaginatedAuditTrail() throws Exception {
         AuditEventRequest request = new AuditEventRequest(
                 "CLIENT_CREATED",
@@ -99,4 +151,53 @@ class AuditControllerTest {
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content[0].operation").value("Cadastro de cliente ID 1"));
     }
+
+    @Test
+    @WithUserDetails(value = "admin@example.com", userDetailsServiceBeanName = "authService",
+            setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void cursorPagesWalkAllEventsNewestFirstAndExportStreamsNdjson() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            // Dois eventos com o mesmo occurredAt exercitam o desempate por id
+            AuditEventRequest request = new AuditEventRequest("CLIENT_UPDATED", i % 2 == 0 ? "UPDATE" : "DELETE",
+                    "User@Test.com", "clientes", "ADMIN", base.plusMinutes(Math.min(i, 3)), "{}", (long) i);
+            mockMvc.perform(post("/audit/event")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+
+        List<Long> entityIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            var builder = get("/audit/events/cursor").param("size", "2").param("userEmail", "user@test.com");
+            if (cursor != null) {
+                builder.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(builder)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(event -> entityIds.add(event.get("entityId").asLong()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(entityIds).containsExactly(4L, 3L, 2L, 1L, 0L);
+
+        mockMvc.perform(get("/audit/events/cursor").param("actionType", "delete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/audit/events/cursor").param("cursor", "invalido"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult export = mockMvc.perform(get("/audit/events/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines()).hasSize(5)
+                .allSatisfy(line -> assertThat(objectMapper.readTree(line).get("eventHash").asText()).isNotEmpty());
+    }
 }
@@ -3,6 +3,7 @@ package com.gomech.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gomech.dto.Authentication.AuthenticationDTO;
+import com.gomech.dto.Authentication.LogoutRequest;
 import com.gomech.dto.Authentication.RefreshTokenRequest;
 import com.gomech.model.Organization;
 import com.gomech.model.Role;
@@ -17,11 +18,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -61,9 +68,7 @@ class AuthControllerTest {
 
         AuthenticationDTO request = new AuthenticationDTO(user.getEmail(), "password", null);
 
-        String response = mockMvc.perform(post("/auth/login")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
+        String response = login(request)
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.mfaRequired").value(false))
                 .andExpect(jsonPath("$.accessToken").isNotEmpty())
@@ -83,18 +88,14 @@ class AuthControllerTest {
 
         AuthenticationDTO request = new AuthenticationDTO(user.getEmail(), "password", null);
 
-        mockMvc.perform(post("/auth/login")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
+        login(request)
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.mfaRequired").value(true));
 
         String code = mfaService.generateCode(secret);
         AuthenticationDTO requestWithCode = new AuthenticationDTO(user.getEmail(), "password", code);
 
-        mockMvc.perform(post("/auth/login")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(requestWithCode)))
+        login(requestWithCode)
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.mfaRequired").value(false));
     }
@@ -106,9 +107,7 @@ class AuthControllerTest {
 
         AuthenticationDTO request = new AuthenticationDTO(user.getEmail(), "password", null);
 
-        String loginResponse = mockMvc.perform(post("/auth/login")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
+        String loginResponse = login(request)
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
@@ -124,4 +123,63 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.accessToken").isNotEmpty())
                 .andExpect(jsonPath("$.refreshToken").isNotEmpty());
     }
+
+    @Test
+    void logoutRevokesAccessAndRefreshTokensImmediately() throws Exception {
+        User user = new User("Admin", "logout@gomech.com", passwordEncoder.encode("password"), Role.ADMIN, organization);
+        userRepository.save(user);
+
+        String loginResponse = login(new AuthenticationDTO(user.getEmail(), "password", null))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode node = objectMapper.readTree(loginResponse);
+        String accessToken = node.get("accessToken").asText();
+        String refreshToken = node.get("refreshToken").asText();
+
+        mockMvc.perform(get("/clients").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LogoutRequest(refreshToken))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/clients").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("forged-token"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginRehashesPasswordStoredWithLowerCost() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        User user = new User("Legacy", "legacy@gomech.com", weakHash, Role.USER, organization);
+        userRepository.save(user);
+
+        login(new AuthenticationDTO(user.getEmail(), "password", null))
+                .andExpect(status().isOk());
+
+        String storedHash = userRepository.findByEmail(user.getEmail()).map(User::getPassword).orElseThrow();
+        assertThat(storedHash).isNotEqualTo(weakHash).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("password", storedHash)).isTrue();
+    }
+
+    private ResultActions login(AuthenticationDTO request) throws Exception {
+        MvcResult pending = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending));
+    }
 }
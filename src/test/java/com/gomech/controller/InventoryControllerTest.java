@@ -11,12 +11,18 @@ import com.gomech.dto.Inventory.InventoryMovementResponseDTO;
 import com.gomech.dto.Inventory.InventoryRecommendationDTO;
 import com.gomech.dto.Inventory.PartAvailabilityDTO;
 import com.gomech.dto.Inventory.PartConsumptionStats;
+import com.gomech.dto.Inventory.StockBatchLineDTO;
+import com.gomech.dto.Inventory.StockBatchLineResultDTO;
+import com.gomech.dto.Inventory.StockBatchOperation;
+import com.gomech.dto.Inventory.StockBatchRequestDTO;
+import com.gomech.dto.Inventory.StockBatchResponseDTO;
 import com.gomech.dto.Inventory.StockReservationRequestDTO;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
+import com.gomech.service.InventoryBatchService;
 import com.gomech.service.InventoryRecommendationService;
 import com.gomech.service.InventoryReportService;
 import com.gomech.service.InventoryService;
@@ -61,6 +67,9 @@ class InventoryControllerTest {
     @MockBean
     private InventoryReportService inventoryReportService;
 
+    @MockBean
+    private InventoryBatchService inventoryBatchService;
+
     @MockBean
     private SecurityFilter securityFilter;
 
@@ -133,6 +142,28 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.quantity").value(5));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldApplyStockBatchWithPerLineResults() throws Exception {
+        StockBatchRequestDTO request = new StockBatchRequestDTO(List.of(
+                new StockBatchLineDTO(StockBatchOperation.ENTRY, 1L, "MAIN", null, 10, null, null, "NF-1", null),
+                new StockBatchLineDTO(StockBatchOperation.RESERVATION, null, null, 5L, 50, null, null, null, null)));
+        StockBatchResponseDTO response = new StockBatchResponseDTO(2, 1, 1, List.of(
+                new StockBatchLineResultDTO(0, StockBatchOperation.ENTRY, true, 9L, 10, 0, null),
+                new StockBatchLineResultDTO(1, StockBatchOperation.RESERVATION, false, 9L, 10, 0,
+                        "Estoque insuficiente para reserva")));
+
+        when(inventoryBatchService.applyBatch(any(StockBatchRequestDTO.class))).thenReturn(response);
+
+        mockMvc.perform(post("/inventory/movements/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[1].applied").value(false))
+                .andExpect(jsonPath("$.results[1].message").value("Estoque insuficiente para reserva"));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void shouldReserveStock() throws Exception {
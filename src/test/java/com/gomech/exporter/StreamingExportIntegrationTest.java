@@ -0,0 +1,106 @@
+package com.gomech.exporter;
+
+import com.gomech.service.ClientService;
+import com.gomech.service.VehicleService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StreamingExportIntegrationTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (900, 'Outra', 'outra', true)");
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name, document, birth_date) " +
+                "VALUES (9001, 1, 'Cliente Export', '123', TIMESTAMP '1990-05-20 00:00:00')");
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9002, 900, 'Cliente Outra Org')");
+        jdbcTemplate.update("INSERT INTO vehicles (id, organization_id, client_id, license_plate, brand, model, " +
+                "manufacture_date, kilometers) VALUES (9101, 1, 9001, 'EXP1A23', 'Fiat', 'Uno', " +
+                "TIMESTAMP '2015-01-10 00:00:00', 120000)");
+        jdbcTemplate.update("INSERT INTO vehicles (id, organization_id, client_id, license_plate, brand, model, " +
+                "manufacture_date) VALUES (9102, 900, 9002, 'OUT9Z99', 'VW', 'Gol', TIMESTAMP '2010-01-01 00:00:00')");
+        jdbcTemplate.update("INSERT INTO service_orders (id, organization_id, order_number, vehicle_id, client_id, " +
+                "status, labor_cost, total_cost, technician_name, created_at) VALUES (9201, 1, 'OS-EXP-1', 9101, 9001, " +
+                "'COMPLETED', 150.00, 150.00, 'Carlos', TIMESTAMP '2024-03-01 10:00:00')");
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM service_orders WHERE id = 9201");
+        jdbcTemplate.update("DELETE FROM vehicles WHERE id IN (9101, 9102)");
+        jdbcTemplate.update("DELETE FROM clients WHERE id IN (9001, 9002)");
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = 900");
+    }
+
+    @Test
+    void csvExportIsScopedToTheOrganization() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        clientService.exportToFile(1L, ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("name,document,phone,email,address,birthDate,observations");
+        assertThat(csv).contains("Cliente Export,123,,,,1990-05-20,");
+        assertThat(csv).doesNotContain("Cliente Outra Org");
+    }
+
+    @Test
+    void xlsxExportWritesNumericCellsAndSkipsOtherOrganizations() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        vehicleService.exportToFile(1L, ExportFormat.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("vehicles");
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("licensePlate");
+            assertThat(sheet.getLastRowNum()).isEqualTo(1);
+            Row row = sheet.getRow(1);
+            assertThat(row.getCell(0).getNumericCellValue()).isEqualTo(9001);
+            assertThat(row.getCell(1).getStringCellValue()).isEqualTo("EXP1A23");
+            assertThat(row.getCell(4).getStringCellValue()).isEqualTo("2015-01-10");
+            assertThat(row.getCell(7).getNumericCellValue()).isEqualTo(120000);
+        }
+    }
+
+    @Test
+    void serviceHistoryExportKeepsVehicleTitleAndRejectsOtherOrganizations() throws Exception {
+        ExportLayout layout = vehicleService.serviceHistoryExportLayout(1L, 9101L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        vehicleService.exportServiceHistory(1L, 9101L, layout, ExportFormat.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Veículo: Fiat Uno - Placa: EXP1A23");
+            assertThat(sheet.getRow(2).getCell(0).getStringCellValue()).isEqualTo("Número OS");
+            assertThat(sheet.getRow(3).getCell(0).getStringCellValue()).isEqualTo("OS-EXP-1");
+            assertThat(sheet.getRow(3).getCell(8).getStringCellValue()).isEqualTo("Carlos");
+            assertThat(sheet.getRow(3).getCell(10).getNumericCellValue()).isEqualTo(150.0);
+        }
+        assertThatThrownBy(() -> vehicleService.serviceHistoryExportLayout(1L, 9102L))
+                .hasMessage("Veículo não encontrado");
+    }
+}
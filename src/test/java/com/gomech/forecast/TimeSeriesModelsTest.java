@@ -0,0 +1,41 @@
+package com.gomech.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TimeSeriesModelsTest {
+
+    @Test
+    void linearTrendRecoversTheLineIncrementally() {
+        LinearTrend trend = new LinearTrend();
+        for (int x = 0; x < 30; x++) {
+            trend.add(10 + 2.5 * x);
+        }
+
+        assertThat(trend.slope()).isCloseTo(2.5, within(1e-9));
+        assertThat(trend.intercept()).isCloseTo(10, within(1e-9));
+        assertThat(trend.forecast(1)).isCloseTo(10 + 2.5 * 30, within(1e-9));
+    }
+
+    @Test
+    void holtWintersFollowsWeeklySeasonAndTrend() {
+        double[] week = {20, 25, 22, 24, 30, 8, 0};
+        HoltWinters model = new HoltWinters(7, 0.3, 0.05, 0.2);
+        int days = 12 * 7;
+        for (int t = 0; t < days; t++) {
+            model.add(week[t % 7] + 0.5 * t);
+            if (t < 13) {
+                assertThat(model.ready()).isFalse();
+            }
+        }
+
+        assertThat(model.ready()).isTrue();
+        assertThat(model.trend()).isCloseTo(0.5, within(0.05));
+        for (int horizon = 1; horizon <= 14; horizon++) {
+            int t = days - 1 + horizon;
+            assertThat(model.forecast(horizon)).isCloseTo(week[t % 7] + 0.5 * t, within(1.0));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gomech.health;
+
+import com.gomech.dto.Management.TechnicianWorkload;
+import com.gomech.dto.ServiceOrder.UpdateStatusDTO;
+import com.gomech.model.ServiceOrderStatus;
+import com.gomech.service.ServiceOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OperationalHealthServiceIntegrationTest {
+
+    private static final long ORG = 904L;
+
+    @Autowired
+    private OperationalHealthService operationalHealthService;
+
+    @Autowired
+    private ServiceOrderService serviceOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina Saúde', 'oficina-saude', true)", ORG);
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9901, ?, 'Cliente Saúde')", ORG);
+        jdbcTemplate.update("INSERT INTO users (id, organization_id, name, email, password, role, mfa_enabled) " +
+                "VALUES (9902, ?, 'Técnico Saúde', 'saude@example.com', 'x', 'TECHNICIAN', false)", ORG);
+        order(9911, "IN_PROGRESS", 10);
+        operationalHealthService.rebuild(ORG);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM service_orders WHERE organization_id = ?", ORG);
+        jdbcTemplate.update("DELETE FROM users WHERE id = 9902");
+        jdbcTemplate.update("DELETE FROM clients WHERE id = 9901");
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = ?", ORG);
+    }
+
+    @Test
+    void statusChangeUpdatesCountersAfterCommit() {
+        assertThat(operationalHealthService.counters(ORG)).isEqualTo(new HealthCounters(1, 1, 0, 0, 0));
+
+        UpdateStatusDTO completed = new UpdateStatusDTO();
+        completed.setStatus(ServiceOrderStatus.COMPLETED);
+        serviceOrderService.updateStatus(9911L, completed);
+
+        // OS concluída sai dos atrasados e das em andamento; o técnico fica ocioso
+        assertThat(operationalHealthService.counters(ORG)).isEqualTo(new HealthCounters(0, 0, 0, 1, 0));
+    }
+
+    @Test
+    void workloadIndexFollowsStatusChangesPerTechnician() {
+        order(9913, "PENDING", 1);
+        operationalHealthService.rebuild(ORG);
+        assertThat(operationalHealthService.workload(ORG)).singleElement().satisfies(workload -> {
+            assertThat(workload.registered()).isTrue();
+            assertThat(workload.activeOrders()).isEqualTo(2);
+            assertThat(workload.openOrdersByStatus())
+                    .isEqualTo(Map.of(ServiceOrderStatus.IN_PROGRESS, 1, ServiceOrderStatus.PENDING, 1));
+        });
+
+        UpdateStatusDTO waitingParts = new UpdateStatusDTO();
+        waitingParts.setStatus(ServiceOrderStatus.WAITING_PARTS);
+        serviceOrderService.updateStatus(9911L, waitingParts);
+
+        // Aguardando peças segue em aberto no quadro, mas não conta como carga ativa
+        TechnicianWorkload workload = operationalHealthService.workload(ORG).get(0);
+        assertThat(workload.openOrders()).isEqualTo(2);
+        assertThat(workload.activeOrders()).isEqualTo(1);
+        assertThat(workload.openOrdersByStatus())
+                .isEqualTo(Map.of(ServiceOrderStatus.WAITING_PARTS, 1, ServiceOrderStatus.PENDING, 1));
+        assertThat(operationalHealthService.reconcile()).isZero();
+    }
+
+    @Test
+    void reconcileReloadsCountersThatDriftedFromTheDatabase() {
+        assertThat(operationalHealthService.counters(ORG).inProgressOrders()).isEqualTo(1);
+
+        // Gravação por JDBC não passa pelos listeners da entidade
+        order(9912, "IN_PROGRESS", 1);
+        assertThat(operationalHealthService.counters(ORG).inProgressOrders()).isEqualTo(1);
+
+        assertThat(operationalHealthService.reconcile()).isGreaterThanOrEqualTo(1);
+        assertThat(operationalHealthService.counters(ORG)).isEqualTo(new HealthCounters(1, 2, 0, 0, 0));
+        assertThat(operationalHealthService.reconcile()).isZero();
+    }
+
+    private void order(long id, String status, int daysAgo) {
+        jdbcTemplate.update("INSERT INTO service_orders (id, organization_id, order_number, client_id, status, " +
+                        "technician_name, created_at) VALUES (?, ?, ?, 9901, ?, 'Técnico Saúde', ?)",
+                id, ORG, "OS-SAUDE-" + id, status, Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo)));
+    }
+}
@@ -0,0 +1,201 @@
+package com.gomech.importer;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.domain.Part;
+import com.gomech.dto.Import.ImportReportDTO;
+import com.gomech.dto.Import.ImportRowErrorDTO;
+import com.gomech.model.ImportJob;
+import com.gomech.model.ImportJobStatus;
+import com.gomech.model.Organization;
+import com.gomech.repository.ImportJobRepository;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.PartRepository;
+import com.gomech.service.PartService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StreamingImportServiceIntegrationTest {
+
+    @Autowired
+    private PartService partService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StreamingImportService smallChunks;
+
+    @BeforeEach
+    void setup() {
+        Organization organization = organizationRepository.findById(1L).orElseThrow();
+        OrganizationContext.setOrganization(organization);
+        smallChunks = new StreamingImportService(importJobRepository, jdbcTemplate, transactionManager, 2, 1000, 300);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM parts WHERE sku LIKE 'IMP-%' OR name LIKE 'Importada%'");
+        jdbcTemplate.update("DELETE FROM import_job_errors");
+        jdbcTemplate.update("DELETE FROM import_jobs");
+        OrganizationContext.clear();
+    }
+
+    @Test
+    void csvImportReportsInvalidRowsAndKeepsTheRest() {
+        String csv = """
+                name,sku,manufacturer,description,unitCost,unitPrice
+                Importada filtro,IMP-1,Bosch,Filtro,10.50,20
+                ,IMP-2,Bosch,Sem nome,1,2
+                Importada vela,IMP-3,NGK,Vela,abc,5
+
+                Importada correia,,Gates,Correia,30,55
+                """;
+
+        ImportReportDTO report = partService.saveFromFile(csvFile("pecas.csv", csv));
+
+        assertThat(report.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(report.rowsProcessed()).isEqualTo(4);
+        assertThat(report.rowsImported()).isEqualTo(2);
+        assertThat(report.rowsFailed()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ImportRowErrorDTO::row).containsExactly(3L, 4L);
+        assertThat(report.errors().get(0).message()).contains("name");
+        assertThat(report.errors().get(1).message()).startsWith("Valor numérico inválido");
+
+        Part filter = partRepository.findBySku("IMP-1").orElseThrow();
+        assertThat(filter.getUnitCost()).isEqualByComparingTo(new BigDecimal("10.50"));
+        assertThat(partRepository.findAll()).anySatisfy(part -> {
+            assertThat(part.getName()).isEqualTo("Importada correia");
+            assertThat(part.getSku()).startsWith("IC");
+        });
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() {
+        String csv = """
+                name
+                Importada A
+                Importada B
+                Importada C
+                Importada D
+                Importada E
+                """;
+        ImportTarget<Part> target = ImportTarget.of("PART", this::simplePart, parts -> {
+            partRepository.saveAll(parts);
+            if (parts.stream().anyMatch(part -> part.getName().equals("Importada C"))) {
+                throw new IllegalStateException("Falha ao gravar C");
+            }
+        });
+
+        ImportReportDTO report = smallChunks.importFile(csvFile("falha.csv", csv), target);
+
+        assertThat(report.rowsImported()).isEqualTo(4);
+        assertThat(report.errors()).containsExactly(new ImportRowErrorDTO(4, "Falha ao gravar C"));
+        assertThat(partRepository.findAll()).extracting(Part::getName)
+                .contains("Importada A", "Importada B", "Importada D", "Importada E")
+                .doesNotContain("Importada C");
+    }
+
+    @Test
+    void resendingAnInterruptedFileResumesAfterLastCommittedRow() throws Exception {
+        String csv = """
+                name
+                Importada 1
+                Importada 2
+                Importada 3
+                Importada 4
+                """;
+        ImportJob interrupted = new ImportJob(1L, "PART", "retomada.csv", sha256(csv));
+        interrupted.setStatus(ImportJobStatus.FAILED);
+        interrupted.setRowsProcessed(2);
+        interrupted.setRowsImported(2);
+        interrupted.setLastCommittedRow(3);
+        interrupted = importJobRepository.save(interrupted);
+
+        ImportReportDTO report = smallChunks.importFile(csvFile("retomada.csv", csv),
+                ImportTarget.of("PART", this::simplePart, partRepository::saveAll));
+
+        assertThat(report.jobId()).isEqualTo(interrupted.getId());
+        assertThat(report.resumedFromRow()).isEqualTo(3);
+        assertThat(report.rowsProcessed()).isEqualTo(4);
+        assertThat(report.rowsImported()).isEqualTo(4);
+        assertThat(partRepository.findAll()).extracting(Part::getName)
+                .contains("Importada 3", "Importada 4")
+                .doesNotContain("Importada 1", "Importada 2");
+        assertThat(importJobRepository.findById(interrupted.getId()).orElseThrow().getStatus())
+                .isEqualTo(ImportJobStatus.COMPLETED);
+    }
+
+    @Test
+    void xlsxIsReadWithTemplateLabelsAsHeader() throws Exception {
+        byte[] workbook;
+        try (XSSFWorkbook xlsx = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = xlsx.createSheet("pecas");
+            Row header = sheet.createRow(0);
+            String[] labels = {"Nome*", "SKU (auto)", "Fabricante", "Descrição", "Custo Unitário", "Preço de Venda"};
+            for (int i = 0; i < labels.length; i++) {
+                header.createCell(i).setCellValue(labels[i]);
+            }
+            Row row = sheet.createRow(2);
+            row.createCell(0).setCellValue("Importada pastilha");
+            row.createCell(1).setCellValue("IMP-XLSX");
+            row.createCell(5).setCellValue(150);
+            xlsx.write(out);
+            workbook = out.toByteArray();
+        }
+
+        ImportReportDTO report = partService.saveFromFile(new MockMultipartFile("file", "pecas.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", workbook));
+
+        assertThat(report.rowsImported()).isEqualTo(1);
+        assertThat(report.errors()).isEmpty();
+        Part part = partRepository.findBySku("IMP-XLSX").orElseThrow();
+        assertThat(part.getName()).isEqualTo("Importada pastilha");
+        assertThat(part.getUnitPrice()).isEqualByComparingTo("150");
+    }
+
+    private Part simplePart(ImportRow row) {
+        Part part = new Part();
+        part.setName(row.get("name"));
+        part.setSku("IMP-" + row.number());
+        return part;
+    }
+
+    private static MockMultipartFile csvFile(String name, String content) {
+        return new MockMultipartFile("file", name, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.gomech.kpi;
+
+import com.gomech.dto.ServiceOrder.UpdateStatusDTO;
+import com.gomech.model.ClientFeedback;
+import com.gomech.model.ServiceOrderStatus;
+import com.gomech.repository.ClientFeedbackRepository;
+import com.gomech.repository.ClientRepository;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.service.ServiceOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class KpiRollupServiceIntegrationTest {
+
+    private static final long ORG = 903L;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 10);
+
+    @Autowired
+    private KpiRollupService kpiRollupService;
+
+    @Autowired
+    private KpiDirtyDays kpiDirtyDays;
+
+    @Autowired
+    private ServiceOrderService serviceOrderService;
+
+    @Autowired
+    private ClientFeedbackRepository clientFeedbackRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina KPI', 'oficina-kpi', true)", ORG);
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9801, ?, 'Cliente KPI')", ORG);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM client_feedbacks WHERE organization_id = ?", ORG);
+        jdbcTemplate.update("DELETE FROM service_orders WHERE organization_id = ?", ORG);
+        jdbcTemplate.update("DELETE FROM clients WHERE id = 9801");
+        // Rollups e marcas saem em cascata com a organização
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = ?", ORG);
+    }
+
+    @Test
+    void dirtyDayIsRecomputedFromOrdersAndFeedbackOfThatDayOnly() {
+        order(9811, "COMPLETED", 100, 60, 40, "2024-05-10 08:00:00", "2024-05-10 10:00:00");
+        order(9812, "DELIVERED", 50, 50, 0, "2024-05-10 09:00:00", null);
+        order(9813, "CANCELLED", 999, 0, 0, "2024-05-10 11:00:00", null);
+        order(9814, "PENDING", 0, 0, 0, "2024-05-10 23:59:00", null);
+        order(9815, "COMPLETED", 700, 0, 0, "2024-05-11 00:00:00", null);
+        jdbcTemplate.update("INSERT INTO client_feedbacks (organization_id, client_id, rating, nps_score, created_at) " +
+                "VALUES (?, 9801, 5, 10, TIMESTAMP '2024-05-10 12:00:00')", ORG);
+        jdbcTemplate.update("INSERT INTO client_feedbacks (organization_id, client_id, rating, nps_score, created_at) " +
+                "VALUES (?, 9801, 3, 5, TIMESTAMP '2024-05-10 13:00:00')", ORG);
+        kpiDirtyDays.mark(ORG, DAY);
+
+        assertThat(kpiRollupService.refreshDirtyDays()).isGreaterThanOrEqualTo(1);
+
+        Map<String, Object> rollup = rollup(DAY);
+        assertThat(rollup.get("orders_opened")).isEqualTo(4L);
+        assertThat(rollup.get("orders_finished")).isEqualTo(2L);
+        assertThat(rollup.get("orders_cancelled")).isEqualTo(1L);
+        assertThat((BigDecimal) rollup.get("revenue")).isEqualByComparingTo("150");
+        assertThat((BigDecimal) rollup.get("labor_cost")).isEqualByComparingTo("110");
+        assertThat((BigDecimal) rollup.get("parts_cost")).isEqualByComparingTo("40");
+        assertThat(rollup.get("completion_seconds")).isEqualTo(7200L);
+        assertThat(rollup.get("completed_with_time")).isEqualTo(1L);
+        assertThat(rollup.get("nps_responses")).isEqualTo(2L);
+        assertThat(rollup.get("nps_promoters")).isEqualTo(1L);
+        assertThat(rollup.get("nps_detractors")).isEqualTo(1L);
+        assertThat(rollup.get("rating_sum")).isEqualTo(8L);
+        assertThat(pendingMarks()).isZero();
+    }
+
+    @Test
+    void statusChangeRefreshesTheDayRightAfterCommit() {
+        order(9821, "IN_PROGRESS", 0, 0, 0, "2024-05-10 08:00:00", null);
+        jdbcTemplate.update("UPDATE service_orders SET labor_cost = 80, total_cost = 80 WHERE id = 9821");
+        kpiRollupService.refreshDay(ORG, DAY);
+        assertThat(rollup(DAY).get("orders_finished")).isEqualTo(0L);
+
+        UpdateStatusDTO completed = new UpdateStatusDTO();
+        completed.setStatus(ServiceOrderStatus.COMPLETED);
+        serviceOrderService.updateStatus(9821L, completed);
+
+        Map<String, Object> rollup = rollup(DAY);
+        assertThat(rollup.get("orders_finished")).isEqualTo(1L);
+        assertThat((BigDecimal) rollup.get("revenue")).isEqualByComparingTo("80");
+        // A marca do @PostUpdate é limpa pelo recálculo imediato da mesma transação
+        assertThat(pendingMarks()).isZero();
+    }
+
+    @Test
+    void feedbackSavedThroughJpaOnlyMarksTheDay() {
+        ClientFeedback feedback = new ClientFeedback();
+        feedback.setOrganization(organizationRepository.findById(ORG).orElseThrow());
+        feedback.setClient(clientRepository.findById(9801L).orElseThrow());
+        feedback.setNpsScore(9);
+        clientFeedbackRepository.save(feedback);
+
+        assertThat(pendingMarks()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM kpi_daily_rollups WHERE organization_id = ?",
+                Long.class, ORG)).isZero();
+
+        kpiRollupService.refreshDirtyDays();
+
+        assertThat(rollup(LocalDate.now()).get("nps_promoters")).isEqualTo(1L);
+        assertThat(pendingMarks()).isZero();
+    }
+
+    private Map<String, Object> rollup(LocalDate day) {
+        return jdbcTemplate.queryForMap("SELECT * FROM kpi_daily_rollups WHERE organization_id = ? AND rollup_date = ?",
+                ORG, Date.valueOf(day));
+    }
+
+    private long pendingMarks() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM kpi_rollup_dirty_days WHERE organization_id = ?",
+                Long.class, ORG);
+        return count != null ? count : 0;
+    }
+
+    private void order(long id, String status, double total, double labor, double parts, String createdAt,
+                       String completedAt) {
+        jdbcTemplate.update("INSERT INTO service_orders (id, organization_id, order_number, client_id, status, " +
+                        "total_cost, labor_cost, parts_cost, created_at, actual_completion) " +
+                        "VALUES (?, ?, ?, 9801, ?, ?, ?, ?, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))",
+                id, ORG, "OS-KPI-" + id, status, total, labor, parts, createdAt, completedAt);
+    }
+}
@@ -0,0 +1,98 @@
+package com.gomech.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganizationRateLimiterTest {
+
+    @Test
+    void bucketAdmitsExactlyCapacityUnderContentionAndRefillsOverTime() throws Exception {
+        long start = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(100, 60, start);
+        AtomicInteger admitted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.tryConsume(start).allowed()) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(admitted.get()).isEqualTo(100);
+        TokenBucket.Probe rejected = bucket.tryConsume(start);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        TokenBucket.Probe afterRefill = bucket.tryConsume(start + TimeUnit.SECONDS.toNanos(1));
+        assertThat(afterRefill.allowed()).isTrue();
+        assertThat(afterRefill.remaining()).isZero();
+    }
+
+    @Test
+    void limitsAreIsolatedPerOrganizationAndGroupAndRejectionsAreCounted() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getPlans().put("TRIAL", Map.of(RouteGroup.AI, new RateLimitProperties.Limit(2, 1)));
+        properties.setOrganizationPlans(Map.of(1L, "TRIAL"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrganizationRateLimiter limiter = new OrganizationRateLimiter(properties, meterRegistry);
+
+        assertThat(limiter.tryAcquire(1L, RouteGroup.AI).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(1L, RouteGroup.AI).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(1L, RouteGroup.AI).allowed()).isFalse();
+
+        assertThat(limiter.tryAcquire(2L, RouteGroup.AI).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(1L, RouteGroup.CRUD).limit()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("rate_limit.rejections")
+                .tag("organization", "1")
+                .tag("plan", "TRIAL")
+                .tag("group", "AI")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void incompleteGroupLimitFailsAtStartup() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(RateLimitConfiguration.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+        runner.withPropertyValues("rate-limit.plans.TRIAL.AI.capacity=5")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("rate-limit.plans.TRIAL.AI.capacity=5", "rate-limit.plans.TRIAL.AI.refill-per-minute=10")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void resolvesRouteGroups() {
+        assertThat(RouteGroup.resolve("POST", "/ai/chat")).isEqualTo(RouteGroup.AI);
+        assertThat(RouteGroup.resolve("POST", "/clients/upload")).isEqualTo(RouteGroup.IMPORT);
+        assertThat(RouteGroup.resolve("GET", "/management/reports/overview")).isEqualTo(RouteGroup.REPORT);
+        assertThat(RouteGroup.resolve("GET", "/vehicles/export")).isEqualTo(RouteGroup.REPORT);
+        assertThat(RouteGroup.resolve("GET", "/clients")).isEqualTo(RouteGroup.CRUD);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gomech.report;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Report.ReportJobDTO;
+import com.gomech.model.ReportJobStatus;
+import com.gomech.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReportJobServiceIntegrationTest {
+
+    private static final long ORG = 905L;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina Relatórios', 'oficina-relatorios', true)", ORG);
+        OrganizationContext.setOrganization(organizationRepository.findById(ORG).orElseThrow());
+    }
+
+    @AfterEach
+    void cleanup() {
+        OrganizationContext.clear();
+        // Jobs saem em cascata com a organização
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = ?", ORG);
+    }
+
+    @Test
+    void identicalRequestsShareOneJobAndItsResult() throws Exception {
+        ReportJobDTO submitted = reportJobService.submit("Profitability", 30);
+        assertThat(submitted.reused()).isFalse();
+
+        ReportJobDTO finished = awaitFinished(submitted.jobId());
+        assertThat(finished.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(finished.expiresAt()).isAfter(finished.finishedAt());
+
+        ReportJobDTO again = reportJobService.submit("profitability", 30);
+        assertThat(again.jobId()).isEqualTo(submitted.jobId());
+        assertThat(again.reused()).isTrue();
+        ReportJobDTO otherPeriod = reportJobService.submit("profitability", 7);
+        assertThat(otherPeriod.jobId()).isNotEqualTo(submitted.jobId());
+        assertThat(awaitFinished(otherPeriod.jobId()).status()).isEqualTo(ReportJobStatus.COMPLETED);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        reportJobService.writeCsv(reportJobService.getCompletedJob(submitted.jobId()), csv);
+        assertThat(csv.toString(StandardCharsets.UTF_8))
+                .startsWith("field,value")
+                .contains("report_type,profitability")
+                .contains("data.period_days,30");
+    }
+
+    @Test
+    void rejectsUnknownReportTypes() {
+        assertThatThrownBy(() -> reportJobService.submit("payroll", 30))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reportJobService.submit("executive", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ReportJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        while ((job.status() == ReportJobStatus.QUEUED || job.status() == ReportJobStatus.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = reportJobService.getJob(jobId);
+        }
+        return job;
+    }
+}
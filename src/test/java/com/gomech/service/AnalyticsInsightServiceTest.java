@@ -1,31 +1,51 @@
 package com.gomech.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gomech.context.OrganizationContext;
 import com.gomech.dto.Analytics.AnalyticsInsightDTO;
 import com.gomech.dto.Analytics.ClientServiceGap;
+import com.gomech.dto.Analytics.MonthOverMonthTotals;
 import com.gomech.dto.Analytics.PartStockBalance;
 import com.gomech.dto.Analytics.PartUsageRanking;
 import com.gomech.dto.Analytics.SupplierPriceStats;
+import com.gomech.repository.AnalyticsInsightSnapshotRepository;
 import com.gomech.repository.InventoryItemRepository;
 import com.gomech.repository.InventoryMovementRepository;
+import com.gomech.model.Organization;
 import com.gomech.repository.ServiceOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AnalyticsInsightServiceTest {
 
+    private static final Long ORG = 1L;
+
     @Mock
     private InventoryMovementRepository inventoryMovementRepository;
 
@@ -35,30 +55,33 @@ class AnalyticsInsightServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
-    @InjectMocks
+    @Mock
+    private AnalyticsInsightSnapshotRepository snapshotRepository;
+
     private AnalyticsInsightService analyticsInsightService;
 
     @BeforeEach
     void setupMocks() {
-        when(inventoryMovementRepository.findTopConsumedPartsBetween(any(), any(), any()))
+        analyticsInsightService = new AnalyticsInsightService(inventoryMovementRepository, serviceOrderRepository,
+                inventoryItemRepository, snapshotRepository, new ObjectMapper(), new SimpleMeterRegistry(), 60, 100, 168, 2, 10);
+        Organization organization = new Organization();
+        organization.setId(ORG);
+        OrganizationContext.setOrganization(organization);
+
+        when(inventoryMovementRepository.findTopConsumedPartsBetweenByOrganization(eq(ORG), any(), any(), any()))
                 .thenReturn(List.of(new PartUsageRanking(1L, "Filtro de Ar", 42L)));
 
-        when(inventoryMovementRepository.findPartsWithUnusedStock())
+        when(inventoryMovementRepository.findPartsWithUnusedStockByOrganization(ORG))
                 .thenReturn(List.of(new PartStockBalance(2L, "Pastilha de Freio", 15L, 4L)));
 
-        when(serviceOrderRepository.findClientsWithServiceGap(any()))
+        when(serviceOrderRepository.findClientsWithServiceGapByOrganization(eq(ORG), any()))
                 .thenReturn(List.of(new ClientServiceGap(3L, "Cliente Z", "cliente@gomech.com",
                         LocalDateTime.now().minusMonths(19))));
 
-        when(serviceOrderRepository.countCreatedBetween(any(), any()))
-                .thenReturn(40L)
-                .thenReturn(54L);
-
-        when(serviceOrderRepository.sumTotalCostBetween(any(), any()))
-                .thenReturn(BigDecimal.valueOf(10000))
-                .thenReturn(BigDecimal.valueOf(14000));
+        when(serviceOrderRepository.sumMonthOverMonth(eq(ORG), any(), any(), any()))
+                .thenReturn(new MonthOverMonthTotals(40L, 54L, BigDecimal.valueOf(10000), BigDecimal.valueOf(14000)));
 
-        when(inventoryItemRepository.findAverageCostBySupplier())
+        when(inventoryItemRepository.findAverageCostBySupplierByOrganization(ORG))
                 .thenReturn(List.of(
                         new SupplierPriceStats("Fornecedor Q", 85.0),
                         new SupplierPriceStats("Fornecedor K", 112.5)
@@ -74,6 +97,84 @@ class AnalyticsInsightServiceTest {
                 .anyMatch(insight -> insight.description().contains("peça que mais saiu"))
                 .anyMatch(insight -> insight.description().contains("estoque parado"))
                 .anyMatch(insight -> insight.description().contains("18 meses"))
+                .anyMatch(insight -> insight.description().contains("54 ordens de serviço (35.00% de variação)"))
                 .anyMatch(insight -> insight.description().contains("fornecedor"));
     }
+
+    @AfterEach
+    void clearContext() {
+        analyticsInsightService.shutdown();
+        OrganizationContext.clear();
+    }
+
+    @Test
+    void generateInsightsServesCachedResultWithinTtl() {
+        List<AnalyticsInsightDTO> first = analyticsInsightService.generateInsights();
+        List<AnalyticsInsightDTO> second = analyticsInsightService.generateInsights();
+
+        assertThat(second).isEqualTo(first);
+        verify(serviceOrderRepository, times(1)).sumMonthOverMonth(eq(ORG), any(), any(), any());
+        verify(inventoryItemRepository, times(1)).findAverageCostBySupplierByOrganization(ORG);
+    }
+
+    @Test
+    void refreshInsightsUpdatesSnapshotInsertedByConcurrentRun() {
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(snapshotRepository).insertSnapshot(eq(ORG), anyString(), any());
+
+        analyticsInsightService.refreshInsights();
+
+        verify(snapshotRepository, times(2)).updateSnapshot(eq(ORG), anyString(), any());
+    }
+
+    @Test
+    void nightlyRefreshDoesNotStarveRequestsOfOtherOrganizations() {
+        Long nightlyOrg = 2L;
+        CountDownLatch nightlyQuerying = new CountDownLatch(1);
+        CountDownLatch releaseNightly = new CountDownLatch(1);
+        when(snapshotRepository.findOrganizationsToRefresh(any())).thenReturn(List.of(nightlyOrg));
+        when(inventoryMovementRepository.findTopConsumedPartsBetweenByOrganization(eq(nightlyOrg), any(), any(), any()))
+                .thenAnswer(slowQuery(nightlyQuerying, releaseNightly, List.of()));
+        when(inventoryMovementRepository.findPartsWithUnusedStockByOrganization(nightlyOrg))
+                .thenAnswer(slowQuery(nightlyQuerying, releaseNightly, List.of()));
+        when(serviceOrderRepository.findClientsWithServiceGapByOrganization(eq(nightlyOrg), any()))
+                .thenAnswer(slowQuery(nightlyQuerying, releaseNightly, List.of()));
+        when(serviceOrderRepository.sumMonthOverMonth(eq(nightlyOrg), any(), any(), any()))
+                .thenAnswer(slowQuery(nightlyQuerying, releaseNightly,
+                        new MonthOverMonthTotals(0L, 0L, BigDecimal.ZERO, BigDecimal.ZERO)));
+        when(inventoryItemRepository.findAverageCostBySupplierByOrganization(nightlyOrg))
+                .thenAnswer(slowQuery(nightlyQuerying, releaseNightly, List.of()));
+
+        CompletableFuture<Integer> nightly = CompletableFuture.supplyAsync(
+                analyticsInsightService::refreshChangedOrganizations);
+        try {
+            assertThat(nightlyQuerying.await(5, TimeUnit.SECONDS)).isTrue();
+            // Com a rotina presa numa consulta lenta, o pedido da API ainda tem vaga para os seus blocos
+            List<AnalyticsInsightDTO> insights = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                Organization organization = new Organization();
+                organization.setId(ORG);
+                OrganizationContext.setOrganization(organization);
+                try {
+                    return analyticsInsightService.generateInsights();
+                } finally {
+                    OrganizationContext.clear();
+                }
+            });
+            assertThat(insights).hasSizeGreaterThanOrEqualTo(4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            releaseNightly.countDown();
+        }
+        assertThat(nightly.join()).isEqualTo(1);
+    }
+
+    private static Answer<Object> slowQuery(CountDownLatch querying, CountDownLatch release, Object result) {
+        return invocation -> {
+            querying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        };
+    }
 }
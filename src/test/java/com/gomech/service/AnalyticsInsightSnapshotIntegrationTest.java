@@ -0,0 +1,80 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.model.AnalyticsInsightSnapshot;
+import com.gomech.repository.AnalyticsInsightSnapshotRepository;
+import com.gomech.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AnalyticsInsightSnapshotIntegrationTest {
+
+    private static final long ORG = 906L;
+
+    @Autowired
+    private AnalyticsInsightService analyticsInsightService;
+
+    @Autowired
+    private AnalyticsInsightSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina Insights', 'oficina-insights', true)", ORG);
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9921, ?, 'Cliente Insights')", ORG);
+        OrganizationContext.setOrganization(organizationRepository.findById(ORG).orElseThrow());
+    }
+
+    @AfterEach
+    void cleanup() {
+        OrganizationContext.clear();
+        jdbcTemplate.update("DELETE FROM service_orders WHERE organization_id = ?", ORG);
+        jdbcTemplate.update("DELETE FROM clients WHERE id = 9921");
+        // A rotina também grava snapshots das organizações semeadas
+        jdbcTemplate.update("DELETE FROM analytics_insight_snapshots");
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = ?", ORG);
+    }
+
+    @Test
+    void precomputeRefreshesOnlyOrganizationsWithChanges() {
+        analyticsInsightService.refreshChangedOrganizations();
+        LocalDateTime firstRun = snapshot().getComputedAt();
+        assertThat(analyticsInsightService.generateInsights()).isEmpty();
+
+        analyticsInsightService.refreshChangedOrganizations();
+        assertThat(snapshot().getComputedAt()).isEqualTo(firstRun);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO service_orders (id, organization_id, order_number, client_id, status, " +
+                        "total_cost, created_at, updated_at) VALUES (9931, ?, 'OS-INSIGHTS-1', 9921, 'PENDING', 500, ?, ?)",
+                ORG, Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+        analyticsInsightService.refreshChangedOrganizations();
+        LocalDateTime secondRun = snapshot().getComputedAt();
+        assertThat(secondRun).isAfter(firstRun);
+        assertThat(analyticsInsightService.generateInsights())
+                .anyMatch(insight -> insight.description().contains("1 ordens de serviço"));
+
+        analyticsInsightService.refreshInsights();
+        assertThat(snapshot().getComputedAt()).isAfter(secondRun);
+    }
+
+    private AnalyticsInsightSnapshot snapshot() {
+        return snapshotRepository.findById(ORG).orElseThrow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.gomech.service;
+
+import com.gomech.audit.AuditChainVerifier;
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Audit.AuditChainReport;
+import com.gomech.dto.Audit.AuditChainResult;
+import com.gomech.dto.Audit.AuditEventRequest;
+import com.gomech.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuditChainIntegrationTest {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditChainVerifier auditChainVerifier;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        resetChains();
+        OrganizationContext.setOrganization(organizationRepository.findById(1L).orElseThrow());
+    }
+
+    @AfterEach
+    void cleanup() {
+        OrganizationContext.clear();
+        resetChains();
+    }
+
+    @Test
+    void verificationIsIncrementalAndDetectsTampering() {
+        for (int i = 1; i <= 50; i++) {
+            auditService.registerEvent(new AuditEventRequest("CLIENT_UPDATE", "UPDATE", "admin@example.com",
+                    "CLIENT", "ROLE_ADMIN", LocalDateTime.now(), "version=" + i, (long) i));
+        }
+
+        AuditChainResult first = auditChainVerifier.verifyOrganization(1L, false).organizations().get(0);
+        assertThat(first.valid()).isTrue();
+        assertThat(first.eventsChecked()).isEqualTo(50);
+        assertThat(first.toSeq()).isEqualTo(50);
+
+        auditService.registerEvent(new AuditEventRequest("CLIENT_DELETE", "DELETE", "admin@example.com",
+                "CLIENT", "ROLE_ADMIN", LocalDateTime.now(), "{}", 51L));
+        AuditChainResult incremental = auditChainVerifier.verifyOrganization(1L, false).organizations().get(0);
+        assertThat(incremental.valid()).isTrue();
+        assertThat(incremental.fromSeq()).isEqualTo(51);
+        assertThat(incremental.eventsChecked()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE audit_events SET payload = 'adulterado' WHERE organization_id = 1 AND chain_seq = 20");
+
+        assertThat(auditChainVerifier.verifyOrganization(1L, false).valid()).isTrue();
+        AuditChainReport full = auditChainVerifier.verifyOrganization(1L, true);
+        assertThat(full.valid()).isFalse();
+        assertThat(full.organizations().get(0).brokenAtSeq()).isEqualTo(20);
+
+        jdbcTemplate.update("DELETE FROM audit_events WHERE organization_id = 1 AND chain_seq = 51");
+        AuditChainResult truncated = auditChainVerifier.verifyOrganization(1L, false).organizations().get(0);
+        assertThat(truncated.valid()).isFalse();
+        assertThat(truncated.brokenAtSeq()).isEqualTo(20);
+    }
+
+    private void resetChains() {
+        jdbcTemplate.update("DELETE FROM audit_events");
+        jdbcTemplate.update("DELETE FROM audit_chain_heads");
+        jdbcTemplate.update("DELETE FROM audit_chain_checkpoints");
+    }
+}
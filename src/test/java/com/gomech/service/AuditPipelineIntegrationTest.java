@@ -0,0 +1,81 @@
+package com.gomech.service;
+
+import com.gomech.audit.AuditPipeline;
+import com.gomech.context.OrganizationContext;
+import com.gomech.model.Organization;
+import com.gomech.repository.AuditEventRepository;
+import com.gomech.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuditPipelineIntegrationTest {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditPipeline auditPipeline;
+
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        auditEventRepository.deleteAll();
+        Organization organization = organizationRepository.findById(1L).orElseThrow();
+        OrganizationContext.setOrganization(organization);
+    }
+
+    @AfterEach
+    void cleanup() {
+        OrganizationContext.clear();
+        auditEventRepository.deleteAll();
+    }
+
+    @Test
+    void committedActionsAreWrittenInBatchesAndRolledBackActionsAreDropped() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long i = 1; i <= 250; i++) {
+                auditService.logEntityAction("CREATE", "CLIENT", i, "{}");
+            }
+            assertThat(auditPipeline.pending()).isZero();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.logEntityAction("DELETE", "CLIENT", 999L, "{}");
+            status.setRollbackOnly();
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (auditEventRepository.count() < 250 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(200);
+
+        assertThat(auditEventRepository.count()).isEqualTo(250);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_events WHERE organization_id = 1",
+                Long.class)).isEqualTo(250);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_events WHERE entity_id = 999", Long.class)).isZero();
+    }
+}
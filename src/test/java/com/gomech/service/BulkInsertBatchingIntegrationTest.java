@@ -0,0 +1,120 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.dto.Import.ImportReportDTO;
+import com.gomech.model.Organization;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.PartRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede quantos INSERTs são preparados pelas importações em massa. Com IDs por sequência (pooled-lo) o Hibernate
+ * agrupa os inserts em lotes de {@code hibernate.jdbc.batch_size}; com IDENTITY seria um statement por linha.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.gomech.service.BulkInsertBatchingIntegrationTest$InsertCounter")
+class BulkInsertBatchingIntegrationTest {
+
+    private static final int ROWS = 120;
+    private static final int BATCH_SIZE = 20;
+
+    @Autowired
+    private PartService partService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        Organization organization = organizationRepository.findById(1L).orElseThrow();
+        OrganizationContext.setOrganization(organization);
+        InsertCounter.reset();
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM inventory_items WHERE location LIKE 'LOTE-%'");
+        jdbcTemplate.update("DELETE FROM parts WHERE sku LIKE 'LOTE-%'");
+        jdbcTemplate.update("DELETE FROM import_job_errors");
+        jdbcTemplate.update("DELETE FROM import_jobs");
+        OrganizationContext.clear();
+    }
+
+    @Test
+    void partAndInventoryImportsInsertInJdbcBatches() {
+        StringBuilder parts = new StringBuilder("name,sku,unitCost,unitPrice\n");
+        for (int i = 0; i < ROWS; i++) {
+            parts.append("Peça lote ").append(i).append(",LOTE-").append(i).append(",10,20\n");
+        }
+        ImportReportDTO partReport = partService.saveFromFile(csv("pecas.csv", parts));
+
+        assertThat(partReport.rowsImported()).isEqualTo(ROWS);
+        assertThat(InsertCounter.count("parts")).isLessThanOrEqualTo(ROWS / BATCH_SIZE + 1);
+
+        StringBuilder items = new StringBuilder("partId,location,quantity,minimumQuantity\n");
+        for (int i = 0; i < ROWS; i++) {
+            Long partId = partRepository.findBySku("LOTE-" + i).orElseThrow().getId();
+            items.append(partId).append(",LOTE-A").append(i).append(",5,1\n");
+        }
+        ImportReportDTO inventoryReport = inventoryService.saveFromFile(csv("estoque.csv", items));
+
+        assertThat(inventoryReport.rowsImported()).isEqualTo(ROWS);
+        assertThat(InsertCounter.count("inventory_items")).isLessThanOrEqualTo(ROWS / BATCH_SIZE + 1);
+    }
+
+    private static MockMultipartFile csv(String name, StringBuilder content) {
+        return new MockMultipartFile("file", name, "text/csv", content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Conta os INSERTs preparados por tabela; o Hibernate chama o inspector a cada PreparedStatement criado,
+     * então um lote com várias linhas conta uma vez só.
+     */
+    public static class InsertCounter implements StatementInspector {
+
+        private static final Map<String, AtomicInteger> INSERTS = new ConcurrentHashMap<>();
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT);
+            if (normalized.startsWith("insert into ")) {
+                String table = normalized.substring("insert into ".length()).split("[\\s(]", 2)[0];
+                INSERTS.computeIfAbsent(table, key -> new AtomicInteger()).incrementAndGet();
+            }
+            return sql;
+        }
+
+        static int count(String table) {
+            AtomicInteger count = INSERTS.get(table);
+            return count != null ? count.get() : 0;
+        }
+
+        static void reset() {
+            INSERTS.clear();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.domain.InventoryItem;
+import com.gomech.domain.Part;
+import com.gomech.dto.Inventory.StockBatchLineDTO;
+import com.gomech.dto.Inventory.StockBatchLineResultDTO;
+import com.gomech.dto.Inventory.StockBatchOperation;
+import com.gomech.dto.Inventory.StockBatchRequestDTO;
+import com.gomech.dto.Inventory.StockBatchResponseDTO;
+import com.gomech.model.Client;
+import com.gomech.model.Organization;
+import com.gomech.model.ServiceOrder;
+import com.gomech.model.ServiceOrderItem;
+import com.gomech.model.ServiceOrderItemType;
+import com.gomech.notification.NotificationGateway;
+import com.gomech.repository.ClientRepository;
+import com.gomech.repository.InventoryItemRepository;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.PartRepository;
+import com.gomech.repository.ServiceOrderItemRepository;
+import com.gomech.repository.ServiceOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class InventoryBatchServiceIntegrationTest {
+
+    @Autowired
+    private InventoryBatchService inventoryBatchService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ServiceOrderRepository serviceOrderRepository;
+
+    @Autowired
+    private ServiceOrderItemRepository serviceOrderItemRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private NotificationGateway notificationGateway;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUpContext() {
+        organization = organizationRepository.findById(1L).orElseThrow();
+        OrganizationContext.setOrganization(organization);
+    }
+
+    @AfterEach
+    void clearContext() {
+        OrganizationContext.clear();
+    }
+
+    @Test
+    void shouldApplyMixedLinesPerItemAndRejectInvalidOnes() {
+        Part part = new Part();
+        part.setName("Correia dentada");
+        part.setSku("BATCH-001");
+        part.setOrganization(organization);
+        Part savedPart = partRepository.save(part);
+
+        InventoryItem item = new InventoryItem();
+        item.setPart(savedPart);
+        item.setLocation("MAIN");
+        item.setQuantity(5);
+        item.setReservedQuantity(0);
+        item.setMinimumQuantity(1);
+        item.setOrganization(organization);
+        InventoryItem savedItem = inventoryItemRepository.save(item);
+
+        Client client = new Client();
+        client.setName("Maria Frota");
+        client.setOrganization(organization);
+        Client savedClient = clientRepository.save(client);
+
+        ServiceOrder serviceOrder = new ServiceOrder();
+        serviceOrder.setClient(savedClient);
+        serviceOrder.setDescription("Troca de correia");
+        serviceOrder.setOrganization(organization);
+        ServiceOrder savedOrder = serviceOrderRepository.save(serviceOrder);
+
+        ServiceOrderItem first = orderItem(savedOrder, savedItem, 12);
+        ServiceOrderItem second = orderItem(savedOrder, savedItem, 4);
+
+        StockBatchResponseDTO response = inventoryBatchService.applyBatch(new StockBatchRequestDTO(List.of(
+                new StockBatchLineDTO(StockBatchOperation.ENTRY, savedPart.getId(), "MAIN", null, 10,
+                        new BigDecimal("80.00"), null, "NF-123", null),
+                new StockBatchLineDTO(StockBatchOperation.RESERVATION, null, null, first.getId(), 12,
+                        null, null, null, null),
+                new StockBatchLineDTO(StockBatchOperation.RESERVATION, null, null, second.getId(), 4,
+                        null, null, null, null),
+                new StockBatchLineDTO(StockBatchOperation.CONSUMPTION, null, null, first.getId(), 12,
+                        null, null, null, null),
+                new StockBatchLineDTO(StockBatchOperation.ENTRY, -1L, "MAIN", null, 1,
+                        null, null, null, null))));
+
+        assertThat(response.received()).isEqualTo(5);
+        assertThat(response.applied()).isEqualTo(3);
+        assertThat(response.rejected()).isEqualTo(2);
+        assertThat(response.results()).extracting(StockBatchLineResultDTO::applied)
+                .containsExactly(true, true, false, true, false);
+        assertThat(response.results().get(2).message()).isEqualTo("Estoque insuficiente para reserva");
+        assertThat(response.results().get(4).message()).isEqualTo("Peça não encontrada");
+        assertThat(response.results().get(3).quantityAfter()).isEqualTo(3);
+
+        InventoryItem updated = inventoryItemRepository.findById(savedItem.getId()).orElseThrow();
+        assertThat(updated.getQuantity()).isEqualTo(3);
+        assertThat(updated.getReservedQuantity()).isZero();
+        assertThat(updated.getUnitCost()).isEqualByComparingTo("80.00");
+        assertThat(serviceOrderItemRepository.findById(first.getId()).orElseThrow().getStockReserved()).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_movements WHERE inventory_item_id = ?", Integer.class, savedItem.getId()))
+                .isEqualTo(3);
+    }
+
+    private ServiceOrderItem orderItem(ServiceOrder serviceOrder, InventoryItem inventoryItem, int quantity) {
+        ServiceOrderItem item = new ServiceOrderItem();
+        item.setServiceOrder(serviceOrder);
+        item.setDescription("Correia dentada");
+        item.setItemType(ServiceOrderItemType.PART);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal("120.00"));
+        item.setRequiresStock(true);
+        item.setInventoryItem(inventoryItem);
+        return serviceOrderItemRepository.save(item);
+    }
+}
@@ -29,7 +29,9 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
@@ -57,6 +59,9 @@ class InventoryServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private StockLedger stockLedger;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -122,6 +127,11 @@ class InventoryServiceTest {
             movement.setMovementDate(LocalDateTime.now());
             return movement;
         });
+        when(stockLedger.apply(anyLong(), anyInt(), anyInt(), anyString())).thenAnswer(invocation -> {
+            inventoryItem.setQuantity(inventoryItem.getQuantity() + invocation.<Integer>getArgument(1));
+            inventoryItem.setReservedQuantity(inventoryItem.getReservedQuantity() + invocation.<Integer>getArgument(2));
+            return inventoryItem;
+        });
         doNothing().when(inventoryAlertService).onStockLevelChanged(any(InventoryItem.class));
     }
 
@@ -183,7 +193,9 @@ class InventoryServiceTest {
 
         inventoryService.reconcileServiceOrderInventory(order);
 
-        verify(inventoryItemRepository, times(4)).save(any(InventoryItem.class));
+        verify(stockLedger).apply(inventoryItem.getId(), 1, 0, "Quantidade de devolução inválida");
+        verify(stockLedger).apply(inventoryItem.getId(), 0, -2, "Quantidade reservada insuficiente para cancelamento");
+        verify(inventoryItemRepository, times(2)).save(any(InventoryItem.class));
         verify(inventoryMovementRepository, times(2)).save(any(InventoryMovement.class));
 
         ArgumentCaptor<ServiceOrderItem> itemCaptor = ArgumentCaptor.forClass(ServiceOrderItem.class);
@@ -0,0 +1,201 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.health.OperationalHealthService;
+import com.gomech.kpi.KpiDirtyDays;
+import com.gomech.kpi.KpiRollupService;
+import com.gomech.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ManagementReportServiceIntegrationTest {
+
+    private static final long ORG = 901L;
+    private static final long OTHER_ORG = 902L;
+
+    @Autowired
+    private ManagementReportService reportService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private KpiRollupService kpiRollupService;
+
+    @Autowired
+    private KpiDirtyDays kpiDirtyDays;
+
+    @Autowired
+    private OperationalHealthService operationalHealthService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina A', 'oficina-a', true)", ORG);
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug, active) VALUES (?, 'Oficina B', 'oficina-b', true)", OTHER_ORG);
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9301, ?, 'Cliente A')", ORG);
+        jdbcTemplate.update("INSERT INTO clients (id, organization_id, name) VALUES (9302, ?, 'Cliente B')", OTHER_ORG);
+
+        order(9311, ORG, "COMPLETED", 200, 80, 50, null, 2);
+        order(9312, ORG, "DELIVERED", 100, 30, 20, null, 1);
+        order(9313, ORG, "IN_PROGRESS", 0, 0, 0, "Técnico Um", 10);
+        order(9314, ORG, "PENDING", 0, 0, 0, "Técnico Um", 1);
+        order(9315, ORG, "CANCELLED", 999, 0, 0, null, 1);
+        order(9316, OTHER_ORG, "COMPLETED", 500, 100, 100, null, 3);
+
+        user(9401, ORG, "Técnico Um", "TECHNICIAN");
+        user(9402, ORG, "Técnico Dois", "TECHNICIAN");
+        user(9403, OTHER_ORG, "Técnico Três", "TECHNICIAN");
+
+        jdbcTemplate.update("INSERT INTO parts (id, organization_id, name, sku) VALUES (9501, ?, 'Filtro', 'REL-1')", ORG);
+        jdbcTemplate.update("INSERT INTO inventory_items (id, organization_id, part_id, location, quantity, " +
+                "reserved_quantity, minimum_quantity) VALUES (9601, ?, 9501, 'A1', 1, 0, 2)", ORG);
+
+        feedback(9701, ORG, 9301, 4);
+        feedback(9702, ORG, 9301, 5);
+        feedback(9703, OTHER_ORG, 9302, 3);
+        // Os fixtures entram por JDBC, sem eventos de entidade: os dias são marcados à mão e recalculados
+        kpiRollupService.refreshDirtyDays();
+        operationalHealthService.rebuild(ORG);
+
+        OrganizationContext.setOrganization(organizationRepository.findById(ORG).orElseThrow());
+    }
+
+    @AfterEach
+    void cleanup() {
+        OrganizationContext.clear();
+        jdbcTemplate.update("DELETE FROM client_feedbacks WHERE id BETWEEN 9701 AND 9703");
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE id = 9651");
+        jdbcTemplate.update("DELETE FROM inventory_items WHERE id = 9601");
+        jdbcTemplate.update("DELETE FROM parts WHERE id = 9501");
+        jdbcTemplate.update("DELETE FROM users WHERE id BETWEEN 9401 AND 9403");
+        jdbcTemplate.update("DELETE FROM service_orders WHERE id BETWEEN 9311 AND 9316");
+        jdbcTemplate.update("DELETE FROM clients WHERE id IN (9301, 9302)");
+        jdbcTemplate.update("DELETE FROM organizations WHERE id IN (?, ?)", ORG, OTHER_ORG);
+    }
+
+    @Test
+    void profitabilityAndDashboardAggregateFinishedOrdersOfTheCurrentOrganization() {
+        Map<String, Object> profitability = reportService.calculateProfitabilityByService(30, null);
+
+        assertThat(profitability.get("total_services_analyzed")).isEqualTo(2);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> general = (Map<String, Object>) profitability.get("top_profitable");
+        assertThat(general.get("total_revenue")).isEqualTo(300.0);
+        assertThat(general.get("total_costs")).isEqualTo(180.0);
+        assertThat((List<?>) reportService.calculateProfitabilityByService(30, "OTHER")
+                .get("service_profitability")).isEmpty();
+
+        Map<String, Object> dashboard = reportService.getExecutiveDashboard(30);
+        assertThat(dashboard.get("total_orders")).isEqualTo(5L);
+        assertThat(dashboard.get("completed_orders")).isEqualTo(2L);
+        assertThat(dashboard.get("total_revenue")).isEqualTo(300.0);
+    }
+
+    @Test
+    void bottlenecksMatchTechniciansByNameAndCountDelayedOrders() {
+        Map<String, Object> bottlenecks = reportService.identifyOperationalBottlenecks();
+
+        assertThat(issues(bottlenecks, "critical"))
+                .anySatisfy(issue -> {
+                    assertThat(issue.get("type")).isEqualTo("delayed_orders");
+                    assertThat(issue.get("count")).isEqualTo(1L);
+                })
+                .anySatisfy(issue -> {
+                    assertThat(issue.get("type")).isEqualTo("stock_shortage");
+                    assertThat(issue.get("count")).isEqualTo(1L);
+                });
+        // "Técnico Um" tem 2 OSs ativas; apenas "Técnico Dois" está ocioso
+        assertThat(issues(bottlenecks, "opportunities")).singleElement()
+                .satisfies(issue -> assertThat(issue.get("count")).isEqualTo(1));
+    }
+
+    @Test
+    void benchmarkGroupsEveryOrganizationInOnePass() {
+        Map<String, Object> benchmark = reportService.performInternalBenchmark("revenue");
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> ranking = ((Map<String, List<Map<String, Object>>>) benchmark.get("rankings"))
+                .get("by_revenue");
+        Map<String, Object> orgA = ranking.stream().filter(m -> m.get("organization_id").equals(ORG)).findFirst().orElseThrow();
+        Map<String, Object> orgB = ranking.stream().filter(m -> m.get("organization_id").equals(OTHER_ORG)).findFirst().orElseThrow();
+
+        assertThat(orgA.get("monthly_revenue")).isEqualTo(300.0);
+        assertThat(orgA.get("client_satisfaction")).isEqualTo(4.5);
+        assertThat(orgA.get("technician_count")).isEqualTo(2L);
+        assertThat(orgA.get("orders_per_technician")).isEqualTo(1.0);
+        assertThat(orgB.get("monthly_revenue")).isEqualTo(500.0);
+        assertThat((Integer) orgB.get("rank")).isLessThan((Integer) orgA.get("rank"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Double> percentilesA = (Map<String, Double>) orgA.get("percentiles");
+        @SuppressWarnings("unchecked")
+        Map<String, Double> percentilesB = (Map<String, Double>) orgB.get("percentiles");
+        assertThat(percentilesA).containsKeys("revenue", "ticket", "satisfaction", "productivity");
+        assertThat(percentilesB.get("revenue")).isGreaterThan(percentilesA.get("revenue")).isLessThanOrEqualTo(100.0);
+        assertThat(orgB.get("percentile")).isEqualTo(percentilesB.get("revenue"));
+    }
+
+    @Test
+    void trendsForecastFromTheDailySeriesOfTheCurrentOrganization() {
+        Map<String, Object> trends = reportService.analyzeTrends("orders", 7);
+
+        // Série de 10 dias atrás até ontem (o dia de hoje ainda não está completo): menos de duas semanas, reta
+        assertThat(trends.get("model")).isEqualTo("linear");
+        assertThat(trends.get("history_points")).isEqualTo(10L);
+        assertThat(trends.get("last_observed_date")).isEqualTo(LocalDate.now().minusDays(1).toString());
+        assertThat((List<?>) trends.get("forecast")).hasSize(7);
+        assertThat((Double) trends.get("forecast_total")).isGreaterThanOrEqualTo(0.0);
+
+        jdbcTemplate.update("INSERT INTO inventory_movements (id, organization_id, inventory_item_id, part_id, movement_type, " +
+                "quantity, movement_date) VALUES (9651, ?, 9601, 9501, 'OUT', 3, ?)", ORG,
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)));
+        Map<String, Object> consumption = reportService.analyzeTrends("consumption", 7);
+        assertThat(consumption.get("history_points")).isEqualTo(2L);
+        assertThat(consumption.get("avg_per_day")).isEqualTo(1.5);
+
+        assertThatThrownBy(() -> reportService.analyzeTrends("clients", 7))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> issues(Map<String, Object> bottlenecks, String group) {
+        return (List<Map<String, Object>>) bottlenecks.get(group);
+    }
+
+    private void order(long id, long organizationId, String status, double total, double labor, double parts,
+                       String technician, int daysAgo) {
+        kpiDirtyDays.mark(organizationId, LocalDate.now().minusDays(daysAgo));
+        jdbcTemplate.update("INSERT INTO service_orders (id, organization_id, order_number, client_id, status, " +
+                        "total_cost, labor_cost, parts_cost, technician_name, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, organizationId, "OS-REL-" + id, organizationId == ORG ? 9301 : 9302, status, total, labor, parts,
+                technician, Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo)));
+    }
+
+    private void user(long id, long organizationId, String name, String role) {
+        jdbcTemplate.update("INSERT INTO users (id, organization_id, name, email, password, role, mfa_enabled) " +
+                "VALUES (?, ?, ?, ?, 'x', ?, false)", id, organizationId, name, "tec" + id + "@example.com", role);
+    }
+
+    private void feedback(long id, long organizationId, long clientId, int rating) {
+        kpiDirtyDays.mark(organizationId, LocalDate.now());
+        jdbcTemplate.update("INSERT INTO client_feedbacks (id, organization_id, client_id, rating, created_at) " +
+                "VALUES (?, ?, ?, ?, ?)", id, organizationId, clientId, rating, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.gomech.service;
+
+import com.gomech.context.OrganizationContext;
+import com.gomech.domain.InventoryItem;
+import com.gomech.domain.Part;
+import com.gomech.model.Organization;
+import com.gomech.repository.InventoryItemRepository;
+import com.gomech.repository.OrganizationRepository;
+import com.gomech.repository.PartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StockLedgerConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Part part;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setup() {
+        Organization organization = organizationRepository.findById(1L).orElseThrow();
+        OrganizationContext.setOrganization(organization);
+
+        part = new Part();
+        part.setName("Pastilha de freio");
+        part.setSku("LEDGER-" + UUID.randomUUID());
+        part.setOrganization(organization);
+        part = partRepository.save(part);
+
+        item = new InventoryItem();
+        item.setPart(part);
+        item.setOrganization(organization);
+        item.setLocation("MAIN");
+        item = inventoryItemRepository.save(item);
+    }
+
+    @AfterEach
+    void cleanup() {
+        inventoryItemRepository.deleteById(item.getId());
+        partRepository.deleteById(part.getId());
+        OrganizationContext.clear();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        seedQuantity(500);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(10, () -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                        stockLedger.apply(item.getId(), 0, 1, "Estoque insuficiente para reserva"));
+                reserved.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        InventoryItem result = inventoryItemRepository.findById(item.getId()).orElseThrow();
+        assertThat(reserved.get()).isEqualTo(500);
+        assertThat(rejected.get()).isEqualTo(THREADS * 10 - 500);
+        assertThat(result.getQuantity()).isEqualTo(500);
+        assertThat(result.getReservedQuantity()).isEqualTo(500);
+    }
+
+    @Test
+    void concurrentEntriesAndConsumptionsLoseNoUpdate() throws Exception {
+        runConcurrently(20, () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> stockLedger.apply(item.getId(), 3, 0, "Entrada inválida"));
+            transaction.executeWithoutResult(status -> stockLedger.apply(item.getId(), -1, 0, "Estoque insuficiente"));
+        });
+
+        InventoryItem result = inventoryItemRepository.findById(item.getId()).orElseThrow();
+        assertThat(result.getQuantity()).isEqualTo(THREADS * 20 * 2);
+        assertThat(result.getVersion()).isEqualTo(THREADS * 20 * 2L);
+    }
+
+    private void seedQuantity(int quantity) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                stockLedger.apply(item.getId(), quantity, 0, "Saldo inicial inválido"));
+    }
+
+    private void runConcurrently(int iterations, Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        operation.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
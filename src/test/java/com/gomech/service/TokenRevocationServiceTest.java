@@ -0,0 +1,63 @@
+package com.gomech.service;
+
+import com.gomech.repository.RefreshTokenRepository;
+import com.gomech.repository.RevokedAccessTokenRepository;
+import com.gomech.util.BloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Test
+    void refreshTokenRegisteredWhileFilterIsSwappedIsNotLost() throws InterruptedException {
+        TokenRevocationService service = new TokenRevocationService(refreshTokenRepository,
+                revokedAccessTokenRepository, new SimpleMeterRegistry(), true, 1_000, 0.001);
+        CountDownLatch registering = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+
+        // A reconstrução lê o banco antes do commit do novo token e só conclui a troca depois que o registro
+        // já escreveu no filtro antigo
+        when(refreshTokenRepository.findActiveTokenHashes(any())).thenAnswer(invocation -> {
+            registering.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        BloomFilter current = spy((BloomFilter) ReflectionTestUtils.getField(service, "validRefreshHashes"));
+        doAnswer(invocation -> {
+            registering.countDown();
+            rebuilt.await(500, TimeUnit.MILLISECONDS);
+            return invocation.callRealMethod();
+        }).when(current).put(anyString());
+        ReflectionTestUtils.setField(service, "validRefreshHashes", current);
+
+        Thread rebuild = Thread.ofPlatform().start(() -> {
+            service.rebuild();
+            rebuilt.countDown();
+        });
+        service.registerRefreshToken("refresh-novo");
+        rebuild.join();
+
+        assertThat(service.mightBeValidRefreshToken("refresh-novo")).isTrue();
+    }
+}
@@ -0,0 +1,32 @@
+package com.gomech.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MerkleTreeTest {
+
+    @Test
+    void everyLeafProofRecomputesTheRootAndTamperingIsDetected() {
+        for (int size : new int[]{1, 2, 3, 7, 16, 33}) {
+            List<String> leaves = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                leaves.add("hash-" + i);
+            }
+            MerkleTree tree = MerkleTree.build(leaves);
+
+            for (int i = 0; i < size; i++) {
+                String proof = tree.proof(i);
+                assertThat(MerkleTree.verify(leaves.get(i), proof, tree.root())).isTrue();
+                assertThat(MerkleTree.verify("hash-adulterado", proof, tree.root())).isFalse();
+            }
+        }
+
+        MerkleTree tree = MerkleTree.build(List.of("a", "b", "c", "d"));
+        String swappedSides = tree.proof(0).replace("R:", "L:");
+        assertThat(MerkleTree.verify("a", swappedSides, tree.root())).isFalse();
+    }
+}
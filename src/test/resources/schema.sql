@@ -1,5 +1,17 @@
+DROP TABLE IF EXISTS analytics_insight_snapshots;
+DROP TABLE IF EXISTS report_jobs;
+DROP TABLE IF EXISTS kpi_rollup_dirty_days;
+DROP TABLE IF EXISTS kpi_daily_rollups;
+DROP TABLE IF EXISTS import_job_errors;
+DROP TABLE IF EXISTS import_jobs;
 DROP TABLE IF EXISTS audit_events;
+DROP TABLE IF EXISTS audit_anchors;
+DROP TABLE IF EXISTS audit_chain_heads;
+DROP TABLE IF EXISTS audit_chain_checkpoints;
+DROP TABLE IF EXISTS audit_chain_archived_links;
+DROP TABLE IF EXISTS revoked_access_tokens;
 DROP TABLE IF EXISTS refresh_tokens;
+DROP TABLE IF EXISTS client_feedbacks;
 DROP TABLE IF EXISTS users;
 DROP TABLE IF EXISTS inventory_movements;
 DROP TABLE IF EXISTS inventory_items;
@@ -9,6 +21,21 @@ DROP TABLE IF EXISTS parts;
 DROP TABLE IF EXISTS vehicles;
 DROP TABLE IF EXISTS clients;
 DROP TABLE IF EXISTS organizations;
+DROP SEQUENCE IF EXISTS clients_seq;
+DROP SEQUENCE IF EXISTS vehicles_seq;
+DROP SEQUENCE IF EXISTS service_orders_seq;
+DROP SEQUENCE IF EXISTS service_items_seq;
+DROP SEQUENCE IF EXISTS parts_seq;
+DROP SEQUENCE IF EXISTS inventory_items_seq;
+DROP SEQUENCE IF EXISTS inventory_movements_seq;
+
+CREATE SEQUENCE clients_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE vehicles_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE service_orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE service_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE parts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE inventory_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE inventory_movements_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE organizations (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -25,7 +52,7 @@ CREATE TABLE organizations (
 );
 
 CREATE TABLE clients (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR clients_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     name VARCHAR(255),
     email VARCHAR(255),
@@ -40,7 +67,7 @@ CREATE TABLE clients (
 );
 
 CREATE TABLE vehicles (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR vehicles_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     client_id BIGINT,
     license_plate VARCHAR(20),
@@ -58,7 +85,7 @@ CREATE TABLE vehicles (
 );
 
 CREATE TABLE parts (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR parts_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     name VARCHAR(150) NOT NULL,
     sku VARCHAR(100) NOT NULL,
@@ -73,7 +100,7 @@ CREATE TABLE parts (
 );
 
 CREATE TABLE service_orders (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR service_orders_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     order_number VARCHAR(50) NOT NULL,
     vehicle_id BIGINT,
@@ -100,7 +127,7 @@ CREATE TABLE service_orders (
 );
 
 CREATE TABLE service_items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR service_items_seq PRIMARY KEY,
     service_order_id BIGINT NOT NULL,
     description VARCHAR(500) NOT NULL,
     part_id BIGINT,
@@ -121,7 +148,7 @@ CREATE TABLE service_items (
 );
 
 CREATE TABLE inventory_items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR inventory_items_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     part_id BIGINT NOT NULL,
     location VARCHAR(100) NOT NULL,
@@ -130,6 +157,7 @@ CREATE TABLE inventory_items (
     minimum_quantity INTEGER NOT NULL,
     unit_cost NUMERIC(10,2),
     sale_price NUMERIC(10,2),
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP,
     updated_at TIMESTAMP,
     CONSTRAINT fk_inventory_items_part FOREIGN KEY (part_id) REFERENCES parts(id),
@@ -137,7 +165,7 @@ CREATE TABLE inventory_items (
 );
 
 CREATE TABLE inventory_movements (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR inventory_movements_seq PRIMARY KEY,
     organization_id BIGINT NOT NULL DEFAULT 1,
     inventory_item_id BIGINT NOT NULL,
     part_id BIGINT NOT NULL,
@@ -171,6 +199,27 @@ CREATE TABLE users (
     CONSTRAINT fk_users_organization FOREIGN KEY (organization_id) REFERENCES organizations(id)
 );
 
+CREATE TABLE client_feedbacks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL DEFAULT 1,
+    client_id BIGINT NOT NULL,
+    service_order_id BIGINT,
+    rating INTEGER,
+    nps_score INTEGER,
+    feedback_text TEXT,
+    sentiment VARCHAR(20),
+    sentiment_score DOUBLE PRECISION,
+    feedback_type VARCHAR(20),
+    source VARCHAR(50),
+    resolved BOOLEAN,
+    resolution_notes TEXT,
+    resolved_by VARCHAR(255),
+    resolved_at TIMESTAMP,
+    created_at TIMESTAMP,
+    CONSTRAINT fk_client_feedbacks_client FOREIGN KEY (client_id) REFERENCES clients(id),
+    CONSTRAINT fk_client_feedbacks_organization FOREIGN KEY (organization_id) REFERENCES organizations(id)
+);
+
 CREATE TABLE refresh_tokens (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     user_id BIGINT NOT NULL,
@@ -182,6 +231,49 @@ CREATE TABLE refresh_tokens (
     CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(id)
 );
 
+CREATE TABLE revoked_access_tokens (
+    jti VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE audit_anchors (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    merkle_root VARCHAR(64) NOT NULL,
+    leaf_count INT NOT NULL,
+    first_event_id BIGINT NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    transaction_hash VARCHAR(128),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    anchored_at TIMESTAMP
+);
+
+CREATE TABLE audit_chain_heads (
+    organization_key BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    last_hash VARCHAR(64) NOT NULL
+);
+
+CREATE TABLE audit_chain_checkpoints (
+    organization_key BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    last_hash VARCHAR(64) NOT NULL,
+    verified_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE audit_chain_archived_links (
+    organization_key BIGINT NOT NULL,
+    chain_seq BIGINT NOT NULL,
+    prev_hash VARCHAR(64) NOT NULL,
+    chain_hash VARCHAR(64) NOT NULL,
+    event_hash VARCHAR(128) NOT NULL,
+    PRIMARY KEY (organization_key, chain_seq)
+);
+
 CREATE TABLE audit_events (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     organization_id BIGINT,
@@ -195,10 +287,96 @@ CREATE TABLE audit_events (
     occurred_at TIMESTAMP NOT NULL,
     event_hash VARCHAR(128) NOT NULL,
     blockchain_reference VARCHAR(128),
+    chain_seq BIGINT,
+    prev_hash VARCHAR(64),
+    chain_hash VARCHAR(64),
+    anchor_id BIGINT,
+    merkle_leaf_index INT,
+    merkle_proof TEXT,
     created_at TIMESTAMP NOT NULL,
     CONSTRAINT fk_audit_events_organization FOREIGN KEY (organization_id) REFERENCES organizations(id)
 );
 
+CREATE TABLE import_jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT,
+    entity_type VARCHAR(40) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_checksum VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    rows_imported BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    last_committed_row BIGINT NOT NULL DEFAULT 0,
+    resumed_from_row BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500),
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    CONSTRAINT fk_import_jobs_organization FOREIGN KEY (organization_id) REFERENCES organizations(id)
+);
+
+CREATE TABLE import_job_errors (
+    job_id BIGINT NOT NULL,
+    line_number BIGINT NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    PRIMARY KEY (job_id, line_number),
+    CONSTRAINT fk_import_job_errors_job FOREIGN KEY (job_id) REFERENCES import_jobs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE kpi_daily_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    service_type VARCHAR(40) NOT NULL,
+    orders_opened BIGINT NOT NULL DEFAULT 0,
+    orders_finished BIGINT NOT NULL DEFAULT 0,
+    orders_cancelled BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14,2) NOT NULL DEFAULT 0,
+    labor_cost NUMERIC(14,2) NOT NULL DEFAULT 0,
+    parts_cost NUMERIC(14,2) NOT NULL DEFAULT 0,
+    completion_seconds BIGINT NOT NULL DEFAULT 0,
+    completed_with_time BIGINT NOT NULL DEFAULT 0,
+    nps_responses BIGINT NOT NULL DEFAULT 0,
+    nps_promoters BIGINT NOT NULL DEFAULT 0,
+    nps_detractors BIGINT NOT NULL DEFAULT 0,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_kpi_daily_rollups_org_date_type UNIQUE (organization_id, rollup_date, service_type),
+    CONSTRAINT fk_kpi_daily_rollups_organization FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE kpi_rollup_dirty_days (
+    organization_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    marked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (organization_id, rollup_date),
+    CONSTRAINT fk_kpi_rollup_dirty_days_organization FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE report_jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    report_type VARCHAR(40) NOT NULL,
+    period_days INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    result_json TEXT,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_report_jobs_organization FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE analytics_insight_snapshots (
+    organization_id BIGINT PRIMARY KEY,
+    insights_json TEXT NOT NULL,
+    computed_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_analytics_insight_snapshots_organization FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+);
+
 INSERT INTO organizations (id, name, slug, active) VALUES (1, 'Default Org', 'default-org', true);
 INSERT INTO users (id, organization_id, name, email, password, role, mfa_enabled)
 VALUES (1, 1, 'Test Admin', 'admin@example.com', '{noop}password', 'ADMIN', false);